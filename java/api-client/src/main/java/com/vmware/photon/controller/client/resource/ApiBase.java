@@ -13,6 +13,7 @@
 
 package com.vmware.photon.controller.client.resource;
 
+import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.Task;
 import com.vmware.photon.controller.client.RestClient;
 
@@ -27,6 +28,8 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -213,4 +216,75 @@ public abstract class ApiBase {
         }
     );
   }
+
+  /**
+   * Gets all the items of a paginated list, following nextPageLink until the last page.
+   *
+   * @param path
+   * @param tr
+   * @return
+   * @throws IOException
+   */
+  public final <T> ResourceList<T> getResourceList(
+      final String path,
+      final TypeReference<ResourceList<T>> tr) throws IOException {
+    List<T> items = new ArrayList<>();
+    String pagePath = path;
+    do {
+      HttpResponse httpResponse = this.restClient.perform(RestClient.Method.GET, pagePath, null);
+      this.restClient.checkResponse(httpResponse, HttpStatus.SC_OK);
+
+      ResourceList<T> page = this.restClient.parseHttpResponse(httpResponse, tr);
+      items.addAll(page.getItems());
+      pagePath = page.getNextPageLink();
+    } while (pagePath != null);
+
+    return new ResourceList<>(items);
+  }
+
+  /**
+   * Gets all the items of a paginated list as async, following nextPageLink until the last page.
+   *
+   * @param path
+   * @param responseCallback
+   * @param tr
+   * @throws IOException
+   */
+  public final <T> void getResourceListAsync(
+      final String path,
+      final FutureCallback<ResourceList<T>> responseCallback,
+      final TypeReference<ResourceList<T>> tr) throws IOException {
+    getResourceListPageAsync(path, new ArrayList<T>(), responseCallback, tr);
+  }
+
+  private <T> void getResourceListPageAsync(
+      final String path,
+      final List<T> items,
+      final FutureCallback<ResourceList<T>> responseCallback,
+      final TypeReference<ResourceList<T>> tr) throws IOException {
+    getObjectByPathAsync(
+        path,
+        new FutureCallback<ResourceList<T>>() {
+          @Override
+          public void onSuccess(ResourceList<T> page) {
+            items.addAll(page.getItems());
+            if (page.getNextPageLink() == null) {
+              responseCallback.onSuccess(new ResourceList<>(items));
+              return;
+            }
+
+            try {
+              getResourceListPageAsync(page.getNextPageLink(), items, responseCallback, tr);
+            } catch (Throwable t) {
+              responseCallback.onFailure(t);
+            }
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            responseCallback.onFailure(t);
+          }
+        },
+        tr);
+  }
 }
@@ -76,14 +76,8 @@ public class FlavorApi extends ApiBase {
    * @throws IOException
    */
   public ResourceList<Flavor> listAll() throws IOException {
-    HttpResponse httpResponse = this.restClient.perform(RestClient.Method.GET, getBasePath(), null);
-    this.restClient.checkResponse(httpResponse, HttpStatus.SC_OK);
-
-    return this.restClient.parseHttpResponse(
-        httpResponse,
-        new TypeReference<ResourceList<Flavor>>() {
-        }
-    );
+    return getResourceList(getBasePath(), new TypeReference<ResourceList<Flavor>>() {
+    });
   }
 
   /**
@@ -93,7 +87,7 @@ public class FlavorApi extends ApiBase {
    * @throws IOException
    */
   public void listAllAsync(final FutureCallback<ResourceList<Flavor>> responseCallback) throws IOException {
-    getObjectByPathAsync(getBasePath(), responseCallback, new TypeReference<ResourceList<Flavor>>() {
+    getResourceListAsync(getBasePath(), responseCallback, new TypeReference<ResourceList<Flavor>>() {
     });
   }
 
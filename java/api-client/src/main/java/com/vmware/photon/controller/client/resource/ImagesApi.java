@@ -103,14 +103,8 @@ public class ImagesApi extends ApiBase {
   public ResourceList<Image> getImages() throws IOException {
     String path = getBasePath();
 
-    HttpResponse httpResponse = this.restClient.perform(RestClient.Method.GET, path, null);
-    this.restClient.checkResponse(httpResponse, HttpStatus.SC_OK);
-
-    return this.restClient.parseHttpResponse(
-        httpResponse,
-        new TypeReference<ResourceList<Image>>() {
-        }
-    );
+    return getResourceList(path, new TypeReference<ResourceList<Image>>() {
+    });
   }
 
   /**
@@ -120,7 +114,7 @@ public class ImagesApi extends ApiBase {
    * @throws IOException
    */
   public void getImagesAsync(final FutureCallback<ResourceList<Image>> responseCallback) throws IOException {
-    getObjectByPathAsync(getBasePath(), responseCallback, new TypeReference<ResourceList<Image>>() {
+    getResourceListAsync(getBasePath(), responseCallback, new TypeReference<ResourceList<Image>>() {
     });
   }
 
@@ -189,14 +189,8 @@ public class ProjectApi extends ApiBase {
   public ResourceList<PersistentDisk> getDisksInProject(String projectId) throws IOException {
     String path = String.format("%s/%s/disks", getBasePath(), projectId);
 
-    HttpResponse httpResponse = this.restClient.perform(RestClient.Method.GET, path, null);
-    this.restClient.checkResponse(httpResponse, HttpStatus.SC_OK);
-
-    return this.restClient.parseHttpResponse(
-        httpResponse,
-        new TypeReference<ResourceList<PersistentDisk>>() {
-        }
-    );
+    return getResourceList(path, new TypeReference<ResourceList<PersistentDisk>>() {
+    });
   }
 
   /**
@@ -211,7 +205,7 @@ public class ProjectApi extends ApiBase {
       throws IOException {
     final String path = String.format("%s/%s/disks", getBasePath(), projectId);
 
-    getObjectByPathAsync(path, responseCallback, new TypeReference<ResourceList<PersistentDisk>>() {
+    getResourceListAsync(path, responseCallback, new TypeReference<ResourceList<PersistentDisk>>() {
     });
   }
 
@@ -261,14 +255,8 @@ public class ProjectApi extends ApiBase {
   public ResourceList<FlavoredCompact> getVmsInProject(String projectId) throws IOException {
     String path = String.format("%s/%s/vms", getBasePath(), projectId);
 
-    HttpResponse httpResponse = this.restClient.perform(RestClient.Method.GET, path, null);
-    this.restClient.checkResponse(httpResponse, HttpStatus.SC_OK);
-
-    return this.restClient.parseHttpResponse(
-        httpResponse,
-        new TypeReference<ResourceList<FlavoredCompact>>() {
-        }
-    );
+    return getResourceList(path, new TypeReference<ResourceList<FlavoredCompact>>() {
+    });
   }
 
   /**
@@ -284,7 +272,7 @@ public class ProjectApi extends ApiBase {
       IOException {
     final String path = String.format("%s/%s/vms", getBasePath(), projectId);
 
-    getObjectByPathAsync(path, responseCallback, new TypeReference<ResourceList<FlavoredCompact>>() {
+    getResourceListAsync(path, responseCallback, new TypeReference<ResourceList<FlavoredCompact>>() {
     });
   }
 
@@ -284,14 +284,8 @@ public class TenantsApi extends ApiBase {
   public ResourceList<Project> getProjects(String tenantId) throws IOException {
     String path = String.format("%s/%s/projects", getBasePath(), tenantId);
 
-    HttpResponse httpResponse = this.restClient.perform(RestClient.Method.GET, path, null);
-    this.restClient.checkResponse(httpResponse, HttpStatus.SC_OK);
-
-    return this.restClient.parseHttpResponse(
-        httpResponse,
-        new TypeReference<ResourceList<Project>>() {
-        }
-    );
+    return getResourceList(path, new TypeReference<ResourceList<Project>>() {
+    });
   }
 
   /**
@@ -305,7 +299,7 @@ public class TenantsApi extends ApiBase {
       throws IOException {
     String path = String.format("%s/%s/projects", getBasePath(), tenantId);
 
-    getObjectByPathAsync(path, responseCallback, new TypeReference<ResourceList<Project>>() {
+    getResourceListAsync(path, responseCallback, new TypeReference<ResourceList<Project>>() {
     });
   }
 }
@@ -15,7 +15,9 @@ package com.vmware.photon.controller.client.resource;
 
 import com.vmware.photon.controller.client.RestClient;
 
+import org.apache.commons.lang3.concurrent.ConcurrentUtils;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpUriRequest;
@@ -32,6 +34,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -112,6 +116,44 @@ public class ApiTestBase {
         );
   }
 
+  /**
+   * Sets up mocks that answer each request with the serialized response registered for its path, so that
+   * pages of a list can be served through their page links.
+   *
+   * @param serializedResponses serialized responses keyed by the request path and query
+   * @throws IOException
+   */
+  public final void setupPagedMocks(final Map<String, String> serializedResponses) throws IOException {
+    this.asyncHttpClient = mock(CloseableHttpAsyncClient.class);
+    this.httpClient = mock(HttpClient.class);
+    this.restClient = new RestClient("http://1.1.1.1", this.asyncHttpClient, this.httpClient);
+
+    when(this.asyncHttpClient.execute(any(HttpUriRequest.class),
+        any(BasicHttpContext.class),
+        any(FutureCallback.class)))
+        .thenAnswer(
+            new Answer<Object>() {
+              @Override
+              public Object answer(InvocationOnMock invocation) throws Throwable {
+                URI uri = ((HttpUriRequest) invocation.getArguments()[0]).getURI();
+                String path = uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+
+                HttpResponse httpResponse = mock(HttpResponse.class);
+                StatusLine statusLine = mock(StatusLine.class);
+                when(httpResponse.getStatusLine()).thenReturn(statusLine);
+                when(statusLine.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+                when(httpResponse.getEntity()).thenReturn(
+                    new StringEntity(serializedResponses.get(path), ContentType.APPLICATION_JSON));
+
+                if (invocation.getArguments()[2] != null) {
+                  ((FutureCallback<HttpResponse>) invocation.getArguments()[2]).completed(httpResponse);
+                }
+                return ConcurrentUtils.constantFuture(httpResponse);
+              }
+            }
+        );
+  }
+
   public final void setupMocksToThrow(final Exception exceptionToThrow) throws IOException {
     this.asyncHttpClient = mock(CloseableHttpAsyncClient.class);
     this.httpClient = mock(HttpClient.class);
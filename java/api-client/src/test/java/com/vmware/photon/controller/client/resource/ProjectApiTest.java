@@ -24,6 +24,7 @@ import com.vmware.photon.controller.api.VmCreateSpec;
 import com.vmware.photon.controller.api.base.FlavoredCompact;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.FutureCallback;
 import org.apache.http.HttpStatus;
 import org.testng.annotations.Test;
@@ -37,8 +38,10 @@ import javax.annotation.Nullable;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -429,6 +432,41 @@ public class ProjectApiTest extends ApiTestBase {
     assertThat(latch.await(COUNTDOWNLATCH_AWAIT_TIMEOUT, TimeUnit.SECONDS), is(true));
   }
 
+  @Test
+  public void testGetVmsFollowsPageLinks() throws IOException {
+    setupVmPages();
+
+    ProjectApi projectApi = new ProjectApi(restClient);
+
+    ResourceList<FlavoredCompact> response = projectApi.getVmsInProject("foo");
+    assertEquals(getIds(response), Arrays.asList("vm1", "vm2", "vm3"));
+    assertEquals(response.getNextPageLink(), null);
+  }
+
+  @Test
+  public void testGetVmsAsyncFollowsPageLinks() throws IOException, InterruptedException {
+    setupVmPages();
+
+    ProjectApi projectApi = new ProjectApi(restClient);
+    final CountDownLatch latch = new CountDownLatch(1);
+
+    projectApi.getVmsInProjectAsync("foo", new FutureCallback<ResourceList<FlavoredCompact>>() {
+      @Override
+      public void onSuccess(@Nullable ResourceList<FlavoredCompact> result) {
+        assertEquals(getIds(result), Arrays.asList("vm1", "vm2", "vm3"));
+        latch.countDown();
+      }
+
+      @Override
+      public void onFailure(Throwable t) {
+        fail(t.toString());
+        latch.countDown();
+      }
+    });
+
+    assertThat(latch.await(COUNTDOWNLATCH_AWAIT_TIMEOUT, TimeUnit.SECONDS), is(true));
+  }
+
   @Test
   public void testCreateCluster() throws IOException {
     Task responseTask = new Task();
@@ -542,4 +580,36 @@ public class ProjectApiTest extends ApiTestBase {
 
     assertThat(latch.await(COUNTDOWNLATCH_AWAIT_TIMEOUT, TimeUnit.SECONDS), is(true));
   }
+
+  private void setupVmPages() throws IOException {
+    FlavoredCompact vm1 = new FlavoredCompact();
+    vm1.setId("vm1");
+    vm1.setKind("vm");
+
+    FlavoredCompact vm2 = new FlavoredCompact();
+    vm2.setId("vm2");
+    vm2.setKind("vm");
+
+    FlavoredCompact vm3 = new FlavoredCompact();
+    vm3.setId("vm3");
+    vm3.setKind("vm");
+
+    String firstPageLink = "/projects/foo/vms";
+    String secondPageLink = "/projects/foo/vms?pageLink=page2";
+
+    ObjectMapper mapper = new ObjectMapper();
+    setupPagedMocks(ImmutableMap.of(
+        firstPageLink,
+        mapper.writeValueAsString(new ResourceList<>(Arrays.asList(vm1, vm2), secondPageLink, null)),
+        secondPageLink,
+        mapper.writeValueAsString(new ResourceList<>(Arrays.asList(vm3), null, firstPageLink))));
+  }
+
+  private static List<String> getIds(ResourceList<FlavoredCompact> vms) {
+    List<String> ids = new ArrayList<>();
+    for (FlavoredCompact vm : vms.getItems()) {
+      ids.add(vm.getId());
+    }
+    return ids;
+  }
 }
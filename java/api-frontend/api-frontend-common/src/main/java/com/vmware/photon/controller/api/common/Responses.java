@@ -87,8 +87,16 @@ public class Responses {
                                                                        ContainerRequest request,
                                                                        String selfLinkTemplate) {
     checkNotNull(entities);
-    for (T entity : entities.getItems()) {
-      setEntitySelfLink(entity, request, selfLinkTemplate);
+    if (entities instanceof StreamingResourceList) {
+      // the items are only fetched while the response is written, so the self links are set right before each item
+      // gets serialized
+      checkSelfLinkArguments(request, selfLinkTemplate);
+      ((StreamingResourceList<T>) entities).setItemDecorator(
+          entity -> setEntitySelfLink(entity, request, selfLinkTemplate));
+    } else {
+      for (T entity : entities.getItems()) {
+        setEntitySelfLink(entity, request, selfLinkTemplate);
+      }
     }
 
     return generateResourceListResponse(responseStatus, entities);
@@ -200,6 +208,12 @@ public class Responses {
     }
   }
 
+  private static void checkSelfLinkArguments(ContainerRequest request, String selfLinkTemplate) {
+    if ((request == null) != StringUtils.isBlank(selfLinkTemplate)) {
+      throw new IllegalArgumentException("Both request and selfLinkTemplate need to be provided!");
+    }
+  }
+
   private static void setEntitySelfLink(Base entity, HttpServletRequest request, String selfLinkTemplate) {
     checkNotNull(entity);
     if (request != null && StringUtils.isNotBlank(selfLinkTemplate)) {
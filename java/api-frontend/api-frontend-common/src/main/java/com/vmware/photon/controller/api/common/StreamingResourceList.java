@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.api.common;
+
+import com.vmware.photon.controller.api.ResourceList;
+import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Resource list that is serialized one backend page at a time.
+ * <p/>
+ * The items of all pages are written as a single "items" array while the response is being sent, so only the page
+ * that is being written is held in memory. The JSON has the same shape as a complete {@link ResourceList} without
+ * page links.
+ *
+ * @param <T> resource type
+ */
+public class StreamingResourceList<T> extends ResourceList<T> implements JsonSerializable {
+
+  private final ResourceList<T> firstPage;
+  private final PageFetcher<T> pageFetcher;
+  private Consumer<T> itemDecorator = item -> {
+  };
+
+  public StreamingResourceList(ResourceList<T> firstPage, PageFetcher<T> pageFetcher) {
+    this.firstPage = checkNotNull(firstPage);
+    this.pageFetcher = checkNotNull(pageFetcher);
+  }
+
+  /**
+   * Fetches all the pages and returns their items, only meant for callers that need the whole list in memory.
+   */
+  @Override
+  public List<T> getItems() {
+    List<T> items = new ArrayList<>();
+    try {
+      forEachItem(items::add);
+    } catch (ExternalException e) {
+      throw new RuntimeException(e);
+    }
+    return items;
+  }
+
+  @Override
+  public void setItems(List<T> items) {
+    throw new UnsupportedOperationException("Items of a streaming resource list are fetched from its pages");
+  }
+
+  @Override
+  public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+    generator.writeStartObject();
+    generator.writeArrayFieldStart("items");
+    ResourceList<T> page = firstPage;
+    while (true) {
+      for (T item : page.getItems()) {
+        itemDecorator.accept(item);
+        provider.defaultSerializeValue(item, generator);
+      }
+
+      // hand the page to the client before fetching the next one
+      generator.flush();
+      if (page.getNextPageLink() == null) {
+        break;
+      }
+
+      page = fetchPage(page.getNextPageLink());
+    }
+    generator.writeEndArray();
+    generator.writeNullField("nextPageLink");
+    generator.writeNullField("previousPageLink");
+    generator.writeEndObject();
+  }
+
+  @Override
+  public void serializeWithType(JsonGenerator generator, SerializerProvider provider, TypeSerializer typeSerializer)
+      throws IOException {
+    serialize(generator, provider);
+  }
+
+  /**
+   * Sets the callback applied to each item right before it is serialized.
+   */
+  void setItemDecorator(Consumer<T> itemDecorator) {
+    this.itemDecorator = checkNotNull(itemDecorator);
+  }
+
+  private void forEachItem(Consumer<T> consumer) throws ExternalException {
+    ResourceList<T> page = firstPage;
+    while (true) {
+      page.getItems().forEach(consumer);
+      if (page.getNextPageLink() == null) {
+        return;
+      }
+
+      page = pageFetcher.fetch(page.getNextPageLink());
+    }
+  }
+
+  private ResourceList<T> fetchPage(String pageLink) throws IOException {
+    try {
+      return pageFetcher.fetch(pageLink);
+    } catch (ExternalException e) {
+      throw new JsonMappingException("Failed to fetch page " + pageLink, e);
+    }
+  }
+
+  /**
+   * Fetches the page a backend page link points to.
+   *
+   * @param <T> resource type
+   */
+  public interface PageFetcher<T> {
+    ResourceList<T> fetch(String pageLink) throws ExternalException;
+  }
+}
@@ -24,6 +24,6 @@ public class OutOfThreadPoolWorkerException extends ExternalException {
 
   @Override
   public String getMessage() {
-    return "Unable to process request because system is currently busy.";
+    return "Unable to process request because system is currently busy. Please try again later.";
   }
 }
@@ -15,6 +15,8 @@ package com.vmware.photon.controller.api.common.filters;
 
 import com.vmware.photon.controller.api.common.RequestId;
 import com.vmware.photon.controller.common.logging.LoggingUtils;
+import com.vmware.photon.controller.common.tracing.Span;
+import com.vmware.photon.controller.common.tracing.Tracer;
 
 import com.google.inject.Inject;
 import org.apache.commons.lang3.time.StopWatch;
@@ -62,6 +64,7 @@ public class LoggingFilter implements Filter {
 
       LoggingUtils.setRequestId(requestId);
       logger.debug("Request: {} {}", httpRequest.getMethod(), httpRequest.getPathInfo());
+      Span span = Tracer.startSpan(httpRequest.getMethod() + " " + httpRequest.getPathInfo());
 
       StopWatch stopwatch = new StopWatch();
       stopwatch.start();
@@ -77,6 +80,7 @@ public class LoggingFilter implements Filter {
           logger.info(msg);
         }
 
+        span.tag("status", String.valueOf(httpResponse.getStatus())).finish();
         LoggingUtils.clearRequestId();
       }
     } else {
@@ -26,6 +26,8 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.ExceptionMapper;
 import javax.ws.rs.ext.Provider;
 
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * The logging exception exception mapper is designed to catch and process all exceptions that
  * occur during API operations but that are unexpected and therefore not handled by the specific
@@ -48,6 +50,12 @@ public class LoggingExceptionMapper implements ExceptionMapper<Throwable> {
           "Image replication type unsupported", null));
     }
 
+    if (e instanceof RejectedExecutionException && e.getCause() instanceof ExternalException) {
+      // the background task executor is saturated, report it as such instead of a server error
+      logger.warn("Request rejected", e);
+      return externalException((ExternalException) e.getCause());
+    }
+
     logger.error("Error handling a request", e);
     return serverError();
   }
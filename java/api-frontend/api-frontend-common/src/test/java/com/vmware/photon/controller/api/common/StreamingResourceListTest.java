@@ -0,0 +1,142 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.api.common;
+
+import com.vmware.photon.controller.api.ResourceList;
+import com.vmware.photon.controller.api.Vm;
+import com.vmware.photon.controller.api.common.exceptions.external.PageExpiredException;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import io.dropwizard.jackson.Jackson;
+import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link StreamingResourceList}.
+ */
+public class StreamingResourceListTest {
+
+  private static final int PAGE_SIZE = 500;
+
+  private final ObjectMapper mapper = Jackson.newObjectMapper();
+
+  @Test
+  public void testSerializesLikeResourceList() throws Throwable {
+    List<Vm> vms = createVms(0, 5);
+    ResourceList<Vm> firstPage = new ResourceList<>(vms.subList(0, 2), "page-2", null);
+    ResourceList<Vm> secondPage = new ResourceList<>(vms.subList(2, 4), "page-3", "page-1");
+    ResourceList<Vm> thirdPage = new ResourceList<>(vms.subList(4, 5), null, "page-2");
+    StreamingResourceList<Vm> streamingList = new StreamingResourceList<>(firstPage,
+        pageLink -> pageLink.equals("page-2") ? secondPage : thirdPage);
+
+    assertThat(mapper.readTree(mapper.writeValueAsString(streamingList)),
+        is(mapper.readTree(mapper.writeValueAsString(new ResourceList<>(vms)))));
+    assertThat(streamingList.getItems(), is(vms));
+  }
+
+  @Test
+  public void testSerializesEmptyList() throws Throwable {
+    StreamingResourceList<Vm> streamingList = new StreamingResourceList<>(new ResourceList<>(new ArrayList<Vm>()),
+        pageLink -> {
+          throw new IllegalStateException("no page should be fetched");
+        });
+
+    assertThat(mapper.readTree(mapper.writeValueAsString(streamingList)),
+        is(mapper.readTree(mapper.writeValueAsString(new ResourceList<>(ImmutableList.of())))));
+  }
+
+  /**
+   * Streams tens of thousands of VMs whose pages are only created when they are fetched. Each page has to be written
+   * out before the next one is fetched, so no more than one page of VMs is alive at any time.
+   */
+  @Test
+  public void testStreamsLargeList() throws Throwable {
+    int vmCount = 50000;
+    CountingOutputStream outputStream = new CountingOutputStream();
+    AtomicInteger fetchedPages = new AtomicInteger();
+    List<Long> bytesWrittenAtFetch = new ArrayList<>();
+
+    StreamingResourceList<Vm> streamingList = new StreamingResourceList<>(createPage(0, vmCount),
+        pageLink -> {
+          bytesWrittenAtFetch.add(outputStream.count);
+          fetchedPages.incrementAndGet();
+          return createPage(Integer.parseInt(pageLink), vmCount);
+        });
+    AtomicInteger serializedVms = new AtomicInteger();
+    streamingList.setItemDecorator(vm -> serializedVms.incrementAndGet());
+
+    mapper.writeValue(outputStream, streamingList);
+
+    assertThat(serializedVms.get(), is(vmCount));
+    assertThat(fetchedPages.get(), is(vmCount / PAGE_SIZE - 1));
+    for (int i = 1; i < bytesWrittenAtFetch.size(); i++) {
+      assertThat(bytesWrittenAtFetch.get(i), greaterThan(bytesWrittenAtFetch.get(i - 1)));
+    }
+    assertThat(bytesWrittenAtFetch.get(0), greaterThan(0L));
+  }
+
+  @Test(expectedExceptions = JsonMappingException.class)
+  public void testFailsWhenPageCannotBeFetched() throws Throwable {
+    ResourceList<Vm> firstPage = new ResourceList<>(createVms(0, 2), "page-2", null);
+    StreamingResourceList<Vm> streamingList = new StreamingResourceList<>(firstPage,
+        pageLink -> {
+          throw new PageExpiredException(pageLink);
+        });
+
+    mapper.writeValue(new ByteArrayOutputStream(), streamingList);
+  }
+
+  private static ResourceList<Vm> createPage(int start, int vmCount) {
+    int end = Math.min(start + PAGE_SIZE, vmCount);
+    return new ResourceList<>(createVms(start, end), end < vmCount ? Integer.toString(end) : null, null);
+  }
+
+  private static List<Vm> createVms(int start, int end) {
+    List<Vm> vms = new ArrayList<>(end - start);
+    for (int i = start; i < end; i++) {
+      Vm vm = new Vm();
+      vm.setId("vm-" + i);
+      vm.setName("vm-name-" + i);
+      vms.add(vm);
+    }
+    return vms;
+  }
+
+  /**
+   * Discards the written bytes and only keeps their count.
+   */
+  private static class CountingOutputStream extends OutputStream {
+    private long count;
+
+    @Override
+    public void write(int b) {
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      count += len;
+    }
+  }
+}
@@ -62,6 +62,7 @@ import com.vmware.photon.controller.apife.backends.ResourceTicketDcpBackend;
 import com.vmware.photon.controller.apife.backends.StepBackend;
 import com.vmware.photon.controller.apife.backends.TaskBackend;
 import com.vmware.photon.controller.apife.backends.TaskCommandExecutorService;
+import com.vmware.photon.controller.apife.backends.TaskCommandQueue;
 import com.vmware.photon.controller.apife.backends.TaskDcpBackend;
 import com.vmware.photon.controller.apife.backends.TenantBackend;
 import com.vmware.photon.controller.apife.backends.TenantDcpBackend;
@@ -75,10 +76,12 @@ import com.vmware.photon.controller.apife.commands.tasks.TaskCommandFactory;
 import com.vmware.photon.controller.apife.config.ApiFeConfiguration;
 import com.vmware.photon.controller.apife.config.AuthConfig;
 import com.vmware.photon.controller.apife.config.ImageConfig;
+import com.vmware.photon.controller.apife.config.ImageUploadTargetConfig;
 import com.vmware.photon.controller.apife.config.PaginationConfig;
 import com.vmware.photon.controller.apife.config.RootSchedulerConfig;
 import com.vmware.photon.controller.apife.config.StatusConfig;
 import com.vmware.photon.controller.apife.lib.ImageStore;
+import com.vmware.photon.controller.apife.lib.ImageUploadStagingArea;
 import com.vmware.photon.controller.apife.lib.LocalImageStore;
 import com.vmware.photon.controller.apife.lib.VsphereImageStore;
 import com.vmware.photon.controller.chairman.gen.Chairman;
@@ -120,8 +123,9 @@ import org.apache.curator.framework.CuratorFramework;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -184,13 +188,21 @@ public class ApiFeModule extends AbstractModule {
 
     int poolBufferSize =
         Math.max(configuration.getBackgroundWorkersQueueSize(), 1);
-    final ArrayBlockingQueue<Runnable> workQueue = new ArrayBlockingQueue<>(poolBufferSize);
+    final TaskCommandQueue workQueue =
+        new TaskCommandQueue(poolBufferSize, Math.max(configuration.getBackgroundWorkersQueueSizePerOwner(), 1));
     if (!DefaultMetricRegistry.REGISTRY.getGauges().containsKey(MetricRegistry.name(ApiFeService.class, "work-queue")
     )) {
       DefaultMetricRegistry.REGISTRY.register(MetricRegistry.name(ApiFeService.class, "work-queue"),
           (Gauge<Integer>) () -> workQueue.size());
     }
 
+    for (TaskCommandQueue.Lane lane : TaskCommandQueue.Lane.values()) {
+      String name = MetricRegistry.name(ApiFeService.class, "work-queue", lane.name().toLowerCase());
+      if (!DefaultMetricRegistry.REGISTRY.getGauges().containsKey(name)) {
+        DefaultMetricRegistry.REGISTRY.register(name, (Gauge<Integer>) () -> workQueue.size(lane));
+      }
+    }
+
     return new TaskCommandExecutorService(
         configuration.getBackgroundWorkers(),
         configuration.getBackgroundWorkers(),
@@ -216,6 +228,31 @@ public class ApiFeModule extends AbstractModule {
     return new LocalImageStore(config.getLocalStore(), config.getDatastore());
   }
 
+  @Provides
+  @Singleton
+  @ImageUploadTargets
+  public List<ImageStore> getImageUploadTargetStores(HostClientFactory hostClientFactory) {
+    ImageConfig config = this.configuration.getImage();
+    List<ImageStore> imageStores = new ArrayList<>();
+
+    for (ImageUploadTargetConfig uploadTarget : config.getUploadTargets()) {
+      if (config.useEsxStore()) {
+        imageStores.add(new VsphereImageStore(hostClientFactory, config.forUploadTarget(uploadTarget)));
+      } else {
+        imageStores.add(new LocalImageStore(config.getLocalStore(), uploadTarget.getDatastore()));
+      }
+    }
+
+    return imageStores;
+  }
+
+  @Provides
+  @Singleton
+  public ImageUploadStagingArea getImageUploadStagingArea() {
+    return new ImageUploadStagingArea(configuration.getImage().getUploadStagingDir(),
+        configuration.getRegistrationAddress());
+  }
+
   @Provides
   @Singleton
   public PaginationConfig getPaginationConfig() {
@@ -50,6 +50,7 @@ import com.vmware.photon.controller.apife.resources.HostTasksResource;
 import com.vmware.photon.controller.apife.resources.HostVmsResource;
 import com.vmware.photon.controller.apife.resources.ImageResource;
 import com.vmware.photon.controller.apife.resources.ImageTasksResource;
+import com.vmware.photon.controller.apife.resources.ImageUploadsResource;
 import com.vmware.photon.controller.apife.resources.ImagesResource;
 import com.vmware.photon.controller.apife.resources.NetworkPortGroupsSetResource;
 import com.vmware.photon.controller.apife.resources.NetworkResource;
@@ -86,6 +87,7 @@ import com.vmware.photon.controller.apife.resources.VmResource;
 import com.vmware.photon.controller.apife.resources.VmTagsResource;
 import com.vmware.photon.controller.apife.resources.VmTasksResource;
 import com.vmware.photon.controller.common.metrics.GraphiteConfig;
+import com.vmware.photon.controller.common.tracing.TracingConfig;
 import com.vmware.photon.controller.common.zookeeper.ServiceNode;
 import com.vmware.photon.controller.common.zookeeper.ServiceNodeFactory;
 import com.vmware.photon.controller.common.zookeeper.ServiceNodeUtils;
@@ -218,6 +220,11 @@ public class ApiFeService extends Application<ApiFeConfiguration> {
       graphite.enable();
     }
 
+    TracingConfig tracing = configuration.getTracing();
+    if (tracing != null) {
+      tracing.enable("api-fe");
+    }
+
     HttpConnectorFactory httpConnectorFactory = (HttpConnectorFactory) ((DefaultServerFactory) configuration
         .getServerFactory()).getApplicationConnectors().get(0);
     registerWithZookeeper(
@@ -263,6 +270,7 @@ public class ApiFeService extends Application<ApiFeConfiguration> {
     resources.add(ImageResource.class);
     resources.add(ImagesResource.class);
     resources.add(ImageTasksResource.class);
+    resources.add(ImageUploadsResource.class);
     resources.add(ProjectClustersResource.class);
     resources.add(ProjectDisksResource.class);
     resources.add(PortGroupResource.class);
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.auth;
+
+import com.vmware.identity.openidconnect.client.ResourceServerAccessToken;
+import com.vmware.photon.controller.common.metrics.DefaultMetricRegistry;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import static com.codahale.metrics.MetricRegistry.name;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Bounded cache of access tokens that already passed signature and claim validation.
+ * <p/>
+ * Entries are keyed by a SHA-256 hash of the raw JWT so that bearer tokens are not kept in memory, and are only
+ * returned while the token has not expired. Tokens without an expiration time are never cached. The cache must be
+ * flushed whenever the key used to validate the tokens changes.
+ */
+public class AccessTokenCache {
+
+  private final Cache<String, ResourceServerAccessToken> tokens;
+  private final Meter hits;
+  private final Meter misses;
+
+  public AccessTokenCache(int maximumSize) {
+    this(maximumSize, DefaultMetricRegistry.REGISTRY);
+  }
+
+  @VisibleForTesting
+  AccessTokenCache(int maximumSize, MetricRegistry registry) {
+    this.tokens = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .build();
+    this.hits = registry.meter(name(AccessTokenCache.class, "hits"));
+    this.misses = registry.meter(name(AccessTokenCache.class, "misses"));
+  }
+
+  /**
+   * Returns the validated token for the raw JWT, or null if it is not cached or has expired.
+   */
+  public ResourceServerAccessToken get(String jwtAccessToken) {
+    String key = hash(jwtAccessToken);
+    ResourceServerAccessToken token = tokens.getIfPresent(key);
+    if (token != null && isExpired(token)) {
+      tokens.invalidate(key);
+      token = null;
+    }
+
+    if (token == null) {
+      misses.mark();
+    } else {
+      hits.mark();
+    }
+
+    return token;
+  }
+
+  public void put(String jwtAccessToken, ResourceServerAccessToken token) {
+    if (token.getExpirationTime() == null || isExpired(token)) {
+      return;
+    }
+
+    tokens.put(hash(jwtAccessToken), token);
+  }
+
+  public void invalidateAll() {
+    tokens.invalidateAll();
+  }
+
+  @VisibleForTesting
+  long size() {
+    return tokens.size();
+  }
+
+  private static boolean isExpired(ResourceServerAccessToken token) {
+    Date expirationTime = token.getExpirationTime();
+    return expirationTime == null || !expirationTime.after(new Date());
+  }
+
+  private static String hash(String jwtAccessToken) {
+    return Hashing.sha256().hashString(jwtAccessToken, StandardCharsets.UTF_8).toString();
+  }
+}
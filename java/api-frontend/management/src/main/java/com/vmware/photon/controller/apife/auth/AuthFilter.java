@@ -56,6 +56,7 @@ public class AuthFilter implements ContainerRequestFilter {
   private String sharedSecret;
   private PolicyProvider policyProvider;
   private AuthTokenHandler tokenHandler;
+  private final AccessTokenCache tokenCache;
 
   @Inject
   public AuthFilter(AuthConfig config, AuthPolicyProvider provider) {
@@ -64,6 +65,7 @@ public class AuthFilter implements ContainerRequestFilter {
     this.tenant = config.getTenant();
     this.sharedSecret = config.getSharedSecret();
     this.policyProvider = provider;
+    this.tokenCache = new AccessTokenCache(config.getTokenCacheSize());
   }
 
   /**
@@ -95,6 +97,7 @@ public class AuthFilter implements ContainerRequestFilter {
   @VisibleForTesting
   protected void setTokenHandler(AuthTokenHandler handler) {
     this.tokenHandler = handler;
+    this.tokenCache.invalidateAll();
   }
 
   /**
@@ -153,15 +156,23 @@ public class AuthFilter implements ContainerRequestFilter {
   }
 
   /**
-   * Check resource access rights.
+   * Check resource access rights. Tokens that were already validated are served from the token cache
+   * until they expire.
    *
    * @param jwtAccessToken
    */
   private ResourceServerAccessToken parseAccessToken(String jwtAccessToken) throws ExternalException {
     this.initializeAuth();
 
+    ResourceServerAccessToken token = this.tokenCache.get(jwtAccessToken);
+    if (token != null) {
+      return token;
+    }
+
     try {
-      return this.tokenHandler.parseAccessToken(jwtAccessToken);
+      token = this.tokenHandler.parseAccessToken(jwtAccessToken);
+      this.tokenCache.put(jwtAccessToken, token);
+      return token;
     } catch (TokenValidationException ex) {
       switch (ex.getTokenValidationError()) {
         case EXPIRED_TOKEN:
@@ -185,6 +196,8 @@ public class AuthFilter implements ContainerRequestFilter {
         if (this.tokenHandler == null) {
           try {
             this.tokenHandler = new AuthOIDCClient(authServerAddress, authServerPort, tenant).getTokenHandler();
+            // Cached tokens were validated against the signing key of the previous handler.
+            this.tokenCache.invalidateAll();
           } catch (AuthException | URISyntaxException ex) {
             throw new ExternalException(
                 ErrorCode.AUTH_INITIALIZATION_FAILURE, "AuthTokenHandler initialization failed", null, ex);
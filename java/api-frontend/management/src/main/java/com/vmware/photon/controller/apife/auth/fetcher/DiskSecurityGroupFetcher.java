@@ -16,6 +16,7 @@ package com.vmware.photon.controller.apife.auth.fetcher;
 import com.vmware.photon.controller.api.PersistentDisk;
 import com.vmware.photon.controller.apife.auth.TransactionAuthorizationObject;
 import com.vmware.photon.controller.apife.backends.DiskBackend;
+import com.vmware.photon.controller.apife.entities.BaseDiskEntity;
 import com.vmware.photon.controller.apife.exceptions.external.DiskNotFoundException;
 
 import com.google.inject.Inject;
@@ -62,7 +63,7 @@ public class DiskSecurityGroupFetcher implements SecurityGroupFetcher {
 
     Set<String> securityGroups = new HashSet<>();
     try {
-      PersistentDisk disk = backend.toApiRepresentation(authorizationObject.getId());
+      BaseDiskEntity disk = backend.find(PersistentDisk.KIND, authorizationObject.getId());
       securityGroups = projectFetcher.fetchSecurityGroups(
           new TransactionAuthorizationObject(
               TransactionAuthorizationObject.Kind.PROJECT,
@@ -13,10 +13,11 @@
 
 package com.vmware.photon.controller.apife.auth.fetcher;
 
-import com.vmware.photon.controller.api.Project;
+import com.vmware.photon.controller.api.SecurityGroup;
 import com.vmware.photon.controller.apife.auth.TransactionAuthorizationObject;
 import com.vmware.photon.controller.apife.backends.ProjectBackend;
 import com.vmware.photon.controller.apife.exceptions.external.ProjectNotFoundException;
+import com.vmware.photon.controller.apife.utils.SecurityGroupUtils;
 
 import com.google.inject.Inject;
 import org.slf4j.Logger;
@@ -24,6 +25,7 @@ import org.slf4j.LoggerFactory;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -42,9 +44,15 @@ public class ProjectSecurityGroupFetcher implements SecurityGroupFetcher {
    */
   ProjectBackend backend;
 
+  /**
+   * Cache of the security groups already resolved for a project.
+   */
+  SecurityGroupCache cache;
+
   @Inject
-  public ProjectSecurityGroupFetcher(ProjectBackend backend) {
+  public ProjectSecurityGroupFetcher(ProjectBackend backend, SecurityGroupCache cache) {
     this.backend = backend;
+    this.cache = cache;
   }
 
   @Override
@@ -54,14 +62,15 @@ public class ProjectSecurityGroupFetcher implements SecurityGroupFetcher {
 
     Set<String> securityGroups = new HashSet<>();
     try {
-      Project project = backend.getApiRepresentation(authorizationObject.getId());
+      List<SecurityGroup> projectSecurityGroups = cache.getProjectSecurityGroups(authorizationObject.getId(),
+          id -> SecurityGroupUtils.toApiRepresentation(backend.findById(id).getSecurityGroups()));
       switch (authorizationObject.getStrategy()) {
         case SELF:
-          securityGroups = getAllSecurityGroups(project);
+          securityGroups = getAllSecurityGroups(projectSecurityGroups);
           break;
 
         case PARENT:
-          securityGroups = getInheritedSecurityGroups(project);
+          securityGroups = getInheritedSecurityGroups(projectSecurityGroups);
           break;
 
         default:
@@ -76,14 +85,14 @@ public class ProjectSecurityGroupFetcher implements SecurityGroupFetcher {
     return securityGroups;
   }
 
-  private Set<String> getAllSecurityGroups(Project project) {
-    return project.getSecurityGroups().stream()
+  private Set<String> getAllSecurityGroups(List<SecurityGroup> projectSecurityGroups) {
+    return projectSecurityGroups.stream()
         .map(g -> g.getName())
         .collect(Collectors.toSet());
   }
 
-  private Set<String> getInheritedSecurityGroups(Project project) {
-    return project.getSecurityGroups().stream()
+  private Set<String> getInheritedSecurityGroups(List<SecurityGroup> projectSecurityGroups) {
+    return projectSecurityGroups.stream()
         .filter(g -> g.isInherited())
         .map(g -> g.getName())
         .collect(Collectors.toSet());
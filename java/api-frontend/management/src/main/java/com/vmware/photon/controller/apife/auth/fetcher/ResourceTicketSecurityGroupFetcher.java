@@ -13,9 +13,9 @@
 
 package com.vmware.photon.controller.apife.auth.fetcher;
 
-import com.vmware.photon.controller.api.ResourceTicket;
 import com.vmware.photon.controller.apife.auth.TransactionAuthorizationObject;
 import com.vmware.photon.controller.apife.backends.ResourceTicketBackend;
+import com.vmware.photon.controller.apife.entities.ResourceTicketEntity;
 import com.vmware.photon.controller.apife.exceptions.external.ResourceTicketNotFoundException;
 
 import com.google.inject.Inject;
@@ -62,7 +62,7 @@ public class ResourceTicketSecurityGroupFetcher implements SecurityGroupFetcher
 
     Set<String> securityGroups = new HashSet<>();
     try {
-      ResourceTicket ticket = backend.getApiRepresentation(authorizationObject.getId());
+      ResourceTicketEntity ticket = backend.findById(authorizationObject.getId());
       securityGroups = tenantFetcher.fetchSecurityGroups(
           new TransactionAuthorizationObject(
               TransactionAuthorizationObject.Kind.TENANT,
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.auth.fetcher;
+
+import com.vmware.photon.controller.api.SecurityGroup;
+import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short lived cache of the security groups resolved for projects and tenants.
+ *
+ * Entries expire shortly after being loaded and are dropped explicitly whenever the
+ * security groups of a project or tenant are replaced. A load that overlaps such an
+ * invalidation may have read the replaced security groups, so its result is dropped too.
+ */
+@Singleton
+public class SecurityGroupCache {
+
+  /**
+   * Time after which a cached entry is reloaded from the backend.
+   */
+  public static final long EXPIRE_AFTER_WRITE_SECONDS = 30;
+
+  /**
+   * Security groups keyed by project id.
+   */
+  private final Entries projectSecurityGroups;
+
+  /**
+   * Security groups keyed by tenant id.
+   */
+  private final Entries tenantSecurityGroups;
+
+  @Inject
+  public SecurityGroupCache() {
+    this(Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  SecurityGroupCache(Ticker ticker) {
+    this.projectSecurityGroups = new Entries(ticker);
+    this.tenantSecurityGroups = new Entries(ticker);
+  }
+
+  public List<SecurityGroup> getProjectSecurityGroups(String projectId, Loader loader) throws ExternalException {
+    return projectSecurityGroups.get(projectId, loader);
+  }
+
+  public List<SecurityGroup> getTenantSecurityGroups(String tenantId, Loader loader) throws ExternalException {
+    return tenantSecurityGroups.get(tenantId, loader);
+  }
+
+  public void invalidateProject(String projectId) {
+    projectSecurityGroups.invalidate(projectId);
+  }
+
+  public void invalidateTenant(String tenantId) {
+    tenantSecurityGroups.invalidate(tenantId);
+  }
+
+  /**
+   * Cached security groups of one kind of entity, with a generation that every invalidation bumps.
+   */
+  private static class Entries {
+    private final Cache<String, List<SecurityGroup>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    Entries(Ticker ticker) {
+      this.cache = CacheBuilder.newBuilder()
+          .expireAfterWrite(EXPIRE_AFTER_WRITE_SECONDS, TimeUnit.SECONDS)
+          .ticker(ticker)
+          .build();
+    }
+
+    List<SecurityGroup> get(String id, Loader loader) throws ExternalException {
+      long loadGeneration = generation.get();
+      List<SecurityGroup> securityGroups;
+      try {
+        securityGroups = cache.get(id, () -> ImmutableList.copyOf(loader.load(id)));
+      } catch (ExecutionException e) {
+        Throwables.propagateIfInstanceOf(e.getCause(), ExternalException.class);
+        throw Throwables.propagate(e.getCause());
+      } catch (UncheckedExecutionException e) {
+        throw Throwables.propagate(e.getCause());
+      }
+
+      if (generation.get() != loadGeneration) {
+        // Only drop what this call got, an entry loaded after the invalidation is fine
+        cache.asMap().remove(id, securityGroups);
+      }
+      return securityGroups;
+    }
+
+    void invalidate(String id) {
+      // Bumped first, so a load that still puts its result after the entry is dropped sees the change
+      generation.incrementAndGet();
+      cache.invalidate(id);
+    }
+  }
+
+  /**
+   * Reads the security groups of an entity when they are not cached.
+   */
+  public interface Loader {
+    List<SecurityGroup> load(String id) throws ExternalException;
+  }
+}
@@ -13,10 +13,11 @@
 
 package com.vmware.photon.controller.apife.auth.fetcher;
 
-import com.vmware.photon.controller.api.Tenant;
+import com.vmware.photon.controller.api.SecurityGroup;
 import com.vmware.photon.controller.apife.auth.TransactionAuthorizationObject;
 import com.vmware.photon.controller.apife.backends.TenantBackend;
 import com.vmware.photon.controller.apife.exceptions.external.TenantNotFoundException;
+import com.vmware.photon.controller.apife.utils.SecurityGroupUtils;
 
 import com.google.inject.Inject;
 import org.slf4j.Logger;
@@ -24,6 +25,7 @@ import org.slf4j.LoggerFactory;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -42,9 +44,15 @@ public class TenantSecurityGroupFetcher implements SecurityGroupFetcher {
    */
   TenantBackend backend;
 
+  /**
+   * Cache of the security groups already resolved for a tenant.
+   */
+  SecurityGroupCache cache;
+
   @Inject
-  public TenantSecurityGroupFetcher(TenantBackend backend) {
+  public TenantSecurityGroupFetcher(TenantBackend backend, SecurityGroupCache cache) {
     this.backend = backend;
+    this.cache = cache;
   }
 
   @Override
@@ -56,8 +64,9 @@ public class TenantSecurityGroupFetcher implements SecurityGroupFetcher {
 
     Set<String> securityGroups = new HashSet<>();
     try {
-      Tenant tenant = backend.getApiRepresentation(authorizationObject.getId());
-      securityGroups.addAll(tenant.getSecurityGroups().stream().map(g -> g.getName()).collect(Collectors.toList()));
+      List<SecurityGroup> tenantSecurityGroups = cache.getTenantSecurityGroups(authorizationObject.getId(),
+          id -> SecurityGroupUtils.toApiRepresentation(backend.findById(id).getSecurityGroups()));
+      securityGroups.addAll(tenantSecurityGroups.stream().map(g -> g.getName()).collect(Collectors.toList()));
     } catch (TenantNotFoundException ex) {
       logger.warn("invalid tenant id {}", authorizationObject.getId());
     } catch (Exception ex) {
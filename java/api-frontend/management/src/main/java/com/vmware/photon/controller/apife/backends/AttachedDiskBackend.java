@@ -20,7 +20,9 @@ import com.vmware.photon.controller.apife.entities.BaseDiskEntity;
 import com.vmware.photon.controller.apife.entities.PersistentDiskEntity;
 import com.vmware.photon.controller.apife.entities.VmEntity;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * AttachedDiskBackend is interface for attached disk backend.
@@ -40,5 +42,7 @@ public interface AttachedDiskBackend {
 
   List<AttachedDiskEntity> findByVmId(String vmId);
 
+  Map<String, List<AttachedDiskEntity>> findByVmIds(Collection<String> vmIds);
+
   void deleteAttachedDiskById(String attachedDiskId);
 }
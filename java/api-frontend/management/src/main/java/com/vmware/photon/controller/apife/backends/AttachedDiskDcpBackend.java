@@ -34,7 +34,10 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * AttachedDiskDcpBackend is performing attach disk and detach disk operations.
@@ -126,6 +129,26 @@ public class AttachedDiskDcpBackend implements AttachedDiskBackend {
     return attachedDiskEntities;
   }
 
+  @Override
+  public Map<String, List<AttachedDiskEntity>> findByVmIds(Collection<String> vmIds) {
+    Map<String, List<AttachedDiskEntity>> attachedDiskEntities = new HashMap<>();
+    if (vmIds.isEmpty()) {
+      return attachedDiskEntities;
+    }
+
+    List<AttachedDiskService.State> attachedDisks = dcpClient.queryDocuments(
+        AttachedDiskService.State.class, "vmId", vmIds);
+    for (AttachedDiskService.State state : attachedDisks) {
+      List<AttachedDiskEntity> vmAttachedDisks = attachedDiskEntities.get(state.vmId);
+      if (vmAttachedDisks == null) {
+        vmAttachedDisks = new ArrayList<>();
+        attachedDiskEntities.put(state.vmId, vmAttachedDisks);
+      }
+      vmAttachedDisks.add(toAttachedDiskEntity(state, null));
+    }
+    return attachedDiskEntities;
+  }
+
   @Override
   public void deleteAttachedDiskById(String attachedDiskId) {
     dcpClient.delete(AttachedDiskServiceFactory.SELF_LINK + "/" + attachedDiskId,
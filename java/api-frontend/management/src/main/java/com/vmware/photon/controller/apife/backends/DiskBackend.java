@@ -18,6 +18,7 @@ import com.vmware.photon.controller.api.DiskCreateSpec;
 import com.vmware.photon.controller.api.DiskState;
 import com.vmware.photon.controller.api.Operation;
 import com.vmware.photon.controller.api.PersistentDisk;
+import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
 import com.vmware.photon.controller.apife.entities.BaseDiskEntity;
 import com.vmware.photon.controller.apife.entities.TaskEntity;
@@ -26,7 +27,9 @@ import com.vmware.photon.controller.apife.exceptions.external.DiskNotFoundExcept
 
 import com.google.common.base.Optional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -38,6 +41,11 @@ public interface DiskBackend {
 
   List<PersistentDisk> filter(String projectId, Optional<String> name) throws ExternalException;
 
+  ResourceList<PersistentDisk> filter(String projectId, Optional<String> name, Optional<Integer> pageSize)
+      throws ExternalException;
+
+  ResourceList<PersistentDisk> getDisksPage(String pageLink) throws ExternalException;
+
   boolean existsUsingFlavor(String flavorId) throws ExternalException;
 
   TaskEntity prepareDiskCreate(String projectId, DiskCreateSpec spec) throws ExternalException;
@@ -57,4 +65,6 @@ public interface DiskBackend {
 
   BaseDiskEntity find(String kind, String id) throws DiskNotFoundException;
 
+  Map<String, BaseDiskEntity> find(String kind, Collection<String> ids) throws DiskNotFoundException;
+
 }
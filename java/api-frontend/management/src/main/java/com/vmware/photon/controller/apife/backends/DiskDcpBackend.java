@@ -25,9 +25,11 @@ import com.vmware.photon.controller.api.Operation;
 import com.vmware.photon.controller.api.PersistentDisk;
 import com.vmware.photon.controller.api.QuotaLineItem;
 import com.vmware.photon.controller.api.QuotaUnit;
+import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.common.entities.base.BaseEntity;
 import com.vmware.photon.controller.api.common.entities.base.TagEntity;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
+import com.vmware.photon.controller.api.common.exceptions.external.PageExpiredException;
 import com.vmware.photon.controller.apife.backends.clients.ApiFeDcpRestClient;
 import com.vmware.photon.controller.apife.entities.AttachedDiskEntity;
 import com.vmware.photon.controller.apife.entities.BaseDiskEntity;
@@ -44,10 +46,13 @@ import com.vmware.photon.controller.apife.entities.VmEntity;
 import com.vmware.photon.controller.apife.exceptions.external.DiskNotFoundException;
 import com.vmware.photon.controller.apife.exceptions.external.InvalidFlavorStateException;
 import com.vmware.photon.controller.apife.lib.QuotaCost;
+import com.vmware.photon.controller.apife.utils.PaginationUtils;
 import com.vmware.photon.controller.cloudstore.dcp.entity.DiskService;
 import com.vmware.photon.controller.cloudstore.dcp.entity.DiskServiceFactory;
 import com.vmware.photon.controller.common.dcp.ServiceUtils;
 import com.vmware.photon.controller.common.dcp.exceptions.DocumentNotFoundException;
+import com.vmware.xenon.common.ServiceDocument;
+import com.vmware.xenon.common.ServiceDocumentQueryResult;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
@@ -59,8 +64,11 @@ import org.slf4j.LoggerFactory;
 import static com.google.common.base.Preconditions.checkState;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -109,6 +117,28 @@ public class DiskDcpBackend implements DiskBackend {
     return toPersistentDiskList(diskDocuments);
   }
 
+  @Override
+  public ResourceList<PersistentDisk> filter(String projectId, Optional<String> name, Optional<Integer> pageSize)
+      throws ExternalException {
+    projectBackend.findById(projectId);
+    ServiceDocumentQueryResult queryResult = dcpClient.queryDocuments(DiskService.State.class,
+        buildProjectIdAndNameTerms(projectId, name), pageSize, true);
+
+    return toPersistentDiskList(queryResult);
+  }
+
+  @Override
+  public ResourceList<PersistentDisk> getDisksPage(String pageLink) throws ExternalException {
+    ServiceDocumentQueryResult queryResult = null;
+    try {
+      queryResult = dcpClient.queryDocumentPage(pageLink);
+    } catch (DocumentNotFoundException e) {
+      throw new PageExpiredException(pageLink);
+    }
+
+    return toPersistentDiskList(queryResult);
+  }
+
   @Override
   public boolean existsUsingFlavor(String flavorId) throws ExternalException {
     List<DiskService.State> diskDocuments = findByFlavor(flavorId);
@@ -205,6 +235,34 @@ public class DiskDcpBackend implements DiskBackend {
     return toDiskEntity(state, kind);
   }
 
+  @Override
+  public Map<String, BaseDiskEntity> find(String kind, Collection<String> ids) throws DiskNotFoundException {
+    Map<String, BaseDiskEntity> diskEntities = new HashMap<>();
+    if (ids.isEmpty()) {
+      return diskEntities;
+    }
+
+    List<String> documentLinks = new ArrayList<>();
+    for (String id : ids) {
+      documentLinks.add(DiskServiceFactory.SELF_LINK + "/" + id);
+    }
+
+    List<DiskService.State> disks = dcpClient.queryDocuments(
+        DiskService.State.class, ServiceDocument.FIELD_NAME_SELF_LINK, documentLinks);
+    for (DiskService.State state : disks) {
+      BaseDiskEntity diskEntity = toDiskEntity(state, kind);
+      diskEntities.put(diskEntity.getId(), diskEntity);
+    }
+
+    for (String id : ids) {
+      if (!diskEntities.containsKey(id)) {
+        throw new DiskNotFoundException(id);
+      }
+    }
+
+    return diskEntities;
+  }
+
   private TaskEntity createTask(String kind, String diskId) throws ExternalException {
     BaseDiskEntity diskEntity = find(kind, diskId);
 
@@ -340,6 +398,10 @@ public class DiskDcpBackend implements DiskBackend {
   }
 
   private List<DiskService.State> findByProjectIdAndName(String projectId, Optional<String> name) {
+    return dcpClient.queryDocuments(DiskService.State.class, buildProjectIdAndNameTerms(projectId, name));
+  }
+
+  private ImmutableMap<String, String> buildProjectIdAndNameTerms(String projectId, Optional<String> name) {
     final ImmutableMap.Builder<String, String> termsBuilder = new ImmutableMap.Builder<>();
 
     termsBuilder.put("projectId", projectId);
@@ -348,7 +410,7 @@ public class DiskDcpBackend implements DiskBackend {
       termsBuilder.put("name", name.get());
     }
 
-    return dcpClient.queryDocuments(DiskService.State.class, termsBuilder.build());
+    return termsBuilder.build();
   }
 
   private List<PersistentDisk> toPersistentDiskList(List<DiskService.State> diskDocuments) throws ExternalException {
@@ -360,6 +422,17 @@ public class DiskDcpBackend implements DiskBackend {
     return persistentDiskList;
   }
 
+  private ResourceList<PersistentDisk> toPersistentDiskList(ServiceDocumentQueryResult queryResult)
+      throws ExternalException {
+    ResourceList<DiskService.State> diskDocuments =
+        PaginationUtils.xenonQueryResultToResourceList(DiskService.State.class, queryResult);
+
+    ResourceList<PersistentDisk> result = new ResourceList<>(toPersistentDiskList(diskDocuments.getItems()));
+    result.setNextPageLink(diskDocuments.getNextPageLink());
+    result.setPreviousPageLink(diskDocuments.getPreviousPageLink());
+    return result;
+  }
+
   /**
    * Internal API (e.g., VM rundown, deletes the model for the disk chain, returning a
    * task that need to be executed, in order, in order to trigger the backend flows.
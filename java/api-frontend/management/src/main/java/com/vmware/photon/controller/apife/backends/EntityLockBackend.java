@@ -16,6 +16,8 @@ package com.vmware.photon.controller.apife.backends;
 import com.vmware.photon.controller.api.common.exceptions.external.ConcurrentTaskException;
 import com.vmware.photon.controller.apife.entities.TaskEntity;
 
+import java.util.Collection;
+
 /**
  * Entity Lock operation.
  */
@@ -23,6 +25,11 @@ public interface EntityLockBackend {
 
   void setTaskLock(String entityId, TaskEntity task) throws ConcurrentTaskException;
 
+  /**
+   * Acquires the locks for all entities or none of them.
+   */
+  void setTaskLocks(Collection<String> entityIds, TaskEntity task) throws ConcurrentTaskException;
+
   void clearTaskLocks(TaskEntity task);
 
   Boolean lockExistsForEntityId(String entityId);
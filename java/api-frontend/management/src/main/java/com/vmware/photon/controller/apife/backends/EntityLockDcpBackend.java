@@ -29,7 +29,11 @@ import org.slf4j.LoggerFactory;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Entity Lock operations using DCP cloud store.
@@ -67,48 +71,152 @@ public class EntityLockDcpBackend implements EntityLockBackend {
       }
 
       //creation failed since a lock for this entity already exists
+      checkLockOwner(entityId, task);
+    }
+  }
 
-      //check if the lock is being re-acquired by the same task, if yes then nothing needs to be done
-      EntityLockService.State lock = null;
-      try {
-        lock = getByEntityId(entityId);
-      } catch (DocumentNotFoundException ex) {
-        String errorMessage = String.format(
-            "Failed to create lock for entityid {%s} and taskid {%s} because an existing lock was detected but it " +
-                "disappeared thereafter, throwing ConcurrentTaskException anyways so that client can re-try",
-            entityId,
-            task.getId());
-        logger.warn(errorMessage);
-        throw new ConcurrentTaskException();
-      }
+  @Override
+  public void setTaskLocks(Collection<String> entityIds, TaskEntity task) throws ConcurrentTaskException {
+    checkNotNull(entityIds, "Entities cannot be null.");
+    checkNotNull(task, "TaskEntity cannot be null.");
+    if (entityIds.isEmpty()) {
+      return;
+    }
+
+    List<EntityLockService.State> states = new ArrayList<>(entityIds.size());
+    for (String entityId : new LinkedHashSet<>(entityIds)) {
+      checkNotNull(entityId, "Entity cannot be null.");
+      EntityLockService.State state = new EntityLockService.State();
+      state.taskId = task.getId();
+      state.entityId = entityId;
+      state.documentSelfLink = entityId;
+      states.add(state);
+    }
 
-      if (!lock.taskId.equals(task.getId())) {
-        logger.warn("Entity Lock with entityId: {} already acquired by taskId {}", entityId, lock.taskId);
-        throw new ConcurrentTaskException();
+    //post all locks in parallel and only look at the outcome once every request completed
+    Map<String, Operation> operations = dcpClient.postAll(EntityLockServiceFactory.SELF_LINK, states);
+
+    List<String> acquiredEntityIds = new ArrayList<>();
+    List<String> conflictingEntityIds = new ArrayList<>();
+    String failedEntityId = null;
+    int failedStatusCode = 0;
+    for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+      int statusCode = entry.getValue().getStatusCode();
+      if (statusCode == Operation.STATUS_CODE_OK || statusCode == Operation.STATUS_CODE_ACCEPTED) {
+        acquiredEntityIds.add(entry.getKey());
+      } else if (statusCode == Operation.STATUS_CODE_CONFLICT) {
+        conflictingEntityIds.add(entry.getKey());
+      } else {
+        failedEntityId = entry.getKey();
+        failedStatusCode = statusCode;
       }
+    }
+
+    if (failedEntityId != null) {
+      rollbackTaskLocks(acquiredEntityIds, task);
+      throw new DcpRuntimeException(String.format(
+          "Failed to create lock for entityid {%s} and taskid {%s}, status code {%d}",
+          failedEntityId,
+          task.getId(),
+          failedStatusCode));
+    }
 
-      logger.info("Ignoring lock conflict for entityId : {} because task id : {} already owns the it",
-          entityId, task.getId());
+    try {
+      for (String entityId : conflictingEntityIds) {
+        checkLockOwner(entityId, task);
+      }
+    } catch (ConcurrentTaskException e) {
+      rollbackTaskLocks(acquiredEntityIds, task);
+      throw e;
     }
+
+    logger.info("Entity Locks with entityIds : {} and taskId: {} have been set", entityIds, task.getId());
   }
 
   @Override
   public void clearTaskLocks(TaskEntity task) {
     checkNotNull(task, "TaskEntity cannot be null.");
+    if (task.getLockableEntityIds().isEmpty()) {
+      return;
+    }
+
     List<String> failedToDeleteLockableEntityIds = new ArrayList<>();
-    for (String lockableEntityId : task.getLockableEntityIds()) {
-      String lockUrl = EntityLockServiceFactory.SELF_LINK + "/" + lockableEntityId;
-      try {
-        dcpClient.delete(lockUrl, new EntityLockService.State());
-        logger.info("Entity Lock with taskId : {} and url : {} has been cleared", task.getId(), lockUrl);
-      } catch (Throwable swallowedException) {
-        failedToDeleteLockableEntityIds.add(lockableEntityId);
-        logger.error("Failed to delete entity lock with url: " + lockUrl, swallowedException);
-      }
+    try {
+      failedToDeleteLockableEntityIds.addAll(deleteLocks(task.getLockableEntityIds()));
+      logger.info("Entity Locks with taskId : {} have been cleared", task.getId());
+    } catch (Throwable swallowedException) {
+      failedToDeleteLockableEntityIds.addAll(task.getLockableEntityIds());
+      logger.error("Failed to delete entity locks for task: " + task.getId(), swallowedException);
     }
     task.setLockableEntityIds(failedToDeleteLockableEntityIds);
   }
 
+  /**
+   * Checks whether the existing lock of the entity is owned by the task, if yes then nothing needs to be done.
+   */
+  private void checkLockOwner(String entityId, TaskEntity task) throws ConcurrentTaskException {
+    EntityLockService.State lock = null;
+    try {
+      lock = getByEntityId(entityId);
+    } catch (DocumentNotFoundException ex) {
+      String errorMessage = String.format(
+          "Failed to create lock for entityid {%s} and taskid {%s} because an existing lock was detected but it " +
+              "disappeared thereafter, throwing ConcurrentTaskException anyways so that client can re-try",
+          entityId,
+          task.getId());
+      logger.warn(errorMessage);
+      throw new ConcurrentTaskException();
+    }
+
+    if (!lock.taskId.equals(task.getId())) {
+      logger.warn("Entity Lock with entityId: {} already acquired by taskId {}", entityId, lock.taskId);
+      throw new ConcurrentTaskException();
+    }
+
+    logger.info("Ignoring lock conflict for entityId : {} because task id : {} already owns the it",
+        entityId, task.getId());
+  }
+
+  /**
+   * Releases the locks acquired by a batch that could not be completed, locks the task already owned are kept.
+   */
+  private void rollbackTaskLocks(List<String> acquiredEntityIds, TaskEntity task) {
+    if (acquiredEntityIds.isEmpty()) {
+      return;
+    }
+
+    try {
+      List<String> failedEntityIds = deleteLocks(acquiredEntityIds);
+      if (!failedEntityIds.isEmpty()) {
+        logger.error("Failed to roll back entity locks {} of taskId {}", failedEntityIds, task.getId());
+      }
+    } catch (Throwable swallowedException) {
+      logger.error("Failed to roll back entity locks for task: " + task.getId(), swallowedException);
+    }
+  }
+
+  /**
+   * Deletes the locks in parallel and returns the entity ids whose lock could not be deleted. A lock that
+   * no longer exists counts as deleted.
+   */
+  private List<String> deleteLocks(Collection<String> entityIds) {
+    Map<String, String> entityIdsByLockUrl = new HashMap<>(entityIds.size());
+    for (String entityId : entityIds) {
+      entityIdsByLockUrl.put(EntityLockServiceFactory.SELF_LINK + "/" + entityId, entityId);
+    }
+
+    List<String> failedEntityIds = new ArrayList<>();
+    Map<String, Operation> operations = dcpClient.deleteAll(entityIdsByLockUrl.keySet());
+    for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+      int statusCode = entry.getValue().getStatusCode();
+      if (statusCode != Operation.STATUS_CODE_OK && statusCode != Operation.STATUS_CODE_NOT_FOUND) {
+        failedEntityIds.add(entityIdsByLockUrl.get(entry.getKey()));
+        logger.error("Failed to delete entity lock with url: {}, status code: {}", entry.getKey(), statusCode);
+      }
+    }
+    return failedEntityIds;
+  }
+
   private EntityLockService.State getByEntityId(String entityId) throws DocumentNotFoundException {
     Operation operation = dcpClient.get(EntityLockServiceFactory.SELF_LINK + "/" + entityId);
     return operation.getBody(EntityLockService.State.class);
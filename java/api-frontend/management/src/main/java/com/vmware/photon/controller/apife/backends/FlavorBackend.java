@@ -15,13 +15,16 @@ package com.vmware.photon.controller.apife.backends;
 
 import com.vmware.photon.controller.api.Flavor;
 import com.vmware.photon.controller.api.FlavorCreateSpec;
+import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
 import com.vmware.photon.controller.apife.entities.FlavorEntity;
 import com.vmware.photon.controller.apife.entities.TaskEntity;
 
 import com.google.common.base.Optional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Backend interface for flavor related operations.
@@ -37,9 +40,16 @@ public interface FlavorBackend {
 
   List<Flavor> filter(Optional<String> name, Optional<String> kind) throws ExternalException;
 
+  ResourceList<Flavor> filter(Optional<String> name, Optional<String> kind, Optional<Integer> pageSize)
+      throws ExternalException;
+
+  ResourceList<Flavor> getFlavorsPage(String pageLink) throws ExternalException;
+
   FlavorEntity getEntityByNameAndKind(String name, String kind) throws ExternalException;
 
   FlavorEntity getEntityById(String id) throws ExternalException;
 
+  Map<String, FlavorEntity> getEntitiesByIds(Collection<String> ids) throws ExternalException;
+
   void tombstone(FlavorEntity flavor) throws ExternalException;
 }
@@ -20,8 +20,10 @@ import com.vmware.photon.controller.api.FlavorState;
 import com.vmware.photon.controller.api.Operation;
 import com.vmware.photon.controller.api.PersistentDisk;
 import com.vmware.photon.controller.api.QuotaLineItem;
+import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.Vm;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
+import com.vmware.photon.controller.api.common.exceptions.external.PageExpiredException;
 import com.vmware.photon.controller.apife.backends.clients.ApiFeDcpRestClient;
 import com.vmware.photon.controller.apife.entities.EntityStateValidator;
 import com.vmware.photon.controller.apife.entities.FlavorEntity;
@@ -29,10 +31,13 @@ import com.vmware.photon.controller.apife.entities.QuotaLineItemEntity;
 import com.vmware.photon.controller.apife.entities.TaskEntity;
 import com.vmware.photon.controller.apife.exceptions.external.FlavorNotFoundException;
 import com.vmware.photon.controller.apife.exceptions.external.NameTakenException;
+import com.vmware.photon.controller.apife.utils.PaginationUtils;
 import com.vmware.photon.controller.cloudstore.dcp.entity.FlavorService;
 import com.vmware.photon.controller.cloudstore.dcp.entity.FlavorServiceFactory;
 import com.vmware.photon.controller.common.dcp.ServiceUtils;
 import com.vmware.photon.controller.common.dcp.exceptions.DocumentNotFoundException;
+import com.vmware.xenon.common.ServiceDocument;
+import com.vmware.xenon.common.ServiceDocumentQueryResult;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
@@ -44,7 +49,10 @@ import org.slf4j.LoggerFactory;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementation of the flavor operations with DCP as the document store.
@@ -174,6 +182,26 @@ public class FlavorDcpBackend implements FlavorBackend {
     return flavorList;
   }
 
+  @Override
+  public ResourceList<Flavor> filter(Optional<String> name, Optional<String> kind, Optional<Integer> pageSize)
+      throws ExternalException {
+    ServiceDocumentQueryResult queryResult = dcpClient.queryDocuments(FlavorService.State.class,
+        buildNameAndKindTerms(name, kind), pageSize, true);
+    return toFlavorList(queryResult);
+  }
+
+  @Override
+  public ResourceList<Flavor> getFlavorsPage(String pageLink) throws ExternalException {
+    ServiceDocumentQueryResult queryResult = null;
+    try {
+      queryResult = dcpClient.queryDocumentPage(pageLink);
+    } catch (DocumentNotFoundException e) {
+      throw new PageExpiredException(pageLink);
+    }
+
+    return toFlavorList(queryResult);
+  }
+
   public FlavorEntity getEntityByNameAndKind(String name, String kind) throws ExternalException {
     checkNotNull(name);
     checkNotNull(kind);
@@ -194,6 +222,35 @@ public class FlavorDcpBackend implements FlavorBackend {
     return convertToEntity(findById(id));
   }
 
+  @Override
+  public Map<String, FlavorEntity> getEntitiesByIds(Collection<String> ids) throws ExternalException {
+    checkNotNull(ids);
+    Map<String, FlavorEntity> flavorEntities = new HashMap<>();
+    if (ids.isEmpty()) {
+      return flavorEntities;
+    }
+
+    List<String> documentLinks = new ArrayList<>();
+    for (String id : ids) {
+      documentLinks.add(FlavorServiceFactory.SELF_LINK + "/" + id);
+    }
+
+    List<FlavorService.State> flavors = dcpClient.queryDocuments(
+        FlavorService.State.class, ServiceDocument.FIELD_NAME_SELF_LINK, documentLinks);
+    for (FlavorService.State flavor : flavors) {
+      FlavorEntity flavorEntity = convertToEntity(flavor);
+      flavorEntities.put(flavorEntity.getId(), flavorEntity);
+    }
+
+    for (String id : ids) {
+      if (!flavorEntities.containsKey(id)) {
+        throw new FlavorNotFoundException(id);
+      }
+    }
+
+    return flavorEntities;
+  }
+
   @Override
   public void tombstone(FlavorEntity flavor) throws ExternalException {
     boolean flavorInUse;
@@ -265,7 +322,10 @@ public class FlavorDcpBackend implements FlavorBackend {
 
   private List<FlavorService.State> findDocumentsByNameAndKind(Optional<String> name, Optional<String> kind)
       throws ExternalException {
+    return dcpClient.queryDocuments(FlavorService.State.class, buildNameAndKindTerms(name, kind));
+  }
 
+  private ImmutableMap<String, String> buildNameAndKindTerms(Optional<String> name, Optional<String> kind) {
     final ImmutableMap.Builder<String, String> termsBuilder = new ImmutableMap.Builder<>();
     if (name.isPresent()) {
       termsBuilder.put("name", name.get());
@@ -275,7 +335,7 @@ public class FlavorDcpBackend implements FlavorBackend {
       termsBuilder.put("kind", kind.get());
     }
 
-    return dcpClient.queryDocuments(FlavorService.State.class, termsBuilder.build());
+    return termsBuilder.build();
   }
 
   private List<FlavorEntity> findEntitiesByNameAndKind(Optional<String> name, Optional<String> kind)
@@ -306,4 +366,19 @@ public class FlavorDcpBackend implements FlavorBackend {
 
     return flavorList;
   }
+
+  private ResourceList<Flavor> toFlavorList(ServiceDocumentQueryResult queryResult) {
+    ResourceList<FlavorService.State> flavorDocuments =
+        PaginationUtils.xenonQueryResultToResourceList(FlavorService.State.class, queryResult);
+
+    List<Flavor> flavorList = new ArrayList<>(flavorDocuments.getItems().size());
+    for (FlavorService.State flavorState : flavorDocuments.getItems()) {
+      flavorList.add(convertToEntity(flavorState).toApiRepresentation());
+    }
+
+    ResourceList<Flavor> result = new ResourceList<>(flavorList);
+    result.setNextPageLink(flavorDocuments.getNextPageLink());
+    result.setPreviousPageLink(flavorDocuments.getPreviousPageLink());
+    return result;
+  }
 }
@@ -17,10 +17,13 @@ import com.vmware.photon.controller.api.Image;
 import com.vmware.photon.controller.api.ImageCreateSpec;
 import com.vmware.photon.controller.api.ImageReplicationType;
 import com.vmware.photon.controller.api.ImageState;
+import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
 import com.vmware.photon.controller.apife.entities.ImageEntity;
 import com.vmware.photon.controller.apife.entities.TaskEntity;
 
+import com.google.common.base.Optional;
+
 import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
@@ -47,12 +50,22 @@ public interface ImageBackend {
 
   void updateImageDatastore(String imageId, String imageDatastoreName) throws ExternalException;
 
+  void updateContent(ImageEntity imageEntity, String contentDigest, String contentImageId) throws ExternalException;
+
+  List<ImageEntity> findByContentDigest(String contentDigest) throws ExternalException;
+
+  boolean isContentShared(ImageEntity imageEntity) throws ExternalException;
+
   List<ImageEntity> getAll() throws ExternalException;
 
   Image toApiRepresentation(String id) throws ExternalException;
 
   List<Image> getListApiRepresentation() throws ExternalException;
 
+  ResourceList<Image> getListApiRepresentation(Optional<Integer> pageSize) throws ExternalException;
+
+  ResourceList<Image> getImagesPage(String pageLink) throws ExternalException;
+
   void updateSettings(ImageEntity imageEntity, Map<String, String> imageSettings) throws ExternalException;
 
   ImageEntity findById(String id) throws ExternalException;
@@ -19,9 +19,11 @@ import com.vmware.photon.controller.api.ImageReplicationType;
 import com.vmware.photon.controller.api.ImageSetting;
 import com.vmware.photon.controller.api.ImageState;
 import com.vmware.photon.controller.api.Operation;
+import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.Vm;
 import com.vmware.photon.controller.api.common.entities.base.BaseEntity;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
+import com.vmware.photon.controller.api.common.exceptions.external.PageExpiredException;
 import com.vmware.photon.controller.apife.backends.clients.ApiFeDcpRestClient;
 import com.vmware.photon.controller.apife.commands.steps.IsoUploadStepCmd;
 import com.vmware.photon.controller.apife.entities.ImageEntity;
@@ -32,6 +34,7 @@ import com.vmware.photon.controller.apife.exceptions.external.ImageNotFoundExcep
 import com.vmware.photon.controller.apife.exceptions.external.ImageNotFoundException.Type;
 import com.vmware.photon.controller.apife.exceptions.external.ImageUploadException;
 import com.vmware.photon.controller.apife.exceptions.external.InvalidImageStateException;
+import com.vmware.photon.controller.apife.utils.PaginationUtils;
 import com.vmware.photon.controller.cloudstore.dcp.entity.DatastoreService;
 import com.vmware.photon.controller.cloudstore.dcp.entity.ImageReplicationService;
 import com.vmware.photon.controller.cloudstore.dcp.entity.ImageReplicationServiceFactory;
@@ -40,6 +43,7 @@ import com.vmware.photon.controller.cloudstore.dcp.entity.ImageServiceFactory;
 import com.vmware.photon.controller.common.dcp.ServiceUtils;
 import com.vmware.photon.controller.common.dcp.exceptions.DcpRuntimeException;
 import com.vmware.photon.controller.common.dcp.exceptions.DocumentNotFoundException;
+import com.vmware.xenon.common.ServiceDocumentQueryResult;
 import com.vmware.xenon.common.Utils;
 
 import com.google.common.base.Optional;
@@ -193,6 +197,38 @@ public class ImageDcpBackend implements ImageBackend {
     patchImageService(imageEntity.getId(), imageState);
   }
 
+  @Override
+  public void updateContent(ImageEntity imageEntity, String contentDigest, String contentImageId)
+      throws ExternalException {
+    ImageService.State imageState = new ImageService.State();
+    imageState.contentDigest = contentDigest;
+    imageState.contentImageId = contentImageId;
+    patchImageService(imageEntity.getId(), imageState);
+    imageEntity.setContentDigest(contentDigest);
+    imageEntity.setContentImageId(contentImageId);
+  }
+
+  @Override
+  public List<ImageEntity> findByContentDigest(String contentDigest) throws ExternalException {
+    checkNotNull(contentDigest, "contentDigest can not be null.");
+    return findEntities(ImmutableMap.of("contentDigest", contentDigest));
+  }
+
+  /**
+   * Images uploaded with the same content use the files of the first one. The files are shared as long as any other
+   * image using them has not been deleted.
+   */
+  @Override
+  public boolean isContentShared(ImageEntity imageEntity) throws ExternalException {
+    for (ImageEntity image : findEntities(ImmutableMap.of("contentImageId", imageEntity.getContentImageId()))) {
+      if (!image.getId().equals(imageEntity.getId()) && image.getState() != ImageState.PENDING_DELETE) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
   @Override
   public List<ImageEntity> getAll() throws ExternalException {
     return findEntitiesByName(Optional.<String>absent());
@@ -215,6 +251,25 @@ public class ImageDcpBackend implements ImageBackend {
     return resourceList;
   }
 
+  @Override
+  public ResourceList<Image> getListApiRepresentation(Optional<Integer> pageSize) throws ExternalException {
+    ServiceDocumentQueryResult queryResult = dcpClient.queryDocuments(ImageService.State.class,
+        ImmutableMap.of(), pageSize, true);
+    return toApiRepresentation(queryResult);
+  }
+
+  @Override
+  public ResourceList<Image> getImagesPage(String pageLink) throws ExternalException {
+    ServiceDocumentQueryResult queryResult = null;
+    try {
+      queryResult = dcpClient.queryDocumentPage(pageLink);
+    } catch (DocumentNotFoundException e) {
+      throw new PageExpiredException(pageLink);
+    }
+
+    return toApiRepresentation(queryResult);
+  }
+
   @Override
   public void updateSettings(ImageEntity imageEntity, Map<String, String> imageSettings)
       throws ExternalException {
@@ -301,6 +356,8 @@ public class ImageDcpBackend implements ImageBackend {
     imageEntity.setTotalDatastore(imageState.totalDatastore);
     imageEntity.setTotalImageDatastore(imageState.totalImageDatastore);
     imageEntity.setReplicatedDatastore(imageState.replicatedDatastore);
+    imageEntity.setContentDigest(imageState.contentDigest);
+    imageEntity.setContentImageId(imageState.contentImageId);
 
     List<ImageSettingsEntity> imageSettingsEntityList = new ArrayList<>();
 
@@ -351,18 +408,18 @@ public class ImageDcpBackend implements ImageBackend {
     return task;
   }
 
-  private List<ImageService.State> findDocumentsByName(Optional<String> name) throws ExternalException {
+  private List<ImageEntity> findEntitiesByName(Optional<String> name) throws ExternalException {
     final ImmutableMap.Builder<String, String> termsBuilder = new ImmutableMap.Builder<>();
     if (name.isPresent()) {
       termsBuilder.put("name", name.get());
     }
 
-    return dcpClient.queryDocuments(ImageService.State.class, termsBuilder.build());
+    return findEntities(termsBuilder.build());
   }
 
-  private List<ImageEntity> findEntitiesByName(Optional<String> name) throws ExternalException {
+  private List<ImageEntity> findEntities(ImmutableMap<String, String> terms) throws ExternalException {
     List<ImageEntity> imageEntityList = null;
-    List<ImageService.State> imageStateList = findDocumentsByName(name);
+    List<ImageService.State> imageStateList = dcpClient.queryDocuments(ImageService.State.class, terms);
     if (imageStateList != null) {
       imageEntityList = new ArrayList<>(imageStateList.size());
       for (ImageService.State imageState : imageStateList) {
@@ -395,7 +452,22 @@ public class ImageDcpBackend implements ImageBackend {
     return task;
   }
 
-  private Image toApiRepresentation(ImageEntity imageEntity) {
+  private ResourceList<Image> toApiRepresentation(ServiceDocumentQueryResult queryResult) throws ExternalException {
+    ResourceList<ImageService.State> imageDocuments =
+        PaginationUtils.xenonQueryResultToResourceList(ImageService.State.class, queryResult);
+
+    List<Image> imageList = new ArrayList<>(imageDocuments.getItems().size());
+    for (ImageService.State imageState : imageDocuments.getItems()) {
+      imageList.add(toApiRepresentation(convertToEntity(imageState)));
+    }
+
+    ResourceList<Image> result = new ResourceList<>(imageList);
+    result.setNextPageLink(imageDocuments.getNextPageLink());
+    result.setPreviousPageLink(imageDocuments.getPreviousPageLink());
+    return result;
+  }
+
+  private Image toApiRepresentation(ImageEntity imageEntity) throws ExternalException {
     Image image = new Image();
 
     image.setId(imageEntity.getId());
@@ -404,11 +476,13 @@ public class ImageDcpBackend implements ImageBackend {
     image.setSize(imageEntity.getSize());
     image.setReplicationType(imageEntity.getReplicationType());
     image.setSettings(createImageSettingListApiRepresentation(imageEntity.getImageSettings()));
-    if (imageEntity.getTotalDatastore() != null &&
-        imageEntity.getReplicatedDatastore() != null &&
-        imageEntity.getTotalDatastore() != 0) {
+
+    ImageEntity contentImage = findContentImage(imageEntity);
+    if (contentImage.getTotalDatastore() != null &&
+        contentImage.getReplicatedDatastore() != null &&
+        contentImage.getTotalDatastore() != 0) {
       String replicatedDatastoreRatio =
-          (imageEntity.getReplicatedDatastore() * 100.00 / imageEntity.getTotalDatastore()) + "%";
+          (contentImage.getReplicatedDatastore() * 100.00 / contentImage.getTotalDatastore()) + "%";
       image.setReplicationProgress(replicatedDatastoreRatio);
     }
 
@@ -416,6 +490,23 @@ public class ImageDcpBackend implements ImageBackend {
     return image;
   }
 
+  /**
+   * An image uploaded with the same content as another one is not replicated itself, the files of the image named
+   * by its contentImageId are. Its replication progress is the one of that image, or its own if that image is gone.
+   */
+  private ImageEntity findContentImage(ImageEntity imageEntity) throws ExternalException {
+    String contentImageId = imageEntity.getContentImageId();
+    if (contentImageId == null || contentImageId.equals(imageEntity.getId())) {
+      return imageEntity;
+    }
+
+    try {
+      return findById(contentImageId);
+    } catch (ImageNotFoundException e) {
+      return imageEntity;
+    }
+  }
+
   private ImageSetting createImageSettingApiRepresentation(ImageSettingsEntity imageSettingsEntity) {
     ImageSetting imageSetting = new ImageSetting();
 
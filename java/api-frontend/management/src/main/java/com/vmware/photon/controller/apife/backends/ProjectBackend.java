@@ -15,6 +15,7 @@ package com.vmware.photon.controller.apife.backends;
 
 import com.vmware.photon.controller.api.Project;
 import com.vmware.photon.controller.api.ProjectCreateSpec;
+import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.SecurityGroup;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
 import com.vmware.photon.controller.apife.entities.ProjectEntity;
@@ -31,6 +32,11 @@ import java.util.List;
 public interface ProjectBackend {
   List<Project> filter(String tenantId, Optional<String> name) throws ExternalException;
 
+  ResourceList<Project> filter(String tenantId, Optional<String> name, Optional<Integer> pageSize)
+      throws ExternalException;
+
+  ResourceList<Project> getProjectsPage(String pageLink) throws ExternalException;
+
   Project getApiRepresentation(String id) throws ExternalException;
 
   TaskEntity createProject(String tenantId, ProjectCreateSpec project) throws ExternalException;
@@ -18,10 +18,13 @@ import com.vmware.photon.controller.api.Project;
 import com.vmware.photon.controller.api.ProjectCreateSpec;
 import com.vmware.photon.controller.api.ProjectTicket;
 import com.vmware.photon.controller.api.QuotaLineItem;
+import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.ResourceTicketReservation;
 import com.vmware.photon.controller.api.SecurityGroup;
 import com.vmware.photon.controller.api.common.entities.base.TagEntity;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
+import com.vmware.photon.controller.api.common.exceptions.external.PageExpiredException;
+import com.vmware.photon.controller.apife.auth.fetcher.SecurityGroupCache;
 import com.vmware.photon.controller.apife.backends.clients.ApiFeDcpRestClient;
 import com.vmware.photon.controller.apife.entities.ProjectEntity;
 import com.vmware.photon.controller.apife.entities.QuotaLineItemEntity;
@@ -35,11 +38,13 @@ import com.vmware.photon.controller.apife.exceptions.external.NameTakenException
 import com.vmware.photon.controller.apife.exceptions.external.ProjectNotFoundException;
 import com.vmware.photon.controller.apife.exceptions.external.ResourceTicketNotFoundException;
 import com.vmware.photon.controller.apife.exceptions.external.SecurityGroupsAlreadyInheritedException;
+import com.vmware.photon.controller.apife.utils.PaginationUtils;
 import com.vmware.photon.controller.apife.utils.SecurityGroupUtils;
 import com.vmware.photon.controller.cloudstore.dcp.entity.ProjectService;
 import com.vmware.photon.controller.cloudstore.dcp.entity.ProjectServiceFactory;
 import com.vmware.photon.controller.common.dcp.ServiceUtils;
 import com.vmware.photon.controller.common.dcp.exceptions.DocumentNotFoundException;
+import com.vmware.xenon.common.ServiceDocumentQueryResult;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableMap;
@@ -67,11 +72,12 @@ public class ProjectDcpBackend implements ProjectBackend {
   private final VmBackend vmBackend;
   private final DiskBackend diskBackend;
   private final TombstoneBackend tombstoneBackend;
+  private final SecurityGroupCache securityGroupCache;
 
   @Inject
   public ProjectDcpBackend(ApiFeDcpRestClient dcpClient, TaskBackend taskBackend, TenantBackend tenantBackend,
                            ResourceTicketBackend resourceTicketBackend, VmBackend vmBackend, DiskBackend diskBackend,
-                           TombstoneBackend tombstoneBackend) {
+                           TombstoneBackend tombstoneBackend, SecurityGroupCache securityGroupCache) {
     this.dcpClient = dcpClient;
     this.taskBackend = taskBackend;
     this.tenantBackend = tenantBackend;
@@ -79,6 +85,7 @@ public class ProjectDcpBackend implements ProjectBackend {
     this.vmBackend = vmBackend;
     this.diskBackend = diskBackend;
     this.tombstoneBackend = tombstoneBackend;
+    this.securityGroupCache = securityGroupCache;
     this.dcpClient.start();
   }
 
@@ -91,6 +98,28 @@ public class ProjectDcpBackend implements ProjectBackend {
     return toProjectList(projectDocuments);
   }
 
+  @Override
+  public ResourceList<Project> filter(String tenantId, Optional<String> name, Optional<Integer> pageSize)
+      throws ExternalException {
+    tenantBackend.findById(tenantId);
+
+    ServiceDocumentQueryResult queryResult = dcpClient.queryDocuments(ProjectService.State.class,
+        buildTenantIdAndNameTerms(tenantId, name), pageSize, true);
+    return toProjectList(queryResult);
+  }
+
+  @Override
+  public ResourceList<Project> getProjectsPage(String pageLink) throws ExternalException {
+    ServiceDocumentQueryResult queryResult = null;
+    try {
+      queryResult = dcpClient.queryDocumentPage(pageLink);
+    } catch (DocumentNotFoundException e) {
+      throw new PageExpiredException(pageLink);
+    }
+
+    return toProjectList(queryResult);
+  }
+
   @Override
   public Project getApiRepresentation(String id) throws ExternalException {
     return toApiRepresentation(findById(id));
@@ -155,6 +184,8 @@ public class ProjectDcpBackend implements ProjectBackend {
       dcpClient.patch(ProjectServiceFactory.SELF_LINK + "/" + id, patch);
     } catch (DocumentNotFoundException e) {
       throw new ProjectNotFoundException(id);
+    } finally {
+      securityGroupCache.invalidateProject(id);
     }
   }
 
@@ -328,6 +359,10 @@ public class ProjectDcpBackend implements ProjectBackend {
 
   private List<ProjectService.State> findByTenantIdAndName(String tenantId, Optional<String> name)
       throws ExternalException {
+    return dcpClient.queryDocuments(ProjectService.State.class, buildTenantIdAndNameTerms(tenantId, name));
+  }
+
+  private ImmutableMap<String, String> buildTenantIdAndNameTerms(String tenantId, Optional<String> name) {
     final ImmutableMap.Builder<String, String> termsBuilder = new ImmutableMap.Builder<>();
 
     termsBuilder.put("tenantId", tenantId);
@@ -335,7 +370,7 @@ public class ProjectDcpBackend implements ProjectBackend {
       termsBuilder.put("name", name.get());
     }
 
-    return dcpClient.queryDocuments(ProjectService.State.class, termsBuilder.build());
+    return termsBuilder.build();
   }
 
   private List<Project> toProjectList(List<ProjectService.State> projectDocuments) throws
@@ -347,6 +382,17 @@ public class ProjectDcpBackend implements ProjectBackend {
     return projectList;
   }
 
+  private ResourceList<Project> toProjectList(ServiceDocumentQueryResult queryResult) throws
+      ResourceTicketNotFoundException {
+    ResourceList<ProjectService.State> projectDocuments =
+        PaginationUtils.xenonQueryResultToResourceList(ProjectService.State.class, queryResult);
+
+    ResourceList<Project> result = new ResourceList<>(toProjectList(projectDocuments.getItems()));
+    result.setNextPageLink(projectDocuments.getNextPageLink());
+    result.setPreviousPageLink(projectDocuments.getPreviousPageLink());
+    return result;
+  }
+
   private List<String> getTenantSecurityGroupNames(List<SecurityGroupEntity> tenantSecurityGroups) {
     List<String> tenantSecurityGroupsNames = new ArrayList<>();
     for (SecurityGroupEntity sg : tenantSecurityGroups) {
@@ -65,6 +65,10 @@ public interface TaskBackend {
 
   void update(TaskEntity task) throws TaskNotFoundException;
 
+  void bufferStepUpdates(TaskEntity task);
+
+  void flushStepUpdates(TaskEntity task) throws TaskNotFoundException;
+
   ResourceList<TaskEntity> getEntityTasks(Optional<String> entityId, Optional<String> entityKind,
                                           Optional<String> state, Optional<Integer> pageSize)
       throws InvalidQueryParamsException;
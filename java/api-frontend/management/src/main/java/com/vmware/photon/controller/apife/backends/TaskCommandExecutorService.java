@@ -26,6 +26,7 @@ import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -33,6 +34,11 @@ import java.util.concurrent.TimeUnit;
 /**
  * Wraps ThreadPoolExecutor to throttle submission size and log uncaught exceptions.
  * <p/>
+ * Task commands are wrapped in {@link TaskCommandQueue.QueuedTaskCommand} so that a {@link TaskCommandQueue} work
+ * queue can schedule them by lane and owner. A task command that cannot be queued has its steps marked as failed
+ * with {@link OutOfThreadPoolWorkerException}, asking the caller to retry later. Deferred task commands that are
+ * resumed are only rejected, as their steps may already be completed.
+ * <p/>
  * See {@link ThreadPoolExecutor#submit(java.util.concurrent.Callable)}.
  * See {@link ThreadPoolExecutor#afterExecute(Runnable, Throwable)}.
  */
@@ -55,11 +61,52 @@ public class TaskCommandExecutorService extends ThreadPoolExecutor {
     try {
       return super.submit(task);
     } catch (RejectedExecutionException e) {
-      logger.error("Fail to acquire ThreadPool worker", e);
-      OutOfThreadPoolWorkerException ex = new OutOfThreadPoolWorkerException();
-      task.markAllStepsAsFailed(ex);
-      throw ex;
+      throw reject(task, e);
+    }
+  }
+
+  /**
+   * Submits a runnable. Rejected task commands have their steps marked as failed, and the
+   * {@link RejectedExecutionException} carries the {@link ExternalException} to report to the caller. Rejected
+   * deferred task commands are left untouched for the caller to submit again.
+   */
+  @Override
+  public Future<?> submit(Runnable runnable) {
+    if (!(runnable instanceof TaskCommand)) {
+      return super.submit(runnable);
+    }
+
+    try {
+      return super.submit(runnable);
+    } catch (RejectedExecutionException e) {
+      if (((TaskCommand) runnable).isDeferred()) {
+        throw e;
+      }
+
+      ExternalException ex;
+      try {
+        ex = reject((TaskCommand) runnable, e);
+      } catch (ExternalException markFailedException) {
+        ex = markFailedException;
+      }
+      throw new RejectedExecutionException(ex.getMessage(), ex);
+    }
+  }
+
+  @Override
+  protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+    if (runnable instanceof TaskCommand) {
+      return new TaskCommandQueue.QueuedTaskCommand<>((TaskCommand) runnable, value);
     }
+
+    return super.newTaskFor(runnable, value);
+  }
+
+  private ExternalException reject(TaskCommand task, RejectedExecutionException e) throws ExternalException {
+    logger.error("Fail to queue task {}: work queue is full", task.getTask().getId(), e);
+    OutOfThreadPoolWorkerException ex = new OutOfThreadPoolWorkerException();
+    task.markAllStepsAsFailed(ex);
+    return ex;
   }
 
   @Override
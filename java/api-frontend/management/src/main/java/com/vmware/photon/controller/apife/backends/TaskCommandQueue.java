@@ -0,0 +1,446 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.backends;
+
+import com.vmware.photon.controller.api.Operation;
+import com.vmware.photon.controller.apife.commands.tasks.TaskCommand;
+import com.vmware.photon.controller.apife.entities.TaskEntity;
+
+import com.google.common.collect.ImmutableSet;
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded work queue of {@link TaskCommandExecutorService} that schedules task commands fairly.
+ * <p/>
+ * Commands are split into a short and a long lane by the operation of their task, so that quick operations like
+ * power operations or metadata updates do not wait behind image uploads or VM creations. The short lane is served
+ * {@link #SHORT_LANE_WEIGHT} times for every command taken from the long lane. Within a lane, commands are taken
+ * round-robin across owners (the project of the task, or the task entity when it does not belong to a project), and
+ * no owner can hold more than a fixed number of queued commands, so a single tenant cannot fill the queue.
+ * <p/>
+ * Offers that would exceed either limit are refused, which makes the executor reject the command.
+ */
+public class TaskCommandQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+  /**
+   * Number of commands taken from the short lane for each command taken from the long lane.
+   */
+  public static final int SHORT_LANE_WEIGHT = 4;
+
+  private static final Set<Operation> LONG_OPERATIONS = ImmutableSet.of(
+      Operation.CREATE_VM,
+      Operation.CREATE_DISK,
+      Operation.CREATE_VM_IMAGE,
+      Operation.CREATE_IMAGE,
+      Operation.UPLOAD_IMAGE,
+      Operation.REPLICATE_IMAGE,
+      Operation.UPLOAD_ISO,
+      Operation.CREATE_CLUSTER,
+      Operation.RESIZE_CLUSTER,
+      Operation.DELETE_CLUSTER,
+      Operation.CREATE_DEPLOYMENT,
+      Operation.PERFORM_DEPLOYMENT,
+      Operation.DELETE_DEPLOYMENT,
+      Operation.INITIALIZE_MIGRATE_DEPLOYMENT,
+      Operation.FINALIZE_MIGRATE_DEPLOYMENT,
+      Operation.PROVISION_HOST,
+      Operation.DEPROVISION_HOST);
+
+  private final int capacity;
+  private final int capacityPerOwner;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+
+  /**
+   * Queued commands of each lane, grouped by owner in round-robin order.
+   */
+  private final Map<Lane, LinkedHashMap<String, ArrayDeque<Runnable>>> lanes = new EnumMap<>(Lane.class);
+
+  private final Map<Lane, Integer> laneSizes = new EnumMap<>(Lane.class);
+  private final Map<String, Integer> ownerSizes = new HashMap<>();
+  private int size;
+  private int shortLaneTurns;
+
+  public TaskCommandQueue(int capacity, int capacityPerOwner) {
+    checkArgument(capacity > 0, "capacity must be positive");
+    checkArgument(capacityPerOwner > 0, "capacityPerOwner must be positive");
+    this.capacity = capacity;
+    this.capacityPerOwner = Math.min(capacity, capacityPerOwner);
+    for (Lane lane : Lane.values()) {
+      lanes.put(lane, new LinkedHashMap<>());
+      laneSizes.put(lane, 0);
+    }
+  }
+
+  /**
+   * Returns the lane a task is scheduled in.
+   */
+  public static Lane getLane(TaskEntity task) {
+    return LONG_OPERATIONS.contains(task.getOperation()) ? Lane.LONG : Lane.SHORT;
+  }
+
+  /**
+   * Returns the owner a task is accounted to.
+   */
+  public static String getOwner(TaskEntity task) {
+    if (task.getProjectId() != null) {
+      return task.getProjectId();
+    }
+
+    return task.getEntityId() != null ? task.getEntityId() : "";
+  }
+
+  /**
+   * Returns the number of commands waiting in a lane.
+   */
+  public int size(Lane lane) {
+    lock.lock();
+    try {
+      return laneSizes.get(lane);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int remainingCapacity() {
+    lock.lock();
+    try {
+      return capacity - size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean offer(Runnable runnable) {
+    if (runnable == null) {
+      throw new NullPointerException();
+    }
+
+    lock.lock();
+    try {
+      return enqueue(runnable);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean offer(Runnable runnable, long timeout, TimeUnit unit) throws InterruptedException {
+    if (runnable == null) {
+      throw new NullPointerException();
+    }
+
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (!enqueue(runnable)) {
+        if (nanos <= 0) {
+          return false;
+        }
+        nanos = notFull.awaitNanos(nanos);
+      }
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void put(Runnable runnable) throws InterruptedException {
+    if (runnable == null) {
+      throw new NullPointerException();
+    }
+
+    lock.lockInterruptibly();
+    try {
+      while (!enqueue(runnable)) {
+        notFull.await();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable poll() {
+    lock.lock();
+    try {
+      return dequeue();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (size == 0) {
+        if (nanos <= 0) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      return dequeue();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable take() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (size == 0) {
+        notEmpty.await();
+      }
+      return dequeue();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable peek() {
+    lock.lock();
+    try {
+      Lane lane = nextLane();
+      return lane == null ? null : lanes.get(lane).values().iterator().next().peekFirst();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    if (!(o instanceof Runnable)) {
+      return false;
+    }
+
+    lock.lock();
+    try {
+      Runnable runnable = (Runnable) o;
+      Lane lane = laneOf(runnable);
+      String owner = ownerOf(runnable);
+      ArrayDeque<Runnable> queue = lanes.get(lane).get(owner);
+      if (queue == null || !queue.remove(runnable)) {
+        return false;
+      }
+
+      if (queue.isEmpty()) {
+        lanes.get(lane).remove(owner);
+      }
+      release(lane, owner);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int drainTo(Collection<? super Runnable> c) {
+    return drainTo(c, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(Collection<? super Runnable> c, int maxElements) {
+    if (c == this) {
+      throw new IllegalArgumentException();
+    }
+
+    lock.lock();
+    try {
+      int drained = 0;
+      while (drained < maxElements && size > 0) {
+        c.add(dequeue());
+        drained++;
+      }
+      return drained;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns an iterator over a snapshot of the queued commands.
+   */
+  @Override
+  public Iterator<Runnable> iterator() {
+    List<Runnable> snapshot = new ArrayList<>();
+    lock.lock();
+    try {
+      for (LinkedHashMap<String, ArrayDeque<Runnable>> owners : lanes.values()) {
+        for (ArrayDeque<Runnable> queue : owners.values()) {
+          snapshot.addAll(queue);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    Iterator<Runnable> iterator = snapshot.iterator();
+    return new Iterator<Runnable>() {
+      private Runnable last;
+
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public Runnable next() {
+        last = iterator.next();
+        return last;
+      }
+
+      @Override
+      public void remove() {
+        if (last == null) {
+          throw new IllegalStateException();
+        }
+        TaskCommandQueue.this.remove(last);
+        last = null;
+      }
+    };
+  }
+
+  private boolean enqueue(Runnable runnable) {
+    Lane lane = laneOf(runnable);
+    String owner = ownerOf(runnable);
+    int ownerSize = ownerSizes.getOrDefault(owner, 0);
+    if (size >= capacity || ownerSize >= capacityPerOwner) {
+      return false;
+    }
+
+    lanes.get(lane).computeIfAbsent(owner, key -> new ArrayDeque<>()).addLast(runnable);
+    laneSizes.put(lane, laneSizes.get(lane) + 1);
+    ownerSizes.put(owner, ownerSize + 1);
+    size++;
+    notEmpty.signal();
+    return true;
+  }
+
+  private Runnable dequeue() {
+    Lane lane = nextLane();
+    if (lane == null) {
+      return null;
+    }
+
+    if (lane == Lane.SHORT) {
+      shortLaneTurns++;
+    } else {
+      shortLaneTurns = 0;
+    }
+
+    // take the head of the first owner, and move the owner to the back of the lane
+    LinkedHashMap<String, ArrayDeque<Runnable>> owners = lanes.get(lane);
+    Map.Entry<String, ArrayDeque<Runnable>> first = owners.entrySet().iterator().next();
+    String owner = first.getKey();
+    ArrayDeque<Runnable> queue = owners.remove(owner);
+    Runnable runnable = queue.pollFirst();
+    if (!queue.isEmpty()) {
+      owners.put(owner, queue);
+    }
+
+    release(lane, owner);
+    return runnable;
+  }
+
+  private Lane nextLane() {
+    boolean hasShort = laneSizes.get(Lane.SHORT) > 0;
+    boolean hasLong = laneSizes.get(Lane.LONG) > 0;
+    if (hasShort && (!hasLong || shortLaneTurns < SHORT_LANE_WEIGHT)) {
+      return Lane.SHORT;
+    }
+
+    return hasLong ? Lane.LONG : null;
+  }
+
+  private void release(Lane lane, String owner) {
+    laneSizes.put(lane, laneSizes.get(lane) - 1);
+    int ownerSize = ownerSizes.get(owner) - 1;
+    if (ownerSize == 0) {
+      ownerSizes.remove(owner);
+    } else {
+      ownerSizes.put(owner, ownerSize);
+    }
+    size--;
+    notFull.signal();
+  }
+
+  private static Lane laneOf(Runnable runnable) {
+    return runnable instanceof QueuedTaskCommand ? ((QueuedTaskCommand<?>) runnable).lane : Lane.SHORT;
+  }
+
+  private static String ownerOf(Runnable runnable) {
+    return runnable instanceof QueuedTaskCommand ? ((QueuedTaskCommand<?>) runnable).owner : "";
+  }
+
+  /**
+   * Scheduling lanes.
+   */
+  public enum Lane {
+    SHORT,
+    LONG
+  }
+
+  /**
+   * Future of a submitted task command that remembers how the command is scheduled.
+   *
+   * @param <T> result type
+   */
+  public static class QueuedTaskCommand<T> extends FutureTask<T> {
+
+    private final Lane lane;
+    private final String owner;
+
+    public QueuedTaskCommand(TaskCommand command, T result) {
+      super(command, result);
+      this.lane = getLane(command.getTask());
+      this.owner = getOwner(command.getTask());
+    }
+  }
+}
@@ -54,8 +54,11 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 /**
@@ -72,6 +75,11 @@ public class TaskDcpBackend implements TaskBackend, StepBackend {
 
   private final EntityLockBackend entityLockBackend;
 
+  /**
+   * Intermediate step updates not yet written for the tasks that buffer their step transitions, keyed by task id.
+   */
+  private final ConcurrentMap<String, Map<Operation, StepEntity>> bufferedStepUpdates = new ConcurrentHashMap<>();
+
   @Inject
   public TaskDcpBackend(
       ApiFeDcpRestClient dcpClient,
@@ -247,7 +255,7 @@ public class TaskDcpBackend implements TaskBackend, StepBackend {
     taskServiceState.state = TaskService.State.TaskState.STARTED;
     taskServiceState.startedTime = DateTime.now().toDate();
 
-    patchTaskService(task.getId(), taskServiceState);
+    patchTaskService(task, taskServiceState);
   }
 
   @Override
@@ -255,7 +263,7 @@ public class TaskDcpBackend implements TaskBackend, StepBackend {
     TaskService.State taskServiceState = new TaskService.State();
     taskServiceState.state = TaskService.State.TaskState.COMPLETED;
     taskServiceState.endTime = DateTime.now().toDate();
-    patchTaskService(task.getId(), taskServiceState);
+    patchTaskService(task, taskServiceState);
     logger.info("Task {} has been marked as COMPLETED", task.getId());
   }
 
@@ -264,7 +272,7 @@ public class TaskDcpBackend implements TaskBackend, StepBackend {
     TaskService.State taskServiceState = new TaskService.State();
     taskServiceState.state = TaskService.State.TaskState.ERROR;
     taskServiceState.endTime = DateTime.now().toDate();
-    patchTaskService(task.getId(), taskServiceState);
+    patchTaskService(task, taskServiceState);
     logger.info("Task {} has been marked as ERROR", task);
   }
 
@@ -282,13 +290,37 @@ public class TaskDcpBackend implements TaskBackend, StepBackend {
     }
 
     TaskService.State task = convertToTask(taskEntity);
-    patchTaskService(taskEntity.getId(), task);
+    patchTaskService(taskEntity, task);
   }
 
   @Override
   public void update(TaskEntity task) throws TaskNotFoundException {
     TaskService.State taskState = convertToTask(task);
-    patchTaskService(task.getId(), taskState);
+    patchTaskService(task, taskState);
+  }
+
+  @Override
+  public void bufferStepUpdates(TaskEntity task) {
+    bufferedStepUpdates.putIfAbsent(task.getId(), new LinkedHashMap<>());
+  }
+
+  @Override
+  public void flushStepUpdates(TaskEntity task) throws TaskNotFoundException {
+    writeBufferedSteps(task.getId(), bufferedStepUpdates.remove(task.getId()));
+  }
+
+  private void writeBufferedSteps(String taskId, Map<Operation, StepEntity> pendingSteps)
+      throws TaskNotFoundException {
+    if (pendingSteps == null) {
+      return;
+    }
+
+    synchronized (pendingSteps) {
+      if (!pendingSteps.isEmpty()) {
+        writeSteps(taskId, pendingSteps, new TaskService.State());
+        pendingSteps.clear();
+      }
+    }
   }
 
   @Override
@@ -315,6 +347,60 @@ public class TaskDcpBackend implements TaskBackend, StepBackend {
     return getTaskEntitiesFromDocuments(taskStates);
   }
 
+  /**
+   * Patches the task document. Step updates buffered for the task are written with the same patch, unless the patch
+   * already carries all the steps of the task.
+   */
+  private void patchTaskService(TaskEntity task, TaskService.State taskServiceState) throws TaskNotFoundException {
+    Map<Operation, StepEntity> pendingSteps = bufferedStepUpdates.get(task.getId());
+    if (pendingSteps == null) {
+      patchTaskService(task.getId(), taskServiceState);
+      return;
+    }
+
+    synchronized (pendingSteps) {
+      if (pendingSteps.isEmpty() || taskServiceState.steps != null) {
+        patchTaskService(task.getId(), taskServiceState);
+      } else {
+        writeSteps(task.getId(), pendingSteps, taskServiceState);
+      }
+      pendingSteps.clear();
+    }
+  }
+
+  /**
+   * Writes the pending step updates of a task along with the given task patch. The steps are written as one patch
+   * carrying all the steps of the task, falling back to a patch per step when the task entity does not hold every
+   * pending step.
+   */
+  private void writeSteps(String taskId, Map<Operation, StepEntity> pendingSteps, TaskService.State taskServiceState)
+      throws TaskNotFoundException {
+    TaskEntity taskEntity = pendingSteps.values().iterator().next().getTask();
+    List<TaskService.State.Step> steps = new ArrayList<>();
+    int pendingStepsFound = 0;
+    for (StepEntity stepEntity : taskEntity.getSteps()) {
+      StepEntity pendingStep = pendingSteps.get(stepEntity.getOperation());
+      if (pendingStep != null) {
+        pendingStepsFound++;
+      }
+
+      TaskService.State.Step step = new TaskService.State.Step();
+      fillStep(step, pendingStep != null ? pendingStep : stepEntity);
+      steps.add(step);
+    }
+
+    if (pendingStepsFound == pendingSteps.size()) {
+      taskServiceState.steps = steps;
+      patchTaskService(taskId, taskServiceState);
+      return;
+    }
+
+    for (StepEntity pendingStep : pendingSteps.values()) {
+      patchStep(pendingStep);
+    }
+    patchTaskService(taskId, taskServiceState);
+  }
+
   private void patchTaskService(String taskId, TaskService.State taskServiceState) throws TaskNotFoundException {
     try {
       dcpClient.patch(TaskServiceFactory.SELF_LINK + "/" + taskId, taskServiceState);
@@ -421,10 +507,7 @@ public class TaskDcpBackend implements TaskBackend, StepBackend {
 
   @Override
   public void update(StepEntity stepEntity) throws TaskNotFoundException {
-    TaskService.State.Step step = new TaskService.State.Step();
-    fillStep(step, stepEntity);
-    TaskService.StepUpdate stepUpdate = new TaskService.StepUpdate(step);
-    patchTaskServiceWithStepUpdate(stepEntity.getTask().getId(), stepUpdate);
+    updateStep(stepEntity, false);
   }
 
   @Override
@@ -477,14 +560,14 @@ public class TaskDcpBackend implements TaskBackend, StepBackend {
   public void markStepAsStarted(StepEntity stepEntity) throws TaskNotFoundException {
     stepEntity.setState(StepEntity.State.STARTED);
     stepEntity.setStartedTime(DateTime.now().toDate());
-    update(stepEntity);
+    updateStep(stepEntity, false);
   }
 
   @Override
   public void markStepAsDone(StepEntity stepEntity) throws TaskNotFoundException {
     stepEntity.setState(StepEntity.State.COMPLETED);
     stepEntity.setEndTime(DateTime.now().toDate());
-    update(stepEntity);
+    updateStep(stepEntity, true);
   }
 
   @Override
@@ -501,7 +584,7 @@ public class TaskDcpBackend implements TaskBackend, StepBackend {
 
     stepEntity.addWarning(t);
     stepEntity.setEndTime(DateTime.now().toDate());
-    update(stepEntity);
+    updateStep(stepEntity, !isRunning(stepEntity));
   }
 
   @Override
@@ -512,7 +595,7 @@ public class TaskDcpBackend implements TaskBackend, StepBackend {
     }
 
     stepEntity.setEndTime(DateTime.now().toDate());
-    update(stepEntity);
+    updateStep(stepEntity, !isRunning(stepEntity));
   }
 
   @Override
@@ -541,7 +624,48 @@ public class TaskDcpBackend implements TaskBackend, StepBackend {
     TaskService.State taskServiceState = new TaskService.State();
     taskServiceState.resourceProperties = properties;
 
-    patchTaskService(task.getId(), taskServiceState);
+    patchTaskService(task, taskServiceState);
+  }
+
+  /**
+   * Writes a step update. When the task buffers its step transitions, intermediate updates (a step completing or
+   * collecting warnings after it finished) are kept in memory and written together with the next update that goes
+   * through: the start of the following step, a failure, or the final task transition. Nothing is buffered while a
+   * step is executing, warnings it raises are written right away, so readers of the task document only ever miss
+   * the completion of the step that just finished.
+   */
+  private void updateStep(StepEntity stepEntity, boolean intermediate) throws TaskNotFoundException {
+    String taskId = stepEntity.getTask().getId();
+    Map<Operation, StepEntity> pendingSteps = bufferedStepUpdates.get(taskId);
+    if (pendingSteps == null) {
+      patchStep(stepEntity);
+      return;
+    }
+
+    synchronized (pendingSteps) {
+      pendingSteps.put(stepEntity.getOperation(), stepEntity);
+      if (intermediate) {
+        return;
+      }
+
+      if (pendingSteps.size() == 1) {
+        patchStep(stepEntity);
+      } else {
+        writeSteps(taskId, pendingSteps, new TaskService.State());
+      }
+      pendingSteps.clear();
+    }
+  }
+
+  private static boolean isRunning(StepEntity stepEntity) {
+    return stepEntity.getState() == StepEntity.State.STARTED;
+  }
+
+  private void patchStep(StepEntity stepEntity) throws TaskNotFoundException {
+    TaskService.State.Step step = new TaskService.State.Step();
+    fillStep(step, stepEntity);
+    TaskService.StepUpdate stepUpdate = new TaskService.StepUpdate(step);
+    patchTaskServiceWithStepUpdate(stepEntity.getTask().getId(), stepUpdate);
   }
 
   private TaskService.State getTaskStateById(String taskId) {
@@ -874,6 +998,8 @@ public class TaskDcpBackend implements TaskBackend, StepBackend {
 
   private StepEntity createStep(TaskEntity taskEntity, StepEntity.State state, List<BaseEntity> entities,
                                 Operation operation, Map<String, String> stepOptions) throws TaskNotFoundException {
+    // the steps are rewritten from the current document, so buffered step updates need to be written first
+    writeBufferedSteps(taskEntity.getId(), bufferedStepUpdates.get(taskEntity.getId()));
     TaskService.State task = getTaskStateById(taskEntity.getId());
     if (task.steps == null) {
       task.steps = new ArrayList<>();
@@ -22,6 +22,7 @@ import com.vmware.photon.controller.api.TenantCreateSpec;
 import com.vmware.photon.controller.api.base.BaseCompact;
 import com.vmware.photon.controller.api.common.entities.base.TagEntity;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
+import com.vmware.photon.controller.apife.auth.fetcher.SecurityGroupCache;
 import com.vmware.photon.controller.apife.backends.clients.ApiFeDcpRestClient;
 import com.vmware.photon.controller.apife.entities.ResourceTicketEntity;
 import com.vmware.photon.controller.apife.entities.SecurityGroupEntity;
@@ -65,18 +66,21 @@ public class TenantDcpBackend implements TenantBackend {
   private final DeploymentBackend deploymentBackend;
   private final ResourceTicketBackend resourceTicketBackend;
   private final TombstoneBackend tombstoneBackend;
+  private final SecurityGroupCache securityGroupCache;
 
   @Inject
   public TenantDcpBackend(ApiFeDcpRestClient dcpClient,
                           TaskBackend taskBackend,
                           DeploymentBackend deploymentBackend,
                           ResourceTicketBackend resourceTicketBackend,
-                          TombstoneBackend tombstoneBackend) {
+                          TombstoneBackend tombstoneBackend,
+                          SecurityGroupCache securityGroupCache) {
     this.dcpClient = dcpClient;
     this.taskBackend = taskBackend;
     this.deploymentBackend = deploymentBackend;
     this.resourceTicketBackend = resourceTicketBackend;
     this.tombstoneBackend = tombstoneBackend;
+    this.securityGroupCache = securityGroupCache;
     this.dcpClient.start();
   }
 
@@ -167,8 +171,9 @@ public class TenantDcpBackend implements TenantBackend {
       dcpClient.patch(TenantServiceFactory.SELF_LINK + "/" + id, patch);
     } catch (DocumentNotFoundException e) {
       throw new TenantNotFoundException(id);
+    } finally {
+      securityGroupCache.invalidateTenant(id);
     }
-
   }
 
   private TenantEntity create(TenantCreateSpec spec) throws ExternalException {
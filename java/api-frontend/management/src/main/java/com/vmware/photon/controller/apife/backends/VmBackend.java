@@ -15,6 +15,7 @@ package com.vmware.photon.controller.apife.backends;
 
 import com.vmware.photon.controller.api.ImageCreateSpec;
 import com.vmware.photon.controller.api.Operation;
+import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.Tag;
 import com.vmware.photon.controller.api.Vm;
 import com.vmware.photon.controller.api.VmCreateSpec;
@@ -39,6 +40,11 @@ import java.util.Map;
 public interface VmBackend {
   List<Vm> filter(String projectId, Optional<String> name) throws ExternalException;
 
+  ResourceList<Vm> filter(String projectId, Optional<String> name, Optional<Integer> pageSize)
+      throws ExternalException;
+
+  ResourceList<Vm> getVmsPage(String pageLink) throws ExternalException;
+
   List<Vm> filterByProject(String projectId) throws ExternalException;
 
   List<Vm> filterByTag(String projectId, Tag tag) throws ExternalException;
@@ -86,6 +92,8 @@ public interface VmBackend {
 
   List<Vm> getAllVmsOnHost(String hostId) throws ExternalException;
 
+  ResourceList<Vm> getAllVmsOnHost(String hostId, Optional<Integer> pageSize) throws ExternalException;
+
   int countVmsOnHost(HostEntity hostEntity) throws ExternalException;
 
   TaskEntity prepareSetMetadata(String id, Map<String, String> metadata) throws ExternalException;
@@ -26,6 +26,7 @@ import com.vmware.photon.controller.api.NetworkState;
 import com.vmware.photon.controller.api.Operation;
 import com.vmware.photon.controller.api.PersistentDisk;
 import com.vmware.photon.controller.api.QuotaLineItem;
+import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.Tag;
 import com.vmware.photon.controller.api.Vm;
 import com.vmware.photon.controller.api.VmCreateSpec;
@@ -36,6 +37,7 @@ import com.vmware.photon.controller.api.common.entities.base.BaseEntity;
 import com.vmware.photon.controller.api.common.entities.base.TagEntity;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
 import com.vmware.photon.controller.api.common.exceptions.external.NotImplementedException;
+import com.vmware.photon.controller.api.common.exceptions.external.PageExpiredException;
 import com.vmware.photon.controller.apife.backends.clients.ApiFeDcpRestClient;
 import com.vmware.photon.controller.apife.commands.steps.IsoUploadStepCmd;
 import com.vmware.photon.controller.apife.entities.AttachedDiskEntity;
@@ -63,10 +65,12 @@ import com.vmware.photon.controller.apife.exceptions.external.MoreThanOneIsoAtta
 import com.vmware.photon.controller.apife.exceptions.external.PersistentDiskAttachedException;
 import com.vmware.photon.controller.apife.exceptions.external.VmNotFoundException;
 import com.vmware.photon.controller.apife.lib.QuotaCost;
+import com.vmware.photon.controller.apife.utils.PaginationUtils;
 import com.vmware.photon.controller.cloudstore.dcp.entity.VmService;
 import com.vmware.photon.controller.cloudstore.dcp.entity.VmServiceFactory;
 import com.vmware.photon.controller.common.dcp.ServiceUtils;
 import com.vmware.photon.controller.common.dcp.exceptions.DocumentNotFoundException;
+import com.vmware.xenon.common.ServiceDocumentQueryResult;
 import com.vmware.xenon.services.common.QueryTask;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -81,6 +85,7 @@ import org.slf4j.LoggerFactory;
 import java.io.InputStream;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -162,15 +167,36 @@ public class VmDcpBackend implements VmBackend {
           Optional.<String>absent());
     }
 
-    List<Vm> result = new ArrayList<>();
+    return toApiRepresentation(vms);
+  }
 
-    if (vms != null) {
-      for (VmEntity vm : vms) {
-        result.add(toApiRepresentation(vm));
-      }
+  @Override
+  public ResourceList<Vm> filter(String projectId, Optional<String> name, Optional<Integer> pageSize)
+      throws ExternalException {
+    projectBackend.findById(projectId);
+    ServiceDocumentQueryResult queryResult = filterVmDocuments(
+        Optional.of(projectId),
+        Optional.<String>absent(),
+        name,
+        Optional.<String>absent(),
+        Optional.<String>absent(),
+        Optional.<String>absent(),
+        Optional.<String>absent(),
+        pageSize);
+
+    return toApiRepresentation(queryResult);
+  }
+
+  @Override
+  public ResourceList<Vm> getVmsPage(String pageLink) throws ExternalException {
+    ServiceDocumentQueryResult queryResult = null;
+    try {
+      queryResult = dcpClient.queryDocumentPage(pageLink);
+    } catch (DocumentNotFoundException e) {
+      throw new PageExpiredException(pageLink);
     }
 
-    return result;
+    return toApiRepresentation(queryResult);
   }
 
   @Override
@@ -190,15 +216,7 @@ public class VmDcpBackend implements VmBackend {
         Optional.<String>absent(),
         Optional.<String>absent());
 
-    List<Vm> result = new ArrayList<>();
-
-    if (vms != null) {
-      for (VmEntity vm : vms) {
-        result.add(toApiRepresentation(vm));
-      }
-    }
-
-    return result;
+    return toApiRepresentation(vms);
   }
 
   @Override
@@ -212,15 +230,7 @@ public class VmDcpBackend implements VmBackend {
         Optional.<String>absent(),
         Optional.<String>absent());
 
-    List<Vm> result = new ArrayList<>();
-
-    if (vms != null) {
-      for (VmEntity vm : vms) {
-        result.add(toApiRepresentation(vm));
-      }
-    }
-
-    return result;
+    return toApiRepresentation(vms);
   }
 
   @Override
@@ -234,15 +244,7 @@ public class VmDcpBackend implements VmBackend {
         Optional.of(imageId),
         Optional.<String>absent());
 
-    List<Vm> result = new ArrayList<>();
-
-    if (vms != null) {
-      for (VmEntity vm : vms) {
-        result.add(toApiRepresentation(vm));
-      }
-    }
-
-    return result;
+    return toApiRepresentation(vms);
   }
 
   @Override
@@ -256,15 +258,7 @@ public class VmDcpBackend implements VmBackend {
         Optional.<String>absent(),
         Optional.of(networkId));
 
-    List<Vm> result = new ArrayList<>();
-
-    if (vms != null) {
-      for (VmEntity vm : vms) {
-        result.add(toApiRepresentation(vm));
-      }
-    }
-
-    return result;
+    return toApiRepresentation(vms);
   }
 
 
@@ -558,12 +552,24 @@ public class VmDcpBackend implements VmBackend {
         Optional.<String>absent(),
         Optional.<String>absent());
 
-    List<Vm> result = new ArrayList<>();
+    return toApiRepresentation(vmEntities);
+  }
 
-    for (VmEntity vmEntity : vmEntities) {
-      result.add(toApiRepresentation(vmEntity));
-    }
-    return result;
+  @Override
+  public ResourceList<Vm> getAllVmsOnHost(String hostId, Optional<Integer> pageSize) throws ExternalException {
+    HostEntity hostEntity = hostBackend.findById(hostId);
+
+    ServiceDocumentQueryResult queryResult = filterVmDocuments(
+        Optional.<String>absent(),
+        Optional.<String>absent(),
+        Optional.<String>absent(),
+        Optional.of(hostEntity.getAddress()),
+        Optional.<String>absent(),
+        Optional.<String>absent(),
+        Optional.<String>absent(),
+        pageSize);
+
+    return toApiRepresentation(queryResult);
   }
 
   @Override
@@ -833,11 +839,89 @@ public class VmDcpBackend implements VmBackend {
   }
 
   private Vm toApiRepresentation(VmEntity vmEntity) throws ExternalException {
+    FlavorEntity flavorEntity = flavorBackend.getEntityById(vmEntity.getFlavorId());
+
+    Map<String, BaseDiskEntity> underlyingDisks = new HashMap<>();
+    List<AttachedDiskEntity> attachedDisks = attachedDiskBackend.findByVmId(vmEntity.getId());
+    for (AttachedDiskEntity attachedDisk : attachedDisks) {
+      underlyingDisks.put(attachedDisk.getUnderlyingDiskId(),
+          diskBackend.find(attachedDisk.getKind(), attachedDisk.getUnderlyingDiskId()));
+    }
+
+    return toApiRepresentation(vmEntity, flavorEntity, attachedDisks, underlyingDisks);
+  }
+
+  /**
+   * Builds the API representation of a list of VMs. The flavors, attached disks and underlying disks of all the VMs
+   * are fetched with one query each (per disk kind), instead of once per VM and disk.
+   */
+  private List<Vm> toApiRepresentation(List<VmEntity> vmEntities) throws ExternalException {
+    List<Vm> result = new ArrayList<>();
+    if (vmEntities == null || vmEntities.isEmpty()) {
+      return result;
+    }
+
+    Set<String> flavorIds = new HashSet<>();
+    Set<String> vmIds = new HashSet<>();
+    for (VmEntity vmEntity : vmEntities) {
+      flavorIds.add(vmEntity.getFlavorId());
+      vmIds.add(vmEntity.getId());
+    }
+
+    Map<String, FlavorEntity> flavorEntities = flavorBackend.getEntitiesByIds(flavorIds);
+    Map<String, List<AttachedDiskEntity>> attachedDisks = attachedDiskBackend.findByVmIds(vmIds);
+
+    Map<String, Set<String>> diskIdsByKind = new HashMap<>();
+    for (List<AttachedDiskEntity> vmAttachedDisks : attachedDisks.values()) {
+      for (AttachedDiskEntity attachedDisk : vmAttachedDisks) {
+        Set<String> diskIds = diskIdsByKind.get(attachedDisk.getKind());
+        if (diskIds == null) {
+          diskIds = new HashSet<>();
+          diskIdsByKind.put(attachedDisk.getKind(), diskIds);
+        }
+        diskIds.add(attachedDisk.getUnderlyingDiskId());
+      }
+    }
+
+    Map<String, BaseDiskEntity> underlyingDisks = new HashMap<>();
+    for (Map.Entry<String, Set<String>> entry : diskIdsByKind.entrySet()) {
+      underlyingDisks.putAll(diskBackend.find(entry.getKey(), entry.getValue()));
+    }
+
+    for (VmEntity vmEntity : vmEntities) {
+      List<AttachedDiskEntity> vmAttachedDisks = attachedDisks.get(vmEntity.getId());
+      result.add(toApiRepresentation(
+          vmEntity,
+          flavorEntities.get(vmEntity.getFlavorId()),
+          vmAttachedDisks != null ? vmAttachedDisks : new ArrayList<>(),
+          underlyingDisks));
+    }
+
+    return result;
+  }
+
+  private ResourceList<Vm> toApiRepresentation(ServiceDocumentQueryResult queryResult) throws ExternalException {
+    ResourceList<VmService.State> vmDocuments =
+        PaginationUtils.xenonQueryResultToResourceList(VmService.State.class, queryResult);
+
+    List<VmEntity> vmEntities = new ArrayList<>();
+    for (VmService.State vm : vmDocuments.getItems()) {
+      vmEntities.add(toVmEntity(vm));
+    }
+
+    ResourceList<Vm> result = new ResourceList<>(toApiRepresentation(vmEntities));
+    result.setNextPageLink(vmDocuments.getNextPageLink());
+    result.setPreviousPageLink(vmDocuments.getPreviousPageLink());
+    return result;
+  }
+
+  private Vm toApiRepresentation(VmEntity vmEntity, FlavorEntity flavorEntity,
+                                 List<AttachedDiskEntity> attachedDisks,
+                                 Map<String, BaseDiskEntity> underlyingDisks) {
     Vm vm = new Vm();
 
     vm.setId(vmEntity.getId());
     vm.setName(vmEntity.getName());
-    FlavorEntity flavorEntity = flavorBackend.getEntityById(vmEntity.getFlavorId());
     vm.setFlavor(flavorEntity.getName());
 
     if (StringUtils.isNotBlank(vmEntity.getImageId())) {
@@ -852,12 +936,12 @@ public class VmDcpBackend implements VmBackend {
     List<AttachedDisk> disks = new ArrayList<>();
     Set<String> tags = new HashSet<>();
 
-    for (AttachedDiskEntity attachedDisk : attachedDiskBackend.findByVmId(vmEntity.getId())) {
+    for (AttachedDiskEntity attachedDisk : attachedDisks) {
       AttachedDisk disk = new AttachedDisk();
 
       disk.setId(attachedDisk.getUnderlyingDiskId());
       disk.setKind(attachedDisk.getKind());
-      BaseDiskEntity underlyingDisk = diskBackend.find(attachedDisk.getKind(), attachedDisk.getUnderlyingDiskId());
+      BaseDiskEntity underlyingDisk = underlyingDisks.get(attachedDisk.getUnderlyingDiskId());
       disk.setName(underlyingDisk.getName());
       disk.setFlavor(underlyingDisk.getFlavorId());
       disk.setCapacityGb(underlyingDisk.getCapacityGb());
@@ -901,6 +985,23 @@ public class VmDcpBackend implements VmBackend {
       Optional<String> projectId, Optional<String> tag, Optional<String> name, Optional<String> host,
       Optional<String> flavorId, Optional<String> imageId, Optional<String> networkId) {
 
+    return dcpClient.queryDocuments(VmService.State.class,
+        buildFilterTerms(projectId, tag, name, host, flavorId, imageId, networkId));
+  }
+
+  private ServiceDocumentQueryResult filterVmDocuments(
+      Optional<String> projectId, Optional<String> tag, Optional<String> name, Optional<String> host,
+      Optional<String> flavorId, Optional<String> imageId, Optional<String> networkId,
+      Optional<Integer> pageSize) {
+
+    return dcpClient.queryDocuments(VmService.State.class,
+        buildFilterTerms(projectId, tag, name, host, flavorId, imageId, networkId), pageSize, true);
+  }
+
+  private ImmutableMap<String, String> buildFilterTerms(
+      Optional<String> projectId, Optional<String> tag, Optional<String> name, Optional<String> host,
+      Optional<String> flavorId, Optional<String> imageId, Optional<String> networkId) {
+
     final ImmutableMap.Builder<String, String> termsBuilder = new ImmutableMap.Builder<>();
 
     if (projectId.isPresent()) {
@@ -935,7 +1036,7 @@ public class VmDcpBackend implements VmBackend {
       termsBuilder.put(key, networkId.get());
     }
 
-    return dcpClient.queryDocuments(VmService.State.class, termsBuilder.build());
+    return termsBuilder.build();
   }
 
   private TaskEntity deleteTask(VmEntity vm) throws ExternalException {
@@ -33,7 +33,9 @@ import com.google.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeoutException;
 
@@ -68,6 +70,17 @@ public class ApiFeDcpRestClient extends DcpRestClient {
     }
   }
 
+  @Override
+  public Map<String, Operation> postAll(String serviceSelfLink, Collection<? extends ServiceDocument> bodies) {
+    try {
+      return super.postAll(serviceSelfLink, bodies);
+    } catch (TimeoutException timeoutException) {
+      throw new RuntimeException(timeoutException);
+    } catch (InterruptedException interruptedException) {
+      throw new RuntimeException(interruptedException);
+    }
+  }
+
   @Override
   public Operation get(String documentSelfLink) throws DocumentNotFoundException {
     try {
@@ -96,6 +109,17 @@ public class ApiFeDcpRestClient extends DcpRestClient {
     }
   }
 
+  @Override
+  public Map<String, Operation> deleteAll(Collection<String> documentSelfLinks) {
+    try {
+      return super.deleteAll(documentSelfLinks);
+    } catch (TimeoutException timeoutException) {
+      throw new RuntimeException(timeoutException);
+    } catch (InterruptedException interruptedException) {
+      throw new RuntimeException(interruptedException);
+    }
+  }
+
   @Override
   public Operation postToBroadcastQueryService(QueryTask.QuerySpecification spec) {
     try {
@@ -139,6 +163,19 @@ public class ApiFeDcpRestClient extends DcpRestClient {
     }
   }
 
+  @Override
+  public <T extends ServiceDocument> List<T> queryDocuments(Class<T> documentType,
+                                                            String fieldName,
+                                                            Collection<String> values) {
+    try {
+      return super.queryDocuments(documentType, fieldName, values);
+    } catch (DocumentNotFoundException | BadRequestException e) {
+      throw new DcpRuntimeException(e);
+    } catch (TimeoutException | InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   @Override
   public <T extends ServiceDocument> ServiceDocumentQueryResult queryDocuments(Class<T> documentType,
                                                                                ImmutableMap<String, String> terms,
@@ -24,6 +24,7 @@ import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.Task;
 import com.vmware.photon.controller.api.Tenant;
 import com.vmware.photon.controller.api.Vm;
+import com.vmware.photon.controller.api.common.StreamingResourceList;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
 import com.vmware.photon.controller.apife.BackendTaskExecutor;
 import com.vmware.photon.controller.apife.backends.DeploymentBackend;
@@ -55,6 +56,11 @@ import java.util.concurrent.ExecutorService;
 public class DeploymentFeClient {
   private static final Logger logger = LoggerFactory.getLogger(DeploymentFeClient.class);
 
+  /**
+   * Number of VMs fetched from cloud-store at a time while the VM list of a deployment is streamed.
+   */
+  private static final int LIST_VMS_PAGE_SIZE = 100;
+
   private final TaskBackend taskBackend;
   private final DeploymentBackend deploymentBackend;
   private final VmBackend vmBackend;
@@ -191,7 +197,9 @@ public class DeploymentFeClient {
       return new ResourceList<>(new ArrayList<Vm>());
     }
 
-    return new ResourceList<>(vmBackend.filterByProject(projectList.get(0).getId()));
+    return new StreamingResourceList<>(
+        vmBackend.filter(projectList.get(0).getId(), Optional.<String>absent(), Optional.of(LIST_VMS_PAGE_SIZE)),
+        pageLink -> vmBackend.getVmsPage(pageLink));
   }
 
   public ResourceList<Host> listHosts(String id) throws ExternalException {
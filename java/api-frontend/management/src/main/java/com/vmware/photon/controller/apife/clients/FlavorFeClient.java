@@ -62,7 +62,12 @@ public class FlavorFeClient {
     return task;
   }
 
-  public ResourceList<Flavor> list(Optional<String> name, Optional<String> kind) throws ExternalException {
-    return new ResourceList<>(flavorBackend.filter(name, kind));
+  public ResourceList<Flavor> list(Optional<String> name, Optional<String> kind, Optional<Integer> pageSize)
+      throws ExternalException {
+    return flavorBackend.filter(name, kind, pageSize);
+  }
+
+  public ResourceList<Flavor> getFlavorsPage(String pageLink) throws ExternalException {
+    return flavorBackend.getFlavorsPage(pageLink);
   }
 }
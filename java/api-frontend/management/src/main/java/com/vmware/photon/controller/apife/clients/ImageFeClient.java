@@ -14,52 +14,222 @@
 package com.vmware.photon.controller.apife.clients;
 
 import com.vmware.photon.controller.api.Image;
+import com.vmware.photon.controller.api.ImageCreateSpec;
 import com.vmware.photon.controller.api.ImageReplicationType;
+import com.vmware.photon.controller.api.ImageState;
 import com.vmware.photon.controller.api.Operation;
 import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.Task;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
+import com.vmware.photon.controller.api.common.exceptions.external.TaskNotFoundException;
 import com.vmware.photon.controller.apife.BackendTaskExecutor;
 import com.vmware.photon.controller.apife.backends.ImageBackend;
 import com.vmware.photon.controller.apife.backends.TaskBackend;
+import com.vmware.photon.controller.apife.commands.steps.ImageUploadStepCmd;
 import com.vmware.photon.controller.apife.commands.tasks.TaskCommand;
 import com.vmware.photon.controller.apife.commands.tasks.TaskCommandFactory;
+import com.vmware.photon.controller.apife.config.ImageConfig;
+import com.vmware.photon.controller.apife.entities.ImageEntity;
 import com.vmware.photon.controller.apife.entities.TaskEntity;
+import com.vmware.photon.controller.apife.exceptions.external.ImageUploadException;
 import com.vmware.photon.controller.apife.exceptions.internal.InternalException;
+import com.vmware.photon.controller.apife.lib.ImageUploadStagingArea;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Frontend client for image used by {@link ImageResource}.
+ * <p/>
+ * The chunks of an upload session are staged on the API-FE node that created it, so load balancers have to keep the
+ * requests of an upload on that node. Requests for an upload of another node are rejected with an error naming the
+ * node, which is kept in the resource properties of the upload task.
  */
 @Singleton
 public class ImageFeClient {
 
   private static final Logger logger = LoggerFactory.getLogger(VmFeClient.class);
 
+  /**
+   * Longest time between two checks for expired upload sessions.
+   */
+  private static final long MAX_UPLOAD_EXPIRY_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
   private final TaskCommandFactory commandFactory;
   private final ExecutorService executor;
   private final ImageBackend imageBackend;
   private final TaskBackend taskBackend;
+  private final ImageUploadStagingArea uploadStagingArea;
+  private final long uploadSessionTimeoutMillis;
+
+  /**
+   * Tasks of the upload sessions that have not been committed yet, by upload id. The UPLOAD_IMAGE step of these tasks
+   * only gets its input stream when the upload is committed.
+   */
+  private final Map<String, TaskEntity> uploadTasks = new ConcurrentHashMap<>();
+
+  /**
+   * Uploads found in the staging area on start, which were left behind by an earlier run of the service.
+   */
+  private final Set<String> staleUploads = ConcurrentHashMap.newKeySet();
 
   @Inject
   public ImageFeClient(TaskCommandFactory commandFactory, ImageBackend imageBackend,
-                       @BackendTaskExecutor ExecutorService executor, TaskBackend taskBackend) {
+                       @BackendTaskExecutor ExecutorService executor, TaskBackend taskBackend,
+                       ImageUploadStagingArea uploadStagingArea, ImageConfig imageConfig) {
     this.commandFactory = commandFactory;
     this.executor = executor;
     this.imageBackend = imageBackend;
     this.taskBackend = taskBackend;
+    this.uploadStagingArea = uploadStagingArea;
+    this.uploadSessionTimeoutMillis = imageConfig.getUploadSessionTimeout().toMilliseconds();
+    this.staleUploads.addAll(uploadStagingArea.findIdleSince(Long.MAX_VALUE));
+
+    long expiryIntervalMillis = Math.min(uploadSessionTimeoutMillis, MAX_UPLOAD_EXPIRY_INTERVAL_MILLIS);
+    ScheduledExecutorService expiryTimer = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("ImageUploadExpiryTimer-%d").setDaemon(true).build());
+    expiryTimer.scheduleWithFixedDelay(
+        this::backgroundExpireUploads, expiryIntervalMillis, expiryIntervalMillis, TimeUnit.MILLISECONDS);
   }
 
   public Task create(InputStream inputStream, String name, ImageReplicationType replicationType) throws
       InternalException, ExternalException {
     TaskEntity taskEntity = imageBackend.prepareImageUpload(inputStream, name, replicationType);
+    return runImageUpload(taskEntity);
+  }
+
+  /**
+   * Start an upload session. The image is created right away, and its chunks can be sent with
+   * {@link #uploadChunk(String, int, InputStream)} until the upload is committed. The id of the returned task is the
+   * id of the upload.
+   */
+  public Task createUpload(ImageCreateSpec imageCreateSpec) throws InternalException, ExternalException {
+    TaskEntity taskEntity = imageBackend.prepareImageUpload(
+        null, imageCreateSpec.getName(), imageCreateSpec.getReplicationType());
+    try {
+      uploadStagingArea.create(taskEntity.getId());
+    } catch (InternalException e) {
+      failUpload(taskEntity, new ImageUploadException("Failed to create upload " + taskEntity.getId(), e));
+      throw e;
+    }
+
+    uploadTasks.put(taskEntity.getId(), taskEntity);
+    updateUploadProgress(taskEntity);
+    logger.info("Created upload {} of image {}", taskEntity.getId(), taskEntity.getEntityId());
+    return taskBackend.getApiRepresentation(taskEntity.getId());
+  }
+
+  /**
+   * Add a chunk to an upload session. A chunk can be sent again if its upload failed, which replaces the earlier
+   * attempt. The progress of the upload is kept in the resource properties of its task.
+   */
+  public Task uploadChunk(String uploadId, int index, InputStream inputStream)
+      throws InternalException, ExternalException {
+    TaskEntity taskEntity = getUploadTask(uploadId);
+    uploadStagingArea.addChunk(uploadId, index, inputStream);
+    updateUploadProgress(taskEntity);
+    return taskBackend.getApiRepresentation(taskEntity.getId());
+  }
+
+  /**
+   * Commit an upload session, which uploads the concatenation of its chunks like a single image upload.
+   */
+  public Task commitUpload(String uploadId) throws InternalException, ExternalException {
+    TaskEntity taskEntity = getUploadTask(uploadId);
+    InputStream inputStream = uploadStagingArea.openImage(uploadId);
+
+    // Taking the task out of the open uploads is what commits the upload, so a concurrent commit or expiry of the
+    // same upload either fails here or does not find the upload anymore.
+    if (uploadTasks.remove(uploadId) == null) {
+      closeQuietly(inputStream);
+      throw new ImageUploadException(String.format("Upload %s has already been committed or expired", uploadId));
+    }
+
+    try {
+      taskEntity.findStep(Operation.UPLOAD_IMAGE)
+          .createOrUpdateTransientResource(ImageUploadStepCmd.INPUT_STREAM, inputStream);
+      logger.info("Committing upload {} of image {}", uploadId, taskEntity.getEntityId());
+      return runImageUpload(taskEntity);
+    } finally {
+      closeQuietly(inputStream);
+      uploadStagingArea.delete(uploadId);
+    }
+  }
+
+  public Task delete(String id) throws ExternalException {
+    TaskEntity taskEntity = imageBackend.prepareImageDelete(id);
+    Task task = taskBackend.getApiRepresentation(taskEntity);
+
+    TaskCommand command = commandFactory.create(taskEntity);
+    logger.info("Submit task: {} {}", task.getId(), task.getOperation());
+    executor.submit(command);
+    return task;
+  }
+
+  public Image get(String id) throws ExternalException {
+    return imageBackend.toApiRepresentation(id);
+  }
+
+  public ResourceList<Image> list(Optional<Integer> pageSize) throws ExternalException {
+    return imageBackend.getListApiRepresentation(pageSize);
+  }
+
+  public ResourceList<Image> getImagesPage(String pageLink) throws ExternalException {
+    return imageBackend.getImagesPage(pageLink);
+  }
+
+  /**
+   * Fail the upload sessions that had no activity for longer than the upload session timeout, and delete their
+   * chunks. This includes sessions left behind by an earlier run of the service, which can no longer be committed.
+   */
+  @VisibleForTesting
+  void expireUploads() {
+    long idleSince = System.currentTimeMillis() - uploadSessionTimeoutMillis;
+    for (String uploadId : uploadStagingArea.findIdleSince(idleSince)) {
+      TaskEntity taskEntity = uploadTasks.remove(uploadId);
+      if (taskEntity == null && !staleUploads.remove(uploadId)) {
+        // the upload is being committed
+        continue;
+      }
+
+      logger.info("Upload {} expired", uploadId);
+      uploadStagingArea.delete(uploadId);
+      try {
+        if (taskEntity == null) {
+          taskEntity = taskBackend.findById(uploadId);
+          if (taskEntity.getState() != TaskEntity.State.QUEUED) {
+            continue;
+          }
+        }
+        failUpload(taskEntity, new ImageUploadException(String.format("Upload %s expired", uploadId)));
+      } catch (ExternalException e) {
+        logger.warn("Failed to mark expired upload {} as failed", uploadId, e);
+      }
+    }
+  }
+
+  private Task runImageUpload(TaskEntity taskEntity) throws InternalException, ExternalException {
     boolean hasReplicateImageStep = taskEntity.containsStep(Operation.REPLICATE_IMAGE);
 
     // Run UPLOAD_IMAGE step synchronously.
@@ -77,22 +247,71 @@ public class ImageFeClient {
     return task;
   }
 
-  public Task delete(String id) throws ExternalException {
-    TaskEntity taskEntity = imageBackend.prepareImageDelete(id);
-    Task task = taskBackend.getApiRepresentation(taskEntity);
+  private TaskEntity getUploadTask(String uploadId) throws ImageUploadException {
+    TaskEntity taskEntity = uploadTasks.get(uploadId);
+    if (taskEntity != null) {
+      return taskEntity;
+    }
 
-    TaskCommand command = commandFactory.create(taskEntity);
-    logger.info("Submit task: {} {}", task.getId(), task.getOperation());
-    executor.submit(command);
-    return task;
+    String node = findUploadNode(uploadId);
+    if (node != null && !node.equals(uploadStagingArea.getNode())) {
+      throw new ImageUploadException(String.format(
+          "Upload %s was created on API-FE node %s, its chunks and commit have to be sent to that node",
+          uploadId, node));
+    }
+    throw new ImageUploadException(String.format("Upload %s does not exist", uploadId));
   }
 
-  public Image get(String id) throws ExternalException {
-    return imageBackend.toApiRepresentation(id);
+  /**
+   * @return node of an upload that has not been committed yet, or null if there is no such upload
+   */
+  private String findUploadNode(String uploadId) {
+    try {
+      TaskEntity taskEntity = taskBackend.findById(uploadId);
+      if (taskEntity.getState() != TaskEntity.State.QUEUED || taskEntity.getResourceProperties() == null) {
+        return null;
+      }
+
+      JsonNode node = objectMapper.readTree(taskEntity.getResourceProperties()).get("uploadNode");
+      return node == null ? null : node.asText();
+    } catch (TaskNotFoundException | IOException e) {
+      return null;
+    }
   }
 
-  public ResourceList<Image> list() throws ExternalException {
-    return new ResourceList<>(imageBackend.getListApiRepresentation());
+  private void updateUploadProgress(TaskEntity taskEntity) throws InternalException, ExternalException {
+    String uploadId = taskEntity.getId();
+    try {
+      taskBackend.setTaskResourceProperties(taskEntity, objectMapper.writeValueAsString(ImmutableMap.of(
+          "uploadedChunks", uploadStagingArea.getChunkCount(uploadId),
+          "uploadedBytes", uploadStagingArea.getUploadedBytes(uploadId),
+          "uploadNode", uploadStagingArea.getNode())));
+    } catch (JsonProcessingException e) {
+      throw new InternalException(e);
+    }
+  }
+
+  private void failUpload(TaskEntity taskEntity, ExternalException e) throws ExternalException {
+    ImageEntity imageEntity = imageBackend.findById(taskEntity.getEntityId());
+    imageBackend.updateState(imageEntity, ImageState.ERROR);
+    taskBackend.markAllStepsAsFailed(taskEntity, e);
+  }
+
+  private void backgroundExpireUploads() {
+    try {
+      expireUploads();
+    } catch (Throwable t) {
+      // an escaping exception would cancel the periodic expiry
+      logger.warn("Failed to expire image uploads", t);
+    }
+  }
+
+  private static void closeQuietly(InputStream inputStream) {
+    try {
+      inputStream.close();
+    } catch (IOException e) {
+      logger.warn("Failed to close upload stream", e);
+    }
   }
 
   private Task runImageUploadSyncSteps(TaskEntity taskEntity, boolean hasReplicateImageStep)
@@ -47,9 +47,13 @@ public class ProjectFeClient {
     return projectBackend.getApiRepresentation(id);
   }
 
-  public ResourceList<Project> find(String tenantId, Optional<String> name)
+  public ResourceList<Project> find(String tenantId, Optional<String> name, Optional<Integer> pageSize)
       throws ExternalException {
-    return new ResourceList<>(projectBackend.filter(tenantId, name));
+    return projectBackend.filter(tenantId, name, pageSize);
+  }
+
+  public ResourceList<Project> getProjectsPage(String pageLink) throws ExternalException {
+    return projectBackend.getProjectsPage(pageLink);
   }
 
   public Task create(String tenantId, ProjectCreateSpec project) throws ExternalException {
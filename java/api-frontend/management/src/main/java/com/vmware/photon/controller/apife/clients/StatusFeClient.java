@@ -48,33 +48,48 @@ import com.vmware.photon.controller.status.gen.StatusType;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
-import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.List;
+import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 /**
  * Frontend client used by {@link StatusResource}.
+ * <p/>
+ * The system status is collected periodically in the background and requests are served from the last snapshot,
+ * so that frequent status polling does not fan out to every component server on each call.
  */
 @Singleton
 public class StatusFeClient {
 
   private static final Logger logger = LoggerFactory.getLogger(StatusFeClient.class);
-  private static final long GET_STATUS_TIMEOUT_SECONDS = 45;
   private final Set<Component> components;
   private final Map<Component, StatusProviderFactory> statusProviderFactories;
   private final ExecutorService executor;
+  private final long refreshIntervalMillis;
+  private final long timeoutMillis;
+  private final ScheduledExecutorService refreshTimer;
+  private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+  private final Object refreshLock = new Object();
+  private volatile SystemStatus lastSystemStatus;
 
   /**
    * Creating StatusFeClient with component server sets to iterate through individual servers to get their status.
@@ -112,6 +127,10 @@ public class StatusFeClient {
       StatusConfig statusConfig) {
     this.executor = executor;
     this.components = statusConfig.getComponents();
+    this.refreshIntervalMillis = TimeUnit.SECONDS.toMillis(statusConfig.getRefreshIntervalSeconds());
+    this.timeoutMillis = TimeUnit.SECONDS.toMillis(statusConfig.getTimeoutSeconds());
+    this.refreshTimer = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("StatusRefreshTimer-%d").setDaemon(true).build());
 
     statusProviderFactories = Maps.newEnumMap(Component.class);
     statusProviderFactories.put(Component.HOUSEKEEPER, new ThriftClientFactory(
@@ -128,9 +147,40 @@ public class StatusFeClient {
   }
 
   public SystemStatus getSystemStatus() throws InternalException {
+    return getSystemStatus(false);
+  }
+
+  /**
+   * Returns the last collected system status. The status is collected right away when a refresh is requested,
+   * when there is no snapshot yet or when the background refresh fell behind by more than one interval.
+   */
+  public SystemStatus getSystemStatus(boolean refresh) throws InternalException {
+    scheduleRefresh();
+    if (refresh) {
+      return refreshSystemStatus();
+    }
+
+    SystemStatus systemStatus = lastSystemStatus;
+    if (systemStatus != null && !isStale(systemStatus)) {
+      return systemStatus;
+    }
+
+    synchronized (refreshLock) {
+      systemStatus = lastSystemStatus;
+      if (systemStatus == null || isStale(systemStatus)) {
+        systemStatus = refreshSystemStatus();
+      }
+    }
+    return systemStatus;
+  }
+
+  /**
+   * Queries all component instances in parallel and stores the result as the latest snapshot.
+   */
+  public SystemStatus refreshSystemStatus() throws InternalException {
     logger.info("Getting system status");
     SystemStatus systemStatus = new SystemStatus();
-    List<Callable<Status>> componentStatuses = new ArrayList<>();
+    Map<ComponentInstance, Future<Status>> componentStatuses = new IdentityHashMap<>();
     // iterating over all the components to get their statuses
     for (Component component : components) {
       // iterating over each server in server set for each component to get status for that instance
@@ -147,29 +197,42 @@ public class StatusFeClient {
           componentStatus.addInstance(instance);
           Callable<Status> callable = () -> {
             try {
-              Status status = client.getStatus();
-              instance.setStats(status.getStats());
-              instance.setStatus(status.getType());
-              instance.setMessage(status.getMessage());
-              instance.setBuildInfo(status.getBuild_info());
-              return status;
+              return client.getStatus();
             } catch (Exception e) {
               logger.error("client.getStatus() call failed with Exception: %s", e);
               throw e;
             }
           };
-          componentStatuses.add(callable);
+          componentStatuses.put(instance, executor.submit(callable));
         }
       }
 
       systemStatus.getComponents().add(componentStatus);
     }
 
-    try {
-      executor.invokeAll(componentStatuses, GET_STATUS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-    } catch (InterruptedException ex) {
-      logger.error("InterruptedException when calling get_status in parallel", ex);
-      throw new InternalException(ex);
+    // every instance is queried in parallel and gets the same timeout, an instance that does not answer in time is
+    // reported as unreachable without holding up the others
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    for (Map.Entry<ComponentInstance, Future<Status>> entry : componentStatuses.entrySet()) {
+      ComponentInstance instance = entry.getKey();
+      try {
+        Status status = entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        instance.setStats(status.getStats());
+        instance.setStatus(status.getType());
+        instance.setMessage(status.getMessage());
+        instance.setBuildInfo(status.getBuild_info());
+      } catch (TimeoutException ex) {
+        entry.getValue().cancel(true);
+        instance.setMessage(String.format("Status check timed out after %d ms", timeoutMillis));
+      } catch (ExecutionException ex) {
+        // the failure has already been logged, the instance stays unreachable
+      } catch (InterruptedException ex) {
+        logger.error("InterruptedException when calling get_status in parallel", ex);
+        for (Future<Status> future : componentStatuses.values()) {
+          future.cancel(true);
+        }
+        throw new InternalException(ex);
+      }
     }
 
     computeSingleComponentStatus(systemStatus);
@@ -183,6 +246,8 @@ public class StatusFeClient {
       overall = StatusType.ERROR;
     }
     systemStatus.setStatus(overall);
+    systemStatus.setLastUpdatedTime(new Date());
+    lastSystemStatus = systemStatus;
     logger.info("Returning system status {}", systemStatus);
     return systemStatus;
   }
@@ -192,6 +257,26 @@ public class StatusFeClient {
     return statusProviderFactories;
   }
 
+  private boolean isStale(SystemStatus systemStatus) {
+    return System.currentTimeMillis() - systemStatus.getLastUpdatedTime().getTime() > 2 * refreshIntervalMillis;
+  }
+
+  private void scheduleRefresh() {
+    if (refreshScheduled.compareAndSet(false, true)) {
+      refreshTimer.scheduleWithFixedDelay(
+          this::backgroundRefresh, refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void backgroundRefresh() {
+    try {
+      refreshSystemStatus();
+    } catch (Throwable t) {
+      // an escaping exception would cancel the periodic refresh
+      logger.warn("Failed to refresh system status", t);
+    }
+  }
+
   private void computeSingleComponentStatus(SystemStatus systemStatus) {
     for (ComponentStatus componentStatus : systemStatus.getComponents()) {
       StatusFeClientUtils.computeSingleComponentStatus(componentStatus);
@@ -16,6 +16,7 @@ package com.vmware.photon.controller.apife.commands;
 import com.vmware.photon.controller.api.common.exceptions.ApiFeException;
 import com.vmware.photon.controller.api.common.exceptions.external.ConcurrentTaskException;
 import com.vmware.photon.controller.api.common.exceptions.external.TaskNotFoundException;
+import com.vmware.photon.controller.apife.exceptions.internal.CommandDeferredException;
 import com.vmware.photon.controller.common.clients.exceptions.RpcException;
 
 import org.apache.commons.lang3.time.StopWatch;
@@ -57,6 +58,13 @@ public abstract class BaseCommand implements Runnable {
       markAsStarted();
       execute();
       markAsDone();
+    } catch (CommandDeferredException e) {
+      try {
+        logger.info("Command execution deferred for {}ms", e.getDelayMillis());
+        markAsDeferred(e);
+      } catch (TaskNotFoundException ex) {
+        logger.warn("Could not find task to mark as deferred, TaskId=" + ex.getTaskId(), ex);
+      }
     } catch (Throwable t) {
       try {
         logger.error("Command execution failed with exception", t);
@@ -85,4 +93,11 @@ public abstract class BaseCommand implements Runnable {
   protected abstract void markAsDone() throws TaskNotFoundException;
 
   protected abstract void markAsFailed(Throwable t) throws TaskNotFoundException;
+
+  /**
+   * Called when execution asked to be run again later. Commands that cannot be resumed fail instead.
+   */
+  protected void markAsDeferred(CommandDeferredException e) throws TaskNotFoundException {
+    markAsFailed(e);
+  }
 }
@@ -54,7 +54,14 @@ public class ImageDeleteStepCmd extends StepCommand {
     ImageEntity image = entityList.get(0);
 
     try {
-      imageStore.deleteImage(image.getId());
+      // Mark the image first so that an upload linking to its files at the same time either backs off or is seen
+      // by the shared content check below.
+      imageBackend.updateState(image, ImageState.PENDING_DELETE);
+      if (imageBackend.isContentShared(image)) {
+        logger.info("Files of image {} are used by other images, keeping them", image.getContentImageId());
+      } else {
+        imageStore.deleteImage(image.getContentImageId());
+      }
     } catch (Exception e) {
       logger.error("Delete image {} failed", image.getId(), e);
       imageBackend.updateState(image, ImageState.ERROR);
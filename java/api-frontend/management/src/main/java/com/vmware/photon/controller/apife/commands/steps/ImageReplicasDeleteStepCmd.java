@@ -14,6 +14,7 @@
 package com.vmware.photon.controller.apife.commands.steps;
 
 import com.vmware.photon.controller.api.common.exceptions.ApiFeException;
+import com.vmware.photon.controller.apife.backends.ImageBackend;
 import com.vmware.photon.controller.apife.backends.StepBackend;
 import com.vmware.photon.controller.apife.commands.tasks.TaskCommand;
 import com.vmware.photon.controller.apife.entities.ImageEntity;
@@ -33,8 +34,12 @@ public class ImageReplicasDeleteStepCmd extends StepCommand {
 
   private static Logger logger = LoggerFactory.getLogger(ImageReplicasDeleteStepCmd.class);
 
-  public ImageReplicasDeleteStepCmd(TaskCommand taskCommand, StepBackend stepBackend, StepEntity step) {
+  private final ImageBackend imageBackend;
+
+  public ImageReplicasDeleteStepCmd(TaskCommand taskCommand, StepBackend stepBackend, StepEntity step,
+                                    ImageBackend imageBackend) {
     super(taskCommand, stepBackend, step);
+    this.imageBackend = imageBackend;
   }
 
   @Override
@@ -44,10 +49,15 @@ public class ImageReplicasDeleteStepCmd extends StepCommand {
         "There should be only 1 image referenced by step %s", step.getId());
     ImageEntity image = entityList.get(0);
 
+    if (imageBackend.isContentShared(image)) {
+      logger.info("Replicas of image {} are used by other images, keeping them", image.getContentImageId());
+      return;
+    }
+
     try {
-      taskCommand.getHousekeeperClient().removeImage(image.getId());
+      taskCommand.getHousekeeperClient().removeImage(image.getContentImageId());
     } catch (InterruptedException | RpcException e) {
-      logger.error("Delete image {} replicas failed", image.getId(), e);
+      logger.error("Delete image {} replicas failed", image.getContentImageId(), e);
     }
   }
 
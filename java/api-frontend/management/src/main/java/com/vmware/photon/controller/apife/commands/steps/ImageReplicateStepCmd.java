@@ -55,7 +55,10 @@ public class ImageReplicateStepCmd extends StepCommand {
 
     ImageEntity imageEntity = entityList.get(0);
 
-    if (imageStore.isReplicationNeeded()) {
+    if (!imageEntity.getContentImageId().equals(imageEntity.getId())) {
+      logger.info("Image {} uses the replicated files of image {}", imageEntity.getId(),
+          imageEntity.getContentImageId());
+    } else if (imageStore.isReplicationNeeded()) {
       logger.info("Start replicating image {} in datastore {}", imageEntity.getId(), imageStore.getDatastore());
       try {
         taskCommand.getHousekeeperClient().replicateImage(imageStore.getDatastore(), imageEntity.getId());
@@ -19,24 +19,37 @@ import com.vmware.photon.controller.api.common.exceptions.ApiFeException;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
 import com.vmware.photon.controller.apife.backends.ImageBackend;
 import com.vmware.photon.controller.apife.backends.StepBackend;
+import com.vmware.photon.controller.apife.backends.TaskBackend;
 import com.vmware.photon.controller.apife.commands.tasks.TaskCommand;
 import com.vmware.photon.controller.apife.config.ImageConfig;
 import com.vmware.photon.controller.apife.entities.ImageEntity;
 import com.vmware.photon.controller.apife.entities.StepEntity;
+import com.vmware.photon.controller.apife.entities.TaskEntity;
+import com.vmware.photon.controller.apife.exceptions.external.ImageNotFoundException;
+import com.vmware.photon.controller.apife.exceptions.external.ImageUploadException;
 import com.vmware.photon.controller.apife.exceptions.external.InvalidVmdkFormatException;
 import com.vmware.photon.controller.apife.exceptions.internal.InternalException;
 import com.vmware.photon.controller.apife.lib.ImageStore;
 import com.vmware.photon.controller.apife.lib.image.ImageLoader;
 import com.vmware.transfer.streamVmdk.VmdkFormatException;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Step to upload an image.
@@ -46,18 +59,26 @@ public class ImageUploadStepCmd extends StepCommand {
   public static final String INPUT_STREAM = "input-stream";
 
   private static final Logger logger = LoggerFactory.getLogger(ImageUploadStepCmd.class);
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final TaskBackend taskBackend;
 
   private final ImageBackend imageBackend;
 
   private final ImageStore imageStore;
 
+  private final List<ImageStore> targetStores;
+
   private final ImageConfig config;
 
   public ImageUploadStepCmd(TaskCommand taskCommand, StepBackend stepBackend, StepEntity step,
-                            ImageBackend imageBackend, ImageStore imageStore, ImageConfig imageConfig) {
+                            TaskBackend taskBackend, ImageBackend imageBackend, ImageStore imageStore,
+                            List<ImageStore> targetStores, ImageConfig imageConfig) {
     super(taskCommand, stepBackend, step);
+    this.taskBackend = taskBackend;
     this.imageBackend = imageBackend;
     this.imageStore = imageStore;
+    this.targetStores = targetStores;
     this.config = imageConfig;
   }
 
@@ -75,10 +96,26 @@ public class ImageUploadStepCmd extends StepCommand {
       ImageLoader.Result result = getImageLoader().loadImage(imageEntity, inputStream);
       imageBackend.updateSettings(imageEntity, result.imageSettings);
       imageBackend.updateSize(imageEntity, result.imageSize);
-      if (imageEntity.getReplicationType() == ImageReplicationType.ON_DEMAND) {
+
+      ImageEntity sameImage = findImageWithSameContent(imageEntity, result);
+      if (sameImage != null && useContentOf(imageEntity, sameImage, result)) {
+        imageStore.deleteImage(imageEntity.getId());
+        for (ImageStore targetStore : targetStores) {
+          if (result.replicatedDatastores.contains(targetStore.getDatastore())) {
+            targetStore.deleteImage(imageEntity.getId());
+          }
+        }
+        reportTargets(Collections.emptyList(), Collections.emptyList());
         imageBackend.updateState(imageEntity, ImageState.READY);
+        return;
       }
+
+      imageBackend.updateContent(imageEntity, result.contentDigest, imageEntity.getId());
       imageBackend.updateImageDatastore(imageEntity.getId(), config.getDatastore());
+      registerTargets(imageEntity, result);
+      if (imageEntity.getReplicationType() == ImageReplicationType.ON_DEMAND) {
+        imageBackend.updateState(imageEntity, ImageState.READY);
+      }
     } catch (VmdkFormatException e) {
       imageBackend.updateState(imageEntity, ImageState.ERROR);
       throw new InvalidVmdkFormatException(e.getMessage());
@@ -95,9 +132,110 @@ public class ImageUploadStepCmd extends StepCommand {
   protected void cleanup() {
   }
 
+  /**
+   * Register the copies of the image on the target datastores. A target the image could not be copied to or whose
+   * copy could not be registered is reported as a warning of the step, the image is replicated to it later like to
+   * any other image datastore.
+   */
+  private void registerTargets(ImageEntity imageEntity, ImageLoader.Result result)
+      throws ExternalException, IOException {
+    List<Throwable> warnings = new ArrayList<>();
+    for (Map.Entry<String, Throwable> failedDatastore : result.failedDatastores.entrySet()) {
+      warnings.add(new ImageUploadException(String.format("Failed to upload image %s to datastore %s: %s",
+          imageEntity.getId(), failedDatastore.getKey(), failedDatastore.getValue().getMessage()),
+          failedDatastore.getValue()));
+    }
+
+    List<String> replicatedDatastores = new ArrayList<>();
+    for (String datastore : result.replicatedDatastores) {
+      try {
+        imageBackend.updateImageDatastore(imageEntity.getId(), datastore);
+        replicatedDatastores.add(datastore);
+      } catch (ExternalException e) {
+        warnings.add(new ImageUploadException(String.format("Failed to register image %s on datastore %s: %s",
+            imageEntity.getId(), datastore, e.getMessage()), e));
+      }
+    }
+
+    reportTargets(replicatedDatastores, warnings);
+  }
+
+  /**
+   * Report the target datastores that hold a copy of the image in the resource properties of the task, next to the
+   * upload progress already stored there, and add the warnings of the targets to the step.
+   */
+  private void reportTargets(List<String> replicatedDatastores, List<Throwable> warnings)
+      throws ExternalException, IOException {
+    if (targetStores.isEmpty()) {
+      return;
+    }
+
+    TaskEntity task = taskCommand.getTask();
+    String resourceProperties = taskBackend.findById(task.getId()).getResourceProperties();
+    JsonNode node = StringUtils.isBlank(resourceProperties) ? null : objectMapper.readTree(resourceProperties);
+    ObjectNode properties = node instanceof ObjectNode ? (ObjectNode) node : objectMapper.createObjectNode();
+    properties.set("replicatedDatastores", objectMapper.valueToTree(replicatedDatastores));
+    taskBackend.setTaskResourceProperties(task, objectMapper.writeValueAsString(properties));
+
+    if (!warnings.isEmpty()) {
+      stepBackend.addWarnings(step, warnings);
+    }
+  }
+
+  /**
+   * Find a ready image with the same content and settings as the uploaded one, whose files can be used instead of
+   * the uploaded copy.
+   */
+  private ImageEntity findImageWithSameContent(ImageEntity imageEntity, ImageLoader.Result result)
+      throws ExternalException {
+    Map<String, String> imageSettings = new HashMap<>();
+    for (Map.Entry<String, String> imageSetting : result.imageSettings.entrySet()) {
+      imageSettings.put(imageSetting.getKey(),
+          StringUtils.isBlank(imageSetting.getValue()) ? "" : imageSetting.getValue());
+    }
+
+    for (ImageEntity image : imageBackend.findByContentDigest(result.contentDigest)) {
+      if (!image.getId().equals(imageEntity.getId()) &&
+          image.getState() == ImageState.READY &&
+          image.getReplicationType() == imageEntity.getReplicationType() &&
+          image.getImageSettingsMap().equals(imageSettings)) {
+        return image;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Point the uploaded image at the files of the image with the same content. The other image is checked again
+   * after linking, since a delete of it may have started in the meantime: the delete marks the image
+   * PENDING_DELETE before checking whether its files are shared, so either it sees the link and keeps the files,
+   * or the uploaded image goes back to its own files.
+   */
+  private boolean useContentOf(ImageEntity imageEntity, ImageEntity sameImage, ImageLoader.Result result)
+      throws ExternalException {
+    imageBackend.updateContent(imageEntity, result.contentDigest, sameImage.getContentImageId());
+
+    ImageState sameImageState;
+    try {
+      sameImageState = imageBackend.findById(sameImage.getId()).getState();
+    } catch (ImageNotFoundException e) {
+      sameImageState = null;
+    }
+
+    if (sameImageState != ImageState.READY) {
+      logger.info("Image {} is being deleted, image {} keeps its own files", sameImage.getId(), imageEntity.getId());
+      return false;
+    }
+
+    logger.info("Image {} has the same content as image {}, using the files of image {}",
+        imageEntity.getId(), sameImage.getId(), sameImage.getContentImageId());
+    return true;
+  }
+
   @VisibleForTesting
   protected ImageLoader getImageLoader() throws InternalException {
-    return new ImageLoader(imageStore);
+    return new ImageLoader(imageStore, targetStores, config.getUploadTargetStallTimeout().toMilliseconds());
   }
 
 }
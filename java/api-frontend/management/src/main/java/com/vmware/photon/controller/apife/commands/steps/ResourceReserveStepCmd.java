@@ -25,6 +25,7 @@ import com.vmware.photon.controller.api.common.exceptions.external.ExternalExcep
 import com.vmware.photon.controller.api.common.exceptions.external.TaskNotFoundException;
 import com.vmware.photon.controller.apife.backends.DiskBackend;
 import com.vmware.photon.controller.apife.backends.FlavorBackend;
+import com.vmware.photon.controller.apife.backends.ImageBackend;
 import com.vmware.photon.controller.apife.backends.NetworkBackend;
 import com.vmware.photon.controller.apife.backends.StepBackend;
 import com.vmware.photon.controller.apife.backends.VmBackend;
@@ -42,7 +43,9 @@ import com.vmware.photon.controller.apife.entities.base.InfrastructureEntity;
 import com.vmware.photon.controller.apife.exceptions.external.DiskNotFoundException;
 import com.vmware.photon.controller.apife.exceptions.external.InvalidLocalitySpecException;
 import com.vmware.photon.controller.apife.exceptions.external.NetworkNotFoundException;
+import com.vmware.photon.controller.apife.exceptions.external.PlacementRetryException;
 import com.vmware.photon.controller.apife.exceptions.external.UnfulfillableAffinitiesException;
+import com.vmware.photon.controller.apife.exceptions.internal.CommandDeferredException;
 import com.vmware.photon.controller.apife.exceptions.internal.InternalException;
 import com.vmware.photon.controller.common.clients.exceptions.InvalidSchedulerException;
 import com.vmware.photon.controller.common.clients.exceptions.NoSuchResourceException;
@@ -77,6 +80,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -86,6 +90,12 @@ public class ResourceReserveStepCmd extends StepCommand {
 
   private static final int MAX_PLACEMENT_RETRIES = 5;
   private static final long PLACEMENT_RETRY_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+  private static final long MAX_PLACEMENT_RETRY_INTERVAL = TimeUnit.SECONDS.toMillis(16);
+
+  /**
+   * Transient step resource holding the number of placement attempts made so far, kept across deferred runs.
+   */
+  private static final String PLACEMENT_ATTEMPTS = "placementAttempts";
 
   private static final String DISK_KIND = "disk";
   private static final String VM_KIND = "vm";
@@ -98,6 +108,7 @@ public class ResourceReserveStepCmd extends StepCommand {
   private final VmBackend vmBackend;
   private final NetworkBackend networkBackend;
   private final FlavorBackend flavorBackend;
+  private final ImageBackend imageBackend;
   private InfrastructureEntity infrastructureEntity;
 
   public ResourceReserveStepCmd(TaskCommand taskCommand,
@@ -106,13 +117,15 @@ public class ResourceReserveStepCmd extends StepCommand {
                                 DiskBackend diskBackend,
                                 VmBackend vmBackend,
                                 NetworkBackend networkBackend,
-                                FlavorBackend flavorBackend) {
+                                FlavorBackend flavorBackend,
+                                ImageBackend imageBackend) {
     super(taskCommand, stepBackend, step);
 
     this.diskBackend = diskBackend;
     this.vmBackend = vmBackend;
     this.networkBackend = networkBackend;
     this.flavorBackend = flavorBackend;
+    this.imageBackend = imageBackend;
   }
 
   @Override
@@ -205,8 +218,9 @@ public class ResourceReserveStepCmd extends StepCommand {
       if (attachedDisk.isBootDisk()) {
         // Use image specified in flavor.
         checkNotNull(entity.getImageId());
-        logger.info("Use image {} as boot disk", entity.getImageId());
-        disk.setImage(new DiskImage(entity.getImageId(), CloneType.COPY_ON_WRITE));
+        String contentImageId = imageBackend.findById(entity.getImageId()).getContentImageId();
+        logger.info("Use image {} with the files of image {} as boot disk", entity.getImageId(), contentImageId);
+        disk.setImage(new DiskImage(contentImageId, CloneType.COPY_ON_WRITE));
       }
       List<ResourceConstraint> datastoreTagConstraints = createDatastoreConstraint(disk.getFlavor_info());
       for (ResourceConstraint resourceConstraint : datastoreTagConstraints) {
@@ -355,7 +369,8 @@ public class ResourceReserveStepCmd extends StepCommand {
 
   private String loadReservation(Resource resource, String targetHostIp)
       throws InterruptedException, ApiFeException, RpcException {
-    int retries = 0;
+    Integer previousAttempts = (Integer) step.getTransientResource(PLACEMENT_ATTEMPTS);
+    int retries = previousAttempts == null ? 0 : previousAttempts;
 
     while (true) {
       try {
@@ -400,20 +415,42 @@ public class ResourceReserveStepCmd extends StepCommand {
           throw e;
         }
 
+        // the host state changed since placement, placing again right away is expected to succeed.
+        recordPlacementRetry(retries, e, 0);
         logger.info("retrying: {}", e.getClass().toString());
       } catch (InvalidSchedulerException e) {
         if (++retries >= MAX_PLACEMENT_RETRIES) {
           throw e;
         }
 
-        // we should sleep here a bit between retries to give the scheduling tree some time to stabilize.
-        Thread.sleep(PLACEMENT_RETRY_INTERVAL);
-        logger.info("retrying: {}", e.getClass().toString());
+        // give the scheduling tree some time to stabilize, without holding the worker thread meanwhile.
+        long delay = getPlacementRetryDelay(retries);
+        recordPlacementRetry(retries, e, delay);
+        logger.info("retrying in {}ms: {}", delay, e.getClass().toString());
+        throw new CommandDeferredException(delay, e);
       }
 
     }
   }
 
+  /**
+   * Records a failed placement attempt on the step, so that users can see why the reservation is taking long.
+   */
+  private void recordPlacementRetry(int attempt, Throwable t, long delay) throws TaskNotFoundException {
+    step.createOrUpdateTransientResource(PLACEMENT_ATTEMPTS, attempt);
+    stepBackend.addWarning(step,
+        new PlacementRetryException(attempt, MAX_PLACEMENT_RETRIES, t.getClass().getSimpleName(), delay));
+  }
+
+  /**
+   * Returns a random delay between half and all of an interval doubling with each attempt.
+   */
+  @VisibleForTesting
+  static long getPlacementRetryDelay(int attempt) {
+    long interval = Math.min(PLACEMENT_RETRY_INTERVAL << Math.min(attempt - 1, 30), MAX_PLACEMENT_RETRY_INTERVAL);
+    return interval / 2 + ThreadLocalRandom.current().nextLong(interval / 2 + 1);
+  }
+
   private Flavor getFlavor(InfrastructureEntity infrastructureEntity) throws ExternalException {
     Flavor flavorInfo = new Flavor();
     FlavorEntity flavorEntity = flavorBackend.getEntityById(infrastructureEntity.getFlavorId());
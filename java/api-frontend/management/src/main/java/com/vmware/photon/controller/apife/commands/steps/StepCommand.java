@@ -18,6 +18,7 @@ import com.vmware.photon.controller.apife.backends.StepBackend;
 import com.vmware.photon.controller.apife.commands.BaseCommand;
 import com.vmware.photon.controller.apife.commands.tasks.TaskCommand;
 import com.vmware.photon.controller.apife.entities.StepEntity;
+import com.vmware.photon.controller.apife.exceptions.internal.CommandDeferredException;
 
 import org.apache.commons.lang3.StringUtils;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -31,6 +32,7 @@ public abstract class StepCommand extends BaseCommand {
   protected final TaskCommand taskCommand;
   protected final StepBackend stepBackend;
   protected final StepEntity step;
+  private CommandDeferredException deferral;
 
   protected StepCommand(TaskCommand taskCommand, StepBackend stepBackend, StepEntity step) {
     super(getActivityId(step));
@@ -59,8 +61,20 @@ public abstract class StepCommand extends BaseCommand {
     return activityId;
   }
 
+  /**
+   * Returns the deferral requested by the last run of the step, or null if it was not deferred.
+   */
+  public CommandDeferredException getDeferral() {
+    return deferral;
+  }
+
   @Override
   protected void markAsStarted() throws TaskNotFoundException {
+    if (step.getState() == StepEntity.State.STARTED) {
+      // resuming a deferred step, keep its original start time
+      return;
+    }
+
     stepBackend.markStepAsStarted(step);
   }
 
@@ -73,4 +87,12 @@ public abstract class StepCommand extends BaseCommand {
   protected void markAsFailed(Throwable t) throws TaskNotFoundException {
     stepBackend.markStepAsFailed(step, t);
   }
+
+  /**
+   * Leaves the step started, the task command runs it again once the deferral expires.
+   */
+  @Override
+  protected void markAsDeferred(CommandDeferredException e) {
+    deferral = e;
+  }
 }
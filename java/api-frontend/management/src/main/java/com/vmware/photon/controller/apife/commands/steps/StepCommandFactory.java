@@ -14,6 +14,7 @@
 package com.vmware.photon.controller.apife.commands.steps;
 
 import com.vmware.photon.controller.apife.ImageClient;
+import com.vmware.photon.controller.apife.ImageUploadTargets;
 import com.vmware.photon.controller.apife.backends.AttachedDiskBackend;
 import com.vmware.photon.controller.apife.backends.ClusterBackend;
 import com.vmware.photon.controller.apife.backends.DeploymentBackend;
@@ -40,6 +41,8 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.List;
+
 /**
  * Factory Class that creates StepCommand objects.
  */
@@ -57,6 +60,7 @@ public class StepCommandFactory {
   private final HostBackend hostBackend;
   private final ImageConfig imageConfig;
   private final ImageStore imageStore;
+  private final List<ImageStore> imageUploadTargetStores;
   private final ServiceConfig serviceConfig;
   private final VsphereIsoStore isoStore;
   private final FlavorBackend flavorBackend;
@@ -77,6 +81,7 @@ public class StepCommandFactory {
                             HostBackend hostBackend,
                             ImageConfig imageConfig,
                             @ImageClient ImageStore imageStore,
+                            @ImageUploadTargets List<ImageStore> imageUploadTargetStores,
                             ServiceConfig serviceConfig,
                             VsphereIsoStore isoStore,
                             NetworkBackend networkBackend,
@@ -96,6 +101,7 @@ public class StepCommandFactory {
     this.imageConfig = imageConfig;
     this.serviceConfig = serviceConfig;
     this.imageStore = imageStore;
+    this.imageUploadTargetStores = imageUploadTargetStores;
     this.isoStore = isoStore;
     this.networkBackend = networkBackend;
     this.flavorBackend = flavorBackend;
@@ -108,8 +114,8 @@ public class StepCommandFactory {
     checkNotNull(stepEntity);
     switch (stepEntity.getOperation()) {
       case RESERVE_RESOURCE:
-        return new ResourceReserveStepCmd(
-            taskCommand, stepBackend, stepEntity, diskBackend, vmBackend, networkBackend, flavorBackend);
+        return new ResourceReserveStepCmd(taskCommand, stepBackend, stepEntity, diskBackend, vmBackend,
+            networkBackend, flavorBackend, imageBackend);
       case CREATE_DISK:
         return new DiskCreateStepCmd(taskCommand, stepBackend, stepEntity, diskBackend);
       case DELETE_DISK:
@@ -140,13 +146,14 @@ public class StepCommandFactory {
       case CREATE_VM_IMAGE:
         return new VmCreateImageStepCmd(taskCommand, stepBackend, stepEntity, imageBackend, imageStore);
       case UPLOAD_IMAGE:
-        return new ImageUploadStepCmd(taskCommand, stepBackend, stepEntity, imageBackend, imageStore, imageConfig);
+        return new ImageUploadStepCmd(taskCommand, stepBackend, stepEntity, taskBackend, imageBackend, imageStore,
+            imageUploadTargetStores, imageConfig);
       case REPLICATE_IMAGE:
         return new ImageReplicateStepCmd(taskCommand, stepBackend, stepEntity, imageBackend, imageStore);
       case DELETE_IMAGE:
         return new ImageDeleteStepCmd(taskCommand, stepBackend, stepEntity, imageBackend, imageStore);
       case DELETE_IMAGE_REPLICAS:
-        return new ImageReplicasDeleteStepCmd(taskCommand, stepBackend, stepEntity);
+        return new ImageReplicasDeleteStepCmd(taskCommand, stepBackend, stepEntity, imageBackend);
       case CREATE_HOST:
         return new HostCreateStepCmd(taskCommand, stepBackend, stepEntity, hostBackend);
       case PROVISION_HOST:
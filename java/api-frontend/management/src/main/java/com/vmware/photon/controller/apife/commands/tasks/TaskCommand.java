@@ -28,6 +28,7 @@ import com.vmware.photon.controller.apife.entities.VmEntity;
 import com.vmware.photon.controller.apife.exceptions.external.DiskNotFoundException;
 import com.vmware.photon.controller.apife.exceptions.external.TaskNotCompletedException;
 import com.vmware.photon.controller.apife.exceptions.external.VmNotFoundException;
+import com.vmware.photon.controller.apife.exceptions.internal.CommandDeferredException;
 import com.vmware.photon.controller.common.clients.DeployerClient;
 import com.vmware.photon.controller.common.clients.HostClient;
 import com.vmware.photon.controller.common.clients.HousekeeperClient;
@@ -60,6 +61,10 @@ public class TaskCommand extends BaseCommand {
   protected List<StepEntity> steps;
   @Inject
   private StepCommandFactory stepCommandFactory;
+  @Inject
+  private TaskCommandRetryScheduler retryScheduler;
+  private StepEntity deferredStep;
+  private CommandDeferredException deferral;
   private TaskEntity task;
   private Resource resource;
   private String reservation;
@@ -89,7 +94,7 @@ public class TaskCommand extends BaseCommand {
   protected void execute() throws ApiFeException, InterruptedException, RpcException {
     steps = getTask().getSteps();
     for (StepEntity step : steps) {
-      if (!step.getState().equals(StepEntity.State.QUEUED) || step.isDisabled()) {
+      if (step != deferredStep && (!step.getState().equals(StepEntity.State.QUEUED) || step.isDisabled())) {
         logger.info("Skip running step {}", step);
         continue;
       }
@@ -97,6 +102,13 @@ public class TaskCommand extends BaseCommand {
       StepCommand cmd = stepCommandFactory.createCommand(this, step);
       cmd.run();
 
+      if (cmd.getDeferral() != null) {
+        // give the worker back, the task resumes from this step when it is run again
+        deferredStep = step;
+        throw cmd.getDeferral();
+      }
+
+      deferredStep = null;
       if (step.getState() != StepEntity.State.COMPLETED) {
         throw new TaskNotCompletedException(step);
       }
@@ -105,10 +117,16 @@ public class TaskCommand extends BaseCommand {
 
   @Override
   protected void markAsStarted() throws TaskNotFoundException, ConcurrentTaskException {
-    taskBackend.markTaskAsStarted(task);
-    for (String lockableEntityId : task.getLockableEntityIds()) {
-      entityLockBackend.setTaskLock(lockableEntityId, task);
+    if (deferredStep != null) {
+      // resuming a deferred task, it is already started and still holds its locks
+      taskBackend.bufferStepUpdates(task);
+      return;
     }
+
+    taskBackend.markTaskAsStarted(task);
+    // step completions are written along with the next step or task transition instead of one patch each
+    taskBackend.bufferStepUpdates(task);
+    entityLockBackend.setTaskLocks(task.getLockableEntityIds(), task);
   }
 
   @Override
@@ -135,10 +153,33 @@ public class TaskCommand extends BaseCommand {
     taskBackend.markTaskAsFailed(task);
   }
 
+  /**
+   * Keeps the task started and its locks held while waiting to be run again.
+   */
+  @Override
+  protected void markAsDeferred(CommandDeferredException e) {
+    deferral = e;
+  }
+
   @Override
   protected void cleanup() {
-    entityLockBackend.clearTaskLocks(task);
+    try {
+      taskBackend.flushStepUpdates(task);
+    } catch (TaskNotFoundException e) {
+      logger.warn("Failed to write buffered step updates of task {}", task.getId(), e);
+    }
+
     getHostClient().close();
+    if (deferral == null) {
+      entityLockBackend.clearTaskLocks(task);
+      return;
+    }
+
+    // resubmit last so that the next run cannot overlap with this one
+    long delayMillis = deferral.getDelayMillis();
+    deferral = null;
+    logger.info("Task {} deferred, resuming in {}ms", task.getId(), delayMillis);
+    checkNotNull(retryScheduler).schedule(this, delayMillis);
   }
 
   @VisibleForTesting
@@ -151,6 +192,18 @@ public class TaskCommand extends BaseCommand {
     this.stepCommandFactory = stepCommandFactory;
   }
 
+  @VisibleForTesting
+  protected void setRetryScheduler(TaskCommandRetryScheduler retryScheduler) {
+    this.retryScheduler = retryScheduler;
+  }
+
+  /**
+   * Returns whether the command is waiting to resume a deferred step.
+   */
+  public boolean isDeferred() {
+    return deferredStep != null;
+  }
+
   public void markAllStepsAsFailed(Throwable t) throws TaskNotFoundException {
     //clear locks as first thing in this method so that some other failure does not preempt it leaving dangling lock.
     entityLockBackend.clearTaskLocks(task);
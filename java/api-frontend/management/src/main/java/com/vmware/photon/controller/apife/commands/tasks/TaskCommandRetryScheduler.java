@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.commands.tasks;
+
+import com.vmware.photon.controller.apife.BackendTaskExecutor;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Submits deferred task commands back to the backend task executor once their delay expires.
+ * <p/>
+ * Waiting commands do not hold a backend worker: a single timer thread only hands them back to the executor. A
+ * command the executor rejects, for example because its owner already has too many queued commands, keeps waiting
+ * and is handed back again after an interval doubling with each rejection.
+ */
+@Singleton
+public class TaskCommandRetryScheduler {
+
+  private static final Logger logger = LoggerFactory.getLogger(TaskCommandRetryScheduler.class);
+
+  private static final long RESUBMIT_RETRY_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+  private static final long MAX_RESUBMIT_RETRY_INTERVAL = TimeUnit.SECONDS.toMillis(16);
+
+  private final ExecutorService executor;
+  private final ScheduledExecutorService timer;
+  private final long resubmitRetryInterval;
+
+  @Inject
+  public TaskCommandRetryScheduler(@BackendTaskExecutor ExecutorService executor) {
+    this(executor, RESUBMIT_RETRY_INTERVAL);
+  }
+
+  @VisibleForTesting
+  TaskCommandRetryScheduler(ExecutorService executor, long resubmitRetryInterval) {
+    this.executor = executor;
+    this.resubmitRetryInterval = resubmitRetryInterval;
+    this.timer = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("BackendRetryTimer-%d").setDaemon(true).build());
+  }
+
+  public void schedule(TaskCommand command, long delayMillis) {
+    schedule(command, delayMillis, resubmitRetryInterval);
+  }
+
+  private void schedule(TaskCommand command, long delayMillis, long retryInterval) {
+    timer.schedule(() -> resubmit(command, retryInterval), delayMillis, TimeUnit.MILLISECONDS);
+  }
+
+  private void resubmit(TaskCommand command, long retryInterval) {
+    try {
+      executor.submit(command);
+    } catch (RejectedExecutionException e) {
+      if (executor.isShutdown()) {
+        logger.warn("Could not resubmit deferred task {}", command.getTask().getId(), e);
+        return;
+      }
+
+      logger.info("Deferred task {} was rejected, resubmitting in {}ms", command.getTask().getId(), retryInterval);
+      schedule(command, retryInterval, Math.min(retryInterval * 2, MAX_RESUBMIT_RETRY_INTERVAL));
+    }
+  }
+}
@@ -15,6 +15,7 @@ package com.vmware.photon.controller.apife.config;
 
 import com.vmware.photon.controller.api.constraints.DomainOrIP;
 import com.vmware.photon.controller.common.metrics.GraphiteConfig;
+import com.vmware.photon.controller.common.tracing.TracingConfig;
 import com.vmware.photon.controller.common.zookeeper.ZookeeperConfig;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -37,6 +38,10 @@ public class ApiFeConfiguration extends Configuration {
   @JsonProperty("background_workers_queue_size")
   private int backgroundWorkersQueueSize = 512;
 
+  @Range(min = 1, max = 2048)
+  @JsonProperty("background_workers_queue_size_per_owner")
+  private int backgroundWorkersQueueSizePerOwner = 128;
+
   @JsonProperty
   private boolean useDcpBackend = true;
 
@@ -70,6 +75,10 @@ public class ApiFeConfiguration extends Configuration {
   @JsonProperty("pagination")
   private PaginationConfig paginationConfig = new PaginationConfig();
 
+  @Valid
+  @JsonProperty("tracing")
+  private TracingConfig tracing;
+
   public AuthConfig getAuth() {
     return this.auth;
   }
@@ -86,6 +95,10 @@ public class ApiFeConfiguration extends Configuration {
     return backgroundWorkersQueueSize;
   }
 
+  public int getBackgroundWorkersQueueSizePerOwner() {
+    return backgroundWorkersQueueSizePerOwner;
+  }
+
   public ZookeeperConfig getZookeeper() {
     return zookeeper;
   }
@@ -96,6 +109,13 @@ public class ApiFeConfiguration extends Configuration {
     return null;
   }
 
+  /**
+   * Returns the request tracing config, null if tracing is disabled.
+   */
+  public TracingConfig getTracing() {
+    return tracing;
+  }
+
   public String getRegistrationAddress() {
     return registrationAddress;
   }
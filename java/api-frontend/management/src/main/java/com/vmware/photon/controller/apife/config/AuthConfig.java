@@ -15,6 +15,8 @@ package com.vmware.photon.controller.apife.config;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import javax.validation.constraints.Min;
+
 /**
  * Authentication configuration.
  */
@@ -35,6 +37,10 @@ public class AuthConfig {
   @JsonProperty("tenant")
   private String tenant;
 
+  @Min(1)
+  @JsonProperty("token_cache_size")
+  private int tokenCacheSize = 1000;
+
   public boolean isAuthEnabled() {
     return this.enableAuth;
   }
@@ -74,4 +80,12 @@ public class AuthConfig {
   public void setTenant(String tenant) {
     this.tenant = tenant;
   }
+
+  public int getTokenCacheSize() {
+    return tokenCacheSize;
+  }
+
+  public void setTokenCacheSize(int tokenCacheSize) {
+    this.tokenCacheSize = tokenCacheSize;
+  }
 }
@@ -13,11 +13,19 @@
 
 package com.vmware.photon.controller.apife.config;
 
+import com.vmware.transfer.nfc.NfcClient;
+
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.dropwizard.util.Duration;
+import org.hibernate.validator.constraints.Range;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import javax.validation.Valid;
+import javax.validation.constraints.Size;
+
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Image configuration.
@@ -26,6 +34,24 @@ public class ImageConfig {
 
   private static final String DEFAULT_LOCAL_STORE = "/tmp/images";
 
+  private static final String DEFAULT_UPLOAD_STAGING_DIR = "/tmp/image-uploads";
+
+  /**
+   * Default time after which an upload session without any activity expires.
+   */
+  private static final Duration DEFAULT_UPLOAD_SESSION_TIMEOUT = Duration.hours(24);
+
+  /**
+   * Most image datastores an upload is copied to in parallel, besides the image datastore.
+   */
+  public static final int MAX_UPLOAD_TARGETS = 8;
+
+  /**
+   * Default time an upload target may go without taking data of the upload, and time the upload waits for the
+   * upload targets to finish writing a file once the image datastore wrote it.
+   */
+  private static final Duration DEFAULT_UPLOAD_TARGET_STALL_TIMEOUT = Duration.seconds(60);
+
   /**
    * Default timeout in seconds to wait for image replication to complete.
    * (This time is in seconds.)
@@ -37,6 +63,34 @@ public class ImageConfig {
   @JsonProperty("use_esx_store")
   private boolean useEsxStore = false;
 
+  /**
+   * Size in bytes of the NFC FILE_DATA messages used to copy images to datastores.
+   */
+  @Range(min = NfcClient.MIN_XFER_SIZE, max = NfcClient.MAX_XFER_SIZE)
+  @JsonProperty("nfc_transfer_size")
+  private int nfcTransferSize = NfcClient.MAX_XFER_SIZE;
+
+  /**
+   * Local folder where the chunks of upload sessions are kept until the upload is committed.
+   */
+  @JsonProperty("upload_staging_dir")
+  private String uploadStagingDir = DEFAULT_UPLOAD_STAGING_DIR;
+
+  @JsonProperty("upload_session_timeout")
+  private Duration uploadSessionTimeout = DEFAULT_UPLOAD_SESSION_TIMEOUT;
+
+  /**
+   * Image datastores that uploads are copied to in parallel. Images that do not reach one of them are replicated
+   * there as before.
+   */
+  @Valid
+  @Size(max = MAX_UPLOAD_TARGETS)
+  @JsonProperty("upload_targets")
+  private List<ImageUploadTargetConfig> uploadTargets = new ArrayList<>();
+
+  @JsonProperty("upload_target_stall_timeout")
+  private Duration uploadTargetStallTimeout = DEFAULT_UPLOAD_TARGET_STALL_TIMEOUT;
+
   private String endpoint;
 
   private String datastore;
@@ -57,10 +111,66 @@ public class ImageConfig {
     this.useEsxStore = flag;
   }
 
+  public int getNfcTransferSize() {
+    return nfcTransferSize;
+  }
+
+  public void setNfcTransferSize(int nfcTransferSize) {
+    this.nfcTransferSize = nfcTransferSize;
+  }
+
   public String getLocalStore() {
     return DEFAULT_LOCAL_STORE;
   }
 
+  public String getUploadStagingDir() {
+    return uploadStagingDir;
+  }
+
+  public void setUploadStagingDir(String uploadStagingDir) {
+    this.uploadStagingDir = uploadStagingDir;
+  }
+
+  public Duration getUploadSessionTimeout() {
+    return uploadSessionTimeout;
+  }
+
+  public void setUploadSessionTimeout(Duration uploadSessionTimeout) {
+    this.uploadSessionTimeout = uploadSessionTimeout;
+  }
+
+  public List<ImageUploadTargetConfig> getUploadTargets() {
+    return uploadTargets;
+  }
+
+  public void setUploadTargets(List<ImageUploadTargetConfig> uploadTargets) {
+    this.uploadTargets = uploadTargets;
+  }
+
+  public Duration getUploadTargetStallTimeout() {
+    return uploadTargetStallTimeout;
+  }
+
+  public void setUploadTargetStallTimeout(Duration uploadTargetStallTimeout) {
+    this.uploadTargetStallTimeout = uploadTargetStallTimeout;
+  }
+
+  /**
+   * Configuration of the image store of an upload target, which only differs in its endpoint and datastore.
+   */
+  public ImageConfig forUploadTarget(ImageUploadTargetConfig uploadTarget) {
+    ImageConfig config = new ImageConfig();
+    config.replicationTimeout = replicationTimeout;
+    config.useEsxStore = useEsxStore;
+    config.nfcTransferSize = nfcTransferSize;
+    config.uploadStagingDir = uploadStagingDir;
+    config.uploadSessionTimeout = uploadSessionTimeout;
+    config.uploadTargetStallTimeout = uploadTargetStallTimeout;
+    config.endpoint = uploadTarget.getEndpoint() != null ? uploadTarget.getEndpoint() : endpoint;
+    config.datastore = uploadTarget.getDatastore();
+    return config;
+  }
+
   public String getEndpoint() {
     return checkNotNull(endpoint);
   }
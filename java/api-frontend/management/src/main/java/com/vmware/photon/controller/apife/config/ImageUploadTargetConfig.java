@@ -0,0 +1,48 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * Image datastore that uploaded images are copied to while they are uploaded, in addition to the image datastore
+ * of the image configuration. The endpoint is only used with the ESX image store.
+ */
+public class ImageUploadTargetConfig {
+
+  @JsonProperty("endpoint")
+  private String endpoint;
+
+  @NotNull
+  @JsonProperty("datastore")
+  private String datastore;
+
+  public String getEndpoint() {
+    return endpoint;
+  }
+
+  public void setEndpoint(String endpoint) {
+    this.endpoint = endpoint;
+  }
+
+  public String getDatastore() {
+    return datastore;
+  }
+
+  public void setDatastore(String datastore) {
+    this.datastore = datastore;
+  }
+}
@@ -15,6 +15,10 @@ package com.vmware.photon.controller.apife.config;
 
 import com.vmware.photon.controller.api.Component;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.Set;
@@ -22,13 +26,27 @@ import java.util.Set;
 /**
  * Configures which statuses to check when calling /v1/status endpoint.
  * When not configured, default to show status of all components.
+ * <p/>
+ * The statuses are collected in the background every refresh interval, each component instance is given
+ * the configured timeout to report its status.
  */
 public class StatusConfig {
 
+  public static final int DEFAULT_REFRESH_INTERVAL_SECONDS = 30;
+  public static final int DEFAULT_TIMEOUT_SECONDS = 15;
+
   private static final Set<Component> DEFAULT = EnumSet.allOf(Component.class);
 
   private Set<Component> components = DEFAULT;
 
+  @Min(1)
+  @JsonProperty("refresh_interval_seconds")
+  private int refreshIntervalSeconds = DEFAULT_REFRESH_INTERVAL_SECONDS;
+
+  @Min(1)
+  @JsonProperty("timeout_seconds")
+  private int timeoutSeconds = DEFAULT_TIMEOUT_SECONDS;
+
   public Set<Component> getComponents() {
     return components;
   }
@@ -42,4 +60,20 @@ public class StatusConfig {
     }
 
   }
+
+  public int getRefreshIntervalSeconds() {
+    return refreshIntervalSeconds;
+  }
+
+  public void setRefreshIntervalSeconds(int refreshIntervalSeconds) {
+    this.refreshIntervalSeconds = refreshIntervalSeconds;
+  }
+
+  public int getTimeoutSeconds() {
+    return timeoutSeconds;
+  }
+
+  public void setTimeoutSeconds(int timeoutSeconds) {
+    this.timeoutSeconds = timeoutSeconds;
+  }
 }
@@ -49,6 +49,10 @@ public class ImageEntity extends BaseEntity implements Named {
 
   private ImageReplicationType replicationType = ImageReplicationType.EAGER;
 
+  private String contentDigest;
+
+  private String contentImageId;
+
   @Override
   public String getKind() {
     return KIND;
@@ -129,6 +133,25 @@ public class ImageEntity extends BaseEntity implements Named {
     this.totalImageDatastore = totalImageDatastore;
   }
 
+  public String getContentDigest() {
+    return contentDigest;
+  }
+
+  public void setContentDigest(String contentDigest) {
+    this.contentDigest = contentDigest;
+  }
+
+  /**
+   * @return id of the image whose files on the datastores hold the content of this image
+   */
+  public String getContentImageId() {
+    return contentImageId != null ? contentImageId : getId();
+  }
+
+  public void setContentImageId(String contentImageId) {
+    this.contentImageId = contentImageId;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (super.equals(o) == false) {
@@ -149,7 +172,8 @@ public class ImageEntity extends BaseEntity implements Named {
         .add("size", size)
         .add("totalDatastore", totalDatastore)
         .add("totalImageDatastore", totalImageDatastore)
-        .add("replicatedDatastore", replicatedDatastore);
+        .add("replicatedDatastore", replicatedDatastore)
+        .add("contentImageId", contentImageId);
   }
 
 }
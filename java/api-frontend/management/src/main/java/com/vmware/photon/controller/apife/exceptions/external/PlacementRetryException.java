@@ -0,0 +1,47 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.exceptions.external;
+
+import com.vmware.photon.controller.api.common.exceptions.external.ErrorCode;
+import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
+
+/**
+ * Recorded as a step warning when a placement attempt failed and is going to be retried.
+ */
+public class PlacementRetryException extends ExternalException {
+
+  private final int attempt;
+  private final int maxAttempts;
+  private final String reason;
+  private final long retryDelayMillis;
+
+  public PlacementRetryException(int attempt, int maxAttempts, String reason, long retryDelayMillis) {
+    super(ErrorCode.PLACE_VM_ERROR);
+    this.attempt = attempt;
+    this.maxAttempts = maxAttempts;
+    this.reason = reason;
+    this.retryDelayMillis = retryDelayMillis;
+
+    addData("attempt", String.valueOf(attempt));
+    addData("maxAttempts", String.valueOf(maxAttempts));
+    addData("reason", reason);
+    addData("retryDelayMillis", String.valueOf(retryDelayMillis));
+  }
+
+  @Override
+  public String getMessage() {
+    return String.format("Placement attempt %d of %d failed with %s, retrying in %dms",
+        attempt, maxAttempts, reason, retryDelayMillis);
+  }
+}
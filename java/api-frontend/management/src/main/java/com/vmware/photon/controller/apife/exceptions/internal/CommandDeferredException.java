@@ -0,0 +1,32 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.exceptions.internal;
+
+/**
+ * Gets thrown by a command that cannot make progress right now and asks to be run again after a delay, instead of
+ * holding a worker thread while it waits.
+ */
+public class CommandDeferredException extends InternalException {
+
+  private final long delayMillis;
+
+  public CommandDeferredException(long delayMillis, Throwable cause) {
+    super(String.format("Command deferred for %dms", delayMillis), cause);
+    this.delayMillis = delayMillis;
+  }
+
+  public long getDelayMillis() {
+    return delayMillis;
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.lib;
+
+import com.vmware.photon.controller.apife.exceptions.external.ImageUploadException;
+import com.vmware.photon.controller.apife.exceptions.internal.InternalException;
+
+import com.google.common.io.ByteSource;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Stages the chunks of resumable image uploads on the local file system until the upload is committed.
+ * <p/>
+ * Every upload has its own folder, in which each chunk is a file named after its index. Chunks are written to a
+ * temporary file that replaces the chunk file once it is complete, so a chunk that is sent again after a dropped
+ * connection simply overwrites the previous attempt. The folder is touched whenever a chunk is added, which makes
+ * its last modified time the time of the last activity of the upload.
+ * <p/>
+ * The staging area is local to the API-FE node that holds it, so all requests of an upload have to be sent to the
+ * node that created the upload.
+ */
+public class ImageUploadStagingArea {
+  private static final Logger logger = LoggerFactory.getLogger(ImageUploadStagingArea.class);
+  private static final String CHUNK_PREFIX = "chunk-";
+
+  private final File dir;
+  private final String node;
+
+  public ImageUploadStagingArea(String dir, String node) {
+    this.dir = new File(dir);
+    this.node = node;
+  }
+
+  /**
+   * @return address of the API-FE node that holds this staging area
+   */
+  public String getNode() {
+    return node;
+  }
+
+  /**
+   * Create the folder of an upload.
+   *
+   * @param uploadId
+   * @throws InternalException
+   */
+  public void create(String uploadId) throws InternalException {
+    File uploadDir = toUploadDir(uploadId);
+    if (!uploadDir.mkdirs()) {
+      throw new InternalException(String.format("Failed to create folder %s for upload %s", uploadDir, uploadId));
+    }
+  }
+
+  /**
+   * @return true if the upload has a folder in the staging area, otherwise false
+   */
+  public boolean exists(String uploadId) {
+    return toUploadDir(uploadId).isDirectory();
+  }
+
+  /**
+   * Add a chunk to an upload, replacing an earlier attempt to send the same chunk.
+   *
+   * @param uploadId
+   * @param index
+   * @param inputStream
+   * @return size of the chunk
+   * @throws ImageUploadException
+   * @throws InternalException
+   */
+  public long addChunk(String uploadId, int index, InputStream inputStream)
+      throws ImageUploadException, InternalException {
+    if (index < 0) {
+      throw new ImageUploadException(String.format("Invalid chunk index %d", index));
+    }
+
+    File uploadDir = toUploadDir(uploadId);
+    if (!uploadDir.isDirectory()) {
+      throw new ImageUploadException(String.format("Upload %s does not exist", uploadId));
+    }
+
+    File target = new File(uploadDir, CHUNK_PREFIX + index);
+    File temp = null;
+    try {
+      temp = File.createTempFile("." + target.getName() + ".", ".tmp", uploadDir);
+      long size;
+      try (OutputStream outputStream = new FileOutputStream(temp)) {
+        size = IOUtils.copyLarge(inputStream, outputStream);
+      }
+
+      Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      temp = null;
+      uploadDir.setLastModified(System.currentTimeMillis());
+      logger.debug("Added chunk {} of {} bytes to upload {}", index, size, uploadId);
+      return size;
+    } catch (IOException e) {
+      throw new InternalException(e);
+    } finally {
+      if (temp != null && !temp.delete()) {
+        logger.warn("Failed to delete incomplete chunk {}", temp);
+      }
+    }
+  }
+
+  /**
+   * @return number of chunks of the upload
+   */
+  public int getChunkCount(String uploadId) {
+    return findChunks(uploadId).size();
+  }
+
+  /**
+   * @return total size of the chunks of the upload
+   */
+  public long getUploadedBytes(String uploadId) {
+    long size = 0;
+    for (File chunk : findChunks(uploadId).values()) {
+      size += chunk.length();
+    }
+    return size;
+  }
+
+  /**
+   * Open the image of an upload, which is the concatenation of its chunks in the order of their index. Chunk files
+   * are only opened when the stream reaches them.
+   *
+   * @param uploadId
+   * @return image stream
+   * @throws ImageUploadException when the upload has no chunks or a chunk is missing
+   * @throws InternalException
+   */
+  public InputStream openImage(String uploadId) throws ImageUploadException, InternalException {
+    SortedMap<Integer, File> chunks = findChunks(uploadId);
+    if (chunks.isEmpty()) {
+      throw new ImageUploadException(String.format("Upload %s has no chunks", uploadId));
+    }
+    if (chunks.lastKey() != chunks.size() - 1) {
+      for (int index = 0; ; index++) {
+        if (!chunks.containsKey(index)) {
+          throw new ImageUploadException(String.format("Chunk %d of upload %s is missing", index, uploadId));
+        }
+      }
+    }
+
+    List<ByteSource> sources = new ArrayList<>(chunks.size());
+    for (File chunk : chunks.values()) {
+      sources.add(com.google.common.io.Files.asByteSource(chunk));
+    }
+    try {
+      return ByteSource.concat(sources).openStream();
+    } catch (IOException e) {
+      throw new InternalException(e);
+    }
+  }
+
+  /**
+   * Delete the folder of an upload with all its chunks.
+   *
+   * @param uploadId
+   */
+  public void delete(String uploadId) {
+    File uploadDir = toUploadDir(uploadId);
+    try {
+      FileUtils.deleteDirectory(uploadDir);
+    } catch (IOException e) {
+      logger.warn("Failed to delete folder {} of upload {}", uploadDir, uploadId, e);
+    }
+  }
+
+  /**
+   * Find the uploads that had no activity since the given time.
+   *
+   * @param timeMillis
+   * @return ids of the idle uploads
+   */
+  public List<String> findIdleSince(long timeMillis) {
+    List<String> uploadIds = new ArrayList<>();
+    File[] uploadDirs = dir.listFiles(File::isDirectory);
+    if (uploadDirs == null) {
+      return uploadIds;
+    }
+
+    for (File uploadDir : uploadDirs) {
+      if (uploadDir.lastModified() < timeMillis) {
+        uploadIds.add(uploadDir.getName());
+      }
+    }
+    return uploadIds;
+  }
+
+  private SortedMap<Integer, File> findChunks(String uploadId) {
+    SortedMap<Integer, File> chunks = new TreeMap<>();
+    File[] files = toUploadDir(uploadId).listFiles((directory, name) -> name.startsWith(CHUNK_PREFIX));
+    if (files == null) {
+      return chunks;
+    }
+
+    for (File file : files) {
+      try {
+        chunks.put(Integer.parseInt(file.getName().substring(CHUNK_PREFIX.length())), file);
+      } catch (NumberFormatException e) {
+        logger.warn("Ignoring unexpected file {} in upload {}", file, uploadId);
+      }
+    }
+    return chunks;
+  }
+
+  private File toUploadDir(String uploadId) {
+    return new File(dir, uploadId);
+  }
+}
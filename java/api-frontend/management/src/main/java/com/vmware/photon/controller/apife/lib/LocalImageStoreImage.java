@@ -22,12 +22,15 @@ import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.EOFException;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 /**
  * Class implementing ImageFolder. Assembly visibility.
@@ -45,31 +48,62 @@ class LocalImageStoreImage implements Image {
   @Override
   public long addFile(String fileName, InputStream inputStream, long fileSize)
       throws IOException, NameTakenException, InternalException {
+    try {
+      return writeFile(fileName, inputStream, false);
+    } catch (VmdkFormatException e) {
+      // Plain files are not validated as disks
+      throw new InternalException(e);
+    }
+  }
+
+  @Override
+  public long addDisk(String fileName, InputStream inputStream)
+      throws IOException, VmdkFormatException, NameTakenException, InternalException {
+    return writeFile(fileName, inputStream, true);
+  }
 
+  /**
+   * Write the stream to a temporary file that is renamed to the image file once it is complete, so a failed upload
+   * never leaves a partial image file behind. Disks are validated from the stream while they are written, so an
+   * invalid disk is rejected after its header instead of after the whole upload.
+   */
+  private long writeFile(String fileName, InputStream inputStream, boolean validateDisk)
+      throws NameTakenException, InternalException, VmdkFormatException {
     // Create file
     File target = toFile(fileName);
-    logger.debug("create file %s/%s", target.getName());
+    logger.debug("create file {}", target.getName());
 
     if (target.exists()) {
       throw new NameTakenException("image", imageId);
     }
 
-    // Write to file.
-    try (OutputStream outputStream = new FileOutputStream(target)) {
-      return IOUtils.copyLarge(inputStream, outputStream);
+    File temp = null;
+    try {
+      temp = File.createTempFile("." + target.getName() + ".", ".tmp", target.getParentFile());
+      long size;
+      try (OutputStream outputStream = new FileOutputStream(temp)) {
+        CopyingInputStream copyingStream = new CopyingInputStream(inputStream, outputStream);
+        if (validateDisk) {
+          // validate disk type is streamOptimized, otherwise VmdkFormatException is thrown. This only reads the
+          // header and descriptor of the disk, which are copied to the file as they are read.
+          try {
+            new StreamVmdkReader(copyingStream);
+          } catch (EOFException e) {
+            throw new VmdkFormatException("Unexpected end of file", e);
+          }
+        }
+        size = copyingStream.copied + IOUtils.copyLarge(inputStream, outputStream);
+      }
+
+      Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+      temp = null;
+      return size;
     } catch (IOException e) {
       throw new InternalException(e);
-    }
-  }
-
-  @Override
-  public long addDisk(String fileName, InputStream inputStream)
-      throws IOException, VmdkFormatException, NameTakenException, InternalException {
-    try {
-      return addFile(fileName, inputStream, 0);
     } finally {
-      // validate disk type is streamOptimized, otherwise VmdkFormatException is thrown
-      new StreamVmdkReader(new FileInputStream(toFile(fileName)));
+      if (temp != null && !temp.delete()) {
+        logger.warn("Failed to delete incomplete upload {}", temp);
+      }
     }
   }
 
@@ -91,4 +125,53 @@ class LocalImageStoreImage implements Image {
     // Create file.
     return new File(imageFolder, imageFileName.toString());
   }
+
+  /**
+   * Input stream that copies everything that is read or skipped to an output stream.
+   */
+  private static class CopyingInputStream extends FilterInputStream {
+    private final OutputStream outputStream;
+    private long copied = 0;
+
+    CopyingInputStream(InputStream inputStream, OutputStream outputStream) {
+      super(inputStream);
+      this.outputStream = outputStream;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        outputStream.write(b);
+        copied++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int bytesRead = super.read(b, off, len);
+      if (bytesRead > 0) {
+        outputStream.write(b, off, bytesRead);
+        copied += bytesRead;
+      }
+      return bytesRead;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      // Skipped bytes are part of the file too
+      byte[] buffer = new byte[(int) Math.min(n, 8192)];
+      int bytesRead = read(buffer, 0, buffer.length);
+      if (bytesRead < 0) {
+        throw new EOFException("Cannot skip past the end of the stream");
+      }
+      return bytesRead;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
 }
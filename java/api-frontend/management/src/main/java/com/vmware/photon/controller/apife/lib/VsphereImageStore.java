@@ -80,7 +80,7 @@ public class VsphereImageStore implements ImageStore {
 
     final HostServiceTicket hostServiceTicket = getHostServiceTicket();
     NfcClient nfcClient = getNfcClient(hostServiceTicket);
-    return new VsphereImageStoreImage(nfcClient, imageFolder, imageId);
+    return new VsphereImageStoreImage(nfcClient, imageFolder, imageId, config.getNfcTransferSize());
   }
 
   /**
@@ -177,7 +177,7 @@ public class VsphereImageStore implements ImageStore {
     checkArgument(ticket != null, "Null ticket passed to VsphereImageStore.getNfcClient");
 
     try {
-      return new NfcClient(ticket, NFC_CLIENT_TIMEOUT);
+      return new NfcClient(ticket, NFC_CLIENT_TIMEOUT, config.getNfcTransferSize());
     } catch (IOException e) {
       logger.error("Failed to create nfc client, due to: {}", e);
       throw new InternalException(e);
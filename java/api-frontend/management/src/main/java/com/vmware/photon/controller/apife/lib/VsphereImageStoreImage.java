@@ -20,10 +20,12 @@ import com.vmware.transfer.nfc.NfcClient;
 import com.vmware.transfer.nfc.NfcFileOutputStream;
 import com.vmware.transfer.streamVmdk.VmdkFormatException;
 
+import com.google.common.io.ByteStreams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -35,11 +37,20 @@ public class VsphereImageStoreImage implements Image {
   private final NfcClient nfcClient;
   private final String imageFolder;
   private final String imageId;
+  private final int transferSize;
 
   public VsphereImageStoreImage(NfcClient nfcClient, String imageFolder, String imageId) {
+    this(nfcClient, imageFolder, imageId, NfcClient.MAX_XFER_SIZE);
+  }
+
+  /**
+   * @param transferSize size of the NFC transfers the image files are copied in
+   */
+  public VsphereImageStoreImage(NfcClient nfcClient, String imageFolder, String imageId, int transferSize) {
     this.nfcClient = nfcClient;
     this.imageFolder = imageFolder;
     this.imageId = imageId;
+    this.transferSize = transferSize;
   }
 
   /**
@@ -53,9 +64,7 @@ public class VsphereImageStoreImage implements Image {
       String imagePath = getImageFilePath(fileName);
       logger.info("write to {}", imagePath);
       try (NfcFileOutputStream outputStream = nfcClient.putFile(imagePath, fileSize)) {
-        for (int i = 0; i < fileSize; i++) {
-          outputStream.write(inputStream.read());
-        }
+        copy(inputStream, outputStream, fileSize, imagePath);
       }
       return fileSize;
     } finally {
@@ -82,6 +91,29 @@ public class VsphereImageStoreImage implements Image {
     return singleExtentSize * 512L; // a sector is 512 bytes
   }
 
+  /**
+   * Copies exactly fileSize bytes. Every NFC write is sent as its own FILE_DATA message, so the buffer is filled up
+   * to the NFC transfer size before it is written.
+   */
+  private void copy(InputStream inputStream, NfcFileOutputStream outputStream, long fileSize, String imagePath)
+      throws IOException {
+    byte[] buffer = new byte[(int) Math.min(transferSize, Math.max(fileSize, 1))];
+    long remaining = fileSize;
+    while (remaining > 0) {
+      int toRead = (int) Math.min(buffer.length, remaining);
+      int read = ByteStreams.read(inputStream, buffer, 0, toRead);
+      if (read > 0) {
+        outputStream.write(buffer, 0, read);
+        remaining -= read;
+      }
+
+      if (read < toRead) {
+        throw new EOFException(String.format("Upload to %s ended after %d of %d bytes",
+            imagePath, fileSize - remaining, fileSize));
+      }
+    }
+  }
+
   @Override
   public void close() {
     try {
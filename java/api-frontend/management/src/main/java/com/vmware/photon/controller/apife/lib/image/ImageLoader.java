@@ -27,6 +27,8 @@ import com.vmware.transfer.streamVmdk.VmdkFormatException;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,7 +38,14 @@ import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -51,9 +60,26 @@ public class ImageLoader {
   private static final String VMDK_FILE_SIGNATURE = "KDM";
   private static final ObjectMapper mapper = new ObjectMapper();
   private final ImageStore imageStore;
+  private final List<ImageStore> targetStores;
+  private final long targetStallTimeoutMillis;
 
   public ImageLoader(ImageStore imageStore) throws InternalException {
+    this(imageStore, Collections.emptyList(), 0);
+  }
+
+  /**
+   * Loader that copies uploaded images to the datastores of the target image stores while they are uploaded.
+   *
+   * @param imageStore
+   * @param targetStores
+   * @param targetStallTimeoutMillis time to wait for a target datastore that does not keep up before giving it up
+   * @throws InternalException
+   */
+  public ImageLoader(ImageStore imageStore, List<ImageStore> targetStores, long targetStallTimeoutMillis)
+      throws InternalException {
     this.imageStore = imageStore;
+    this.targetStores = targetStores;
+    this.targetStallTimeoutMillis = targetStallTimeoutMillis;
   }
 
   /**
@@ -90,8 +116,11 @@ public class ImageLoader {
   public Result loadImage(ImageEntity imageEntity, InputStream inputStream)
       throws IOException, InternalException, VmdkFormatException, ExternalException {
 
+    // Digest the upload as it is read, so images with the same content can be found.
+    DigestingInputStream digestingStream = new DigestingInputStream(inputStream);
+
     // Detect file type. Stream mark support is required.
-    inputStream = new BufferedInputStream(inputStream);
+    inputStream = new BufferedInputStream(digestingStream);
     boolean isVmdkFile = isVmdkFile(inputStream);
     boolean isTarFile = isVmdkFile ? false : isTarFile(inputStream);
 
@@ -112,7 +141,7 @@ public class ImageLoader {
 
       // Upload image in data store.
       result = new Result();
-      try (Image image = imageStore.createImage(imageEntity.getId())) {
+      try (Image image = createImage(imageEntity.getId(), result)) {
 
         // Upload MANIFEST configuration file.
         result.imageSize += uploadManifestConfigurationFile(imageEntity, image);
@@ -125,16 +154,70 @@ public class ImageLoader {
           result.imageSize += loadImageFromOva(esxOvaFile, image, ecv);
           result.imageSettings.putAll(EsxCloudVmx.toImageSettings(ecv));
         }
+
+        if (image instanceof MultiDatastoreImage) {
+          result.replicatedDatastores.addAll(((MultiDatastoreImage) image).getDatastores());
+          result.failedDatastores.putAll(((MultiDatastoreImage) image).getFailedDatastores());
+        }
       }
+
+      // The digest covers the whole upload, including what follows the disks.
+      ByteStreams.copy(inputStream, ByteStreams.nullOutputStream());
+      result.contentDigest = digestingStream.getDigest();
     } catch (Exception e) {
       deleteUploadFolder(imageEntity.getId());
+      for (ImageStore targetStore : targetStores) {
+        deleteUploadFolder(targetStore, imageEntity.getId());
+      }
       throw e;
     }
 
     imageStore.finalizeImage(imageEntity.getId());
+    finalizeTargetImages(imageEntity.getId(), result);
     return result;
   }
 
+  /**
+   * Create the image on the image datastore, and on the target datastores when there are any. A target datastore
+   * that cannot create the image is left out.
+   */
+  private Image createImage(String imageId, Result result) throws InternalException {
+    Image image = imageStore.createImage(imageId);
+    if (targetStores.isEmpty()) {
+      return image;
+    }
+
+    Map<String, Image> targetImages = new LinkedHashMap<>();
+    for (ImageStore targetStore : targetStores) {
+      try {
+        targetImages.put(targetStore.getDatastore(), targetStore.createImage(imageId));
+      } catch (Exception e) {
+        logger.warn("Failed to create image {} on datastore {}", imageId, targetStore.getDatastore(), e);
+        result.failedDatastores.put(targetStore.getDatastore(), e);
+      }
+    }
+    return new MultiDatastoreImage(image, targetImages, targetStallTimeoutMillis);
+  }
+
+  private void finalizeTargetImages(String imageId, Result result) {
+    for (ImageStore targetStore : targetStores) {
+      String datastore = targetStore.getDatastore();
+      if (!result.replicatedDatastores.contains(datastore)) {
+        deleteUploadFolder(targetStore, imageId);
+        continue;
+      }
+
+      try {
+        targetStore.finalizeImage(imageId);
+      } catch (InternalException e) {
+        logger.warn("Failed to finalize image {} on datastore {}", imageId, datastore, e);
+        result.replicatedDatastores.remove(datastore);
+        result.failedDatastores.put(datastore, e);
+        deleteUploadFolder(targetStore, imageId);
+      }
+    }
+  }
+
   private void deleteUploadFolder(String imageId) {
     logger.info("Uploading image {} failed. Cleaning up partially uploaded files ...", imageId);
     try {
@@ -144,6 +227,15 @@ public class ImageLoader {
     }
   }
 
+  private void deleteUploadFolder(ImageStore targetStore, String imageId) {
+    try {
+      targetStore.deleteUploadFolder(imageId);
+    } catch (InternalException e) {
+      logger.warn("Did not clean up partially uploaded files of image {} on datastore {}",
+          imageId, targetStore.getDatastore(), e);
+    }
+  }
+
   /**
    * Peak into the stream for the VMDK signature.
    *
@@ -229,5 +321,41 @@ public class ImageLoader {
   public class Result {
     public long imageSize = 0;
     public Map<String, String> imageSettings = new HashMap<>();
+    public String contentDigest;
+    public List<String> replicatedDatastores = new ArrayList<>();
+    public Map<String, Throwable> failedDatastores = new LinkedHashMap<>();
+  }
+
+  /**
+   * Computes the SHA-256 digest of a stream. Skipped bytes are read, so they are part of the digest.
+   */
+  private static class DigestingInputStream extends DigestInputStream {
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private final byte[] skipBuffer = new byte[8192];
+
+    DigestingInputStream(InputStream inputStream) {
+      super(inputStream, newMessageDigest());
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      if (n <= 0) {
+        return 0;
+      }
+      int count = read(skipBuffer, 0, (int) Math.min(n, skipBuffer.length));
+      return Math.max(count, 0);
+    }
+
+    String getDigest() {
+      return BaseEncoding.base16().lowerCase().encode(getMessageDigest().digest());
+    }
+
+    private static MessageDigest newMessageDigest() {
+      try {
+        return MessageDigest.getInstance(DIGEST_ALGORITHM);
+      } catch (NoSuchAlgorithmException e) {
+        throw new AssertionError(e);
+      }
+    }
   }
 }
@@ -0,0 +1,419 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.lib.image;
+
+import com.vmware.photon.controller.apife.exceptions.external.NameTakenException;
+import com.vmware.photon.controller.apife.exceptions.internal.InternalException;
+import com.vmware.photon.controller.apife.lib.Image;
+import com.vmware.transfer.streamVmdk.VmdkFormatException;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Image that is written to the image datastore and copied to further image datastores at the same time.
+ * <p/>
+ * The image datastore reads the uploaded stream on the calling thread. Every block it reads is handed to a worker
+ * thread per target datastore, which writes it to its own image. A target can fall {@link #BLOCKS_IN_FLIGHT} blocks
+ * behind without holding back the upload. Once that many are waiting, handing over the next block waits at most
+ * {@link #BLOCK_OFFER_TIMEOUT_MILLIS} for the target to take one, which rides out a slow round trip to its datastore.
+ * A target is given up when that wait runs out, when it has taken no block for the stall timeout while blocks are
+ * waiting for it, or when it fails, so it never fails the upload to the image datastore and the other targets. Once
+ * the image datastore has written a file, the targets get one stall timeout together to finish writing it.
+ */
+class MultiDatastoreImage implements Image {
+  static final int BLOCK_SIZE = 64 * 1024;
+  static final int BLOCKS_IN_FLIGHT = 64;
+  static final long BLOCK_OFFER_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(1);
+  private static final Logger logger = LoggerFactory.getLogger(MultiDatastoreImage.class);
+  private static final byte[] END_OF_FILE = new byte[0];
+
+  private final Image image;
+  private final List<Target> targets = new ArrayList<>();
+  private final long stallTimeoutMillis;
+  private final ExecutorService executor;
+
+  MultiDatastoreImage(Image image, Map<String, Image> targetImages, long stallTimeoutMillis) {
+    this.image = image;
+    this.stallTimeoutMillis = stallTimeoutMillis;
+    for (Map.Entry<String, Image> targetImage : targetImages.entrySet()) {
+      targets.add(new Target(targetImage.getKey(), targetImage.getValue()));
+    }
+    executor = targets.isEmpty() ? null : Executors.newFixedThreadPool(targets.size(),
+        new ThreadFactoryBuilder().setNameFormat("ImageUploadTarget-%d").setDaemon(true).build());
+  }
+
+  @Override
+  public long addFile(String fileName, InputStream inputStream, long fileSize)
+      throws IOException, NameTakenException, InternalException {
+    TeeInputStream teeStream = startTargets(inputStream,
+        (targetImage, targetStream) -> targetImage.addFile(fileName, targetStream, fileSize));
+    boolean added = false;
+    try {
+      long size = image.addFile(fileName, teeStream, fileSize);
+      teeStream.finish();
+      added = true;
+      return size;
+    } finally {
+      if (!added) {
+        teeStream.abort();
+      }
+    }
+  }
+
+  @Override
+  public long addDisk(String fileName, InputStream inputStream)
+      throws IOException, VmdkFormatException, NameTakenException, InternalException {
+    TeeInputStream teeStream = startTargets(inputStream,
+        (targetImage, targetStream) -> targetImage.addDisk(fileName, targetStream));
+    boolean added = false;
+    try {
+      long size = image.addDisk(fileName, teeStream);
+      teeStream.finish();
+      added = true;
+      return size;
+    } finally {
+      if (!added) {
+        teeStream.abort();
+      }
+    }
+  }
+
+  /**
+   * @return datastores that received every file of the image so far
+   */
+  List<String> getDatastores() {
+    List<String> datastores = new ArrayList<>();
+    for (Target target : targets) {
+      if (target.error == null) {
+        datastores.add(target.datastore);
+      }
+    }
+    return datastores;
+  }
+
+  /**
+   * @return datastores that were given up, with the reason
+   */
+  Map<String, Throwable> getFailedDatastores() {
+    Map<String, Throwable> failedDatastores = new LinkedHashMap<>();
+    for (Target target : targets) {
+      if (target.error != null) {
+        failedDatastores.put(target.datastore, target.error);
+      }
+    }
+    return failedDatastores;
+  }
+
+  @Override
+  public void close() {
+    try {
+      image.close();
+    } finally {
+      for (Target target : targets) {
+        try {
+          target.image.close();
+        } catch (RuntimeException e) {
+          logger.warn("Failed to close image on datastore {}", target.datastore, e);
+        }
+      }
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  private TeeInputStream startTargets(InputStream inputStream, Upload upload) {
+    List<Target> liveTargets = new ArrayList<>();
+    for (Target target : targets) {
+      if (target.error == null) {
+        target.start(upload);
+        liveTargets.add(target);
+      }
+    }
+    return new TeeInputStream(inputStream, liveTargets);
+  }
+
+  /**
+   * Writes a file to the image of a target datastore.
+   */
+  private interface Upload {
+    long upload(Image image, InputStream inputStream) throws Exception;
+  }
+
+  /**
+   * Target datastore, with the blocks of the current file that its worker did not write yet.
+   */
+  private class Target {
+    private final String datastore;
+    private final Image image;
+    private final BlockingQueue<byte[]> blocks = new ArrayBlockingQueue<>(BLOCKS_IN_FLIGHT);
+    private volatile Throwable error;
+    private volatile Future<?> worker;
+    private volatile long lastTakeMillis;
+
+    Target(String datastore, Image image) {
+      this.datastore = datastore;
+      this.image = image;
+    }
+
+    void start(Upload upload) {
+      blocks.clear();
+      lastTakeMillis = System.currentTimeMillis();
+      worker = executor.submit(() -> {
+        try (BlockQueueInputStream inputStream = new BlockQueueInputStream(this)) {
+          upload.upload(image, inputStream);
+          // Whatever the target does not read must not fill up the queue
+          inputStream.drain();
+        } catch (Throwable t) {
+          fail(t);
+        }
+      });
+    }
+
+    byte[] take() throws InterruptedException {
+      byte[] block = blocks.take();
+      lastTakeMillis = System.currentTimeMillis();
+      return block;
+    }
+
+    void offer(byte[] block) {
+      if (error != null) {
+        return;
+      }
+      if (!blocks.isEmpty() && System.currentTimeMillis() - lastTakeMillis >= stallTimeoutMillis) {
+        fail(new IOException(String.format("Datastore %s took no data of the upload within %d ms",
+            datastore, stallTimeoutMillis)));
+        return;
+      }
+      try {
+        if (!blocks.offer(block, Math.min(BLOCK_OFFER_TIMEOUT_MILLIS, stallTimeoutMillis), TimeUnit.MILLISECONDS)) {
+          fail(new IOException(String.format("Datastore %s fell %d bytes behind the upload and did not catch up",
+              datastore, BLOCKS_IN_FLIGHT * BLOCK_SIZE)));
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        fail(e);
+      }
+    }
+
+    void await(long deadlineMillis) {
+      if (error != null) {
+        return;
+      }
+      try {
+        worker.get(Math.max(deadlineMillis - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+        fail(new TimeoutException(String.format("Datastore %s did not finish the upload within %d ms",
+            datastore, stallTimeoutMillis)));
+      } catch (ExecutionException e) {
+        fail(e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        fail(e);
+      }
+    }
+
+    synchronized void fail(Throwable t) {
+      if (error != null) {
+        return;
+      }
+      logger.warn("Giving up uploading image to datastore {}", datastore, t);
+      error = t;
+      if (worker != null) {
+        worker.cancel(true);
+      }
+      blocks.clear();
+    }
+  }
+
+  /**
+   * Passes what the image datastore reads on to the target datastores in blocks.
+   */
+  private class TeeInputStream extends FilterInputStream {
+    private final List<Target> targets;
+    private final byte[] skipBuffer = new byte[8192];
+    private byte[] block = new byte[BLOCK_SIZE];
+    private int blockLength = 0;
+
+    TeeInputStream(InputStream inputStream, List<Target> targets) {
+      super(inputStream);
+      this.targets = targets;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = in.read();
+      if (b >= 0) {
+        block[blockLength++] = (byte) b;
+        if (blockLength == block.length) {
+          flush();
+        }
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int count = in.read(b, off, len);
+      for (int copied = 0; copied < count; ) {
+        int length = Math.min(count - copied, block.length - blockLength);
+        System.arraycopy(b, off + copied, block, blockLength, length);
+        blockLength += length;
+        copied += length;
+        if (blockLength == block.length) {
+          flush();
+        }
+      }
+      return count;
+    }
+
+    /**
+     * Skipped bytes are read, as the targets need them as well.
+     */
+    @Override
+    public long skip(long n) throws IOException {
+      if (n <= 0) {
+        return 0;
+      }
+      int count = read(skipBuffer, 0, (int) Math.min(n, skipBuffer.length));
+      return Math.max(count, 0);
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+      throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * Wait for the targets to write the file, once the image datastore has written it.
+     */
+    void finish() {
+      if (blockLength > 0) {
+        block = Arrays.copyOf(block, blockLength);
+        flush();
+      }
+      for (Target target : targets) {
+        target.offer(END_OF_FILE);
+      }
+      long deadlineMillis = System.currentTimeMillis() + stallTimeoutMillis;
+      for (Target target : targets) {
+        target.await(deadlineMillis);
+      }
+    }
+
+    /**
+     * Stop the targets, as the image datastore failed to write the file.
+     */
+    void abort() {
+      for (Target target : targets) {
+        target.fail(new IOException("Upload to the image datastore failed"));
+      }
+    }
+
+    private void flush() {
+      for (Target target : targets) {
+        target.offer(block);
+      }
+      block = new byte[BLOCK_SIZE];
+      blockLength = 0;
+    }
+  }
+
+  /**
+   * Reads the blocks that the image datastore read, until the end of the file.
+   */
+  private static class BlockQueueInputStream extends InputStream {
+    private final Target target;
+    private byte[] block = new byte[0];
+    private int position = 0;
+
+    BlockQueueInputStream(Target target) {
+      this.target = target;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (!nextBlock()) {
+        return -1;
+      }
+      return block[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (!nextBlock()) {
+        return -1;
+      }
+      int count = Math.min(len, block.length - position);
+      System.arraycopy(block, position, b, off, count);
+      position += count;
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return block.length - position;
+    }
+
+    void drain() throws IOException {
+      while (nextBlock()) {
+        position = block.length;
+      }
+    }
+
+    private boolean nextBlock() throws IOException {
+      while (block != END_OF_FILE && position == block.length) {
+        try {
+          block = target.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException("Interrupted while waiting for image data", e);
+        }
+        position = 0;
+      }
+      return block != END_OF_FILE;
+    }
+  }
+}
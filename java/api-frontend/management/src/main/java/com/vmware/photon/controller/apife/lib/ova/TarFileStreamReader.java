@@ -13,10 +13,12 @@
 
 package com.vmware.photon.controller.apife.lib.ova;
 
+import com.google.common.io.ByteStreams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.DataInputStream;
+import java.io.BufferedInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Iterator;
@@ -27,22 +29,26 @@ import java.util.Iterator;
  */
 public class TarFileStreamReader implements Iterable<TarFileStreamReader.TarFile> {
   public static final int TAR_FILE_GRANULARITY = 512;
+  private static final int BUFFER_SIZE = 64 * 1024;
   private static final Logger logger = LoggerFactory.getLogger(TarFileStreamReader.class);
   private static final String TAR_SIGNATURE = "ustar";
   private static final DataField NAME_FIELD = new DataField(0, 100);
   private static final DataField OCTAL_BYTE_LENGTH_FIELD = new DataField(124, 12);
   private static final DataField SIGNATURE_FIELD = new DataField(257, 5);
 
-  private final DataInputStream inputStream;
+  private final InputStream inputStream;
+  private byte[] skipBuffer = null;
   private TarFile lastFile = null;
   private TarFile nextFile = null;
 
   /*
-   * Constructor.
+   * Constructor. Streams that support mark are assumed to be buffered already, which also keeps their marks valid
+   * while a header is peeked at; other streams are buffered here so small reads of file contents are served from
+   * memory.
    * @param inputStream - Raw tar file stream.
    */
   public TarFileStreamReader(InputStream inputStream) {
-    this.inputStream = new DataInputStream(inputStream);
+    this.inputStream = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream, BUFFER_SIZE);
   }
 
   /*
@@ -52,7 +58,7 @@ public class TarFileStreamReader implements Iterable<TarFileStreamReader.TarFile
     byte[] buffer = new byte[TAR_FILE_GRANULARITY];
 
     // A header must be present for an OVA component file to be available..
-    this.inputStream.readFully(buffer);
+    ByteStreams.readFully(this.inputStream, buffer);
 
     // If last two empty sections of the TAR file were reached, exit.
     String signature = SIGNATURE_FIELD.getFirstFieldValue(buffer);
@@ -110,6 +116,24 @@ public class TarFileStreamReader implements Iterable<TarFileStreamReader.TarFile
         return bytesRead;
       }
 
+      @Override
+      public long skip(long n) throws IOException {
+        if (n <= 0 || bytesOffset >= byteLength) {
+          return 0;
+        }
+        long bytesSkipped = inputStream.skip(Math.min(n, byteLength - bytesOffset));
+        bytesOffset += bytesSkipped;
+        return bytesSkipped;
+      }
+
+      @Override
+      public int available() throws IOException {
+        if (bytesOffset >= byteLength) {
+          return 0;
+        }
+        return (int) Math.min(inputStream.available(), byteLength - bytesOffset);
+      }
+
       @Override
       public void close() throws IOException {
         // Calculate total fragment size in the archive, including padding.
@@ -117,20 +141,34 @@ public class TarFileStreamReader implements Iterable<TarFileStreamReader.TarFile
 
         // Skip until the end of the fragment. Raise error if unexpected end of archive is reached: the stream was
         // cut-short or the header was corrupted.
-        while (bytesOffset < totalByteLength) {
-          bytesOffset += inputStream.skip(totalByteLength - bytesOffset);
-
-          if (bytesOffset < totalByteLength) {
-            if (inputStream.read() < 0) {
-              throw new IOException("Unexpected end of file.");
-            }
-            bytesOffset += 1;
-          }
+        if (bytesOffset < totalByteLength) {
+          skipFully(totalByteLength - bytesOffset);
+          bytesOffset = totalByteLength;
         }
       }
     };
   }
 
+  /*
+   * Skip bytes of the archive. The stream is asked to skip first, which seeks in file streams; when it skips nothing,
+   * the bytes are read in large blocks instead.
+   */
+  private void skipFully(long byteCount) throws IOException {
+    while (byteCount > 0) {
+      long bytesSkipped = inputStream.skip(byteCount);
+      if (bytesSkipped <= 0) {
+        if (skipBuffer == null) {
+          skipBuffer = new byte[BUFFER_SIZE];
+        }
+        bytesSkipped = inputStream.read(skipBuffer, 0, (int) Math.min(byteCount, skipBuffer.length));
+        if (bytesSkipped < 0) {
+          throw new EOFException("Unexpected end of file.");
+        }
+      }
+      byteCount -= bytesSkipped;
+    }
+  }
+
   /*
    * Create an iterator trough the File components of the TAR archive.
    */
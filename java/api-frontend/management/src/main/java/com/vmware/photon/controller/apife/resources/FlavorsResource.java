@@ -19,8 +19,10 @@ import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.Task;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
 import com.vmware.photon.controller.apife.clients.FlavorFeClient;
+import com.vmware.photon.controller.apife.config.PaginationConfig;
 import com.vmware.photon.controller.apife.resources.routes.FlavorsResourceRoutes;
 import com.vmware.photon.controller.apife.resources.routes.TaskResourceRoutes;
+import com.vmware.photon.controller.apife.utils.PaginationUtils;
 import static com.vmware.photon.controller.api.common.Responses.generateCustomResponse;
 import static com.vmware.photon.controller.api.common.Responses.generateResourceListResponse;
 
@@ -55,10 +57,12 @@ import javax.ws.rs.core.Response;
 @Consumes(MediaType.APPLICATION_JSON)
 public class FlavorsResource {
   private final FlavorFeClient flavorFeClient;
+  private final PaginationConfig paginationConfig;
 
   @Inject
-  public FlavorsResource(FlavorFeClient flavorFeClient) {
+  public FlavorsResource(FlavorFeClient flavorFeClient, PaginationConfig paginationConfig) {
     this.flavorFeClient = flavorFeClient;
+    this.paginationConfig = paginationConfig;
   }
 
   @POST
@@ -75,15 +79,26 @@ public class FlavorsResource {
   }
 
   @GET
-  @ApiOperation(value = "Get all flavors' information", response = Flavor.class, responseContainer = ResourceList
-      .CLASS_NAME)
+  @ApiOperation(value = "Get all flavors' information. If pageLink is provided, " +
+      "then get the flavors on that specific page", response = Flavor.class,
+      responseContainer = ResourceList.CLASS_NAME)
   @ApiResponses(value = {@ApiResponse(code = 200, message = "List of flavors")})
   public Response list(@Context Request request,
                        @QueryParam("name") Optional<String> name,
-                       @QueryParam("kind") Optional<String> kind) throws ExternalException {
+                       @QueryParam("kind") Optional<String> kind,
+                       @QueryParam("pageSize") Optional<Integer> pageSize,
+                       @QueryParam("pageLink") Optional<String> pageLink) throws ExternalException {
+    ResourceList<Flavor> resourceList;
+    if (pageLink.isPresent()) {
+      resourceList = flavorFeClient.getFlavorsPage(pageLink.get());
+    } else {
+      Optional<Integer> adjustedPageSize = PaginationUtils.determinePageSize(paginationConfig, pageSize);
+      resourceList = flavorFeClient.list(name, kind, adjustedPageSize);
+    }
+
     return generateResourceListResponse(
         Response.Status.OK,
-        flavorFeClient.list(name, kind),
+        PaginationUtils.formalizePageLinks(resourceList, FlavorsResourceRoutes.API),
         (ContainerRequest) request,
         FlavorsResourceRoutes.FLAVOR_PATH);
   }
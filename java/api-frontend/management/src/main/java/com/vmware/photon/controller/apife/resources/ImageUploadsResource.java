@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.resources;
+
+import com.vmware.photon.controller.api.ImageCreateSpec;
+import com.vmware.photon.controller.api.Task;
+import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
+import com.vmware.photon.controller.apife.clients.ImageFeClient;
+import com.vmware.photon.controller.apife.exceptions.internal.InternalException;
+import com.vmware.photon.controller.apife.resources.routes.ImageResourceRoutes;
+import com.vmware.photon.controller.apife.resources.routes.TaskResourceRoutes;
+import static com.vmware.photon.controller.api.common.Responses.generateCustomResponse;
+
+import com.google.inject.Inject;
+import com.wordnik.swagger.annotations.Api;
+import com.wordnik.swagger.annotations.ApiOperation;
+import com.wordnik.swagger.annotations.ApiResponse;
+import com.wordnik.swagger.annotations.ApiResponses;
+import io.dropwizard.validation.Validated;
+import org.glassfish.jersey.server.ContainerRequest;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+
+import java.io.InputStream;
+
+/**
+ * This resource is for resumable image uploads, whose image data is sent in numbered chunks.
+ */
+@Path(ImageResourceRoutes.IMAGE_UPLOADS_PATH)
+@Api(value = ImageResourceRoutes.API)
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class ImageUploadsResource {
+
+  private final ImageFeClient imageFeClient;
+
+  @Inject
+  public ImageUploadsResource(ImageFeClient imageFeClient) {
+    this.imageFeClient = imageFeClient;
+  }
+
+  @POST
+  @ApiOperation(value = "Start a chunked image upload, the id of the task is the id of the upload",
+      response = Task.class)
+  @ApiResponses(value = {
+      @ApiResponse(code = 201, message = "Upload created, upload progress can be fetched via the task")
+  })
+  public Response create(@Context Request request,
+                         @Validated ImageCreateSpec imageCreateSpec)
+      throws InternalException, ExternalException {
+    return generateCustomResponse(
+        Response.Status.CREATED,
+        imageFeClient.createUpload(imageCreateSpec),
+        (ContainerRequest) request,
+        TaskResourceRoutes.TASK_PATH);
+  }
+
+  @PUT
+  @Path(ImageResourceRoutes.IMAGE_UPLOAD_CHUNK_ACTION)
+  @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+  @ApiOperation(value = "Upload a chunk of an image, a chunk that failed to upload can be sent again",
+      response = Task.class)
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Chunk uploaded, upload progress can be fetched via the task")
+  })
+  public Response uploadChunk(@Context Request request,
+                              @PathParam("id") String id,
+                              @PathParam("index") int index,
+                              InputStream inputStream)
+      throws InternalException, ExternalException {
+    return generateCustomResponse(
+        Response.Status.OK,
+        imageFeClient.uploadChunk(id, index, inputStream),
+        (ContainerRequest) request,
+        TaskResourceRoutes.TASK_PATH);
+  }
+
+  @POST
+  @Path(ImageResourceRoutes.IMAGE_UPLOAD_COMMIT_ACTION)
+  @ApiOperation(value = "Commit a chunked image upload, which creates the image from its chunks",
+      response = Task.class)
+  @ApiResponses(value = {
+      @ApiResponse(code = 201, message = "Upload committed, image creation process can be fetched via the task")
+  })
+  public Response commit(@Context Request request,
+                         @PathParam("id") String id)
+      throws InternalException, ExternalException {
+    return generateCustomResponse(
+        Response.Status.CREATED,
+        imageFeClient.commitUpload(id),
+        (ContainerRequest) request,
+        TaskResourceRoutes.TASK_PATH);
+  }
+}
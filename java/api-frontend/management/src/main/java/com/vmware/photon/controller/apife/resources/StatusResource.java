@@ -19,6 +19,7 @@ import com.vmware.photon.controller.apife.exceptions.internal.InternalException;
 import com.vmware.photon.controller.apife.resources.routes.StatusResourceRoutes;
 import static com.vmware.photon.controller.api.common.Responses.generateCustomResponse;
 
+import com.google.common.base.Optional;
 import com.google.inject.Inject;
 import com.wordnik.swagger.annotations.Api;
 import com.wordnik.swagger.annotations.ApiOperation;
@@ -31,6 +32,7 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -53,12 +55,13 @@ public class StatusResource {
   }
 
   @GET
-  @ApiOperation(value = "Get statuses of all components, such as root scheduler and chairman",
+  @ApiOperation(value = "Get statuses of all components, such as root scheduler and chairman. The statuses are " +
+      "collected periodically, use refresh=true to collect them right away.",
       response = SystemStatus.class)
   @ApiResponses(value = {@ApiResponse(code = 200, message = "Get component statuses of the system")})
-  public Response get() throws InternalException {
+  public Response get(@QueryParam("refresh") Optional<Boolean> refresh) throws InternalException {
     return generateCustomResponse(Response.Status.OK,
-        statusFeClient.getSystemStatus());
+        statusFeClient.getSystemStatus(refresh.or(false)));
   }
 
 }
@@ -23,4 +23,10 @@ public class ImageResourceRoutes {
   public static final String IMAGE_PATH = "/images/{id}";
 
   public static final String IMAGE_TASKS_PATH = "/images/{id}/tasks";
+
+  public static final String IMAGE_UPLOADS_PATH = "/images/uploads";
+
+  public static final String IMAGE_UPLOAD_CHUNK_ACTION = "/{id}/chunks/{index}";
+
+  public static final String IMAGE_UPLOAD_COMMIT_ACTION = "/{id}/commit";
 }
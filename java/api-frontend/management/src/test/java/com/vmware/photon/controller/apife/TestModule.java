@@ -30,6 +30,8 @@ import com.google.inject.Singleton;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -83,4 +85,11 @@ public class TestModule extends AbstractModule {
     // datastore datastore1's uuid is fab6adc5-fd4d-5d20-9d76-fc478a2b338f
     return new LocalImageStore(tempDir.getAbsolutePath(), "fab6adc5-fd4d-5d20-9d76-fc478a2b338f");
   }
+
+  @Provides
+  @Singleton
+  @ImageUploadTargets
+  public List<ImageStore> getImageUploadTargetStores() {
+    return Collections.emptyList();
+  }
 }
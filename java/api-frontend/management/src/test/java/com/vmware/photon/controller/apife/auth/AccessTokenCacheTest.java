@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.auth;
+
+import com.vmware.identity.openidconnect.client.ResourceServerAccessToken;
+
+import com.codahale.metrics.MetricRegistry;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests {@link AccessTokenCache}.
+ */
+public class AccessTokenCacheTest {
+
+  private MetricRegistry registry;
+  private AccessTokenCache cache;
+
+  @BeforeMethod
+  public void setUp() {
+    registry = new MetricRegistry();
+    cache = new AccessTokenCache(2, registry);
+  }
+
+  @Test
+  public void testHitAndMiss() {
+    ResourceServerAccessToken token = buildToken(TimeUnit.MINUTES.toMillis(5));
+
+    assertThat(cache.get("jwt"), nullValue());
+    cache.put("jwt", token);
+    assertThat(cache.get("jwt"), sameInstance(token));
+    assertThat(cache.get("other-jwt"), nullValue());
+
+    assertThat(registry.meter(MetricRegistry.name(AccessTokenCache.class, "hits")).getCount(), is(1L));
+    assertThat(registry.meter(MetricRegistry.name(AccessTokenCache.class, "misses")).getCount(), is(2L));
+  }
+
+  @Test
+  public void testExpiredTokenIsNotReturned() {
+    ResourceServerAccessToken token = buildToken(TimeUnit.MINUTES.toMillis(5));
+    cache.put("jwt", token);
+
+    doReturn(new Date(System.currentTimeMillis() - 1)).when(token).getExpirationTime();
+    assertThat(cache.get("jwt"), nullValue());
+    assertThat(cache.size(), is(0L));
+  }
+
+  @Test
+  public void testTokensWithoutValidExpirationAreNotCached() {
+    cache.put("expired", buildToken(-TimeUnit.MINUTES.toMillis(1)));
+    cache.put("no-expiration", mock(ResourceServerAccessToken.class));
+
+    assertThat(cache.size(), is(0L));
+  }
+
+  @Test
+  public void testSizeIsBounded() {
+    for (int i = 0; i < 10; i++) {
+      cache.put("jwt" + i, buildToken(TimeUnit.MINUTES.toMillis(5)));
+    }
+
+    assertThat(cache.size() <= 2, is(true));
+  }
+
+  @Test
+  public void testInvalidateAll() {
+    cache.put("jwt", buildToken(TimeUnit.MINUTES.toMillis(5)));
+    cache.invalidateAll();
+
+    assertThat(cache.get("jwt"), nullValue());
+  }
+
+  private ResourceServerAccessToken buildToken(long expiresInMillis) {
+    ResourceServerAccessToken token = mock(ResourceServerAccessToken.class);
+    doReturn(new Date(System.currentTimeMillis() + expiresInMillis)).when(token).getExpirationTime();
+    return token;
+  }
+}
@@ -37,7 +37,10 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.testng.AssertJUnit.fail;
 
 import javax.ws.rs.WebApplicationException;
@@ -48,6 +51,8 @@ import javax.ws.rs.core.Response;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Test AuthFilter.
@@ -151,6 +156,37 @@ public class AuthFilterTest {
     }
   }
 
+  @Test
+  public void testValidatedTokenIsCached() throws Throwable {
+    ResourceServerAccessToken token = mock(ResourceServerAccessToken.class);
+    doReturn(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(5))).when(token).getExpirationTime();
+
+    AuthTokenHandler handler = mock(AuthTokenHandler.class);
+    doReturn(token).when(handler).parseAccessToken(any(String.class));
+
+    PolicyProvider policyProvider = mock(PolicyProvider.class);
+    subject.setTokenHandler(handler);
+    subject.setPolicyProvider(policyProvider);
+
+    subject.filter(buildRequest(HostResourceRoutes.API, buildHeadersWithToken()));
+    subject.filter(buildRequest(HostResourceRoutes.API, buildHeadersWithToken()));
+    verify(handler, times(1)).parseAccessToken("foo");
+    verify(policyProvider, times(2)).checkAccessPermissions(any(ContainerRequest.class), eq(token));
+
+    // replacing the token handler flushes the tokens validated by the previous one
+    ResourceServerAccessToken newToken = mock(ResourceServerAccessToken.class);
+    doReturn(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(5))).when(newToken).getExpirationTime();
+
+    AuthTokenHandler newHandler = mock(AuthTokenHandler.class);
+    doReturn(newToken).when(newHandler).parseAccessToken(any(String.class));
+
+    subject.setTokenHandler(newHandler);
+    subject.filter(buildRequest(HostResourceRoutes.API, buildHeadersWithToken()));
+    verify(newHandler, times(1)).parseAccessToken("foo");
+    verify(policyProvider, times(1)).checkAccessPermissions(any(ContainerRequest.class), eq(newToken));
+    verify(policyProvider, times(2)).checkAccessPermissions(any(ContainerRequest.class), eq(token));
+  }
+
   @DataProvider(name = "ClusterApiData")
   Object[][] getClusterApiData() {
     return new Object[][]{
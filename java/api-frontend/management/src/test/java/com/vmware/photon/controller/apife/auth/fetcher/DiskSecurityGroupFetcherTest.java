@@ -16,6 +16,7 @@ package com.vmware.photon.controller.apife.auth.fetcher;
 import com.vmware.photon.controller.api.PersistentDisk;
 import com.vmware.photon.controller.apife.auth.TransactionAuthorizationObject;
 import com.vmware.photon.controller.apife.backends.DiskBackend;
+import com.vmware.photon.controller.apife.entities.PersistentDiskEntity;
 import com.vmware.photon.controller.apife.exceptions.external.DiskNotFoundException;
 
 import com.google.common.collect.ImmutableSet;
@@ -80,7 +81,7 @@ public class DiskSecurityGroupFetcherTest {
 
     @Test
     public void testInvalidId() throws Throwable {
-      doThrow(new DiskNotFoundException("id")).when(backend).toApiRepresentation("id");
+      doThrow(new DiskNotFoundException("id")).when(backend).find(PersistentDisk.KIND, "id");
 
       Set<String> groups = fetcher.fetchSecurityGroups(authorizationObject);
       assertThat(groups.size(), is(0));
@@ -90,9 +91,9 @@ public class DiskSecurityGroupFetcherTest {
     public void testParentWithoutSecurityGroups() throws Throwable {
       authorizationObject.setStrategy(TransactionAuthorizationObject.Strategy.PARENT);
 
-      PersistentDisk disk = new PersistentDisk();
+      PersistentDiskEntity disk = new PersistentDiskEntity();
       disk.setProjectId("project-id");
-      doReturn(disk).when(backend).toApiRepresentation("id");
+      doReturn(disk).when(backend).find(PersistentDisk.KIND, "id");
 
       ArgumentCaptor<TransactionAuthorizationObject> captor =
           ArgumentCaptor.forClass(TransactionAuthorizationObject.class);
@@ -107,9 +108,9 @@ public class DiskSecurityGroupFetcherTest {
     public void testParentWithSecurityGroups() throws Throwable {
       authorizationObject.setStrategy(TransactionAuthorizationObject.Strategy.PARENT);
 
-      PersistentDisk disk = new PersistentDisk();
+      PersistentDiskEntity disk = new PersistentDiskEntity();
       disk.setProjectId("project-id");
-      doReturn(disk).when(backend).toApiRepresentation("id");
+      doReturn(disk).when(backend).find(PersistentDisk.KIND, "id");
 
       ArgumentCaptor<TransactionAuthorizationObject> captor =
           ArgumentCaptor.forClass(TransactionAuthorizationObject.class);
@@ -13,10 +13,10 @@
 
 package com.vmware.photon.controller.apife.auth.fetcher;
 
-import com.vmware.photon.controller.api.Project;
-import com.vmware.photon.controller.api.SecurityGroup;
 import com.vmware.photon.controller.apife.auth.TransactionAuthorizationObject;
 import com.vmware.photon.controller.apife.backends.ProjectBackend;
+import com.vmware.photon.controller.apife.entities.ProjectEntity;
+import com.vmware.photon.controller.apife.entities.SecurityGroupEntity;
 import com.vmware.photon.controller.apife.exceptions.external.ProjectNotFoundException;
 
 import com.google.common.collect.ImmutableList;
@@ -28,6 +28,8 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.util.Set;
 
@@ -38,6 +40,8 @@ public class ProjectSecurityGroupFetcherTest {
 
   private ProjectBackend backend;
 
+  private SecurityGroupCache cache;
+
   private ProjectSecurityGroupFetcher fetcher;
 
   /**
@@ -58,7 +62,8 @@ public class ProjectSecurityGroupFetcherTest {
     @BeforeMethod
     private void setUp() {
       backend = mock(ProjectBackend.class);
-      fetcher = new ProjectSecurityGroupFetcher(backend);
+      cache = new SecurityGroupCache();
+      fetcher = new ProjectSecurityGroupFetcher(backend, cache);
 
       authorizationObject = new TransactionAuthorizationObject(
           TransactionAuthorizationObject.Kind.PROJECT,
@@ -78,7 +83,7 @@ public class ProjectSecurityGroupFetcherTest {
 
     @Test
     public void testInvalidId() throws Throwable {
-      doThrow(new ProjectNotFoundException("id")).when(backend).getApiRepresentation("id");
+      doThrow(new ProjectNotFoundException("id")).when(backend).findById("id");
 
       Set<String> groups = fetcher.fetchSecurityGroups(authorizationObject);
       assertThat(groups.size(), is(0));
@@ -86,8 +91,8 @@ public class ProjectSecurityGroupFetcherTest {
 
     @Test
     public void testSelfWithoutSecurityGroups() throws Throwable {
-      Project project = new Project();
-      doReturn(project).when(backend).getApiRepresentation("id");
+      ProjectEntity project = new ProjectEntity();
+      doReturn(project).when(backend).findById("id");
 
       Set<String> groups = fetcher.fetchSecurityGroups(authorizationObject);
       assertThat(groups.size(), is(0));
@@ -95,9 +100,10 @@ public class ProjectSecurityGroupFetcherTest {
 
     @Test
     public void testSelfWithSecurityGroups() throws Throwable {
-      Project project = new Project();
-      project.setSecurityGroups(ImmutableList.of(new SecurityGroup("SG1", true), new SecurityGroup("SG2", false)));
-      doReturn(project).when(backend).getApiRepresentation("id");
+      ProjectEntity project = new ProjectEntity();
+      project.setSecurityGroups(ImmutableList.of(new SecurityGroupEntity("SG1", true),
+          new SecurityGroupEntity("SG2", false)));
+      doReturn(project).when(backend).findById("id");
 
       Set<String> groups = fetcher.fetchSecurityGroups(authorizationObject);
       assertThat(groups.size(), is(2));
@@ -108,9 +114,10 @@ public class ProjectSecurityGroupFetcherTest {
     public void testParentWithoutInheritedSecurityGroups() throws Throwable {
       authorizationObject.setStrategy(TransactionAuthorizationObject.Strategy.PARENT);
 
-      Project project = new Project();
-      project.setSecurityGroups(ImmutableList.of(new SecurityGroup("SG1", false), new SecurityGroup("SG2", false)));
-      doReturn(project).when(backend).getApiRepresentation("id");
+      ProjectEntity project = new ProjectEntity();
+      project.setSecurityGroups(ImmutableList.of(new SecurityGroupEntity("SG1", false),
+          new SecurityGroupEntity("SG2", false)));
+      doReturn(project).when(backend).findById("id");
 
       Set<String> groups = fetcher.fetchSecurityGroups(authorizationObject);
       assertThat(groups.size(), is(0));
@@ -120,13 +127,31 @@ public class ProjectSecurityGroupFetcherTest {
     public void testParentWithInheritedSecurityGroups() throws Throwable {
       authorizationObject.setStrategy(TransactionAuthorizationObject.Strategy.PARENT);
 
-      Project project = new Project();
-      project.setSecurityGroups(ImmutableList.of(new SecurityGroup("SG1", true), new SecurityGroup("SG2", false)));
-      doReturn(project).when(backend).getApiRepresentation("id");
+      ProjectEntity project = new ProjectEntity();
+      project.setSecurityGroups(ImmutableList.of(new SecurityGroupEntity("SG1", true),
+          new SecurityGroupEntity("SG2", false)));
+      doReturn(project).when(backend).findById("id");
 
       Set<String> groups = fetcher.fetchSecurityGroups(authorizationObject);
       assertThat(groups.size(), is(1));
       assertThat(groups, contains("SG1"));
     }
+
+    @Test
+    public void testSecurityGroupsAreCached() throws Throwable {
+      ProjectEntity project = new ProjectEntity();
+      project.setSecurityGroups(ImmutableList.of(new SecurityGroupEntity("SG1", true)));
+      doReturn(project).when(backend).findById("id");
+
+      assertThat(fetcher.fetchSecurityGroups(authorizationObject), contains("SG1"));
+      assertThat(fetcher.fetchSecurityGroups(authorizationObject), contains("SG1"));
+      verify(backend, times(1)).findById("id");
+
+      project.setSecurityGroups(ImmutableList.of(new SecurityGroupEntity("SG2", false)));
+      cache.invalidateProject("id");
+
+      assertThat(fetcher.fetchSecurityGroups(authorizationObject), contains("SG2"));
+      verify(backend, times(2)).findById("id");
+    }
   }
 }
@@ -13,9 +13,9 @@
 
 package com.vmware.photon.controller.apife.auth.fetcher;
 
-import com.vmware.photon.controller.api.ResourceTicket;
 import com.vmware.photon.controller.apife.auth.TransactionAuthorizationObject;
 import com.vmware.photon.controller.apife.backends.ResourceTicketBackend;
+import com.vmware.photon.controller.apife.entities.ResourceTicketEntity;
 import com.vmware.photon.controller.apife.exceptions.external.ResourceTicketNotFoundException;
 
 import com.google.common.collect.ImmutableSet;
@@ -80,7 +80,7 @@ public class ResourceTicketSecurityGroupFetcherTest {
 
     @Test
     public void testInvalidId() throws Throwable {
-      doThrow(new ResourceTicketNotFoundException("id")).when(backend).getApiRepresentation("id");
+      doThrow(new ResourceTicketNotFoundException("id")).when(backend).findById("id");
 
       Set<String> groups = fetcher.fetchSecurityGroups(authorizationObject);
       assertThat(groups.size(), is(0));
@@ -90,9 +90,9 @@ public class ResourceTicketSecurityGroupFetcherTest {
     public void testParentWithoutSecurityGroups() throws Throwable {
       authorizationObject.setStrategy(TransactionAuthorizationObject.Strategy.PARENT);
 
-      ResourceTicket ticket = new ResourceTicket();
+      ResourceTicketEntity ticket = new ResourceTicketEntity();
       ticket.setTenantId("tenant-id");
-      doReturn(ticket).when(backend).getApiRepresentation("id");
+      doReturn(ticket).when(backend).findById("id");
 
       ArgumentCaptor<TransactionAuthorizationObject> captor =
           ArgumentCaptor.forClass(TransactionAuthorizationObject.class);
@@ -107,9 +107,9 @@ public class ResourceTicketSecurityGroupFetcherTest {
     public void testParentWithSecurityGroups() throws Throwable {
       authorizationObject.setStrategy(TransactionAuthorizationObject.Strategy.PARENT);
 
-      ResourceTicket ticket = new ResourceTicket();
+      ResourceTicketEntity ticket = new ResourceTicketEntity();
       ticket.setTenantId("tenant-id");
-      doReturn(ticket).when(backend).getApiRepresentation("id");
+      doReturn(ticket).when(backend).findById("id");
 
       ArgumentCaptor<TransactionAuthorizationObject> captor =
           ArgumentCaptor.forClass(TransactionAuthorizationObject.class);
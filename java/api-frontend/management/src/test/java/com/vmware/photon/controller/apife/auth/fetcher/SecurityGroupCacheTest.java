@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.auth.fetcher;
+
+import com.vmware.photon.controller.api.SecurityGroup;
+import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.testng.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests {@link SecurityGroupCache}.
+ */
+public class SecurityGroupCacheTest {
+
+  private AtomicLong now;
+  private AtomicInteger loads;
+  private SecurityGroupCache cache;
+
+  @BeforeMethod
+  public void setUp() {
+    now = new AtomicLong();
+    loads = new AtomicInteger();
+    cache = new SecurityGroupCache(new Ticker() {
+      @Override
+      public long read() {
+        return now.get();
+      }
+    });
+  }
+
+  @Test
+  public void testProjectSecurityGroupsAreCached() throws Throwable {
+    assertThat(getProjectSecurityGroups("p1").get(0).getName(), is("SG1"));
+    assertThat(getProjectSecurityGroups("p1").get(0).getName(), is("SG1"));
+    assertThat(loads.get(), is(1));
+
+    getProjectSecurityGroups("p2");
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void testEntriesExpire() throws Throwable {
+    getProjectSecurityGroups("p1");
+    getTenantSecurityGroups("t1");
+    assertThat(loads.get(), is(2));
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(SecurityGroupCache.EXPIRE_AFTER_WRITE_SECONDS + 1));
+
+    getProjectSecurityGroups("p1");
+    getTenantSecurityGroups("t1");
+    assertThat(loads.get(), is(4));
+  }
+
+  @Test
+  public void testInvalidate() throws Throwable {
+    getProjectSecurityGroups("p1");
+    getTenantSecurityGroups("t1");
+
+    cache.invalidateTenant("t1");
+    getProjectSecurityGroups("p1");
+    getTenantSecurityGroups("t1");
+    assertThat(loads.get(), is(3));
+
+    cache.invalidateProject("p1");
+    getProjectSecurityGroups("p1");
+    getTenantSecurityGroups("t1");
+    assertThat(loads.get(), is(4));
+  }
+
+  @Test
+  public void testLoadOverlappingInvalidationIsNotCached() throws Throwable {
+    cache.getProjectSecurityGroups("p1", id -> {
+      List<SecurityGroup> securityGroups = load();
+      // The security groups are replaced while the old ones are being loaded
+      cache.invalidateProject("p1");
+      return securityGroups;
+    });
+    assertThat(loads.get(), is(1));
+
+    getProjectSecurityGroups("p1");
+    getProjectSecurityGroups("p1");
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void testFailedLoadIsNotCached() throws Throwable {
+    try {
+      cache.getTenantSecurityGroups("t1", id -> {
+        throw new ExternalException("Tenant not found");
+      });
+      fail("load failure should be thrown");
+    } catch (ExternalException e) {
+      assertThat(e.getMessage(), is("Tenant not found"));
+    }
+
+    getTenantSecurityGroups("t1");
+    assertThat(loads.get(), is(1));
+  }
+
+  private List<SecurityGroup> getProjectSecurityGroups(String projectId) throws Throwable {
+    return cache.getProjectSecurityGroups(projectId, id -> load());
+  }
+
+  private List<SecurityGroup> getTenantSecurityGroups(String tenantId) throws Throwable {
+    return cache.getTenantSecurityGroups(tenantId, id -> load());
+  }
+
+  private List<SecurityGroup> load() {
+    loads.incrementAndGet();
+    return ImmutableList.of(new SecurityGroup("SG1", false));
+  }
+}
@@ -13,10 +13,10 @@
 
 package com.vmware.photon.controller.apife.auth.fetcher;
 
-import com.vmware.photon.controller.api.SecurityGroup;
-import com.vmware.photon.controller.api.Tenant;
 import com.vmware.photon.controller.apife.auth.TransactionAuthorizationObject;
 import com.vmware.photon.controller.apife.backends.TenantBackend;
+import com.vmware.photon.controller.apife.entities.SecurityGroupEntity;
+import com.vmware.photon.controller.apife.entities.TenantEntity;
 import com.vmware.photon.controller.apife.exceptions.external.TenantNotFoundException;
 
 import com.google.common.collect.ImmutableList;
@@ -64,7 +64,7 @@ public class TenantSecurityGroupFetcherTest {
           TransactionAuthorizationObject.Strategy.SELF,
           "id");
 
-      fetcher = new TenantSecurityGroupFetcher(backend);
+      fetcher = new TenantSecurityGroupFetcher(backend, new SecurityGroupCache());
     }
 
     /**
@@ -92,7 +92,7 @@ public class TenantSecurityGroupFetcherTest {
 
     @Test
     public void testInvalidId() throws Throwable {
-      doThrow(new TenantNotFoundException("id")).when(backend).getApiRepresentation("id");
+      doThrow(new TenantNotFoundException("id")).when(backend).findById("id");
 
       Set<String> groups = fetcher.fetchSecurityGroups(authorizationObject);
       assertThat(groups.size(), is(0));
@@ -100,8 +100,8 @@ public class TenantSecurityGroupFetcherTest {
 
     @Test
     public void testWithoutSecurityGroups() throws Throwable {
-      Tenant tenant = new Tenant();
-      doReturn(tenant).when(backend).getApiRepresentation("id");
+      TenantEntity tenant = new TenantEntity();
+      doReturn(tenant).when(backend).findById("id");
 
       Set<String> groups = fetcher.fetchSecurityGroups(authorizationObject);
       assertThat(groups.size(), is(0));
@@ -109,9 +109,10 @@ public class TenantSecurityGroupFetcherTest {
 
     @Test
     public void testWithSecurityGroups() throws Throwable {
-      Tenant tenant = new Tenant();
-      tenant.setSecurityGroups(ImmutableList.of(new SecurityGroup("SG1", true), new SecurityGroup("SG2", false)));
-      doReturn(tenant).when(backend).getApiRepresentation("id");
+      TenantEntity tenant = new TenantEntity();
+      tenant.setSecurityGroups(ImmutableList.of(new SecurityGroupEntity("SG1", true),
+          new SecurityGroupEntity("SG2", false)));
+      doReturn(tenant).when(backend).findById("id");
 
       Set<String> groups = fetcher.fetchSecurityGroups(authorizationObject);
       assertThat(groups.size(), is(2));
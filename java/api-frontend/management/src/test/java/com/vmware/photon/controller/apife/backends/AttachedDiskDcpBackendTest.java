@@ -49,6 +49,7 @@ import static org.testng.FileAssert.fail;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -230,6 +231,13 @@ public class AttachedDiskDcpBackendTest {
 
       List<AttachedDiskEntity> attachedDiskEntities = attachedDiskBackend.findByVmId(vmEntity.getId());
       assertThat(attachedDiskEntities.size(), is(2));
+
+      String otherVmId = UUID.randomUUID().toString();
+      Map<String, List<AttachedDiskEntity>> attachedDisksByVm =
+          attachedDiskBackend.findByVmIds(ImmutableList.of(vmEntity.getId(), otherVmId));
+      assertThat(attachedDisksByVm.size(), is(1));
+      assertThat(attachedDisksByVm.get(vmEntity.getId()).size(), is(2));
+      assertThat(attachedDisksByVm.containsKey(otherVmId), is(false));
     }
 
     @Test
@@ -48,6 +48,7 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Guice;
 import org.testng.annotations.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.core.Is.is;
 import static org.testng.AssertJUnit.fail;
@@ -56,6 +57,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -489,6 +491,27 @@ public class DiskDcpBackendTest {
       assertThat(persistentDiskList.get(0).getName(), is("disk-1"));
     }
 
+    @Test
+    public void testQueryDisks() throws Exception {
+      String diskId1 = diskBackend.prepareDiskCreate(projectId, spec).getEntityId();
+      spec.setName("disk-2");
+      String diskId2 = diskBackend.prepareDiskCreate(projectId, spec).getEntityId();
+
+      Map<String, BaseDiskEntity> diskEntities = diskBackend.find(PersistentDisk.KIND,
+          ImmutableList.of(diskId1, diskId2));
+      assertThat(diskEntities.size(), is(2));
+      assertThat(diskEntities.get(diskId1).getName(), is("disk-1"));
+      assertThat(diskEntities.get(diskId2).getName(), is("disk-2"));
+      assertThat(diskEntities.get(diskId1), instanceOf(PersistentDiskEntity.class));
+
+      try {
+        diskBackend.find(PersistentDisk.KIND, ImmutableList.of(diskId1, "invalid-disk"));
+        fail("should have failed with DiskNotFoundException.");
+      } catch (DiskNotFoundException e) {
+        assertThat(e.getMessage(), is("Disk #invalid-disk not found"));
+      }
+    }
+
     @Test
     public void testDiskExistsUsingFlavor() throws Exception {
       TaskEntity taskEntity = diskBackend.prepareDiskCreate(projectId, spec);
@@ -31,6 +31,7 @@ import com.vmware.photon.controller.apife.entities.VmEntity;
 import com.vmware.photon.controller.common.dcp.BasicServiceHost;
 import com.vmware.photon.controller.common.dcp.ServiceHostUtils;
 
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import org.junit.AfterClass;
 import org.testng.annotations.AfterMethod;
@@ -42,6 +43,8 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -202,6 +205,46 @@ public class EntityLockDcpBackendTest {
         assertThat(e.getMessage(), is("TaskEntity cannot be null."));
       }
     }
+
+    @Test
+    public void testSetTaskLocksSuccess() throws Throwable {
+      List<String> entityIds = ImmutableList.of("vm-id", "persistent-id", "iso-id");
+      entityLockDcpBackend.setTaskLocks(entityIds, taskEntity);
+      //acquiring the locks again on the same task should be no-op
+      entityLockDcpBackend.setTaskLocks(entityIds, taskEntity);
+
+      for (String entityId : entityIds) {
+        assertThat(entityLockDcpBackend.lockExistsForEntityId(entityId), is(true));
+      }
+    }
+
+    @Test
+    public void testSetTaskLocksIsAllOrNothing() throws Throwable {
+      TaskEntity taskEntityOther = new TaskEntity();
+      taskEntityOther.setId("task-id-other");
+      entityLockDcpBackend.setTaskLock("persistent-id", taskEntityOther);
+
+      try {
+        entityLockDcpBackend.setTaskLocks(ImmutableList.of("vm-id", "persistent-id", "iso-id"), taskEntity);
+        fail("should have failed with ConcurrentTaskException");
+      } catch (ConcurrentTaskException e) {
+      }
+
+      //the locks acquired before the conflict was detected have been released
+      assertThat(entityLockDcpBackend.lockExistsForEntityId("vm-id"), is(false));
+      assertThat(entityLockDcpBackend.lockExistsForEntityId("iso-id"), is(false));
+      assertThat(entityLockDcpBackend.lockExistsForEntityId("persistent-id"), is(true));
+    }
+
+    @Test
+    public void testSetTaskLocksNullTask() throws Throwable {
+      try {
+        entityLockDcpBackend.setTaskLocks(ImmutableList.of("dummy-id"), null);
+        fail("should have failed with NullPointerException");
+      } catch (NullPointerException e) {
+        assertThat(e.getMessage(), is("TaskEntity cannot be null."));
+      }
+    }
   }
 
   /**
@@ -252,6 +295,22 @@ public class EntityLockDcpBackendTest {
       entityLockDcpBackend.setTaskLock(ephemeralDiskId, taskEntity);
     }
 
+    @Test
+    public void testClearLocksInBatch() throws Throwable {
+      List<String> entityIds = ImmutableList.of(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+      entityLockDcpBackend.setTaskLocks(entityIds, taskEntity);
+
+      //a lock that does not exist anymore counts as cleared
+      taskEntity.setLockableEntityIds(new ArrayList<>(entityIds));
+      taskEntity.getLockableEntityIds().add(UUID.randomUUID().toString());
+      entityLockDcpBackend.clearTaskLocks(taskEntity);
+
+      assertThat(taskEntity.getLockableEntityIds().isEmpty(), is(true));
+      for (String entityId : entityIds) {
+        assertThat(entityLockDcpBackend.lockExistsForEntityId(entityId), is(false));
+      }
+    }
+
     @Test
     public void testClearLockNullStep() throws Throwable {
       try {
@@ -46,12 +46,14 @@ import org.testng.annotations.Guice;
 import org.testng.annotations.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.testng.Assert.fail;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -263,6 +265,34 @@ public class FlavorDcpBackendTest {
       flavorBackend.getEntityByNameAndKind(UUID.randomUUID().toString(), "invalid kind");
     }
 
+    @Test
+    public void testGetEntitiesByIds() throws Exception {
+      String flavorId1 = flavorBackend.createFlavor(spec).getEntityId();
+      FlavorCreateSpec spec2 = new FlavorCreateSpec();
+      spec2.setName("flavor-200");
+      spec2.setKind(spec.getKind());
+      spec2.setCost(spec.getCost());
+      String flavorId2 = flavorBackend.createFlavor(spec2).getEntityId();
+
+      Map<String, FlavorEntity> flavors = flavorBackend.getEntitiesByIds(ImmutableList.of(flavorId1, flavorId2));
+      assertThat(flavors.size(), is(2));
+      assertThat(flavors.get(flavorId1).getName(), is(spec.getName()));
+      assertThat(flavors.get(flavorId2).getName(), is(spec2.getName()));
+    }
+
+    @Test
+    public void testGetEntitiesByIdsWithNotExistFlavor() throws Exception {
+      String flavorId = flavorBackend.createFlavor(spec).getEntityId();
+      String missingId = UUID.randomUUID().toString();
+
+      try {
+        flavorBackend.getEntitiesByIds(ImmutableList.of(flavorId, missingId));
+        fail("should have failed with FlavorNotFoundException");
+      } catch (FlavorNotFoundException e) {
+        assertThat(e.getMessage(), containsString(missingId));
+      }
+    }
+
     @Test
     public void testFindAllFlavors() throws Exception {
       TaskEntity taskEntity = flavorBackend.createFlavor(spec);
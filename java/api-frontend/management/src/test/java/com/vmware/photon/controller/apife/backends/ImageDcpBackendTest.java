@@ -453,6 +453,69 @@ public class ImageDcpBackendTest {
       assertThat(imageEntity.getSize(), is(newImageSize));
     }
 
+    @Test
+    public void testUpdateContent() throws Throwable {
+      String imageId = createImageDocument(dcpClient, UUID.randomUUID().toString(), ImageState.READY, 1L);
+      String otherImageId = createImageDocument(dcpClient, UUID.randomUUID().toString(), ImageState.READY, 1L);
+      ImageEntity imageEntity = imageBackend.findById(imageId);
+      assertThat(imageEntity.getContentDigest(), nullValue());
+      assertThat(imageEntity.getContentImageId(), is(imageId));
+
+      imageBackend.updateContent(imageEntity, "digest", otherImageId);
+      assertThat(imageEntity.getContentDigest(), is("digest"));
+      assertThat(imageEntity.getContentImageId(), is(otherImageId));
+
+      imageEntity = imageBackend.findById(imageId);
+      assertThat(imageEntity.getContentDigest(), is("digest"));
+      assertThat(imageEntity.getContentImageId(), is(otherImageId));
+
+      List<ImageEntity> images = imageBackend.findByContentDigest("digest");
+      assertThat(images.size(), is(1));
+      assertThat(images.get(0).getId(), is(imageId));
+      assertThat(imageBackend.findByContentDigest("other-digest").isEmpty(), is(true));
+    }
+
+    @Test
+    public void testReplicationProgressOfImageWithSameContent() throws Throwable {
+      String imageId = createImageDocument(dcpClient, UUID.randomUUID().toString(), ImageState.READY, 1L);
+      String sameImageId = createImageDocument(dcpClient, UUID.randomUUID().toString(), ImageState.READY, 1L);
+      ImageService.State patchState = new ImageService.State();
+      patchState.replicatedDatastore = 0;
+      dcpClient.patch(ImageServiceFactory.SELF_LINK + "/" + sameImageId, patchState);
+      assertThat(imageBackend.toApiRepresentation(sameImageId).getReplicationProgress(), is("0.0%"));
+
+      imageBackend.updateContent(imageBackend.findById(sameImageId), "digest", imageId);
+      assertThat(imageBackend.toApiRepresentation(sameImageId).getReplicationProgress(), is("50.0%"));
+
+      // The image shows its own progress once the image whose files it uses is gone
+      dcpClient.delete(ImageServiceFactory.SELF_LINK + "/" + imageId, new ImageService.State());
+      assertThat(imageBackend.toApiRepresentation(sameImageId).getReplicationProgress(), is("0.0%"));
+    }
+
+    @Test
+    public void testIsContentShared() throws Throwable {
+      String imageId = createImageDocument(dcpClient, UUID.randomUUID().toString(), ImageState.READY, 1L);
+      String sameImageId = createImageDocument(dcpClient, UUID.randomUUID().toString(), ImageState.READY, 1L);
+      String otherImageId = createImageDocument(dcpClient, UUID.randomUUID().toString(), ImageState.READY, 1L);
+      ImageEntity image = imageBackend.findById(imageId);
+      ImageEntity sameImage = imageBackend.findById(sameImageId);
+      ImageEntity otherImage = imageBackend.findById(otherImageId);
+
+      imageBackend.updateContent(image, "digest", imageId);
+      assertThat(imageBackend.isContentShared(image), is(false));
+
+      imageBackend.updateContent(sameImage, "digest", imageId);
+      imageBackend.updateContent(otherImage, "other-digest", otherImageId);
+      assertThat(imageBackend.isContentShared(image), is(true));
+      assertThat(imageBackend.isContentShared(sameImage), is(true));
+      assertThat(imageBackend.isContentShared(otherImage), is(false));
+
+      // Files of a deleted image are only kept for the images that still use them
+      imageBackend.updateState(image, ImageState.PENDING_DELETE);
+      assertThat(imageBackend.isContentShared(image), is(true));
+      assertThat(imageBackend.isContentShared(sameImage), is(false));
+    }
+
     @Test
     public void testUpdateImageDatastore() throws Throwable {
       imageName = UUID.randomUUID().toString();
@@ -18,6 +18,7 @@ import com.vmware.photon.controller.api.ProjectCreateSpec;
 import com.vmware.photon.controller.api.ProjectTicket;
 import com.vmware.photon.controller.api.QuotaLineItem;
 import com.vmware.photon.controller.api.QuotaUnit;
+import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.ResourceTicketCreateSpec;
 import com.vmware.photon.controller.api.ResourceTicketReservation;
 import com.vmware.photon.controller.api.SecurityGroup;
@@ -49,13 +50,16 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Guice;
 import org.testng.annotations.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.testng.AssertJUnit.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -345,6 +349,26 @@ public class ProjectDcpBackendTest {
       assertThat(tenantProjectList.size(), is(2));
     }
 
+    @Test
+    public void testFilterProjectWithPagination() throws Exception {
+      projectBackend.createProject(tenantId, spec1);
+      projectBackend.createProject(tenantId, spec2);
+
+      ResourceList<Project> projects = projectBackend.filter(tenantId, Optional.<String>absent(), Optional.of(1));
+      assertThat(projects.getItems().size(), is(1));
+
+      Set<String> projectNames = new HashSet<>();
+      projectNames.add(projects.getItems().get(0).getName());
+      while (projects.getNextPageLink() != null) {
+        projects = projectBackend.getProjectsPage(projects.getNextPageLink());
+        for (Project project : projects.getItems()) {
+          projectNames.add(project.getName());
+        }
+      }
+
+      assertThat(projectNames, containsInAnyOrder(spec1.getName(), spec2.getName()));
+    }
+
     @Test
     public void testFilterProjectNonExistingTenant() throws Exception {
       try {
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.backends;
+
+import com.vmware.photon.controller.api.Operation;
+import com.vmware.photon.controller.apife.commands.tasks.TaskCommand;
+import com.vmware.photon.controller.apife.entities.TaskEntity;
+
+import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests {@link TaskCommandQueue}.
+ */
+public class TaskCommandQueueTest {
+
+  @Test
+  public void testRoundRobinAcrossOwners() {
+    TaskCommandQueue queue = new TaskCommandQueue(10, 10);
+    Runnable p1a = queuedCommand("p1", Operation.SET_METADATA);
+    Runnable p1b = queuedCommand("p1", Operation.SET_METADATA);
+    Runnable p1c = queuedCommand("p1", Operation.SET_METADATA);
+    Runnable p2a = queuedCommand("p2", Operation.SET_METADATA);
+
+    assertThat(queue.offer(p1a), is(true));
+    assertThat(queue.offer(p1b), is(true));
+    assertThat(queue.offer(p1c), is(true));
+    assertThat(queue.offer(p2a), is(true));
+
+    assertThat(queue.poll(), sameInstance(p1a));
+    assertThat(queue.poll(), sameInstance(p2a));
+    assertThat(queue.poll(), sameInstance(p1b));
+    assertThat(queue.poll(), sameInstance(p1c));
+    assertThat(queue.poll(), nullValue());
+  }
+
+  @Test
+  public void testCapacityPerOwner() {
+    TaskCommandQueue queue = new TaskCommandQueue(10, 2);
+
+    assertThat(queue.offer(queuedCommand("p1", Operation.START_VM)), is(true));
+    assertThat(queue.offer(queuedCommand("p1", Operation.CREATE_VM)), is(true));
+    assertThat(queue.offer(queuedCommand("p1", Operation.START_VM)), is(false));
+    assertThat(queue.offer(queuedCommand("p2", Operation.START_VM)), is(true));
+
+    queue.poll();
+    assertThat(queue.offer(queuedCommand("p1", Operation.START_VM)), is(true));
+    assertThat(queue.size(), is(3));
+  }
+
+  @Test
+  public void testCapacity() {
+    TaskCommandQueue queue = new TaskCommandQueue(2, 2);
+
+    assertThat(queue.offer(queuedCommand("p1", Operation.START_VM)), is(true));
+    assertThat(queue.offer(queuedCommand("p2", Operation.START_VM)), is(true));
+    assertThat(queue.offer(queuedCommand("p3", Operation.START_VM)), is(false));
+    assertThat(queue.remainingCapacity(), is(0));
+  }
+
+  @Test
+  public void testShortLaneIsServedFirst() {
+    TaskCommandQueue queue = new TaskCommandQueue(20, 20);
+    List<Runnable> longCommands = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      Runnable command = queuedCommand("p1", Operation.UPLOAD_IMAGE);
+      longCommands.add(command);
+      queue.offer(command);
+    }
+
+    List<Runnable> shortCommands = new ArrayList<>();
+    for (int i = 0; i < TaskCommandQueue.SHORT_LANE_WEIGHT + 1; i++) {
+      Runnable command = queuedCommand("p2", Operation.STOP_VM);
+      shortCommands.add(command);
+      queue.offer(command);
+    }
+
+    assertThat(queue.size(TaskCommandQueue.Lane.LONG), is(2));
+    assertThat(queue.size(TaskCommandQueue.Lane.SHORT), is(TaskCommandQueue.SHORT_LANE_WEIGHT + 1));
+
+    for (int i = 0; i < TaskCommandQueue.SHORT_LANE_WEIGHT; i++) {
+      assertThat(queue.poll(), sameInstance(shortCommands.get(i)));
+    }
+    assertThat(queue.poll(), sameInstance(longCommands.get(0)));
+    assertThat(queue.poll(), sameInstance(shortCommands.get(TaskCommandQueue.SHORT_LANE_WEIGHT)));
+    assertThat(queue.poll(), sameInstance(longCommands.get(1)));
+
+    assertThat(queue.size(TaskCommandQueue.Lane.LONG), is(0));
+    assertThat(queue.size(TaskCommandQueue.Lane.SHORT), is(0));
+  }
+
+  @Test
+  public void testRemove() {
+    TaskCommandQueue queue = new TaskCommandQueue(10, 10);
+    Runnable first = queuedCommand("p1", Operation.START_VM);
+    Runnable second = queuedCommand("p1", Operation.START_VM);
+    queue.offer(first);
+    queue.offer(second);
+
+    assertThat(queue.remove(first), is(true));
+    assertThat(queue.remove(first), is(false));
+    assertThat(queue.size(), is(1));
+    assertThat(queue.poll(), sameInstance(second));
+  }
+
+  private Runnable queuedCommand(String projectId, Operation operation) {
+    TaskEntity task = new TaskEntity();
+    task.setProjectId(projectId);
+    task.setOperation(operation);
+
+    TaskCommand command = mock(TaskCommand.class);
+    doReturn(task).when(command).getTask();
+    return new TaskCommandQueue.QueuedTaskCommand<>(command, null);
+  }
+}
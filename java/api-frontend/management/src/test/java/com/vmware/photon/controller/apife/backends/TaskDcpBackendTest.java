@@ -969,6 +969,62 @@ public class TaskDcpBackendTest {
       assertThat(stepEntity.getWarnings().get(1).getCode(), is(ErrorCode.NAME_TAKEN.getCode()));
     }
 
+    @Test
+    public void testBufferedStepUpdates() throws Throwable {
+      TaskEntity createdTask = taskBackend.createQueuedTask(vmEntity, Operation.CREATE_VM);
+      StepEntity firstStep = stepBackend.createQueuedStep(createdTask, vmEntity, Operation.RESERVE_RESOURCE);
+      StepEntity secondStep = stepBackend.createQueuedStep(createdTask, vmEntity, Operation.CREATE_VM);
+      taskBackend.markTaskAsStarted(createdTask);
+      taskBackend.bufferStepUpdates(createdTask);
+
+      stepBackend.markStepAsStarted(firstStep);
+      stepBackend.addWarning(firstStep, new TooManyRequestsException());
+
+      // Warnings of a running step are written right away
+      StepEntity stepEntity = stepBackend.getStepByTaskIdAndOperation(createdTask.getId(), Operation.RESERVE_RESOURCE);
+      assertThat(stepEntity.getState(), is(StepEntity.State.STARTED));
+      assertThat(stepEntity.getWarnings().size(), is(1));
+
+      stepBackend.markStepAsDone(firstStep);
+      stepEntity = stepBackend.getStepByTaskIdAndOperation(createdTask.getId(), Operation.RESERVE_RESOURCE);
+      assertThat(stepEntity.getState(), is(StepEntity.State.STARTED));
+
+      stepBackend.markStepAsStarted(secondStep);
+      stepEntity = stepBackend.getStepByTaskIdAndOperation(createdTask.getId(), Operation.RESERVE_RESOURCE);
+      assertThat(stepEntity.getState(), is(StepEntity.State.COMPLETED));
+      assertThat(stepEntity.getWarnings().size(), is(1));
+      stepEntity = stepBackend.getStepByTaskIdAndOperation(createdTask.getId(), Operation.CREATE_VM);
+      assertThat(stepEntity.getState(), is(StepEntity.State.STARTED));
+
+      stepBackend.markStepAsDone(secondStep);
+      taskBackend.markTaskAsDone(createdTask);
+      stepEntity = stepBackend.getStepByTaskIdAndOperation(createdTask.getId(), Operation.CREATE_VM);
+      assertThat(stepEntity.getState(), is(StepEntity.State.COMPLETED));
+      assertThat(taskBackend.getApiRepresentation(createdTask.getId()).getState(),
+          is(TaskEntity.State.COMPLETED.toString()));
+
+      taskBackend.flushStepUpdates(createdTask);
+    }
+
+    @Test
+    public void testFlushBufferedStepUpdates() throws Throwable {
+      TaskEntity createdTask = taskBackend.createQueuedTask(vmEntity, Operation.CREATE_VM);
+      StepEntity createdStep = stepBackend.createQueuedStep(createdTask, vmEntity, Operation.CREATE_VM);
+      taskBackend.bufferStepUpdates(createdTask);
+
+      stepBackend.markStepAsDone(createdStep);
+      StepEntity stepEntity = stepBackend.getStepByTaskIdAndOperation(createdTask.getId(), Operation.CREATE_VM);
+      assertThat(stepEntity.getState(), is(StepEntity.State.QUEUED));
+
+      taskBackend.flushStepUpdates(createdTask);
+      stepEntity = stepBackend.getStepByTaskIdAndOperation(createdTask.getId(), Operation.CREATE_VM);
+      assertThat(stepEntity.getState(), is(StepEntity.State.COMPLETED));
+
+      stepBackend.addWarning(createdStep, new TooManyRequestsException());
+      stepEntity = stepBackend.getStepByTaskIdAndOperation(createdTask.getId(), Operation.CREATE_VM);
+      assertThat(stepEntity.getWarnings().size(), is(1));
+    }
+
     @Test
     public void testAddErrorAndWarningsMixed() throws Throwable {
       TaskEntity createdTask = taskBackend.createQueuedTask(vmEntity, Operation.CREATE_VM);
@@ -82,6 +82,7 @@ import org.testng.annotations.Test;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
@@ -409,6 +410,27 @@ public class VmDcpBackendTest {
       assertThat(foundVms.get(0).getName(), is(vm.name));
     }
 
+    @Test
+    public void testFilterMultipleFlavors() throws Throwable {
+      VmService.State vm2 = new VmService.State();
+      vm2.name = UUID.randomUUID().toString();
+      vm2.flavorId = flavorDcpBackend.getEntityByNameAndKind("core-200", Vm.KIND).getId();
+      vm2.imageId = vm.imageId;
+      vm2.projectId = projectId;
+      vm2.vmState = VmState.STOPPED;
+      Operation result = dcpClient.post(VmServiceFactory.SELF_LINK, vm2);
+      String vmId2 = ServiceUtils.getIDFromDocumentSelfLink(result.getBody(VmService.State.class).documentSelfLink);
+
+      List<Vm> foundVms = vmDcpBackend.filter(vm.projectId, Optional.<String>absent());
+      assertThat(foundVms.size(), is(2));
+      for (Vm foundVm : foundVms) {
+        Vm expectedVm = vmDcpBackend.toApiRepresentation(foundVm.getId());
+        assertThat(foundVm.getId(), anyOf(is(vmId), is(vmId2)));
+        assertThat(foundVm.getFlavor(), is(expectedVm.getFlavor()));
+        assertThat(foundVm.getAttachedDisks(), is(expectedVm.getAttachedDisks()));
+      }
+    }
+
     @Test
     public void testFilterByTag() throws Throwable {
       List<Vm> foundVms = vmDcpBackend.filterByTag(vm.projectId, new Tag(vm.tags.iterator().next()));
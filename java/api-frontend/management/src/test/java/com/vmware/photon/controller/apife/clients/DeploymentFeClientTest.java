@@ -189,6 +189,7 @@ public class DeploymentFeClientTest {
     Tenant tenant;
     Project project;
     Vm vm;
+    Vm vm2;
 
     @BeforeMethod
     public void setUp() throws Throwable {
@@ -211,7 +212,12 @@ public class DeploymentFeClientTest {
 
       vm = new Vm();
       vm.setId("mgmt-vm-id");
-      doReturn(ImmutableList.of(vm)).when(vmBackend).filterByProject(project.getId());
+
+      vm2 = new Vm();
+      vm2.setId("mgmt-vm-id-2");
+      doReturn(new ResourceList<>(ImmutableList.of(vm), "page-link", null)).when(vmBackend)
+          .filter(project.getId(), Optional.<String>absent(), Optional.of(100));
+      doReturn(new ResourceList<>(ImmutableList.of(vm2))).when(vmBackend).getVmsPage("page-link");
     }
 
     /**
@@ -222,8 +228,9 @@ public class DeploymentFeClientTest {
     @Test
     public void testSuccess() throws Throwable {
       ResourceList list = feClient.listVms(deploymentId);
-      assertThat(list.getItems().size(), is(1));
+      assertThat(list.getItems().size(), is(2));
       assertThat((Vm) list.getItems().get(0), is(vm));
+      assertThat((Vm) list.getItems().get(1), is(vm2));
     }
 
     /**
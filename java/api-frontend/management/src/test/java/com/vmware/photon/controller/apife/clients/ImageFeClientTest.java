@@ -0,0 +1,253 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.clients;
+
+import com.vmware.photon.controller.api.ImageCreateSpec;
+import com.vmware.photon.controller.api.ImageReplicationType;
+import com.vmware.photon.controller.api.ImageState;
+import com.vmware.photon.controller.api.Operation;
+import com.vmware.photon.controller.api.Task;
+import com.vmware.photon.controller.apife.backends.ImageBackend;
+import com.vmware.photon.controller.apife.backends.TaskBackend;
+import com.vmware.photon.controller.apife.commands.steps.ImageUploadStepCmd;
+import com.vmware.photon.controller.apife.commands.tasks.TaskCommand;
+import com.vmware.photon.controller.apife.commands.tasks.TaskCommandFactory;
+import com.vmware.photon.controller.apife.config.ImageConfig;
+import com.vmware.photon.controller.apife.entities.ImageEntity;
+import com.vmware.photon.controller.apife.entities.StepEntity;
+import com.vmware.photon.controller.apife.entities.TaskEntity;
+import com.vmware.photon.controller.apife.exceptions.external.ImageUploadException;
+import com.vmware.photon.controller.apife.lib.ImageUploadStagingArea;
+
+import com.google.common.io.ByteStreams;
+import io.dropwizard.util.Duration;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Tests {@link ImageFeClient}.
+ */
+public class ImageFeClientTest {
+
+  private static final String UPLOAD_ID = "upload-id";
+  private static final String IMAGE_ID = "image-id";
+
+  private TaskCommandFactory commandFactory;
+  private TaskCommand command;
+  private ImageBackend imageBackend;
+  private TaskBackend taskBackend;
+  private ImageConfig imageConfig;
+  private File stagingDir;
+  private TaskEntity taskEntity;
+  private ImageEntity imageEntity;
+  private ImageFeClient feClient;
+
+  @BeforeMethod
+  public void setUp() throws Throwable {
+    commandFactory = mock(TaskCommandFactory.class);
+    command = mock(TaskCommand.class);
+    imageBackend = mock(ImageBackend.class);
+    taskBackend = mock(TaskBackend.class);
+    stagingDir = Files.createTempDirectory("image-uploads").toFile();
+    imageConfig = new ImageConfig();
+    imageConfig.setUploadSessionTimeout(Duration.minutes(1));
+
+    StepEntity step = new StepEntity();
+    step.setOperation(Operation.UPLOAD_IMAGE);
+    taskEntity = new TaskEntity();
+    taskEntity.setId(UPLOAD_ID);
+    taskEntity.setEntityId(IMAGE_ID);
+    taskEntity.setState(TaskEntity.State.QUEUED);
+    taskEntity.addStep(step);
+
+    imageEntity = new ImageEntity();
+    imageEntity.setId(IMAGE_ID);
+
+    Task task = new Task();
+    task.setId(UPLOAD_ID);
+    task.setState(TaskEntity.State.COMPLETED.toString());
+
+    when(imageBackend.prepareImageUpload(null, "image1", ImageReplicationType.ON_DEMAND)).thenReturn(taskEntity);
+    when(imageBackend.findById(IMAGE_ID)).thenReturn(imageEntity);
+    when(taskBackend.getApiRepresentation(UPLOAD_ID)).thenReturn(task);
+    when(commandFactory.create(taskEntity)).thenReturn(command);
+    when(taskBackend.findById(UPLOAD_ID)).thenReturn(taskEntity);
+
+    feClient = createFeClient();
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(stagingDir);
+  }
+
+  @Test
+  public void testChunkedUpload() throws Throwable {
+    feClient.createUpload(createSpec());
+    verify(taskBackend).setTaskResourceProperties(taskEntity,
+        "{\"uploadedChunks\":0,\"uploadedBytes\":0,\"uploadNode\":\"node-1\"}");
+
+    feClient.uploadChunk(UPLOAD_ID, 1, stream("second"));
+    feClient.uploadChunk(UPLOAD_ID, 0, stream("lost"));
+    feClient.uploadChunk(UPLOAD_ID, 0, stream("first-"));
+    verify(taskBackend).setTaskResourceProperties(taskEntity,
+        "{\"uploadedChunks\":2,\"uploadedBytes\":12,\"uploadNode\":\"node-1\"}");
+
+    doAnswer(invocation -> {
+      InputStream inputStream = (InputStream) taskEntity.findStep(Operation.UPLOAD_IMAGE)
+          .getTransientResource(ImageUploadStepCmd.INPUT_STREAM);
+      assertThat(new String(ByteStreams.toByteArray(inputStream)), is("first-second"));
+      return null;
+    }).when(command).run();
+
+    Task task = feClient.commitUpload(UPLOAD_ID);
+
+    assertThat(task.getId(), is(UPLOAD_ID));
+    verify(command).run();
+    assertThat(stagingDir.list().length, is(0));
+
+    try {
+      feClient.uploadChunk(UPLOAD_ID, 2, stream("late"));
+      fail("chunks cannot be added to a committed upload");
+    } catch (ImageUploadException e) {
+    }
+  }
+
+  @Test
+  public void testCommitWithMissingChunk() throws Throwable {
+    feClient.createUpload(createSpec());
+    feClient.uploadChunk(UPLOAD_ID, 1, stream("second"));
+
+    try {
+      feClient.commitUpload(UPLOAD_ID);
+      fail("upload with a missing chunk should not be committed");
+    } catch (ImageUploadException e) {
+    }
+    verify(command, never()).run();
+
+    // The missing chunk can still be sent
+    feClient.uploadChunk(UPLOAD_ID, 0, stream("first-"));
+    feClient.commitUpload(UPLOAD_ID);
+    verify(command).run();
+  }
+
+  @Test
+  public void testExpireUploads() throws Throwable {
+    feClient.createUpload(createSpec());
+    feClient.uploadChunk(UPLOAD_ID, 0, stream("first-"));
+
+    feClient.expireUploads();
+    verify(imageBackend, never()).updateState(any(ImageEntity.class), any(ImageState.class));
+
+    new File(stagingDir, UPLOAD_ID).setLastModified(System.currentTimeMillis() - 120000);
+    feClient.expireUploads();
+
+    verify(imageBackend).updateState(imageEntity, ImageState.ERROR);
+    verify(taskBackend).markAllStepsAsFailed(eq(taskEntity), any(ImageUploadException.class));
+    assertThat(stagingDir.list().length, is(0));
+
+    try {
+      feClient.commitUpload(UPLOAD_ID);
+      fail("expired upload should not be committed");
+    } catch (ImageUploadException e) {
+    }
+  }
+
+  @Test
+  public void testUploadOfOtherNode() throws Throwable {
+    taskEntity.setResourceProperties("{\"uploadedChunks\":0,\"uploadedBytes\":0,\"uploadNode\":\"node-2\"}");
+
+    try {
+      feClient.uploadChunk(UPLOAD_ID, 0, stream("first-"));
+      fail("chunks of an upload of another node should be rejected");
+    } catch (ImageUploadException e) {
+      assertThat(e.getMessage(), containsString("node-2"));
+    }
+
+    try {
+      feClient.commitUpload(UPLOAD_ID);
+      fail("upload of another node should not be committed");
+    } catch (ImageUploadException e) {
+      assertThat(e.getMessage(), containsString("node-2"));
+    }
+    assertThat(stagingDir.list().length, is(0));
+  }
+
+  @Test
+  public void testCommitDuringExpiry() throws Throwable {
+    feClient.createUpload(createSpec());
+    feClient.uploadChunk(UPLOAD_ID, 0, stream("first-"));
+    new File(stagingDir, UPLOAD_ID).setLastModified(System.currentTimeMillis() - 120000);
+
+    doAnswer(invocation -> {
+      feClient.expireUploads();
+      return null;
+    }).when(command).run();
+
+    feClient.commitUpload(UPLOAD_ID);
+
+    verify(command).run();
+    verify(imageBackend, never()).updateState(any(ImageEntity.class), any(ImageState.class));
+    verify(taskBackend, never()).markAllStepsAsFailed(any(TaskEntity.class), any(Throwable.class));
+  }
+
+  @Test
+  public void testExpireUploadsLeftBehindByEarlierRun() throws Throwable {
+    File uploadDir = new File(stagingDir, UPLOAD_ID);
+    uploadDir.mkdirs();
+    uploadDir.setLastModified(System.currentTimeMillis() - 120000);
+    feClient = createFeClient();
+
+    feClient.expireUploads();
+
+    verify(imageBackend).updateState(imageEntity, ImageState.ERROR);
+    verify(taskBackend).markAllStepsAsFailed(eq(taskEntity), any(ImageUploadException.class));
+    assertThat(stagingDir.list().length, is(0));
+  }
+
+  private ImageFeClient createFeClient() {
+    return new ImageFeClient(commandFactory, imageBackend, mock(ExecutorService.class), taskBackend,
+        new ImageUploadStagingArea(stagingDir.getAbsolutePath(), "node-1"), imageConfig);
+  }
+
+  private static ImageCreateSpec createSpec() {
+    ImageCreateSpec imageCreateSpec = new ImageCreateSpec();
+    imageCreateSpec.setName("image1");
+    imageCreateSpec.setReplicationType(ImageReplicationType.ON_DEMAND);
+    return imageCreateSpec;
+  }
+
+  private static InputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes());
+  }
+}
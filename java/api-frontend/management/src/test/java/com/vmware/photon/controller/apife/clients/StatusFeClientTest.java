@@ -44,11 +44,16 @@ import com.google.common.collect.ImmutableMap;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.InetSocketAddress;
@@ -59,6 +64,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Tests {@link StatusFeClient}.
@@ -131,6 +137,49 @@ public class StatusFeClientTest {
     assertThat(systemStatus.getStatus(), is(StatusType.READY));
   }
 
+  @Test
+  public void testStatusIsServedFromSnapshot() throws Throwable {
+    Status readyStatus = new Status(StatusType.READY);
+    setMessageAndStats(readyStatus);
+    mockAllClientsToReturnSameStatus(readyStatus);
+
+    SystemStatus systemStatus = client.getSystemStatus();
+    assertThat(systemStatus.getLastUpdatedTime(), notNullValue());
+    assertThat(client.getSystemStatus(), sameInstance(systemStatus));
+    verify(housekeeperClients.get(0), times(1)).getStatus();
+
+    SystemStatus refreshedStatus = client.getSystemStatus(true);
+    assertThat(refreshedStatus, not(sameInstance(systemStatus)));
+    assertThat(client.getSystemStatus(), sameInstance(refreshedStatus));
+    verify(housekeeperClients.get(0), times(2)).getStatus();
+  }
+
+  @Test
+  public void testSlowInstanceTimesOut() throws Throwable {
+    statusConfig.setTimeoutSeconds(1);
+    prepareStatusFeClient();
+
+    Status readyStatus = new Status(StatusType.READY);
+    setMessageAndStats(readyStatus);
+    mockAllClientsToReturnSameStatus(readyStatus);
+    doAnswer(invocation -> {
+      Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+      return readyStatus;
+    }).when(housekeeperClients.get(0)).getStatus();
+
+    SystemStatus systemStatus = client.getSystemStatus();
+
+    for (ComponentStatus status : systemStatus.getComponents()) {
+      if (status.getComponent().equals(Component.HOUSEKEEPER)) {
+        assertThat(status.getStatus(), is(StatusType.PARTIAL_ERROR));
+        assertThat(status.getStats().get(StatusType.READY.toString()), is("2"));
+        assertThat(status.getStats().get(StatusType.UNREACHABLE.toString()), is("1"));
+      } else {
+        assertThat(status.getStatus(), is(StatusType.READY));
+      }
+    }
+  }
+
   @Test
   public void testDefaultComponents() throws Throwable {
     statusConfig.setComponents(ImmutableList.<String>of());
@@ -35,6 +35,7 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 import static org.testng.Assert.fail;
 
 /**
@@ -80,12 +81,41 @@ public class ImageDeleteStepCmdTest extends PowerMockTestCase {
     command.execute();
 
     InOrder inOrder = inOrder(imageBackend, imageStore);
+    inOrder.verify(imageBackend).updateState(image, ImageState.PENDING_DELETE);
+    inOrder.verify(imageBackend).isContentShared(image);
     inOrder.verify(imageStore).deleteImage("image-1");
     inOrder.verify(imageBackend).tombstone(image);
     verifyNoMoreInteractions(imageStore, imageBackend);
 
   }
 
+  @Test
+  public void testDeleteImageUsingFilesOfOtherImage() throws ApiFeException, InterruptedException {
+    image.setContentImageId("image-0");
+
+    command.execute();
+
+    InOrder inOrder = inOrder(imageBackend, imageStore);
+    inOrder.verify(imageBackend).updateState(image, ImageState.PENDING_DELETE);
+    inOrder.verify(imageBackend).isContentShared(image);
+    inOrder.verify(imageStore).deleteImage("image-0");
+    inOrder.verify(imageBackend).tombstone(image);
+    verifyNoMoreInteractions(imageStore, imageBackend);
+  }
+
+  @Test
+  public void testDeleteImageWithSharedFiles() throws ApiFeException, InterruptedException {
+    when(imageBackend.isContentShared(image)).thenReturn(true);
+
+    command.execute();
+
+    InOrder inOrder = inOrder(imageBackend, imageStore);
+    inOrder.verify(imageBackend).updateState(image, ImageState.PENDING_DELETE);
+    inOrder.verify(imageBackend).isContentShared(image);
+    inOrder.verify(imageBackend).tombstone(image);
+    verifyNoMoreInteractions(imageStore, imageBackend);
+  }
+
   @Test
   public void testDeleteFailed() throws ExternalException, InternalException, InterruptedException {
     doThrow(new InternalException()).when(imageStore).deleteImage("image-1");
@@ -97,6 +127,8 @@ public class ImageDeleteStepCmdTest extends PowerMockTestCase {
     }
 
     InOrder inOrder = inOrder(imageBackend, imageStore);
+    inOrder.verify(imageBackend).updateState(image, ImageState.PENDING_DELETE);
+    inOrder.verify(imageBackend).isContentShared(image);
     inOrder.verify(imageStore).deleteImage("image-1");
     inOrder.verify(imageBackend).updateState(image, ImageState.ERROR);
     verifyNoMoreInteractions(imageStore, imageBackend);
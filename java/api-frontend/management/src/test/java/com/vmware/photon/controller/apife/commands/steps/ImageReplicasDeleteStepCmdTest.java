@@ -13,6 +13,7 @@
 
 package com.vmware.photon.controller.apife.commands.steps;
 
+import com.vmware.photon.controller.apife.backends.ImageBackend;
 import com.vmware.photon.controller.apife.backends.StepBackend;
 import com.vmware.photon.controller.apife.commands.tasks.TaskCommand;
 import com.vmware.photon.controller.apife.entities.ImageEntity;
@@ -40,6 +41,9 @@ public class ImageReplicasDeleteStepCmdTest extends PowerMockTestCase {
   @Mock
   private StepBackend stepBackend;
 
+  @Mock
+  private ImageBackend imageBackend;
+
   @Mock
   private HousekeeperClient housekeeperClient;
 
@@ -58,7 +62,7 @@ public class ImageReplicasDeleteStepCmdTest extends PowerMockTestCase {
     step.setId("step-1");
     step.addResource(image);
 
-    command = new ImageReplicasDeleteStepCmd(taskCommand, stepBackend, step);
+    command = new ImageReplicasDeleteStepCmd(taskCommand, stepBackend, step, imageBackend);
     when(taskCommand.getHousekeeperClient()).thenReturn(housekeeperClient);
   }
 
@@ -70,6 +74,26 @@ public class ImageReplicasDeleteStepCmdTest extends PowerMockTestCase {
     verifyNoMoreInteractions(housekeeperClient);
   }
 
+  @Test
+  public void testDeleteImageUsingFilesOfOtherImage() throws Throwable {
+    image.setContentImageId("image-0");
+
+    command.execute();
+
+    verify(housekeeperClient).removeImage("image-0");
+    verifyNoMoreInteractions(housekeeperClient);
+  }
+
+  @Test
+  public void testDeleteImageWithSharedFiles() throws Throwable {
+    when(imageBackend.isContentShared(image)).thenReturn(true);
+
+    command.execute();
+
+    verify(imageBackend).isContentShared(image);
+    verifyNoMoreInteractions(housekeeperClient);
+  }
+
   @Test
   public void testRemoveImageCallFailed() throws Throwable {
     doThrow(new SystemErrorException("Error")).when(housekeeperClient).removeImage("image-1");
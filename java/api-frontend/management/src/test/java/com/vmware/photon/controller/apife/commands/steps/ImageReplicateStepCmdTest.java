@@ -37,6 +37,7 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.fail;
@@ -113,6 +114,17 @@ public class ImageReplicateStepCmdTest extends PowerMockTestCase {
     verifyNoMoreInteractions(imageStore, imageBackend);
   }
 
+  @Test
+  public void testImageUsingFilesOfOtherImageIsNotReplicated() throws Exception {
+    imageEntity.setContentImageId("image-0");
+    when(imageStore.isReplicationNeeded()).thenReturn(true);
+
+    command.execute();
+
+    verify(imageBackend).updateState(imageEntity, ImageState.READY);
+    verifyNoMoreInteractions(imageStore, imageBackend, housekeeperClient);
+  }
+
   @Test
   public void testReplicateImageError() throws Exception {
     when(imageStore.isReplicationNeeded()).thenReturn(true);
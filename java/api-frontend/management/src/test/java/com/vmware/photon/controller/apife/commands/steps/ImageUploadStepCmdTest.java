@@ -15,12 +15,18 @@ package com.vmware.photon.controller.apife.commands.steps;
 
 import com.vmware.photon.controller.api.ImageReplicationType;
 import com.vmware.photon.controller.api.ImageState;
+import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
 import com.vmware.photon.controller.apife.backends.ImageBackend;
 import com.vmware.photon.controller.apife.backends.StepBackend;
+import com.vmware.photon.controller.apife.backends.TaskBackend;
 import com.vmware.photon.controller.apife.commands.tasks.TaskCommand;
 import com.vmware.photon.controller.apife.config.ImageConfig;
 import com.vmware.photon.controller.apife.entities.ImageEntity;
+import com.vmware.photon.controller.apife.entities.ImageSettingsEntity;
 import com.vmware.photon.controller.apife.entities.StepEntity;
+import com.vmware.photon.controller.apife.entities.TaskEntity;
+import com.vmware.photon.controller.apife.exceptions.external.ImageNotFoundException;
+import com.vmware.photon.controller.apife.exceptions.external.ImageUploadException;
 import com.vmware.photon.controller.apife.exceptions.external.InvalidOvaException;
 import com.vmware.photon.controller.apife.exceptions.external.InvalidVmdkFormatException;
 import com.vmware.photon.controller.apife.exceptions.external.NameTakenException;
@@ -31,6 +37,10 @@ import com.vmware.photon.controller.apife.lib.image.ImageLoader;
 import com.vmware.photon.controller.apife.lib.ova.OvaTestModule;
 import com.vmware.transfer.streamVmdk.VmdkFormatException;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import io.dropwizard.util.Duration;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mock;
@@ -42,6 +52,8 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
@@ -51,6 +63,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -62,7 +75,10 @@ import static org.testng.Assert.fail;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -74,12 +90,16 @@ public class ImageUploadStepCmdTest extends PowerMockTestCase {
   private static long imageSize;
   private static OvaTestModule ova;
   private static String datastoreName;
+  private static String ovaDigest;
+  private static String vmdkDigest;
 
   @Mock
   private TaskCommand taskCommand;
   @Mock
   private StepBackend stepBackend;
   @Mock
+  private TaskBackend taskBackend;
+  @Mock
   private ImageBackend imageBackend;
   @Mock
   private ImageStore imageStore;
@@ -91,6 +111,7 @@ public class ImageUploadStepCmdTest extends PowerMockTestCase {
   private ImageEntity imageEntity;
   private ImageUploadStepCmd command;
   private InputStream inputStream;
+  private List<String> uploadedDisks;
 
   @BeforeClass
   public static void setUp() throws Throwable {
@@ -100,6 +121,11 @@ public class ImageUploadStepCmdTest extends PowerMockTestCase {
     imageId = "image-1";
     imageSize = ova.vmdkContent.length();
     datastoreName = "datastore";
+
+    try (InputStream ovaStream = ova.getOvaStream()) {
+      ovaDigest = Hashing.sha256().hashBytes(ByteStreams.toByteArray(ovaStream)).toString();
+    }
+    vmdkDigest = Hashing.sha256().hashBytes(ova.vmdkContent.getBytes()).toString();
   }
 
   @AfterClass
@@ -120,12 +146,18 @@ public class ImageUploadStepCmdTest extends PowerMockTestCase {
     step.setId("step-1");
     step.addResource(imageEntity);
 
-    command = spy(new ImageUploadStepCmd(taskCommand, stepBackend, step, imageBackend, imageStore, imageConfig));
+    command = spy(new ImageUploadStepCmd(taskCommand, stepBackend, step, taskBackend, imageBackend, imageStore,
+        Collections.emptyList(), imageConfig));
 
     when(imageStore.createImage(anyString())).thenReturn(image);
     doNothing().when(imageStore).finalizeImage(anyString());
-    when(image.addDisk(anyString(), any(InputStream.class))).thenReturn(imageSize);
+    uploadedDisks = new ArrayList<>();
+    when(image.addDisk(anyString(), any(InputStream.class))).thenAnswer(invocation -> {
+      uploadedDisks.add(OvaTestModule.readStringFromStream((InputStream) invocation.getArguments()[1]));
+      return imageSize;
+    });
     when(imageConfig.getDatastore()).thenReturn(datastoreName);
+    when(imageConfig.getUploadTargetStallTimeout()).thenReturn(Duration.seconds(60));
   }
 
   @AfterMethod
@@ -139,19 +171,19 @@ public class ImageUploadStepCmdTest extends PowerMockTestCase {
   @DataProvider(name = "ImageStreams")
   public Object[][] imageStreams() throws Throwable {
     return new Object[][]{
-        {ova.getOvaStream(), ImageReplicationType.EAGER},
-        {ova.getRawVmdkStream(), ImageReplicationType.EAGER},
-        {ova.getOvaStream(), ImageReplicationType.ON_DEMAND},
-        {ova.getRawVmdkStream(), ImageReplicationType.ON_DEMAND}
+        {ova.getOvaStream(), ImageReplicationType.EAGER, ovaDigest},
+        {ova.getRawVmdkStream(), ImageReplicationType.EAGER, vmdkDigest},
+        {ova.getOvaStream(), ImageReplicationType.ON_DEMAND, ovaDigest},
+        {ova.getRawVmdkStream(), ImageReplicationType.ON_DEMAND, vmdkDigest}
     };
   }
 
   @Test(dataProvider = "ImageStreams")
-  public void testSuccessfulUpload(InputStream imageStream, ImageReplicationType replicationType) throws Throwable {
+  public void testSuccessfulUpload(InputStream imageStream, ImageReplicationType replicationType,
+                                   String contentDigest) throws Throwable {
     this.inputStream = imageStream;
     imageEntity.setReplicationType(replicationType);
     step.createOrUpdateTransientResource(ImageUploadStepCmd.INPUT_STREAM, imageStream);
-    ArgumentCaptor<InputStream> inputStreamArgument = ArgumentCaptor.forClass(InputStream.class);
     Map<String, String> imageSettings = new HashMap<>();
 
     doNothing().when(imageBackend).updateSettings(imageEntity, imageSettings);
@@ -162,13 +194,13 @@ public class ImageUploadStepCmdTest extends PowerMockTestCase {
 
     verify(imageStore).createImage(imageId);
     verify(imageStore).finalizeImage(imageId);
-    verify(image).addDisk(anyString(), inputStreamArgument.capture());
-    InputStream capturedStream = inputStreamArgument.getAllValues().get(0);
-    String capturedImage = OvaTestModule.readStringFromStream(capturedStream);
-    assertEquals(capturedImage, ova.vmdkContent);
+    verify(image).addDisk(anyString(), any(InputStream.class));
+    assertEquals(uploadedDisks.get(0), ova.vmdkContent);
 
     verify(imageBackend).updateSettings(eq(imageEntity), any(Map.class));
     verify(imageBackend).updateSize(imageEntity, imageSize);
+    verify(imageBackend).findByContentDigest(contentDigest);
+    verify(imageBackend).updateContent(imageEntity, contentDigest, imageId);
     verify(imageBackend).updateImageDatastore(eq(imageEntity.getId()), anyString());
     if (replicationType == ImageReplicationType.ON_DEMAND) {
       verify(imageBackend).updateState(imageEntity, ImageState.READY);
@@ -177,14 +209,13 @@ public class ImageUploadStepCmdTest extends PowerMockTestCase {
   }
 
   @Test(dataProvider = "ImageStreams")
-  public void testSuccessfulUploadTwice(InputStream imageStream, ImageReplicationType replicationType)
-      throws Exception {
+  public void testSuccessfulUploadTwice(InputStream imageStream, ImageReplicationType replicationType,
+                                        String contentDigest) throws Exception {
     this.inputStream = imageStream;
     imageEntity.setReplicationType(replicationType);
     imageStream = new BufferedInputStream(imageStream);
     imageStream.mark(MAX_VM_SIZE); // Allocate 1 MB buffer
     step.createOrUpdateTransientResource(ImageUploadStepCmd.INPUT_STREAM, imageStream);
-    ArgumentCaptor<InputStream> inputStreamArgument = ArgumentCaptor.forClass(InputStream.class);
     Map<String, String> imageSettings = new HashMap<>();
 
     doNothing().when(imageBackend).updateSettings(imageEntity, imageSettings);
@@ -198,13 +229,14 @@ public class ImageUploadStepCmdTest extends PowerMockTestCase {
 
     verify(imageStore, times(2)).createImage(imageId);
     verify(imageStore, times(2)).finalizeImage(imageId);
-    verify(image, times(2)).addDisk(anyString(), inputStreamArgument.capture());
-    InputStream capturedStream = inputStreamArgument.getAllValues().get(0);
-    String capturedImage = OvaTestModule.readStringFromStream(capturedStream);
-    assertEquals(capturedImage, ova.vmdkContent);
+    verify(image, times(2)).addDisk(anyString(), any(InputStream.class));
+    assertEquals(uploadedDisks.get(0), ova.vmdkContent);
+    assertEquals(uploadedDisks.get(1), ova.vmdkContent);
 
     verify(imageBackend, times(2)).updateSettings(eq(imageEntity), any(Map.class));
     verify(imageBackend, times(2)).updateSize(imageEntity, imageSize);
+    verify(imageBackend, times(2)).findByContentDigest(contentDigest);
+    verify(imageBackend, times(2)).updateContent(imageEntity, contentDigest, imageId);
     verify(imageBackend, times(2)).updateImageDatastore(eq(imageEntity.getId()), anyString());
 
     if (replicationType == ImageReplicationType.ON_DEMAND) {
@@ -213,6 +245,193 @@ public class ImageUploadStepCmdTest extends PowerMockTestCase {
     verifyNoMoreInteractions(imageStore, imageBackend);
   }
 
+  @Test
+  public void testUploadWithSameContentAsReadyImage() throws Throwable {
+    this.inputStream = ova.getRawVmdkStream();
+    step.createOrUpdateTransientResource(ImageUploadStepCmd.INPUT_STREAM, inputStream);
+    ImageEntity sameImage = createImage("image-2", ImageState.READY, ImageReplicationType.EAGER);
+    sameImage.setContentImageId("image-0");
+    when(imageBackend.findByContentDigest(vmdkDigest)).thenReturn(ImmutableList.of(sameImage));
+    when(imageBackend.findById("image-2")).thenReturn(sameImage);
+
+    command.execute();
+
+    verify(imageStore).createImage(imageId);
+    verify(imageStore).finalizeImage(imageId);
+    verify(imageStore).deleteImage(imageId);
+    verify(imageBackend).updateSettings(eq(imageEntity), any(Map.class));
+    verify(imageBackend).updateSize(imageEntity, imageSize);
+    verify(imageBackend).findByContentDigest(vmdkDigest);
+    verify(imageBackend).updateContent(imageEntity, vmdkDigest, "image-0");
+    verify(imageBackend).findById("image-2");
+    verify(imageBackend).updateState(imageEntity, ImageState.READY);
+    verifyNoMoreInteractions(imageStore, imageBackend);
+  }
+
+  @DataProvider(name = "DeletedImages")
+  public Object[][] deletedImages() throws Throwable {
+    ImageEntity deletingImage = createImage("image-2", ImageState.PENDING_DELETE, ImageReplicationType.EAGER);
+    return new Object[][]{
+        {deletingImage, null},
+        {null, new ImageNotFoundException(ImageNotFoundException.Type.ID, "image-2")}
+    };
+  }
+
+  @Test(dataProvider = "DeletedImages")
+  public void testUploadWithSameContentAsImageBeingDeleted(ImageEntity deletingImage, ImageNotFoundException notFound)
+      throws Throwable {
+    this.inputStream = ova.getRawVmdkStream();
+    step.createOrUpdateTransientResource(ImageUploadStepCmd.INPUT_STREAM, inputStream);
+    ImageEntity sameImage = createImage("image-2", ImageState.READY, ImageReplicationType.EAGER);
+    sameImage.setContentImageId("image-0");
+    when(imageBackend.findByContentDigest(vmdkDigest)).thenReturn(ImmutableList.of(sameImage));
+    if (notFound != null) {
+      when(imageBackend.findById("image-2")).thenThrow(notFound);
+    } else {
+      when(imageBackend.findById("image-2")).thenReturn(deletingImage);
+    }
+
+    command.execute();
+
+    InOrder inOrder = inOrder(imageBackend);
+    inOrder.verify(imageBackend).updateContent(imageEntity, vmdkDigest, "image-0");
+    inOrder.verify(imageBackend).findById("image-2");
+    inOrder.verify(imageBackend).updateContent(imageEntity, vmdkDigest, imageId);
+    verify(imageStore, never()).deleteImage(imageId);
+    verify(imageBackend).updateImageDatastore(eq(imageEntity.getId()), anyString());
+  }
+
+  @Test
+  public void testUploadToTargetDatastores() throws Throwable {
+    List<String> targetDisks = new ArrayList<>();
+    ImageStore targetStore = createTargetStore("datastore-1", targetDisks);
+
+    ImageStore failingTargetStore = mock(ImageStore.class);
+    Image failingTargetImage = mock(Image.class);
+    when(failingTargetStore.getDatastore()).thenReturn("datastore-2");
+    when(failingTargetStore.createImage(imageId)).thenReturn(failingTargetImage);
+    when(failingTargetImage.addDisk(anyString(), any(InputStream.class))).thenThrow(new IOException("Disk full"));
+
+    command = spy(new ImageUploadStepCmd(taskCommand, stepBackend, step, taskBackend, imageBackend, imageStore,
+        ImmutableList.of(targetStore, failingTargetStore), imageConfig));
+    imageEntity.setReplicationType(ImageReplicationType.EAGER);
+    this.inputStream = ova.getOvaStream();
+    step.createOrUpdateTransientResource(ImageUploadStepCmd.INPUT_STREAM, inputStream);
+    TaskEntity task = createTask();
+
+    command.execute();
+
+    assertEquals(uploadedDisks, ImmutableList.of(ova.vmdkContent));
+    assertEquals(targetDisks, ImmutableList.of(ova.vmdkContent));
+    verify(imageStore).finalizeImage(imageId);
+    verify(targetStore).finalizeImage(imageId);
+    verify(failingTargetStore).deleteUploadFolder(imageId);
+    verify(imageBackend).updateImageDatastore(imageId, datastoreName);
+    verify(imageBackend).updateImageDatastore(imageId, "datastore-1");
+    verify(imageBackend).updateContent(imageEntity, ovaDigest, imageId);
+    verify(taskBackend).setTaskResourceProperties(task,
+        "{\"uploadedChunks\":2,\"uploadedBytes\":12,\"uploadNode\":\"node-1\"," +
+            "\"replicatedDatastores\":[\"datastore-1\"]}");
+
+    ArgumentCaptor<List> warnings = ArgumentCaptor.forClass(List.class);
+    verify(stepBackend).addWarnings(eq(step), warnings.capture());
+    assertThat(warnings.getValue().size(), is(1));
+    assertThat(warnings.getValue().get(0), instanceOf(ImageUploadException.class));
+    assertThat(((Throwable) warnings.getValue().get(0)).getMessage(), containsString("datastore-2"));
+  }
+
+  @Test
+  public void testUploadToTargetDatastoreThatIsNotAnImageDatastore() throws Throwable {
+    List<String> targetDisks = new ArrayList<>();
+    ImageStore targetStore = createTargetStore("datastore-1", targetDisks);
+    doThrow(new ExternalException("expected exactly 1 imageDatastore found [0]"))
+        .when(imageBackend).updateImageDatastore(imageId, "datastore-1");
+
+    command = spy(new ImageUploadStepCmd(taskCommand, stepBackend, step, taskBackend, imageBackend, imageStore,
+        ImmutableList.of(targetStore), imageConfig));
+    imageEntity.setReplicationType(ImageReplicationType.ON_DEMAND);
+    this.inputStream = ova.getOvaStream();
+    step.createOrUpdateTransientResource(ImageUploadStepCmd.INPUT_STREAM, inputStream);
+    TaskEntity task = createTask();
+
+    command.execute();
+
+    assertEquals(targetDisks, ImmutableList.of(ova.vmdkContent));
+    verify(imageBackend).updateImageDatastore(imageId, datastoreName);
+    verify(imageBackend).updateState(imageEntity, ImageState.READY);
+    verify(imageBackend, never()).updateState(imageEntity, ImageState.ERROR);
+    verify(taskBackend).setTaskResourceProperties(task,
+        "{\"uploadedChunks\":2,\"uploadedBytes\":12,\"uploadNode\":\"node-1\",\"replicatedDatastores\":[]}");
+
+    ArgumentCaptor<List> warnings = ArgumentCaptor.forClass(List.class);
+    verify(stepBackend).addWarnings(eq(step), warnings.capture());
+    assertThat(warnings.getValue().size(), is(1));
+    assertThat(warnings.getValue().get(0), instanceOf(ImageUploadException.class));
+    assertThat(((Throwable) warnings.getValue().get(0)).getMessage(), containsString("datastore-1"));
+  }
+
+  @Test
+  public void testUploadWithSameContentToTargetDatastores() throws Throwable {
+    List<String> targetDisks = new ArrayList<>();
+    ImageStore targetStore = createTargetStore("datastore-1", targetDisks);
+
+    command = spy(new ImageUploadStepCmd(taskCommand, stepBackend, step, taskBackend, imageBackend, imageStore,
+        ImmutableList.of(targetStore), imageConfig));
+    imageEntity.setReplicationType(ImageReplicationType.EAGER);
+    this.inputStream = ova.getRawVmdkStream();
+    step.createOrUpdateTransientResource(ImageUploadStepCmd.INPUT_STREAM, inputStream);
+    TaskEntity task = createTask();
+    ImageEntity sameImage = createImage("image-2", ImageState.READY, ImageReplicationType.EAGER);
+    sameImage.setContentImageId("image-0");
+    when(imageBackend.findByContentDigest(vmdkDigest)).thenReturn(ImmutableList.of(sameImage));
+    when(imageBackend.findById("image-2")).thenReturn(sameImage);
+
+    command.execute();
+
+    assertEquals(targetDisks, ImmutableList.of(ova.vmdkContent));
+    verify(imageStore).deleteImage(imageId);
+    verify(targetStore).deleteImage(imageId);
+    verify(imageBackend, never()).updateImageDatastore(anyString(), anyString());
+    verify(imageBackend).updateState(imageEntity, ImageState.READY);
+    verify(taskBackend).setTaskResourceProperties(task,
+        "{\"uploadedChunks\":2,\"uploadedBytes\":12,\"uploadNode\":\"node-1\",\"replicatedDatastores\":[]}");
+    verify(stepBackend, never()).addWarnings(eq(step), any(List.class));
+  }
+
+  @DataProvider(name = "DifferentImages")
+  public Object[][] differentImages() {
+    ImageEntity imageWithSettings = createImage("image-2", ImageState.READY, ImageReplicationType.EAGER);
+    ImageSettingsEntity imageSetting = new ImageSettingsEntity();
+    imageSetting.setName("scsi0.virtualDev");
+    imageSetting.setDefaultValue("lsilogic");
+    imageWithSettings.setImageSettings(ImmutableList.of(imageSetting));
+
+    return new Object[][]{
+        {createImage(imageId, ImageState.READY, ImageReplicationType.EAGER)},
+        {createImage("image-2", ImageState.CREATING, ImageReplicationType.EAGER)},
+        {createImage("image-2", ImageState.ERROR, ImageReplicationType.EAGER)},
+        {createImage("image-2", ImageState.READY, ImageReplicationType.ON_DEMAND)},
+        {imageWithSettings}
+    };
+  }
+
+  @Test(dataProvider = "DifferentImages")
+  public void testUploadWithSameContentAsDifferentImage(ImageEntity otherImage) throws Throwable {
+    this.inputStream = ova.getRawVmdkStream();
+    step.createOrUpdateTransientResource(ImageUploadStepCmd.INPUT_STREAM, inputStream);
+    when(imageBackend.findByContentDigest(vmdkDigest)).thenReturn(ImmutableList.of(otherImage));
+
+    command.execute();
+
+    verify(imageStore).createImage(imageId);
+    verify(imageStore).finalizeImage(imageId);
+    verify(imageBackend).updateSettings(eq(imageEntity), any(Map.class));
+    verify(imageBackend).updateSize(imageEntity, imageSize);
+    verify(imageBackend).findByContentDigest(vmdkDigest);
+    verify(imageBackend).updateContent(imageEntity, vmdkDigest, imageId);
+    verify(imageBackend).updateImageDatastore(eq(imageEntity.getId()), anyString());
+    verifyNoMoreInteractions(imageStore, imageBackend);
+  }
 
   @DataProvider(name = "copyImageWithErrorParams")
   public Object[][] copyImageWithErrorParams() throws Throwable {
@@ -254,4 +473,35 @@ public class ImageUploadStepCmdTest extends PowerMockTestCase {
     verifyNoMoreInteractions(imageStore, imageBackend);
   }
 
+  private ImageStore createTargetStore(String datastore, List<String> disks) throws Throwable {
+    ImageStore targetStore = mock(ImageStore.class);
+    Image targetImage = mock(Image.class);
+    when(targetStore.getDatastore()).thenReturn(datastore);
+    when(targetStore.createImage(imageId)).thenReturn(targetImage);
+    when(targetImage.addDisk(anyString(), any(InputStream.class))).thenAnswer(invocation -> {
+      disks.add(OvaTestModule.readStringFromStream((InputStream) invocation.getArguments()[1]));
+      return imageSize;
+    });
+    return targetStore;
+  }
+
+  private TaskEntity createTask() throws Throwable {
+    TaskEntity task = new TaskEntity();
+    task.setId("task-1");
+    when(taskCommand.getTask()).thenReturn(task);
+
+    TaskEntity storedTask = new TaskEntity();
+    storedTask.setId("task-1");
+    storedTask.setResourceProperties("{\"uploadedChunks\":2,\"uploadedBytes\":12,\"uploadNode\":\"node-1\"}");
+    when(taskBackend.findById("task-1")).thenReturn(storedTask);
+    return task;
+  }
+
+  private static ImageEntity createImage(String id, ImageState state, ImageReplicationType replicationType) {
+    ImageEntity image = new ImageEntity();
+    image.setId(id);
+    image.setState(state);
+    image.setReplicationType(replicationType);
+    return image;
+  }
 }
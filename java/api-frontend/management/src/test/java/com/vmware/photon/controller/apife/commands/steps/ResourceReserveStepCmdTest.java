@@ -24,6 +24,7 @@ import com.vmware.photon.controller.api.VmState;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
 import com.vmware.photon.controller.apife.backends.DiskBackend;
 import com.vmware.photon.controller.apife.backends.FlavorBackend;
+import com.vmware.photon.controller.apife.backends.ImageBackend;
 import com.vmware.photon.controller.apife.backends.NetworkBackend;
 import com.vmware.photon.controller.apife.backends.StepBackend;
 import com.vmware.photon.controller.apife.backends.VmBackend;
@@ -32,6 +33,7 @@ import com.vmware.photon.controller.apife.entities.AttachedDiskEntity;
 import com.vmware.photon.controller.apife.entities.BaseDiskEntity;
 import com.vmware.photon.controller.apife.entities.EphemeralDiskEntity;
 import com.vmware.photon.controller.apife.entities.FlavorEntity;
+import com.vmware.photon.controller.apife.entities.ImageEntity;
 import com.vmware.photon.controller.apife.entities.LocalityEntity;
 import com.vmware.photon.controller.apife.entities.PersistentDiskEntity;
 import com.vmware.photon.controller.apife.entities.ProjectEntity;
@@ -39,7 +41,9 @@ import com.vmware.photon.controller.apife.entities.QuotaLineItemEntity;
 import com.vmware.photon.controller.apife.entities.StepEntity;
 import com.vmware.photon.controller.apife.entities.VmEntity;
 import com.vmware.photon.controller.apife.exceptions.external.InvalidLocalitySpecException;
+import com.vmware.photon.controller.apife.exceptions.external.PlacementRetryException;
 import com.vmware.photon.controller.apife.exceptions.external.UnfulfillableAffinitiesException;
+import com.vmware.photon.controller.apife.exceptions.internal.CommandDeferredException;
 import com.vmware.photon.controller.apife.exceptions.internal.InternalException;
 import com.vmware.photon.controller.common.clients.HostClient;
 import com.vmware.photon.controller.common.clients.RootSchedulerClient;
@@ -77,6 +81,7 @@ import org.testng.annotations.Test;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.times;
@@ -90,6 +95,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Tests {@link ResourceReserveStepCmd}.
@@ -143,6 +149,9 @@ public class ResourceReserveStepCmdTest extends PowerMockTestCase {
   @Mock
   private NetworkBackend networkBackend;
 
+  @Mock
+  private ImageBackend imageBackend;
+
   @Captor
   private ArgumentCaptor<Resource> resourceCaptor;
 
@@ -190,6 +199,7 @@ public class ResourceReserveStepCmdTest extends PowerMockTestCase {
     when(hostClient.getAgentId()).thenReturn("bar");
     when(flavorBackend.getEntityById(vmFlavorEntity.getId())).thenReturn(vmFlavorEntity);
     when(flavorBackend.getEntityById(diskFlavorEntity.getId())).thenReturn(diskFlavorEntity);
+    when(imageBackend.findById(anyString())).thenReturn(new ImageEntity());
   }
 
   @Test
@@ -437,12 +447,52 @@ public class ResourceReserveStepCmdTest extends PowerMockTestCase {
         .thenReturn(SUCCESSFUL_PLACE_RESPONSE);
     when(hostClient.reserve(any(Resource.class), eq(42))).thenReturn(SUCCESSFUL_RESERVE_RESPONSE);
 
+    try {
+      command.execute();
+      fail("should have been deferred due to invalid scheduler exception");
+    } catch (CommandDeferredException e) {
+      assertThat(e.getDelayMillis() > 0, is(true));
+    }
+    verify(stepBackend).addWarning(any(StepEntity.class), any(PlacementRetryException.class));
+
     command.execute();
 
     verify(rootSchedulerClient, times(2)).place(any(Resource.class));
     verify(hostClient).reserve(any(Resource.class), eq(42));
   }
 
+  @Test
+  public void testPlaceFailedWithInvalidSchedulerAfterMaxRetries() throws Throwable {
+    ResourceReserveStepCmd command = getVmReservationCommand();
+
+    when(rootSchedulerClient.place(any(Resource.class))).thenThrow(new InvalidSchedulerException("Error"));
+
+    int deferrals = 0;
+    while (true) {
+      try {
+        command.execute();
+        fail("should have failed due to invalid scheduler exception");
+      } catch (CommandDeferredException e) {
+        deferrals++;
+      } catch (InvalidSchedulerException e) {
+        break;
+      }
+    }
+
+    assertThat(deferrals, is(4));
+    verify(rootSchedulerClient, times(5)).place(any(Resource.class));
+    verify(stepBackend, times(4)).addWarning(any(StepEntity.class), any(PlacementRetryException.class));
+  }
+
+  @Test
+  public void testPlacementRetryDelay() {
+    for (int attempt = 1; attempt < 10; attempt++) {
+      long interval = Math.min(TimeUnit.SECONDS.toMillis(1) << (attempt - 1), TimeUnit.SECONDS.toMillis(16));
+      long delay = ResourceReserveStepCmd.getPlacementRetryDelay(attempt);
+      assertThat(delay >= interval / 2 && delay <= interval, is(true));
+    }
+  }
+
   @Test
   public void testOnFailureWithVmReservation() throws Throwable {
     ResourceReserveStepCmd command = getVmReservationCommand();
@@ -482,6 +532,30 @@ public class ResourceReserveStepCmdTest extends PowerMockTestCase {
     command.execute();
   }
 
+  @Test
+  public void testBootDiskUsesFilesOfImageWithSameContent() throws Throwable {
+    ImageEntity image = new ImageEntity();
+    image.setId("image-2");
+    image.setContentImageId("image-0");
+    when(imageBackend.findById("image-2")).thenReturn(image);
+
+    ArgumentCaptor<Resource> resource = ArgumentCaptor.forClass(Resource.class);
+    PlaceResponse placeResponse = generateResourcePlacementList();
+    placeResponse.getPlacementList().addToPlacements(generateResourcePlacement(ResourcePlacementType.DISK, "disk-id"));
+    when(rootSchedulerClient.place(resource.capture())).thenReturn(placeResponse);
+    when(hostClient.reserve(any(Resource.class), eq(42))).thenReturn(SUCCESSFUL_RESERVE_RESPONSE);
+
+    attachBootDisk(vm);
+    vm.setImageId("image-2");
+
+    ResourceReserveStepCmd command = getVmReservationCommand();
+    command.setInfrastructureEntity(vm);
+    command.execute();
+
+    Disk bootDisk = resource.getValue().getVm().getDisks().get(0);
+    assertThat(bootDisk.getImage().getId(), is("image-0"));
+  }
+
   @Test
   public void testCreateNetworkConstraints() throws Throwable {
     String networkId = "n1";
@@ -585,7 +659,7 @@ public class ResourceReserveStepCmdTest extends PowerMockTestCase {
     }
 
     return spy(new ResourceReserveStepCmd(
-        taskCommand, stepBackend, step, diskBackend, vmBackend, networkBackend, flavorBackend));
+        taskCommand, stepBackend, step, diskBackend, vmBackend, networkBackend, flavorBackend, imageBackend));
   }
 
   private ResourceReserveStepCmd getDiskReservationCommand() {
@@ -594,7 +668,7 @@ public class ResourceReserveStepCmdTest extends PowerMockTestCase {
     step.addResource(disk);
 
     return spy(new ResourceReserveStepCmd(
-        taskCommand, stepBackend, step, diskBackend, vmBackend, networkBackend, flavorBackend));
+        taskCommand, stepBackend, step, diskBackend, vmBackend, networkBackend, flavorBackend, imageBackend));
   }
 
   private void attachEphemeralDisk(VmEntity vm) throws ExternalException {
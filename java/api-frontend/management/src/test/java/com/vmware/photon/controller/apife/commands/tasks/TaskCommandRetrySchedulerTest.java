@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.commands.tasks;
+
+import com.vmware.photon.controller.apife.backends.TaskCommandExecutorService;
+import com.vmware.photon.controller.apife.backends.TaskCommandQueue;
+import com.vmware.photon.controller.apife.entities.TaskEntity;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests {@link TaskCommandRetryScheduler}.
+ */
+public class TaskCommandRetrySchedulerTest {
+
+  private TaskCommandExecutorService executor;
+  private TaskCommandRetryScheduler retryScheduler;
+
+  @BeforeMethod
+  public void setUp() {
+    executor = new TaskCommandExecutorService(
+        1,
+        1,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new TaskCommandQueue(10, 1),
+        new ThreadFactoryBuilder().setNameFormat("BackendWorker-%d").build());
+    retryScheduler = new TaskCommandRetryScheduler(executor, 10L);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * The deferred task is rejected while its project already has a command queued, so it keeps waiting instead of
+   * having its steps marked as failed, and runs once the queue drains.
+   */
+  @Test
+  public void testDeferredTaskIsResubmittedWhenOwnerQueueIsFull() throws Throwable {
+    CountDownLatch blocked = new CountDownLatch(1);
+    TaskCommand blocking = createCommand("project-2", false);
+    doAnswer(invocation -> {
+      blocked.await();
+      return null;
+    }).when(blocking).run();
+
+    TaskCommand queued = createCommand("project-1", false);
+    TaskCommand deferred = createCommand("project-1", true);
+
+    executor.submit(blocking);
+    executor.submit(queued);
+    retryScheduler.schedule(deferred, 0L);
+
+    Thread.sleep(100);
+    verify(deferred, never()).run();
+    verify(deferred, never()).markAllStepsAsFailed(any(Throwable.class));
+
+    blocked.countDown();
+    verify(queued, timeout(5000)).run();
+    verify(deferred, timeout(5000)).run();
+    verify(deferred, never()).markAllStepsAsFailed(any(Throwable.class));
+  }
+
+  private static TaskCommand createCommand(String projectId, boolean deferred) {
+    TaskEntity task = new TaskEntity();
+    task.setId("task-" + projectId);
+    task.setProjectId(projectId);
+
+    TaskCommand command = mock(TaskCommand.class);
+    doReturn(task).when(command).getTask();
+    doReturn(deferred).when(command).isDeferred();
+    return command;
+  }
+}
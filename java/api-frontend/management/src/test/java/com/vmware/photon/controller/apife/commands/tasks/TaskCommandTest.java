@@ -42,6 +42,7 @@ import com.vmware.photon.controller.apife.entities.TaskEntity;
 import com.vmware.photon.controller.apife.entities.VmEntity;
 import com.vmware.photon.controller.apife.exceptions.external.DiskNotFoundException;
 import com.vmware.photon.controller.apife.exceptions.external.VmNotFoundException;
+import com.vmware.photon.controller.apife.exceptions.internal.CommandDeferredException;
 import com.vmware.photon.controller.cloudstore.dcp.entity.VmService;
 import com.vmware.photon.controller.cloudstore.dcp.entity.VmServiceFactory;
 import com.vmware.photon.controller.common.clients.DeployerClient;
@@ -327,6 +328,32 @@ public class TaskCommandTest {
     assertThat(stepCommands[2].performed, is(true));
   }
 
+  @Test
+  public void testDeferredStepIsResumed() throws Throwable {
+    TaskCommandRetryScheduler retryScheduler = mock(TaskCommandRetryScheduler.class);
+    TestTaskCommand command = new TestTaskCommand(rootSchedulerClient, hostClient,
+        housekeeperClient, taskBackend, stepCommandFactory, task, deployerClient);
+    command.setRetryScheduler(retryScheduler);
+
+    StepEntity step = createStep("step-1", StepEntity.State.QUEUED);
+    task.addStep(step);
+    doReturn(new DeferredStepCommand(command, stepBackend, step))
+        .doReturn(new TestStepCommand(command, stepBackend, step))
+        .when(stepCommandFactory).createCommand(command, step);
+
+    command.run();
+
+    verify(retryScheduler).schedule(command, 100L);
+    assertThat(step.getState(), is(StepEntity.State.STARTED));
+    assertThat(taskBackend.findById(task.getId()).getState(), is(TaskEntity.State.STARTED));
+
+    command.run();
+
+    assertThat(step.getState(), is(StepEntity.State.COMPLETED));
+    assertThat(taskBackend.findById(task.getId()).getState(), is(TaskEntity.State.COMPLETED));
+    verifyNoMoreInteractions(retryScheduler);
+  }
+
   @Test
   public void testCleanup() {
     TestTaskCommand command = new TestTaskCommand(rootSchedulerClient, hostClient,
@@ -605,6 +632,27 @@ public class TaskCommandTest {
     }
   }
 
+  private class DeferredStepCommand extends StepCommand {
+
+    private DeferredStepCommand(TaskCommand taskCommand, StepBackend stepBackend, StepEntity step) {
+      super(taskCommand, stepBackend, step);
+    }
+
+    @Override
+    protected void markAsStarted() {
+      step.setState(StepEntity.State.STARTED);
+    }
+
+    @Override
+    public void execute() throws CommandDeferredException {
+      throw new CommandDeferredException(100L, null);
+    }
+
+    @Override
+    protected void cleanup() {
+    }
+  }
+
   private class TestStepCommand extends StepCommand {
 
     public boolean performed = false;
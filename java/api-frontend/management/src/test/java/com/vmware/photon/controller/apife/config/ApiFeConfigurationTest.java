@@ -65,6 +65,8 @@ public class ApiFeConfigurationTest {
           is(true));
       assertThat(e.getMessage().contains("backgroundWorkersQueueSize must be between 1 and 2048 (was 3000)"),
           is(true));
+      assertThat(e.getMessage().contains("auth.tokenCacheSize must be greater than or equal to 1 (was 0)"),
+          is(true));
     }
   }
 
@@ -13,6 +13,8 @@
 
 package com.vmware.photon.controller.apife.config;
 
+import com.vmware.transfer.nfc.NfcClient;
+
 import org.testng.annotations.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
@@ -60,4 +62,74 @@ public class ImageConfigTest {
       }
     }
   }
+
+  /**
+   * Tests for the nfcTransferSize property.
+   */
+  public class NfcTransferSize {
+
+    @Test
+    public void testDefaultNfcTransferSize() throws Exception {
+      config = ConfigurationUtils.parseConfiguration(
+          ImageConfigTest.class.getResource("/config.yml").getPath()).getImage();
+      assertThat(config.getNfcTransferSize(), is(NfcClient.MAX_XFER_SIZE));
+    }
+
+    @Test
+    public void testInvalidNfcTransferSize() {
+      try {
+        ConfigurationUtils.parseConfiguration(
+            ImageConfigTest.class.getResource("/config_invalid_nfc_transfer_size.yml").getPath());
+        fail("invalid config did not fail");
+      } catch (Exception e) {
+        assertThat(e.getMessage(), containsString("nfcTransferSize"));
+      }
+    }
+  }
+
+  /**
+   * Tests for the upload session properties.
+   */
+  public class UploadSession {
+
+    @Test
+    public void testDefaultUploadSessionConfig() throws Exception {
+      config = ConfigurationUtils.parseConfiguration(
+          ImageConfigTest.class.getResource("/config.yml").getPath()).getImage();
+      assertThat(config.getUploadStagingDir(), is("/tmp/image-uploads"));
+      assertThat(config.getUploadSessionTimeout().toHours(), is(24L));
+    }
+  }
+
+  /**
+   * Tests for the upload target properties.
+   */
+  public class UploadTargets {
+
+    @Test
+    public void testDefaultUploadTargets() throws Exception {
+      config = ConfigurationUtils.parseConfiguration(
+          ImageConfigTest.class.getResource("/config.yml").getPath()).getImage();
+      assertThat(config.getUploadTargets().isEmpty(), is(true));
+      assertThat(config.getUploadTargetStallTimeout().toSeconds(), is(60L));
+    }
+
+    @Test
+    public void testExplicitUploadTargets() throws Exception {
+      config = ConfigurationUtils.parseConfiguration(
+          ImageConfigTest.class.getResource("/config_image_upload_targets.yml").getPath()).getImage();
+      assertThat(config.getUploadTargetStallTimeout().toSeconds(), is(30L));
+      assertThat(config.getUploadTargets().size(), is(2));
+
+      ImageConfig targetConfig = config.forUploadTarget(config.getUploadTargets().get(0));
+      assertThat(targetConfig.getDatastore(), is("datastore2"));
+      assertThat(targetConfig.getEndpoint(), is("http://10.146.1.1/sdk"));
+      assertThat(targetConfig.useEsxStore(), is(true));
+      assertThat(targetConfig.getNfcTransferSize(), is(config.getNfcTransferSize()));
+
+      targetConfig = config.forUploadTarget(config.getUploadTargets().get(1));
+      assertThat(targetConfig.getDatastore(), is("datastore3"));
+      assertThat(targetConfig.getEndpoint(), is("http://10.146.1.2/sdk"));
+    }
+  }
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.lib;
+
+import com.vmware.photon.controller.apife.exceptions.external.ImageUploadException;
+import com.vmware.photon.controller.apife.exceptions.internal.InternalException;
+
+import com.google.common.io.ByteStreams;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+/**
+ * Tests {@link ImageUploadStagingArea}.
+ */
+public class ImageUploadStagingAreaTest {
+
+  private static final String UPLOAD_ID = "upload-id";
+
+  private File stagingDir;
+  private ImageUploadStagingArea stagingArea;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    stagingDir = Files.createTempDirectory("image-uploads").toFile();
+    stagingArea = new ImageUploadStagingArea(stagingDir.getAbsolutePath(), "node-1");
+    stagingArea.create(UPLOAD_ID);
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(stagingDir);
+  }
+
+  @Test
+  public void testChunksAreAssembledInOrder() throws Exception {
+    assertThat(stagingArea.addChunk(UPLOAD_ID, 2, stream("chunk2")), is(6L));
+    assertThat(stagingArea.addChunk(UPLOAD_ID, 0, stream("chunk0")), is(6L));
+    assertThat(stagingArea.addChunk(UPLOAD_ID, 1, stream("chunk1")), is(6L));
+
+    assertThat(stagingArea.getChunkCount(UPLOAD_ID), is(3));
+    assertThat(stagingArea.getUploadedBytes(UPLOAD_ID), is(18L));
+    try (InputStream image = stagingArea.openImage(UPLOAD_ID)) {
+      assertThat(new String(ByteStreams.toByteArray(image)), is("chunk0chunk1chunk2"));
+    }
+  }
+
+  @Test
+  public void testRetriedChunkReplacesEarlierAttempt() throws Exception {
+    stagingArea.addChunk(UPLOAD_ID, 0, stream("first attempt"));
+    stagingArea.addChunk(UPLOAD_ID, 0, stream("retry"));
+
+    assertThat(stagingArea.getChunkCount(UPLOAD_ID), is(1));
+    try (InputStream image = stagingArea.openImage(UPLOAD_ID)) {
+      assertThat(new String(ByteStreams.toByteArray(image)), is("retry"));
+    }
+  }
+
+  @Test
+  public void testFailedChunkLeavesNothingBehind() throws Exception {
+    InputStream failingStream = new InputStream() {
+      @Override
+      public int read() throws IOException {
+        throw new IOException("Connection reset");
+      }
+    };
+
+    try {
+      stagingArea.addChunk(UPLOAD_ID, 0, failingStream);
+      fail("failed chunk upload should fail");
+    } catch (InternalException e) {
+    }
+    assertThat(new File(stagingDir, UPLOAD_ID).list(), arrayWithSize(0));
+  }
+
+  @Test
+  public void testOpenImageWithMissingChunk() throws Exception {
+    stagingArea.addChunk(UPLOAD_ID, 0, stream("chunk0"));
+    stagingArea.addChunk(UPLOAD_ID, 2, stream("chunk2"));
+
+    try {
+      stagingArea.openImage(UPLOAD_ID);
+      fail("image with a missing chunk should not be opened");
+    } catch (ImageUploadException e) {
+      assertThat(e.getMessage(), is("Chunk 1 of upload upload-id is missing"));
+    }
+  }
+
+  @Test(expectedExceptions = ImageUploadException.class)
+  public void testOpenImageWithoutChunks() throws Exception {
+    stagingArea.openImage(UPLOAD_ID);
+  }
+
+  @Test(expectedExceptions = ImageUploadException.class)
+  public void testAddChunkToUnknownUpload() throws Exception {
+    stagingArea.addChunk("unknown-upload-id", 0, stream("chunk0"));
+  }
+
+  @Test
+  public void testFindIdleSinceAndDelete() throws Exception {
+    File uploadDir = new File(stagingDir, UPLOAD_ID);
+    uploadDir.setLastModified(System.currentTimeMillis() - 60000);
+    stagingArea.create("active-upload-id");
+
+    assertThat(stagingArea.findIdleSince(System.currentTimeMillis() - 30000), contains(UPLOAD_ID));
+
+    stagingArea.delete(UPLOAD_ID);
+    assertThat(stagingArea.exists(UPLOAD_ID), is(false));
+    assertThat(stagingArea.findIdleSince(System.currentTimeMillis() - 30000), is(empty()));
+  }
+
+  private static InputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes());
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.lib;
+
+import com.vmware.photon.controller.apife.exceptions.external.NameTakenException;
+import com.vmware.photon.controller.apife.exceptions.internal.InternalException;
+import com.vmware.transfer.nfc.SparseUtil;
+import com.vmware.transfer.streamVmdk.StreamVmdkWriter;
+import com.vmware.transfer.streamVmdk.VmdkFormatException;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.is;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests {@link LocalImageStoreImage}.
+ */
+public class LocalImageStoreImageTest {
+
+  private static final String IMAGE_ID = "image-id";
+
+  private File imageFolder;
+  private LocalImageStoreImage image;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    imageFolder = Files.createTempDirectory("images").toFile();
+    image = new LocalImageStoreImage(imageFolder.getAbsolutePath(), IMAGE_ID);
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(imageFolder);
+  }
+
+  @Test
+  public void testAddFile() throws Exception {
+    byte[] content = "image content".getBytes();
+
+    assertThat(image.addFile(".ovf", new ByteArrayInputStream(content), content.length), is((long) content.length));
+    assertThat(imageFolder.list(), is(new String[]{IMAGE_ID + ".ovf"}));
+    assertThat(Files.readAllBytes(new File(imageFolder, IMAGE_ID + ".ovf").toPath()), is(content));
+  }
+
+  @Test
+  public void testAddFileNameTaken() throws Exception {
+    image.addFile(".ovf", new ByteArrayInputStream(new byte[1]), 1);
+
+    try {
+      image.addFile(".ovf", new ByteArrayInputStream(new byte[2]), 2);
+      fail("adding a file twice should fail");
+    } catch (NameTakenException e) {
+    }
+    assertThat(imageFolder.list(), arrayWithSize(1));
+  }
+
+  @Test
+  public void testAddFileCleansUpAfterFailedUpload() throws Exception {
+    InputStream failingStream = new InputStream() {
+      private int bytesRead = 0;
+
+      @Override
+      public int read() throws IOException {
+        if (++bytesRead > 100000) {
+          throw new IOException("Connection reset");
+        }
+        return 1;
+      }
+    };
+
+    try {
+      image.addFile(".ovf", failingStream, 200000);
+      fail("failed upload should fail");
+    } catch (InternalException e) {
+    }
+    assertThat(imageFolder.list(), arrayWithSize(0));
+  }
+
+  @Test
+  public void testAddDisk() throws Exception {
+    byte[] disk = createDisk();
+
+    assertThat(image.addDisk(".vmdk", new ByteArrayInputStream(disk)), is((long) disk.length));
+    assertThat(imageFolder.list(), is(new String[]{IMAGE_ID + ".vmdk"}));
+    assertThat(Arrays.equals(Files.readAllBytes(new File(imageFolder, IMAGE_ID + ".vmdk").toPath()), disk), is(true));
+  }
+
+  @Test
+  public void testAddDiskRejectsInvalidDiskFromHeader() throws Exception {
+    byte[] disk = createDisk();
+    // Not a sparse disk
+    disk[0] ^= 1;
+    CountingInputStream inputStream = new CountingInputStream(disk);
+
+    try {
+      image.addDisk(".vmdk", inputStream);
+      fail("invalid disk should be rejected");
+    } catch (VmdkFormatException e) {
+    }
+    assertThat(inputStream.bytesRead, is((long) SparseUtil.DISKLIB_SECTOR_SIZE));
+    assertThat(imageFolder.list(), arrayWithSize(0));
+  }
+
+  @Test
+  public void testAddDiskRejectsTruncatedDisk() throws Exception {
+    byte[] disk = Arrays.copyOf(createDisk(), SparseUtil.DISKLIB_SECTOR_SIZE + 10);
+
+    try {
+      image.addDisk(".vmdk", new ByteArrayInputStream(disk));
+      fail("truncated disk should be rejected");
+    } catch (VmdkFormatException e) {
+    }
+    assertThat(imageFolder.list(), arrayWithSize(0));
+  }
+
+  private static byte[] createDisk() throws IOException {
+    ByteArrayOutputStream disk = new ByteArrayOutputStream();
+    StreamVmdkWriter writer = new StreamVmdkWriter(disk, 4 * SparseUtil.DEFAULT_GRAIN_SIZE);
+    writer.writeHeader(1, Collections.singletonMap("ddb.adapterType", "lsilogic"));
+    byte[] grain = new byte[SparseUtil.DEFAULT_GRAIN_SIZE_BYTES];
+    Arrays.fill(grain, (byte) 1);
+    writer.writeDataGrain(SparseUtil.DEFAULT_GRAIN_SIZE, grain);
+    writer.writeTrailer();
+    writer.close();
+    return disk.toByteArray();
+  }
+
+  /**
+   * Counts the bytes that were read from a byte array.
+   */
+  private static class CountingInputStream extends ByteArrayInputStream {
+    private long bytesRead = 0;
+
+    CountingInputStream(byte[] buffer) {
+      super(buffer);
+    }
+
+    @Override
+    public synchronized int read() {
+      int b = super.read();
+      if (b >= 0) {
+        bytesRead++;
+      }
+      return b;
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) {
+      int count = super.read(b, off, len);
+      if (count > 0) {
+        bytesRead += count;
+      }
+      return count;
+    }
+
+    @Override
+    public synchronized long skip(long n) {
+      long count = super.skip(n);
+      bytesRead += count;
+      return count;
+    }
+  }
+}
@@ -22,12 +22,18 @@ import com.vmware.photon.controller.host.gen.ServiceTicketResponse;
 import com.vmware.photon.controller.host.gen.ServiceTicketResultCode;
 import com.vmware.transfer.nfc.HostServiceTicket;
 import com.vmware.transfer.nfc.NfcClient;
+import com.vmware.transfer.nfc.NfcFileOutputStream;
 
 import org.apache.commons.io.FileUtils;
 import org.mockito.Mock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
@@ -42,13 +48,18 @@ import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Test {@link VsphereImageStoreImage}.
  */
 public class VsphereImageStoreImageTest {
+  private static final Logger logger = LoggerFactory.getLogger(VsphereImageStoreImageTest.class);
+
   @Mock
   private HostServiceTicket ticket;
   private com.vmware.photon.controller.resource.gen.HostServiceTicket hostServiceTicketResource;
@@ -118,6 +129,61 @@ public class VsphereImageStoreImageTest {
     imageFolder.addFile("test.ecv", null, 0);
   }
 
+  /**
+   * Uploads a large file through a fake NFC endpoint from a stream that hands out small chunks like a multipart
+   * request does, and checks that the data reaches NFC in full transfer sized messages.
+   */
+  @Test
+  public void testAddLargeFile() throws Exception {
+    long fileSize = 256L * 1024 * 1024 + 17;
+    FakeNfcFileOutputStream outputStream = new FakeNfcFileOutputStream(mock(NfcClient.class));
+    NfcClient nfcClient = mock(NfcClient.class);
+    when(nfcClient.putFile(anyString(), eq(fileSize))).thenReturn(outputStream);
+
+    Image image = new VsphereImageStoreImage(nfcClient, "[datastore-name] tmp_uploads/" + imageId, imageId);
+    long start = System.nanoTime();
+    assertThat(image.addFile("test.iso", new GeneratedInputStream(fileSize, 8 * 1024), fileSize), is(fileSize));
+    long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    logger.info("Uploaded {} bytes in {} ms ({} MB/s)", fileSize, elapsedMillis,
+        fileSize * 1000 / elapsedMillis / (1024 * 1024));
+
+    assertThat(outputStream.bytesWritten, is(fileSize));
+    assertThat(outputStream.writes, is((fileSize + NfcClient.MAX_XFER_SIZE - 1) / NfcClient.MAX_XFER_SIZE));
+    assertThat(outputStream.closed, is(true));
+  }
+
+  @Test
+  public void testAddFileInConfiguredTransferSize() throws Exception {
+    long fileSize = 4L * NfcClient.MAX_XFER_SIZE;
+    FakeNfcFileOutputStream outputStream = new FakeNfcFileOutputStream(mock(NfcClient.class));
+    NfcClient nfcClient = mock(NfcClient.class);
+    when(nfcClient.putFile(anyString(), eq(fileSize))).thenReturn(outputStream);
+
+    Image image = new VsphereImageStoreImage(nfcClient, "[datastore-name] tmp_uploads/" + imageId, imageId,
+        NfcClient.MIN_XFER_SIZE);
+    assertThat(image.addFile("test.iso", new GeneratedInputStream(fileSize, 8 * 1024), fileSize), is(fileSize));
+
+    assertThat(outputStream.bytesWritten, is(fileSize));
+    assertThat(outputStream.writes, is(fileSize / NfcClient.MIN_XFER_SIZE));
+  }
+
+  @Test
+  public void testAddFileWithTruncatedInput() throws Exception {
+    FakeNfcFileOutputStream outputStream = new FakeNfcFileOutputStream(mock(NfcClient.class));
+    NfcClient nfcClient = mock(NfcClient.class);
+    when(nfcClient.putFile(anyString(), eq(1000L))).thenReturn(outputStream);
+
+    Image image = new VsphereImageStoreImage(nfcClient, "[datastore-name] tmp_uploads/" + imageId, imageId);
+    try {
+      image.addFile("test.iso", new GeneratedInputStream(600, 100), 1000);
+      fail("addFile should fail on a truncated input stream");
+    } catch (EOFException e) {
+      assertThat(e.getMessage(), containsString("ended after 600 of 1000 bytes"));
+    }
+
+    assertThat(outputStream.bytesWritten, is(600L));
+  }
+
   @Test
   public void testFinalizeImage() throws Exception {
     VsphereImageStore imageStore = spy(new VsphereImageStore(hostClientFactory, imageConfig));
@@ -148,4 +214,65 @@ public class VsphereImageStoreImageTest {
     verify(hostClient).createImage(imageId, imageConfig.getDatastore(), tmpImagePath);
     verifyNoMoreInteractions(hostClient);
   }
+
+  /**
+   * Produces fileSize bytes of a known pattern without holding them in memory, at most chunkSize bytes per read.
+   */
+  private static class GeneratedInputStream extends InputStream {
+    private final long size;
+    private final int chunkSize;
+    private long position;
+
+    GeneratedInputStream(long size, int chunkSize) {
+      this.size = size;
+      this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public int read() {
+      return position < size ? (byte) position++ & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (position >= size) {
+        return -1;
+      }
+
+      int count = (int) Math.min(Math.min(len, chunkSize), size - position);
+      for (int i = 0; i < count; i++) {
+        b[off + i] = (byte) position++;
+      }
+      return count;
+    }
+  }
+
+  /**
+   * NFC file stream that checks and counts the received data instead of sending it to a host.
+   */
+  private static class FakeNfcFileOutputStream extends NfcFileOutputStream {
+    private long bytesWritten;
+    private long writes;
+    private boolean closed;
+
+    FakeNfcFileOutputStream(NfcClient nfcClient) {
+      super(nfcClient);
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+      for (int i = 0; i < length; i++) {
+        if (data[offset + i] != (byte) (bytesWritten + i)) {
+          throw new IOException("Unexpected byte at offset " + (bytesWritten + i));
+        }
+      }
+      bytesWritten += length;
+      writes++;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
 }
@@ -21,6 +21,8 @@ import com.vmware.photon.controller.apife.lib.VsphereImageStoreImage;
 import com.vmware.photon.controller.apife.lib.ova.OvaTestModule;
 import com.vmware.transfer.nfc.NfcClient;
 
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import org.mockito.InOrder;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
@@ -117,6 +119,9 @@ public class ImageLoaderTest {
       verify(image, times(1)).addDisk(eq(ImageLoader.DISK_FILE_SUFFIX), any(InputStream.class));
       assertThat("check upload size", result.imageSize == 2 * CONFIG_SIZE + DISK_SIZE);
       assertThat(result.imageSettings, is(expectedImageSettings));
+      try (InputStream ovaStream = ova.getOvaStream()) {
+        assertThat(result.contentDigest, is(Hashing.sha256().hashBytes(ByteStreams.toByteArray(ovaStream)).toString()));
+      }
     }
 
     @Test
@@ -129,6 +134,7 @@ public class ImageLoaderTest {
       verify(image, times(1)).addDisk(eq(ImageLoader.DISK_FILE_SUFFIX), any(InputStream.class));
       assertThat("check upload size", result.imageSize == CONFIG_SIZE + DISK_SIZE);
       assertThat(result.imageSettings.size(), is(0));
+      assertThat(result.contentDigest, is(Hashing.sha256().hashBytes(ova.vmdkContent.getBytes()).toString()));
     }
 
     @Test(expectedExceptions = UnsupportedDiskControllerException.class)
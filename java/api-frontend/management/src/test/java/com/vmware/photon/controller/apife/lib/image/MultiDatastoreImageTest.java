@@ -0,0 +1,340 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.lib.image;
+
+import com.vmware.photon.controller.apife.lib.Image;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tests {@link MultiDatastoreImage}.
+ */
+public class MultiDatastoreImageTest {
+
+  private static final long STALL_TIMEOUT_MILLIS = 500;
+
+  private byte[] disk;
+  private RecordingImage image;
+
+  @BeforeMethod
+  public void setUp() {
+    disk = new byte[10 * MultiDatastoreImage.BLOCK_SIZE + 123];
+    new Random(1).nextBytes(disk);
+    image = new RecordingImage();
+  }
+
+  @Test
+  public void testFilesAreCopiedToAllTargets() throws Exception {
+    RecordingImage target1 = new RecordingImage();
+    RecordingImage target2 = new RecordingImage();
+    MultiDatastoreImage multiImage = new MultiDatastoreImage(image,
+        ImmutableMap.of("datastore-1", target1, "datastore-2", target2), STALL_TIMEOUT_MILLIS);
+
+    byte[] config = "config".getBytes();
+    assertThat(multiImage.addFile(".ecv", new ByteArrayInputStream(config), config.length), is((long) config.length));
+    assertThat(multiImage.addDisk(".vmdk", new ByteArrayInputStream(disk)), is((long) disk.length));
+    multiImage.close();
+
+    for (RecordingImage recordingImage : new RecordingImage[]{image, target1, target2}) {
+      assertThat(recordingImage.files.get(".ecv"), is(config));
+      assertThat(recordingImage.files.get(".vmdk"), is(disk));
+      assertThat(recordingImage.closed, is(true));
+    }
+    assertThat(multiImage.getDatastores(), contains("datastore-1", "datastore-2"));
+    assertThat(multiImage.getFailedDatastores().isEmpty(), is(true));
+  }
+
+  @Test
+  public void testTargetsOnlyGetWhatTheImageDatastoreReads() throws Exception {
+    RecordingImage target = new RecordingImage();
+    MultiDatastoreImage multiImage = new MultiDatastoreImage(new PartialImage(100),
+        ImmutableMap.of("datastore-1", target), STALL_TIMEOUT_MILLIS);
+
+    multiImage.addDisk(".vmdk", new ByteArrayInputStream(disk));
+
+    assertThat(target.files.get(".vmdk").length, is(100));
+    assertThat(multiImage.getDatastores(), contains("datastore-1"));
+  }
+
+  @Test
+  public void testTargetThatStopsReadingDoesNotBlockTheUpload() throws Exception {
+    MultiDatastoreImage multiImage = new MultiDatastoreImage(image,
+        ImmutableMap.of("datastore-1", new PartialImage(0)), STALL_TIMEOUT_MILLIS);
+
+    multiImage.addDisk(".vmdk", new ByteArrayInputStream(disk));
+
+    assertThat(image.files.get(".vmdk"), is(disk));
+    assertThat(multiImage.getDatastores(), contains("datastore-1"));
+  }
+
+  @Test
+  public void testFailingTargetIsGivenUp() throws Exception {
+    RecordingImage target = new RecordingImage();
+    FailingImage failingTarget = new FailingImage();
+    MultiDatastoreImage multiImage = new MultiDatastoreImage(image,
+        ImmutableMap.of("datastore-1", target, "datastore-2", failingTarget), STALL_TIMEOUT_MILLIS);
+
+    multiImage.addDisk(".vmdk", new ByteArrayInputStream(disk));
+    multiImage.addDisk("-data1.vmdk", new ByteArrayInputStream(disk));
+
+    assertThat(image.files.get("-data1.vmdk"), is(disk));
+    assertThat(target.files.get("-data1.vmdk"), is(disk));
+    assertThat(failingTarget.calls, is(1));
+    assertThat(multiImage.getDatastores(), contains("datastore-1"));
+    assertThat(multiImage.getFailedDatastores().get("datastore-2"), instanceOf(IOException.class));
+  }
+
+  @Test
+  public void testStalledTargetDoesNotHoldBackOthers() throws Exception {
+    disk = new byte[4 * MultiDatastoreImage.BLOCKS_IN_FLIGHT * MultiDatastoreImage.BLOCK_SIZE];
+    RecordingImage pacedImage = new PacedImage();
+    RecordingImage target = new RecordingImage();
+    StalledImage stalledTarget = new StalledImage(10);
+    MultiDatastoreImage multiImage = new MultiDatastoreImage(pacedImage,
+        ImmutableMap.of("datastore-1", target, "datastore-2", stalledTarget), STALL_TIMEOUT_MILLIS);
+
+    multiImage.addDisk(".vmdk", new ByteArrayInputStream(disk));
+    multiImage.close();
+
+    assertThat(pacedImage.files.get(".vmdk"), is(disk));
+    assertThat(target.files.get(".vmdk"), is(disk));
+    assertThat(multiImage.getDatastores(), contains("datastore-1"));
+    assertThat(multiImage.getFailedDatastores().get("datastore-2"), instanceOf(IOException.class));
+    assertThat(stalledTarget.interrupted.await(STALL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), is(true));
+  }
+
+  @Test
+  public void testStalledTargetIsGivenUpAfterShortWait() throws Exception {
+    disk = new byte[4 * MultiDatastoreImage.BLOCKS_IN_FLIGHT * MultiDatastoreImage.BLOCK_SIZE];
+    MultiDatastoreImage multiImage = new MultiDatastoreImage(image,
+        ImmutableMap.of("datastore-1", new StalledImage(10)), STALL_TIMEOUT_MILLIS);
+
+    long start = System.currentTimeMillis();
+    multiImage.addDisk(".vmdk", new ByteArrayInputStream(disk));
+    long elapsed = System.currentTimeMillis() - start;
+    multiImage.close();
+
+    assertThat(elapsed, lessThan(STALL_TIMEOUT_MILLIS * 2));
+    assertThat(image.files.get(".vmdk"), is(disk));
+    assertThat(multiImage.getFailedDatastores().get("datastore-1"), instanceOf(IOException.class));
+  }
+
+  @Test
+  public void testTargetThatPausesIsKept() throws Exception {
+    disk = new byte[4 * MultiDatastoreImage.BLOCKS_IN_FLIGHT * MultiDatastoreImage.BLOCK_SIZE];
+    RecordingImage target = new PausingImage(STALL_TIMEOUT_MILLIS / 2);
+    MultiDatastoreImage multiImage = new MultiDatastoreImage(image,
+        ImmutableMap.of("datastore-1", target), STALL_TIMEOUT_MILLIS);
+
+    multiImage.addDisk(".vmdk", new ByteArrayInputStream(disk));
+    multiImage.close();
+
+    assertThat(image.files.get(".vmdk"), is(disk));
+    assertThat(target.files.get(".vmdk"), is(disk));
+    assertThat(multiImage.getDatastores(), contains("datastore-1"));
+    assertThat(multiImage.getFailedDatastores().isEmpty(), is(true));
+  }
+
+  @Test
+  public void testTargetsShareTheTimeoutToFinish() throws Exception {
+    MultiDatastoreImage multiImage = new MultiDatastoreImage(image, ImmutableMap.of(
+        "datastore-1", new StalledImage(Long.MAX_VALUE), "datastore-2", new StalledImage(Long.MAX_VALUE)),
+        STALL_TIMEOUT_MILLIS);
+
+    long start = System.currentTimeMillis();
+    multiImage.addDisk(".vmdk", new ByteArrayInputStream(disk));
+    long elapsed = System.currentTimeMillis() - start;
+    multiImage.close();
+
+    assertThat(elapsed, lessThan(STALL_TIMEOUT_MILLIS * 2));
+    assertThat(multiImage.getDatastores().isEmpty(), is(true));
+    assertThat(multiImage.getFailedDatastores().get("datastore-1"), instanceOf(TimeoutException.class));
+    assertThat(multiImage.getFailedDatastores().get("datastore-2"), instanceOf(TimeoutException.class));
+  }
+
+  @Test
+  public void testTargetsAreStoppedWhenTheImageDatastoreFails() throws Exception {
+    RecordingImage target = new RecordingImage();
+    MultiDatastoreImage multiImage = new MultiDatastoreImage(new FailingImage(),
+        ImmutableMap.of("datastore-1", target), STALL_TIMEOUT_MILLIS);
+
+    try {
+      multiImage.addDisk(".vmdk", new ByteArrayInputStream(disk));
+      fail("failed upload to the image datastore should fail");
+    } catch (IOException e) {
+    }
+
+    assertThat(multiImage.getDatastores().isEmpty(), is(true));
+    assertThat(multiImage.getFailedDatastores().get("datastore-1"), instanceOf(IOException.class));
+    multiImage.close();
+    assertThat(target.files.containsKey(".vmdk"), is(false));
+  }
+
+  @Test
+  public void testImageWithoutTargets() throws Exception {
+    MultiDatastoreImage multiImage = new MultiDatastoreImage(image, new HashMap<>(), STALL_TIMEOUT_MILLIS);
+
+    multiImage.addDisk(".vmdk", new ByteArrayInputStream(disk));
+    multiImage.close();
+
+    assertThat(image.files.get(".vmdk"), is(disk));
+    assertThat(image.closed, is(true));
+    assertThat(multiImage.getDatastores().isEmpty(), is(true));
+    assertThat(multiImage.getFailedDatastores().isEmpty(), is(true));
+  }
+
+  /**
+   * Image that keeps its files in memory, reading the streams in small pieces.
+   */
+  private static class RecordingImage implements Image {
+    private final Map<String, byte[]> files = new HashMap<>();
+    private volatile boolean closed = false;
+
+    @Override
+    public long addFile(String fileName, InputStream inputStream, long fileSize) throws IOException {
+      return addDisk(fileName, inputStream);
+    }
+
+    @Override
+    public long addDisk(String fileName, InputStream inputStream) throws IOException {
+      byte[] content = ByteStreams.toByteArray(inputStream);
+      files.put(fileName, content);
+      return content.length;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+  /**
+   * Image that only reads the start of its files.
+   */
+  private static class PartialImage extends RecordingImage {
+    private final int length;
+
+    PartialImage(int length) {
+      this.length = length;
+    }
+
+    @Override
+    public long addDisk(String fileName, InputStream inputStream) throws IOException {
+      return super.addDisk(fileName, ByteStreams.limit(inputStream, length));
+    }
+  }
+
+  /**
+   * Image whose datastore fails after the first bytes of a file.
+   */
+  private static class FailingImage extends RecordingImage {
+    private volatile int calls = 0;
+
+    @Override
+    public long addDisk(String fileName, InputStream inputStream) throws IOException {
+      calls++;
+      ByteStreams.readFully(inputStream, new byte[10]);
+      throw new IOException("Connection reset");
+    }
+  }
+
+  /**
+   * Image that reads its files in blocks, taking a bit of time for each like a remote datastore.
+   */
+  private static class PacedImage extends RecordingImage {
+    @Override
+    public long addDisk(String fileName, InputStream inputStream) throws IOException {
+      ByteArrayOutputStream content = new ByteArrayOutputStream();
+      byte[] block = new byte[MultiDatastoreImage.BLOCK_SIZE];
+      for (int count = inputStream.read(block); count >= 0; count = inputStream.read(block)) {
+        content.write(block, 0, count);
+        try {
+          Thread.sleep(1);
+        } catch (InterruptedException e) {
+          throw new IOException(e);
+        }
+      }
+      return super.addDisk(fileName, new ByteArrayInputStream(content.toByteArray()));
+    }
+  }
+
+  /**
+   * Image whose datastore stops responding for a while after the first block of a file, and then catches up.
+   */
+  private static class PausingImage extends RecordingImage {
+    private final long pauseMillis;
+
+    PausingImage(long pauseMillis) {
+      this.pauseMillis = pauseMillis;
+    }
+
+    @Override
+    public long addDisk(String fileName, InputStream inputStream) throws IOException {
+      byte[] block = new byte[MultiDatastoreImage.BLOCK_SIZE];
+      ByteStreams.readFully(inputStream, block);
+      try {
+        Thread.sleep(pauseMillis);
+      } catch (InterruptedException e) {
+        throw new IOException(e);
+      }
+      ByteArrayOutputStream content = new ByteArrayOutputStream();
+      content.write(block);
+      ByteStreams.copy(inputStream, content);
+      return super.addDisk(fileName, new ByteArrayInputStream(content.toByteArray()));
+    }
+  }
+
+  /**
+   * Image whose datastore stops responding after reading the given number of bytes of a file.
+   */
+  private static class StalledImage extends RecordingImage {
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+    private final long length;
+
+    StalledImage(long length) {
+      this.length = length;
+    }
+
+    @Override
+    public long addDisk(String fileName, InputStream inputStream) throws IOException {
+      ByteStreams.toByteArray(ByteStreams.limit(inputStream, length));
+      try {
+        new CountDownLatch(1).await();
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+      throw new IOException("Interrupted");
+    }
+  }
+}
@@ -15,21 +15,36 @@ package com.vmware.photon.controller.apife.lib.ova;
 
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * Tests {@link TarFileStreamReader}.
  */
 public class TarFileStreamReaderTest {
+  private static final long GB = 1024L * 1024 * 1024;
+  private static final String SMALL_FILE_CONTENT = "small file content";
+
   private OvaTestModule ova;
   private InputStream inputStream;
+  private File sparseTar;
 
   @AfterMethod
   public void tearDown() throws Throwable {
@@ -41,6 +56,10 @@ public class TarFileStreamReaderTest {
       ova.clean();
       ova = null;
     }
+    if (sparseTar != null) {
+      sparseTar.delete();
+      sparseTar = null;
+    }
   }
 
   @Test
@@ -97,6 +116,101 @@ public class TarFileStreamReaderTest {
     assertEquals(ovf1, ovf2);
   }
 
+  /**
+   * Skips a 5 GB file of a sparse tar file without reading it: closing the file content seeks past it.
+   */
+  @Test
+  public void testSkipLargeFileOfSparseTar() throws Throwable {
+    long largeFileLength = 5 * GB + 1;
+    byte[] smallFileContent = SMALL_FILE_CONTENT.getBytes(StandardCharsets.US_ASCII);
+    sparseTar = File.createTempFile("sparse", ".tar");
+    try (RandomAccessFile file = new RandomAccessFile(sparseTar, "rw")) {
+      file.write(createHeader("large.vmdk", largeFileLength));
+      file.seek(TarFileStreamReader.TAR_FILE_GRANULARITY + paddedLength(largeFileLength));
+      file.write(createHeader("small.ovf", smallFileContent.length));
+      file.write(smallFileContent);
+      file.setLength(file.getFilePointer() + paddedLength(smallFileContent.length) - smallFileContent.length +
+          2 * TarFileStreamReader.TAR_FILE_GRANULARITY);
+    }
+
+    CountingInputStream countingStream = new CountingInputStream(new FileInputStream(sparseTar));
+    inputStream = countingStream;
+    Iterator<TarFileStreamReader.TarFile> files = new TarFileStreamReader(countingStream).iterator();
+
+    assertThat(files.next().name, is("large.vmdk"));
+    TarFileStreamReader.TarFile smallFile = files.next();
+    assertThat(smallFile.name, is("small.ovf"));
+    assertThat(OvaTestModule.readStringFromStream(smallFile.content), is(SMALL_FILE_CONTENT));
+    assertThat(files.hasNext(), is(false));
+    assertThat(countingStream.bytesRead, lessThan(1024L * 1024));
+  }
+
+  /**
+   * Skips a 2 GB file of a tar stream that cannot seek, which has to read the file in large blocks.
+   */
+  @Test
+  public void testSkipLargeFileOfStreamThatCannotSeek() throws Throwable {
+    long largeFileLength = 2 * GB + 3;
+    SyntheticTarInputStream tarStream = new SyntheticTarInputStream();
+    tarStream.addFile("large.vmdk", largeFileLength);
+    tarStream.addFile("small.ovf", SMALL_FILE_CONTENT.getBytes(StandardCharsets.US_ASCII));
+    tarStream.finish();
+
+    Iterator<TarFileStreamReader.TarFile> files = new TarFileStreamReader(tarStream).iterator();
+    TarFileStreamReader.TarFile largeFile = files.next();
+    assertThat(largeFile.name, is("large.vmdk"));
+    // Read part of the file before it is skipped.
+    assertThat(largeFile.content.read(new byte[4096]), is(4096));
+
+    TarFileStreamReader.TarFile smallFile = files.next();
+    assertThat(smallFile.name, is("small.ovf"));
+    assertThat(OvaTestModule.readStringFromStream(smallFile.content), is(SMALL_FILE_CONTENT));
+    assertThat(files.hasNext(), is(false));
+    assertThat(tarStream.reads, lessThan(largeFileLength / (32 * 1024)));
+  }
+
+  /**
+   * Reads a file one byte at a time, which is served from the buffer of the reader instead of the tar stream.
+   */
+  @Test
+  public void testReadFileContentByteWise() throws Throwable {
+    byte[] content = new byte[1024 * 1024 + 7];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) (i % 251);
+    }
+    SyntheticTarInputStream tarStream = new SyntheticTarInputStream();
+    tarStream.addFile("disk.vmdk", content);
+    tarStream.finish();
+
+    TarFileStreamReader.TarFile file = new TarFileStreamReader(tarStream).iterator().next();
+    byte[] readContent = new byte[content.length];
+    int length = 0;
+    int b;
+    while ((b = file.content.read()) >= 0) {
+      readContent[length++] = (byte) b;
+    }
+
+    assertThat(length, is(content.length));
+    assertThat(Arrays.equals(readContent, content), is(true));
+    assertThat(tarStream.reads, lessThan(64L));
+  }
+
+  private static byte[] createHeader(String name, long fileLength) {
+    byte[] header = new byte[TarFileStreamReader.TAR_FILE_GRANULARITY];
+    byte[] nameBytes = name.getBytes(StandardCharsets.US_ASCII);
+    System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+    byte[] lengthBytes = String.format("%011o", fileLength).getBytes(StandardCharsets.US_ASCII);
+    System.arraycopy(lengthBytes, 0, header, 124, lengthBytes.length);
+    byte[] signature = "ustar".getBytes(StandardCharsets.US_ASCII);
+    System.arraycopy(signature, 0, header, 257, signature.length);
+    return header;
+  }
+
+  private static long paddedLength(long fileLength) {
+    int granularity = TarFileStreamReader.TAR_FILE_GRANULARITY;
+    return (fileLength + granularity - 1) / granularity * granularity;
+  }
+
   private void deleteFileIfExists(String path, String file) {
     String fileName;
     if (!file.isEmpty()) {
@@ -109,4 +223,97 @@ public class TarFileStreamReaderTest {
       f.delete();
     }
   }
+
+  /**
+   * Counts the bytes that are read, but not the ones that are skipped.
+   */
+  private static class CountingInputStream extends FilterInputStream {
+    private long bytesRead = 0;
+
+    CountingInputStream(InputStream inputStream) {
+      super(inputStream);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        bytesRead++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int count = super.read(b, off, len);
+      if (count > 0) {
+        bytesRead += count;
+      }
+      return count;
+    }
+  }
+
+  /**
+   * Tar stream that is generated while it is read, like an upload that cannot seek. File contents without data are
+   * zeros that are never stored.
+   */
+  private static class SyntheticTarInputStream extends InputStream {
+    private final List<byte[]> blocks = new ArrayList<>();
+    private final List<Long> blockLengths = new ArrayList<>();
+    private int block = 0;
+    private long blockOffset = 0;
+    private long reads = 0;
+
+    void addFile(String name, byte[] content) {
+      addBlock(createHeader(name, content.length), TarFileStreamReader.TAR_FILE_GRANULARITY);
+      addBlock(content, paddedLength(content.length));
+    }
+
+    void addFile(String name, long fileLength) {
+      addBlock(createHeader(name, fileLength), TarFileStreamReader.TAR_FILE_GRANULARITY);
+      addBlock(null, paddedLength(fileLength));
+    }
+
+    void finish() {
+      addBlock(null, 2 * TarFileStreamReader.TAR_FILE_GRANULARITY);
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      reads++;
+      while (block < blocks.size() && blockOffset == blockLengths.get(block)) {
+        block++;
+        blockOffset = 0;
+      }
+      if (block == blocks.size()) {
+        return -1;
+      }
+
+      int count = (int) Math.min(len, blockLengths.get(block) - blockOffset);
+      byte[] data = blocks.get(block);
+      int dataCount = data == null ? 0 : (int) Math.max(0, Math.min(count, data.length - blockOffset));
+      if (dataCount > 0) {
+        System.arraycopy(data, (int) blockOffset, b, off, dataCount);
+      }
+      Arrays.fill(b, off + dataCount, off + count, (byte) 0);
+      blockOffset += count;
+      return count;
+    }
+
+    @Override
+    public long skip(long n) {
+      return 0;
+    }
+
+    private void addBlock(byte[] data, long length) {
+      blocks.add(data);
+      blockLengths.add(length);
+    }
+  }
 }
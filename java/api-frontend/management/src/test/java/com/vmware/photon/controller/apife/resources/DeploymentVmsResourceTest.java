@@ -15,6 +15,7 @@ package com.vmware.photon.controller.apife.resources;
 
 import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.Vm;
+import com.vmware.photon.controller.api.common.StreamingResourceList;
 import com.vmware.photon.controller.apife.clients.DeploymentFeClient;
 import com.vmware.photon.controller.apife.exceptions.external.DeploymentNotFoundException;
 import com.vmware.photon.controller.apife.resources.routes.DeploymentResourceRoutes;
@@ -25,6 +26,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.annotations.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -95,6 +97,43 @@ public class DeploymentVmsResourceTest extends ResourceTest {
     }
   }
 
+  @Test
+  public void testListVmsAcrossPages() throws Throwable {
+    List<Vm> vmList = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Vm vm = new Vm();
+      vm.setId("vm" + i);
+      vm.setName("vm" + i + "name");
+      vmList.add(vm);
+    }
+
+    ResourceList<Vm> firstPage = new ResourceList<>(new ArrayList<>(vmList.subList(0, 2)), "page-2", null);
+    ResourceList<Vm> secondPage = new ResourceList<>(new ArrayList<>(vmList.subList(2, 4)), null, "page-1");
+    doReturn(new StreamingResourceList<>(firstPage, pageLink -> secondPage))
+        .when(deploymentFeClient).listVms(deploymentId);
+
+    Response clientResponse = client()
+        .target(vmsRoute)
+        .request("application/json")
+        .get();
+
+    assertThat(clientResponse.getStatus(), is(200));
+
+    ResourceList<Vm> retrievedResources = clientResponse.readEntity(new GenericType<ResourceList<Vm>>() {
+    });
+    assertThat(retrievedResources.getNextPageLink(), nullValue());
+    assertThat(retrievedResources.getPreviousPageLink(), nullValue());
+    List<Vm> retrievedVmList = retrievedResources.getItems();
+    assertThat(retrievedVmList.size(), is(4));
+    for (int i = 0; i < retrievedVmList.size(); i++) {
+      Vm retrievedVm = retrievedVmList.get(i);
+      assertThat(retrievedVm, is(vmList.get(i)));
+
+      String vmRoutePath = UriBuilder.fromPath(VmResourceRoutes.VM_PATH).build(vmList.get(i).getId()).toString();
+      assertThat(retrievedVm.getSelfLink().endsWith(vmRoutePath), is(true));
+    }
+  }
+
   @Test
   public void testFailedOnDeploymentNotFound() throws Throwable {
     doThrow(new DeploymentNotFoundException(deploymentId)).when(deploymentFeClient).listVms(deploymentId);
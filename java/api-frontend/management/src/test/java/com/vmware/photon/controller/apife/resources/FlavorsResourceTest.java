@@ -21,6 +21,7 @@ import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.Task;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
 import com.vmware.photon.controller.apife.clients.FlavorFeClient;
+import com.vmware.photon.controller.apife.config.PaginationConfig;
 import com.vmware.photon.controller.apife.resources.routes.FlavorsResourceRoutes;
 import com.vmware.photon.controller.apife.resources.routes.TaskResourceRoutes;
 
@@ -51,6 +52,8 @@ public class FlavorsResourceTest extends ResourceTest {
   @Mock
   private FlavorFeClient flavorFeClient;
 
+  private PaginationConfig paginationConfig = new PaginationConfig();
+
   private FlavorCreateSpec spec;
 
   private String taskId = "task1";
@@ -65,7 +68,9 @@ public class FlavorsResourceTest extends ResourceTest {
     spec.setKind("vm");
     spec.setCost(ImmutableList.of(new QuotaLineItem("foo.bar", 2.0, QuotaUnit.COUNT)));
 
-    addResource(new FlavorsResource(flavorFeClient));
+    paginationConfig.setDefaultPageSize(10);
+    paginationConfig.setMaxPageSize(100);
+    addResource(new FlavorsResource(flavorFeClient, paginationConfig));
   }
 
   @Test
@@ -113,7 +118,7 @@ public class FlavorsResourceTest extends ResourceTest {
 
     Optional<String> name = Optional.fromNullable(null);
     Optional<String> kind = Optional.fromNullable(null);
-    when(flavorFeClient.list(name, kind)).thenReturn(new ResourceList<>(ImmutableList.of(f1, f2)));
+    when(flavorFeClient.list(name, kind, Optional.of(10))).thenReturn(new ResourceList<>(ImmutableList.of(f1, f2)));
     Response response = getFlavors();
     assertThat(response.getStatus(), is(200));
 
@@ -17,9 +17,11 @@ import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.Vm;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
 import com.vmware.photon.controller.apife.clients.HostFeClient;
+import com.vmware.photon.controller.apife.config.PaginationConfig;
 import com.vmware.photon.controller.apife.resources.routes.HostResourceRoutes;
 import com.vmware.photon.controller.apife.resources.routes.VmResourceRoutes;
 
+import com.google.common.base.Optional;
 import org.mockito.Mock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,9 +54,13 @@ public class HostVmsResourceTest extends ResourceTest {
   @Mock
   private HostFeClient hostFeClient;
 
+  private PaginationConfig paginationConfig = new PaginationConfig();
+
   @Override
   protected void setUpResources() {
-    addResource(new HostVmsResource(hostFeClient));
+    paginationConfig.setDefaultPageSize(10);
+    paginationConfig.setMaxPageSize(100);
+    addResource(new HostVmsResource(hostFeClient, paginationConfig));
   }
 
   @Test
@@ -71,7 +77,7 @@ public class HostVmsResourceTest extends ResourceTest {
     vmList.add(vm1);
     vmList.add(vm2);
     ResourceList<Vm> resourceList = new ResourceList<>(new ArrayList<>(vmList));
-    doReturn(resourceList).when(hostFeClient).listAllVms(hostId);
+    doReturn(resourceList).when(hostFeClient).listAllVms(hostId, Optional.of(10));
 
     Response clientResponse = client()
         .target(vmsRoute)
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.apife.resources;
+
+import com.vmware.photon.controller.api.ImageCreateSpec;
+import com.vmware.photon.controller.api.ImageReplicationType;
+import com.vmware.photon.controller.api.Task;
+import com.vmware.photon.controller.apife.clients.ImageFeClient;
+import com.vmware.photon.controller.apife.resources.routes.ImageResourceRoutes;
+import com.vmware.photon.controller.apife.resources.routes.TaskResourceRoutes;
+
+import com.google.common.io.ByteStreams;
+import org.mockito.Mock;
+import org.testng.annotations.Test;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriBuilder;
+
+import java.io.InputStream;
+import java.net.URI;
+
+/**
+ * Tests {@link ImageUploadsResource}.
+ */
+public class ImageUploadsResourceTest extends ResourceTest {
+
+  private String taskId = "task1";
+
+  private String taskRoutePath =
+      UriBuilder.fromPath(TaskResourceRoutes.TASK_PATH).build(taskId).toString();
+
+  private String chunkRoutePath = UriBuilder.fromPath(ImageResourceRoutes.IMAGE_UPLOADS_PATH)
+      .path(ImageResourceRoutes.IMAGE_UPLOAD_CHUNK_ACTION).build(taskId, 3).toString();
+
+  private String commitRoutePath = UriBuilder.fromPath(ImageResourceRoutes.IMAGE_UPLOADS_PATH)
+      .path(ImageResourceRoutes.IMAGE_UPLOAD_COMMIT_ACTION).build(taskId).toString();
+
+  @Mock
+  private ImageFeClient imageFeClient;
+
+  @Override
+  protected void setUpResources() throws Exception {
+    addResource(new ImageUploadsResource(imageFeClient));
+  }
+
+  @Test
+  public void testCreateUpload() throws Throwable {
+    ImageCreateSpec imageCreateSpec = new ImageCreateSpec();
+    imageCreateSpec.setName("image1");
+    imageCreateSpec.setReplicationType(ImageReplicationType.EAGER);
+    when(imageFeClient.createUpload(imageCreateSpec)).thenReturn(createTask());
+
+    Response response = client()
+        .target(ImageResourceRoutes.IMAGE_UPLOADS_PATH)
+        .request()
+        .post(Entity.entity(imageCreateSpec, MediaType.APPLICATION_JSON_TYPE));
+
+    assertThat(response.getStatus(), is(Response.Status.CREATED.getStatusCode()));
+    assertTaskResponse(response);
+  }
+
+  @Test
+  public void testUploadChunk() throws Throwable {
+    byte[] chunk = "chunk data".getBytes();
+    when(imageFeClient.uploadChunk(eq(taskId), eq(3), any(InputStream.class))).thenAnswer(invocation -> {
+      assertThat(ByteStreams.toByteArray((InputStream) invocation.getArguments()[2]), is(chunk));
+      return createTask();
+    });
+
+    Response response = client()
+        .target(chunkRoutePath)
+        .request()
+        .put(Entity.entity(chunk, MediaType.APPLICATION_OCTET_STREAM_TYPE));
+
+    assertThat(response.getStatus(), is(Response.Status.OK.getStatusCode()));
+    assertTaskResponse(response);
+  }
+
+  @Test
+  public void testCommitUpload() throws Throwable {
+    when(imageFeClient.commitUpload(taskId)).thenReturn(createTask());
+
+    Response response = client()
+        .target(commitRoutePath)
+        .request()
+        .post(Entity.entity(null, MediaType.APPLICATION_JSON_TYPE));
+
+    assertThat(response.getStatus(), is(Response.Status.CREATED.getStatusCode()));
+    assertTaskResponse(response);
+  }
+
+  private Task createTask() {
+    Task task = new Task();
+    task.setId(taskId);
+    return task;
+  }
+
+  private void assertTaskResponse(Response response) throws Exception {
+    Task responseTask = response.readEntity(Task.class);
+    assertThat(responseTask, is(createTask()));
+    assertThat(new URI(responseTask.getSelfLink()).isAbsolute(), is(true));
+    assertThat(responseTask.getSelfLink().endsWith(taskRoutePath), is(true));
+  }
+}
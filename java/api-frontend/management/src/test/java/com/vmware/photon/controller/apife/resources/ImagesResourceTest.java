@@ -17,9 +17,11 @@ import com.vmware.photon.controller.api.Image;
 import com.vmware.photon.controller.api.ResourceList;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
 import com.vmware.photon.controller.apife.clients.ImageFeClient;
+import com.vmware.photon.controller.apife.config.PaginationConfig;
 import com.vmware.photon.controller.apife.resources.routes.ImageResourceRoutes;
 import com.vmware.photon.controller.apife.resources.routes.TaskResourceRoutes;
 
+import com.google.common.base.Optional;
 import org.mockito.Mock;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -57,6 +59,8 @@ public class ImagesResourceTest extends ResourceTest {
   @Mock
   private ImageFeClient imageFeClient;
 
+  private PaginationConfig paginationConfig = new PaginationConfig();
+
   @Mock
   private HttpServletRequest httpServletRequest;
 
@@ -69,7 +73,9 @@ public class ImagesResourceTest extends ResourceTest {
   @Override
   protected void setUpResources() throws Exception {
     addProvider(httpServletRequest);
-    addResource(new ImagesResource(imageFeClient));
+    paginationConfig.setDefaultPageSize(10);
+    paginationConfig.setMaxPageSize(100);
+    addResource(new ImagesResource(imageFeClient, paginationConfig));
   }
 
   @BeforeMethod
@@ -87,7 +93,7 @@ public class ImagesResourceTest extends ResourceTest {
 
   @Test
   public void testGetAllImages() throws URISyntaxException, ExternalException {
-    when(imageFeClient.list()).thenReturn(testImageList);
+    when(imageFeClient.list(Optional.of(10))).thenReturn(testImageList);
 
     Response response = client().target(ImageResourceRoutes.API).request().get();
     assertThat(response.getStatus(), is(200));
@@ -24,6 +24,7 @@ import com.vmware.photon.controller.api.Task;
 import com.vmware.photon.controller.apife.backends.DiskBackend;
 import com.vmware.photon.controller.apife.clients.DiskFeClient;
 import com.vmware.photon.controller.apife.commands.tasks.TaskCommandFactory;
+import com.vmware.photon.controller.apife.config.PaginationConfig;
 import com.vmware.photon.controller.apife.entities.PersistentDiskEntity;
 import com.vmware.photon.controller.apife.entities.ProjectEntity;
 import com.vmware.photon.controller.apife.entities.TaskEntity;
@@ -79,6 +80,8 @@ public class ProjectDisksResourceTest extends ResourceTest {
   @Mock
   private DiskFeClient client;
 
+  private PaginationConfig paginationConfig = new PaginationConfig();
+
   @Mock
   private TaskCommandFactory taskCommandFactory;
 
@@ -91,7 +94,9 @@ public class ProjectDisksResourceTest extends ResourceTest {
     spec.setCapacityGb(2);
     spec.setFlavor("good-disk-100");
 
-    addResource(new ProjectDisksResource(client));
+    paginationConfig.setDefaultPageSize(10);
+    paginationConfig.setMaxPageSize(100);
+    addResource(new ProjectDisksResource(client, paginationConfig));
   }
 
   @Test
@@ -248,7 +253,7 @@ public class ProjectDisksResourceTest extends ResourceTest {
     PersistentDisk disk1 = createPersistentDisk("disk1", "disk1name", "core-100", 2, DiskState.DETACHED);
     PersistentDisk disk2 = createPersistentDisk("disk1", "disk1name", "core-200", 2, DiskState.ATTACHED);
 
-    when(client.find(projectId, Optional.<String>absent()))
+    when(client.find(projectId, Optional.<String>absent(), Optional.of(10)))
         .thenReturn(new ResourceList<>(ImmutableList.of(disk1, disk2)));
 
     Response response = getDisks(Optional.<String>absent());
@@ -273,7 +278,7 @@ public class ProjectDisksResourceTest extends ResourceTest {
   public void testProjectDisksByName() throws Exception {
     PersistentDisk disk1 = createPersistentDisk("disk1", "disk1name", "core-100", 3, DiskState.DETACHED);
 
-    when(client.find(projectId, Optional.of("disk1name")))
+    when(client.find(projectId, Optional.of("disk1name"), Optional.of(10)))
         .thenReturn(new ResourceList<>(ImmutableList.of(disk1)));
 
     Response response = getDisks(Optional.of("disk1name"));
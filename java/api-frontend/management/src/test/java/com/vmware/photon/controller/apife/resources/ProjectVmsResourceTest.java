@@ -22,6 +22,7 @@ import com.vmware.photon.controller.api.Vm;
 import com.vmware.photon.controller.api.VmCreateSpec;
 import com.vmware.photon.controller.api.builders.AttachedDiskCreateSpecBuilder;
 import com.vmware.photon.controller.apife.clients.VmFeClient;
+import com.vmware.photon.controller.apife.config.PaginationConfig;
 import com.vmware.photon.controller.apife.exceptions.external.FlavorNotFoundException;
 import com.vmware.photon.controller.apife.resources.routes.ProjectResourceRoutes;
 import com.vmware.photon.controller.apife.resources.routes.TaskResourceRoutes;
@@ -36,6 +37,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.when;
 
 import javax.ws.rs.client.Entity;
@@ -48,6 +50,7 @@ import javax.ws.rs.core.UriBuilder;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Tests {@link ProjectVmsResource}.
@@ -67,6 +70,8 @@ public class ProjectVmsResourceTest extends ResourceTest {
   @Mock
   private VmFeClient vmFeClient;
 
+  private PaginationConfig paginationConfig = new PaginationConfig();
+
   private VmCreateSpec spec;
 
   @Override
@@ -79,7 +84,9 @@ public class ProjectVmsResourceTest extends ResourceTest {
     spec.setAttachedDisks(disks);
     spec.setSourceImageId("x");
 
-    addResource(new ProjectVmsResource(vmFeClient));
+    paginationConfig.setDefaultPageSize(10);
+    paginationConfig.setMaxPageSize(100);
+    addResource(new ProjectVmsResource(vmFeClient, paginationConfig));
   }
 
   @Test(dataProvider = "AffinityKind")
@@ -348,7 +355,7 @@ public class ProjectVmsResourceTest extends ResourceTest {
     vm1.setId("vm2");
     vm1.setName("vm2name");
 
-    when(vmFeClient.find("p1", Optional.<String>absent()))
+    when(vmFeClient.find("p1", Optional.<String>absent(), Optional.of(10)))
         .thenReturn(new ResourceList<>(ImmutableList.of(vm1, vm2)));
 
     ResourceList<Vm> vms = getVms(Optional.<String>absent());
@@ -364,7 +371,7 @@ public class ProjectVmsResourceTest extends ResourceTest {
     vm1.setId("vm1");
     vm1.setName("vm1name");
 
-    when(vmFeClient.find("p1", Optional.of("vm1name")))
+    when(vmFeClient.find("p1", Optional.of("vm1name"), Optional.of(10)))
         .thenReturn(new ResourceList<>(ImmutableList.of(vm1)));
 
     ResourceList<Vm> vms = getVms(Optional.of("vm1name"));
@@ -372,6 +379,69 @@ public class ProjectVmsResourceTest extends ResourceTest {
     assertThat(vms.getItems().get(0), is(vm1));
   }
 
+  @Test
+  public void testGetProjectVmsWithPageSize() throws Exception {
+    Vm vm1 = new Vm();
+    vm1.setId("vm1");
+    vm1.setName("vm1name");
+
+    when(vmFeClient.find("p1", Optional.<String>absent(), Optional.of(5)))
+        .thenReturn(new ResourceList<>(ImmutableList.of(vm1)));
+
+    Response response = client()
+        .target(projectVmsRoutePath)
+        .queryParam("pageSize", 5)
+        .request()
+        .get();
+    assertThat(response.getStatus(), is(200));
+
+    ResourceList<Vm> vms = response.readEntity(new GenericType<ResourceList<Vm>>() {
+    });
+    assertThat(vms.getItems().size(), is(1));
+    assertThat(vms.getItems().get(0), is(vm1));
+  }
+
+  @Test
+  public void testGetProjectVmsPage() throws Exception {
+    Vm vm1 = new Vm();
+    vm1.setId("vm1");
+    vm1.setName("vm1name");
+
+    ResourceList<Vm> expectedVmsPage = new ResourceList<>(ImmutableList.of(vm1),
+        UUID.randomUUID().toString(), UUID.randomUUID().toString());
+    when(vmFeClient.getVmsPage(anyString())).thenReturn(expectedVmsPage);
+
+    Response response = client()
+        .target(projectVmsRoutePath)
+        .queryParam("pageLink", UUID.randomUUID().toString())
+        .request()
+        .get();
+    assertThat(response.getStatus(), is(200));
+
+    ResourceList<Vm> vms = response.readEntity(new GenericType<ResourceList<Vm>>() {
+    });
+    assertThat(vms.getItems().size(), is(1));
+    assertThat(vms.getItems().get(0), is(vm1));
+
+    String expectedPrefix = projectVmsRoutePath + "?pageLink=";
+    assertThat(vms.getNextPageLink().startsWith(expectedPrefix), is(true));
+    assertThat(vms.getPreviousPageLink().startsWith(expectedPrefix), is(true));
+  }
+
+  @Test
+  public void testInvalidPageSize() {
+    Response response = client()
+        .target(projectVmsRoutePath)
+        .queryParam("pageSize", 200)
+        .request()
+        .get();
+    assertThat(response.getStatus(), is(400));
+
+    ApiError errors = response.readEntity(ApiError.class);
+    assertThat(errors.getCode(), is("InvalidPageSize"));
+    assertThat(errors.getMessage(), is("The page size '200' is not between '1' and '100'"));
+  }
+
   private Response createVm() {
     return client()
         .target(projectVmsRoutePath)
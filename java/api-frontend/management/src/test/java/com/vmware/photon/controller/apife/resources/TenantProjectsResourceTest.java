@@ -22,6 +22,7 @@ import com.vmware.photon.controller.api.ResourceTicketReservation;
 import com.vmware.photon.controller.api.Task;
 import com.vmware.photon.controller.api.common.exceptions.external.ExternalException;
 import com.vmware.photon.controller.apife.clients.ProjectFeClient;
+import com.vmware.photon.controller.apife.config.PaginationConfig;
 import com.vmware.photon.controller.apife.resources.routes.ProjectResourceRoutes;
 import com.vmware.photon.controller.apife.resources.routes.TaskResourceRoutes;
 import com.vmware.photon.controller.apife.resources.routes.TenantResourceRoutes;
@@ -64,12 +65,16 @@ public class TenantProjectsResourceTest extends ResourceTest {
   @Mock
   private ProjectFeClient projectFeClient;
 
+  private PaginationConfig paginationConfig = new PaginationConfig();
+
   private ProjectCreateSpec spec;
   private ResourceTicketReservation ticket;
 
   @Override
   protected void setUpResources() throws Exception {
-    addResource(new TenantProjectsResource(projectFeClient));
+    paginationConfig.setDefaultPageSize(10);
+    paginationConfig.setMaxPageSize(100);
+    addResource(new TenantProjectsResource(projectFeClient, paginationConfig));
 
     ticket = new ResourceTicketReservation();
     ticket.setName("rt1name");
@@ -142,7 +147,7 @@ public class TenantProjectsResourceTest extends ResourceTest {
     p2.setName("p2name");
     p2.setId("p2");
 
-    when(projectFeClient.find(tenantId, Optional.<String>absent()))
+    when(projectFeClient.find(tenantId, Optional.<String>absent(), Optional.of(10)))
         .thenReturn(new ResourceList<>(ImmutableList.of(p1, p2)));
 
     Response response = getProjects(Optional.<String>absent());
@@ -174,7 +179,7 @@ public class TenantProjectsResourceTest extends ResourceTest {
     p1.setName("p1name");
     p1.setId("p1");
 
-    when(projectFeClient.find(tenantId, Optional.of("p1name")))
+    when(projectFeClient.find(tenantId, Optional.of("p1name"), Optional.of(10)))
         .thenReturn(new ResourceList<>(ImmutableList.of(p1)));
 
     Response response = getProjects(Optional.of("p1name"));
@@ -25,6 +25,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 
@@ -47,6 +48,10 @@ public class SystemStatus {
   @NotNull
   private StatusType status;
 
+  @JsonProperty
+  @ApiModelProperty(value = "Time at which the statuses were collected")
+  private Date lastUpdatedTime;
+
   public SystemStatus() {
   }
 
@@ -66,6 +71,14 @@ public class SystemStatus {
     this.status = status;
   }
 
+  public Date getLastUpdatedTime() {
+    return lastUpdatedTime;
+  }
+
+  public void setLastUpdatedTime(Date lastUpdatedTime) {
+    this.lastUpdatedTime = lastUpdatedTime;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -77,12 +90,14 @@ public class SystemStatus {
 
     SystemStatus other = (SystemStatus) o;
 
-    return Objects.equals(status, other.status) && Objects.equals(components, other.components);
+    return Objects.equals(status, other.status) &&
+        Objects.equals(components, other.components) &&
+        Objects.equals(lastUpdatedTime, other.lastUpdatedTime);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(status, components);
+    return Objects.hash(status, components, lastUpdatedTime);
   }
 
   @Override
@@ -90,6 +105,7 @@ public class SystemStatus {
     return com.google.common.base.Objects.toStringHelper(this)
         .add("status", status)
         .add("components", components)
+        .add("lastUpdatedTime", lastUpdatedTime)
         .toString();
   }
 }
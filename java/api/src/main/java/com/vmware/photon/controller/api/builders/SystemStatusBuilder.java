@@ -17,6 +17,7 @@ import com.vmware.photon.controller.api.ComponentStatus;
 import com.vmware.photon.controller.api.SystemStatus;
 import com.vmware.photon.controller.status.gen.StatusType;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -28,6 +29,8 @@ public class SystemStatusBuilder {
 
   private StatusType status;
 
+  private Date lastUpdatedTime;
+
   public SystemStatusBuilder status(StatusType status) {
     this.status = status;
     return this;
@@ -38,10 +41,16 @@ public class SystemStatusBuilder {
     return this;
   }
 
+  public SystemStatusBuilder lastUpdatedTime(Date lastUpdatedTime) {
+    this.lastUpdatedTime = lastUpdatedTime;
+    return this;
+  }
+
   public SystemStatus build() {
     SystemStatus status = new SystemStatus();
     status.setComponents(this.components);
     status.setStatus(this.status);
+    status.setLastUpdatedTime(this.lastUpdatedTime);
     return status;
   }
 }
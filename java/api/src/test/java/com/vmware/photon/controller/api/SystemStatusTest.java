@@ -156,7 +156,8 @@ public class SystemStatusTest {
               "component=deployer, instances=[ComponentInstance{status=READY, message=null, stats=null, " +
               "address=127.0.0.5, buildInfo=null}, ComponentInstance{status=READY, message=null, stats=null, " +
               "address=127.0.0.6, buildInfo=version 0.0.1}, ComponentInstance{status=INITIALIZING, " +
-              "message=In progress, stats={k=v}, address=127.0.0.7, buildInfo=null}], buildInfo=version 0.0.1}]}"
+              "message=In progress, stats={k=v}, address=127.0.0.7, buildInfo=null}], buildInfo=version 0.0.1}], " +
+              "lastUpdatedTime=null}"
       ;
       SystemStatus systemStatus = createSystemStatus();
       assertThat(systemStatus.toString(), is(expectedString));
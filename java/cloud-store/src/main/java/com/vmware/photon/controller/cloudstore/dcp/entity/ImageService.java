@@ -191,6 +191,17 @@ public class ImageService extends StatefulService {
     @DefaultInteger(value = 0)
     public Integer replicatedDatastore;
 
+    /**
+     * SHA-256 digest of the uploaded image file.
+     */
+    public String contentDigest;
+
+    /**
+     * Id of the image whose files on the datastores hold the content of this image. It is the id of this image
+     * unless an image with the same content had already been uploaded.
+     */
+    public String contentImageId;
+
     /**
      * Data object for additional image configuration settings.
      */
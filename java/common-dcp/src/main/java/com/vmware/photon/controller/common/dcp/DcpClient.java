@@ -49,12 +49,26 @@ public interface DcpClient {
   Operation get(URI documentServiceUri)
       throws BadRequestException, DocumentNotFoundException, TimeoutException, InterruptedException;
 
+  /**
+   * Posts all documents to the factory in parallel. Per-document failures are not raised, the completed operations
+   * are returned keyed by the documentSelfLink of each posted document so that callers can inspect the status codes.
+   */
+  Map<String, Operation> postAll(String serviceSelfLink, Collection<? extends ServiceDocument> bodies)
+      throws TimeoutException, InterruptedException;
+
   Operation postToBroadcastQueryService(QueryTask.QuerySpecification spec)
       throws BadRequestException, DocumentNotFoundException, TimeoutException, InterruptedException;
 
   Operation delete(String documentSelfLink, ServiceDocument body)
       throws BadRequestException, DocumentNotFoundException, TimeoutException, InterruptedException;
 
+  /**
+   * Deletes all documents in parallel. Per-document failures are not raised, the completed operations are returned
+   * keyed by documentSelfLink so that callers can inspect the status codes.
+   */
+  Map<String, Operation> deleteAll(Collection<String> documentSelfLinks)
+      throws TimeoutException, InterruptedException;
+
   Operation patch(String serviceSelfLink, ServiceDocument body)
       throws BadRequestException, DocumentNotFoundException, TimeoutException, InterruptedException;
 
@@ -68,6 +82,11 @@ public interface DcpClient {
                                                      ImmutableMap<String, String> terms)
       throws BadRequestException, DocumentNotFoundException, TimeoutException, InterruptedException;
 
+  <T extends ServiceDocument> List<T> queryDocuments(Class<T> documentType,
+                                                     String fieldName,
+                                                     Collection<String> values)
+      throws BadRequestException, DocumentNotFoundException, TimeoutException, InterruptedException;
+
   <T extends ServiceDocument> ServiceDocumentQueryResult queryDocuments(Class<T> documentType,
                                                                         ImmutableMap<String, String> terms,
                                                                         Optional<Integer> pageSize,
@@ -18,6 +18,8 @@ import com.vmware.photon.controller.common.dcp.exceptions.DcpRuntimeException;
 import com.vmware.photon.controller.common.dcp.exceptions.DocumentNotFoundException;
 import com.vmware.photon.controller.common.logging.LoggingUtils;
 import com.vmware.photon.controller.common.thrift.ServerSet;
+import com.vmware.photon.controller.common.tracing.Span;
+import com.vmware.photon.controller.common.tracing.Tracer;
 import com.vmware.xenon.common.Operation;
 import com.vmware.xenon.common.OperationJoin;
 import com.vmware.xenon.common.ServiceDocument;
@@ -33,6 +35,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,10 +46,12 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -72,6 +77,7 @@ public class DcpRestClient implements DcpClient {
   private long patchOperationExpirationMicros = PATCH_OPERATION_EXPIRATION_MICROS;
   private static final long DEFAULT_OPERATION_LATCH_TIMEOUT_MICROS = TimeUnit.SECONDS.toMicros(90);
   private static final long SERVICE_DOCUMENT_STATUS_CHECK_INTERVAL_MILLIS = 100L;
+  private static final int MAX_QUERY_VALUES = 512;
   private long serviceDocumentStatusCheckIntervalMillis = SERVICE_DOCUMENT_STATUS_CHECK_INTERVAL_MILLIS;
   private static final Logger logger = LoggerFactory.getLogger(DcpRestClient.class);
   private NettyHttpServiceClient client;
@@ -125,6 +131,32 @@ public class DcpRestClient implements DcpClient {
     return send(postOperation);
   }
 
+  @Override
+  public Map<String, Operation> postAll(String serviceSelfLink, Collection<? extends ServiceDocument> bodies)
+      throws TimeoutException, InterruptedException {
+    checkArgument(!bodies.isEmpty(), "bodies collection cannot be empty");
+    URI serviceUri = getServiceUri(serviceSelfLink);
+
+    Map<Long, Operation> operations = new HashMap<>(bodies.size());
+    Map<Long, String> sourceLinks = new HashMap<>(bodies.size());
+    for (ServiceDocument body : bodies) {
+      checkNotNull(body.documentSelfLink, "documentSelfLink must be set on every posted document");
+
+      Operation postOperation = Operation
+          .createPost(serviceUri)
+          .setUri(serviceUri)
+          .setExpiration(Utils.getNowMicrosUtc() + getPostOperationExpirationMicros())
+          .setBody(body)
+          .setReferer(this.localHostUri)
+          .setContextId(LoggingUtils.getRequestId());
+
+      operations.put(postOperation.getId(), postOperation);
+      sourceLinks.put(postOperation.getId(), body.documentSelfLink);
+    }
+
+    return sendAll(operations, sourceLinks);
+  }
+
   @Override
   public Operation get(String documentSelfLink)
       throws BadRequestException, DocumentNotFoundException, TimeoutException, InterruptedException {
@@ -206,6 +238,32 @@ public class DcpRestClient implements DcpClient {
     return send(deleteOperation);
   }
 
+  @Override
+  public Map<String, Operation> deleteAll(Collection<String> documentSelfLinks)
+      throws TimeoutException, InterruptedException {
+    checkArgument(!documentSelfLinks.isEmpty(), "documentSelfLinks collection cannot be empty");
+
+    Map<Long, Operation> operations = new HashMap<>(documentSelfLinks.size());
+    Map<Long, String> sourceLinks = new HashMap<>(documentSelfLinks.size());
+    for (String documentSelfLink : documentSelfLinks) {
+      URI serviceUri = getServiceUri(documentSelfLink);
+
+      Operation deleteOperation = Operation
+          .createDelete(serviceUri)
+          .setUri(serviceUri)
+          .addPragmaDirective(Operation.PRAGMA_DIRECTIVE_NO_QUEUING)
+          .setExpiration(Utils.getNowMicrosUtc() + getDeleteOperationExpirationMicros())
+          .setReferer(this.localHostUri)
+          .setContextId(LoggingUtils.getRequestId())
+          .setBody(new ServiceDocument());
+
+      operations.put(deleteOperation.getId(), deleteOperation);
+      sourceLinks.put(deleteOperation.getId(), documentSelfLink);
+    }
+
+    return sendAll(operations, sourceLinks);
+  }
+
   @Override
   public Operation postToBroadcastQueryService(QueryTask.QuerySpecification spec)
       throws BadRequestException, DocumentNotFoundException, TimeoutException, InterruptedException {
@@ -293,6 +351,38 @@ public class DcpRestClient implements DcpClient {
     return QueryTaskUtils.getBroadcastQueryDocuments(documentType, result);
   }
 
+  /**
+   * Executes a DCP query which will query for documents of type T whose field matches any of the given values.
+   * The values are split into several queries of at most MAX_QUERY_VALUES values each, to stay below the
+   * clause limit of the Lucene index.
+   * This also expands the content of the resulting documents.
+   *
+   * @param documentType
+   * @param fieldName
+   * @param values
+   * @param <T>
+   * @return
+   * @throws BadRequestException, DocumentNotFoundException, TimeoutException, InterruptedException
+   */
+  @Override
+  public <T extends ServiceDocument> List<T> queryDocuments(Class<T> documentType,
+                                                            String fieldName,
+                                                            Collection<String> values)
+      throws BadRequestException, DocumentNotFoundException, TimeoutException, InterruptedException {
+    checkNotNull(documentType, "Cannot query documents with null documentType");
+    checkNotNull(values, "Cannot query documents with null values");
+
+    List<T> documents = new ArrayList<>();
+    for (List<String> batch : Iterables.partition(new LinkedHashSet<>(values), MAX_QUERY_VALUES)) {
+      QueryTask.QuerySpecification spec = QueryTaskUtils.buildQuerySpec(documentType, fieldName, batch);
+      spec.options = EnumSet.of(QueryTask.QuerySpecification.QueryOption.EXPAND_CONTENT);
+      Operation result = postToBroadcastQueryService(spec);
+      documents.addAll(QueryTaskUtils.getBroadcastQueryDocuments(documentType, result));
+    }
+
+    return documents;
+  }
+
   /**
    * Executes a DCP query which queries for documents of type T.
    * The query terms are optional.
@@ -499,17 +589,22 @@ public class DcpRestClient implements DcpClient {
     logger.info("send: STARTED {}", createLogMessageWithBody(requestedOperation));
     OperationLatch operationLatch = createOperationLatch(requestedOperation);
 
+    Span span = Tracer.startSpan(requestedOperation.getAction() + " " + requestedOperation.getUri().getPath())
+        .tag("contextId", requestedOperation.getContextId());
     client.send(requestedOperation);
 
     Operation completedOperation = null;
     try {
       completedOperation = operationLatch.awaitOperationCompletion(DEFAULT_OPERATION_LATCH_TIMEOUT_MICROS);
       logCompletedOperation(completedOperation);
+      span.tag("statusCode", String.valueOf(completedOperation.getStatusCode()));
       handleOperationResult(requestedOperation, completedOperation);
     } catch (TimeoutException timeoutException) {
       handleTimeoutException(requestedOperation, timeoutException);
     } catch (InterruptedException interruptedException) {
       handleInterruptedException(requestedOperation, interruptedException);
+    } finally {
+      span.finish();
     }
     //this maybe null due to client side exceptions caught above.
     return completedOperation;
@@ -546,6 +641,36 @@ public class DcpRestClient implements DcpClient {
     return result;
   }
 
+  /**
+   * Sends all operations at once and waits for them to complete without checking their status codes.
+   */
+  @VisibleForTesting
+  protected Map<String, Operation> sendAll(Map<Long, Operation> requestedOperations, Map<Long, String> sourceLinks)
+      throws TimeoutException, InterruptedException {
+    logger.info("send: STARTED {}", createLogMessageWithBody(requestedOperations.values()));
+    OperationJoin operationJoin = OperationJoin.create(requestedOperations.values());
+    OperationJoinLatch operationJoinLatch = createOperationJoinLatch(operationJoin);
+    operationJoin.sendWith(client, requestedOperations.size());
+
+    Map<String, Operation> result = null;
+
+    try {
+      operationJoinLatch.await(DEFAULT_OPERATION_LATCH_TIMEOUT_MICROS, TimeUnit.MICROSECONDS);
+      Collection<Operation> completedOperations = operationJoin.getOperations();
+      logCompletedOperations(completedOperations);
+      result = new HashMap<>(completedOperations.size());
+      for (Operation operation : completedOperations) {
+        result.put(sourceLinks.get(operation.getId()), operation);
+      }
+    } catch (TimeoutException timeoutException) {
+      handleTimeoutException(operationJoin, timeoutException);
+    } catch (InterruptedException interruptedException) {
+      handleInterruptedException(operationJoin, interruptedException);
+    }
+
+    return result;
+  }
+
   @VisibleForTesting
   protected long getPostOperationExpirationMicros() {
     return postOperationExpirationMicros;
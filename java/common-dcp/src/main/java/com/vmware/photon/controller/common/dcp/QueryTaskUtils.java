@@ -286,6 +286,40 @@ public class QueryTaskUtils {
     return spec;
   }
 
+  /**
+   * Builds a QueryTask.QuerySpecification which will query for documents of type T
+   * whose field matches any of the given values.
+   *
+   * @param documentType
+   * @param fieldName
+   * @param values
+   * @return
+   */
+  public static QueryTask.QuerySpecification buildQuerySpec(
+      Class documentType, String fieldName, Collection<String> values) {
+    checkNotNull(documentType, "Cannot build query spec for unspecified documentType");
+    checkNotNull(fieldName, "Cannot build query spec for unspecified fieldName");
+    checkArgument(values != null && !values.isEmpty(), "Cannot build query spec for empty values");
+
+    QueryTask.Query valuesClause;
+    if (values.size() == 1) {
+      valuesClause = new QueryTask.Query()
+          .setTermPropertyName(fieldName)
+          .setTermMatchValue(values.iterator().next());
+    } else {
+      valuesClause = new QueryTask.Query();
+      for (String value : values) {
+        QueryTask.Query valueClause = new QueryTask.Query()
+            .setTermPropertyName(fieldName)
+            .setTermMatchValue(value);
+        valueClause.occurance = QueryTask.Query.Occurance.SHOULD_OCCUR;
+        valuesClause.addBooleanClause(valueClause);
+      }
+    }
+
+    return buildQuerySpec(documentType, valuesClause);
+  }
+
   /**
    * Builds a QueryTask.QuerySpecification instance using the passed in arguments.
    *
@@ -16,6 +16,7 @@ package com.vmware.photon.controller.common.clients;
 import com.vmware.photon.controller.agent.gen.ProvisionRequest;
 import com.vmware.photon.controller.agent.gen.ProvisionResponse;
 import com.vmware.photon.controller.common.clients.exceptions.*;
+import com.vmware.photon.controller.common.thrift.CircuitBreakerOptions;
 import com.vmware.photon.controller.common.thrift.ClientPool;
 import com.vmware.photon.controller.common.thrift.ClientPoolFactory;
 import com.vmware.photon.controller.common.thrift.ClientPoolOptions;
@@ -102,6 +103,9 @@ import com.vmware.photon.controller.scheduler.gen.PlaceResponse;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.Inject;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.thrift.TException;
@@ -123,6 +127,8 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Host Client Facade that hides the zookeeper/async interactions.
+ * Every agent RPC is exposed with a callback, as a blocking call, and as a future-returning call
+ * (suffixed with Async) that lets callers chain or fan out agent calls without holding a thread.
  * Note that this class is not thread safe.
  */
 @RpcClient
@@ -132,7 +138,8 @@ public class HostClient {
       .setMaxClients(1)
       .setMaxWaiters(100)
       .setTimeout(30, TimeUnit.SECONDS)
-      .setServiceName("Host");
+      .setServiceName("Host")
+      .setCircuitBreakerOptions(new CircuitBreakerOptions());
   private static final int DEFAULT_PORT_NUMBER = 8835;
   private static final int MAX_RESERVED_PORT_NUMBER = 1023;
 
@@ -287,6 +294,24 @@ public class HostClient {
     return ResponseValidator.checkAttachDisksResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to attach one or more disks to a VM. The response
+   * is validated before the returned future completes.
+   *
+   * @param vmId    Supplies the ID of the VM to which the disk should be attached.
+   * @param diskIds Supplies the IDs of the disk or disks which should be attached.
+   * @return A future completed with the validated VmDisksOpResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<VmDisksOpResponse> attachDisksAsync(String vmId, List<String> diskIds)
+      throws RpcException {
+    ResponseFuture<VmDisksOpResponse, Host.AsyncClient.attach_disks_call> future =
+        new ResponseFuture<>(ResponseValidator::checkAttachDisksResponse);
+    attachDisks(vmId, diskIds, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to a to attach an ISO to
    * a VM. On completion, the specified handler is invoked.
@@ -336,6 +361,24 @@ public class HostClient {
     return ResponseValidator.checkAttachISOResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to attach an ISO to a VM. The response is validated
+   * before the returned future completes.
+   *
+   * @param vmId    Supplies the ID of the VM to which the ISO should be attached.
+   * @param isoPath Supplies the path to the ISO file which should be attached.
+   * @return A future completed with the validated AttachISOResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<AttachISOResponse> attachISOAsync(String vmId, String isoPath)
+      throws RpcException {
+    ResponseFuture<AttachISOResponse, Host.AsyncClient.attach_iso_call> future =
+        new ResponseFuture<>(ResponseValidator::checkAttachISOResponse);
+    attachISOtoVM(vmId, isoPath, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to copy an image from one
    * data store to another. On completion, the specified handler is invoked.
@@ -387,6 +430,25 @@ public class HostClient {
     return ResponseValidator.checkCopyImageResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to copy an image from one data store to another.
+   * The response is validated before the returned future completes.
+   *
+   * @param imageId     Supplies the ID of an image.
+   * @param source      Supplies the source data store for the copy operation.
+   * @param destination Supplies the destination data store for the copy operation.
+   * @return A future completed with the validated CopyImageResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<CopyImageResponse> copyImageAsync(String imageId, String source, String destination)
+      throws RpcException {
+    ResponseFuture<CopyImageResponse, Host.AsyncClient.copy_image_call> future =
+        new ResponseFuture<>(ResponseValidator::checkCopyImageResponse);
+    copyImage(imageId, source, destination, future);
+    return future;
+  }
+
 
   /**
    * This method performs an asynchronous Thrift call to copy an image from one
@@ -442,6 +504,27 @@ public class HostClient {
     return ResponseValidator.checkTransferImageResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to copy an image from one host to another. The
+   * response is validated before the returned future completes.
+   *
+   * @param imageId         Supplies the ID of an image.
+   * @param source          Supplies the source data store for the copy operation.
+   * @param destination     Supplies the destination data store for the copy operation.
+   * @param destinationHost Supplies the destination host.
+   * @return A future completed with the validated TransferImageResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<TransferImageResponse> transferImageAsync(String imageId, String source, String destination,
+      ServerAddress destinationHost)
+      throws RpcException {
+    ResponseFuture<TransferImageResponse, Host.AsyncClient.copy_image_call> future =
+        new ResponseFuture<>(ResponseValidator::checkTransferImageResponse);
+    transferImage(imageId, source, destination, destinationHost, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to create a disk. On
    * completion, the specified handler is invoked.
@@ -487,6 +570,23 @@ public class HostClient {
     return ResponseValidator.checkCreateDisksResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to create a disk. The response is validated before
+   * the returned future completes.
+   *
+   * @param reservation Supplies a disk reservation.
+   * @return A future completed with the validated CreateDisksResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<CreateDisksResponse> createDisksAsync(String reservation)
+      throws RpcException {
+    ResponseFuture<CreateDisksResponse, Host.AsyncClient.create_disks_call> future =
+        new ResponseFuture<>(ResponseValidator::checkCreateDisksResponse);
+    createDisks(reservation, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to create a VM. On
    * completion, the specified handler is invoked.
@@ -543,6 +643,27 @@ public class HostClient {
     return ResponseValidator.checkCreateVmResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to create a VM. The response is validated before
+   * the returned future completes.
+   *
+   * @param reservation           Supplies a VM reservation.
+   * @param networkConnectionSpec Supplies the specification of network connections.
+   * @param environment           Supplies extra environment settings for the VM.
+   * @return A future completed with the validated CreateVmResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<CreateVmResponse> createVmAsync(String reservation,
+      NetworkConnectionSpec networkConnectionSpec,
+      Map<String, String> environment)
+      throws RpcException {
+    ResponseFuture<CreateVmResponse, Host.AsyncClient.create_vm_call> future =
+        new ResponseFuture<>(ResponseValidator::checkCreateVmResponse);
+    createVm(reservation, networkConnectionSpec, environment, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to delete one or more
    * disks. On completion, the specified handler is invoked.
@@ -587,6 +708,23 @@ public class HostClient {
     return ResponseValidator.checkDeleteDisksResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to delete one or more disks. The response is
+   * validated before the returned future completes.
+   *
+   * @param diskIds Supplies a list of disk IDs.
+   * @return A future completed with the validated DeleteDisksResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<DeleteDisksResponse> deleteDisksAsync(List<String> diskIds)
+      throws RpcException {
+    ResponseFuture<DeleteDisksResponse, Host.AsyncClient.delete_disks_call> future =
+        new ResponseFuture<>(ResponseValidator::checkDeleteDisksResponse);
+    deleteDisks(diskIds, future);
+    return future;
+  }
+
   /**
    * This method performs an synchronous Thrift call to create an image by moving the image
    * file from tmp path. On completion, the specified handler is invoked.
@@ -606,6 +744,25 @@ public class HostClient {
     return ResponseValidator.checkCreateImageResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to create an image by moving the image file from
+   * tmp path. The response is validated before the returned future completes.
+   *
+   * @param imageId      Supplies the ID of an image to be created.
+   * @param datastore    Supplies the data store on which the image exists.
+   * @param tmpImagePath Supplies the temporary path of the image to move from.
+   * @return A future completed with the validated CreateImageResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<CreateImageResponse> createImageAsync(String imageId, String datastore, String tmpImagePath)
+      throws RpcException {
+    ResponseFuture<CreateImageResponse, Host.AsyncClient.delete_vm_call> future =
+        new ResponseFuture<>(ResponseValidator::checkCreateImageResponse);
+    createImage(imageId, datastore, tmpImagePath, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to create an image by moving the image
    * file from tmp path. On completion, the specified handler is invoked.
@@ -701,6 +858,25 @@ public class HostClient {
     return ResponseValidator.checkDeleteImageResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to delete an image. The response is validated
+   * before the returned future completes.
+   *
+   * @param imageId      Supplies the ID of an image to be deleted.
+   * @param dataStore    Supplies the data store on which the image exists.
+   * @param setTombstone Supplies whether the image is a tombstone.
+   * @return A future completed with the validated DeleteImageResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<DeleteImageResponse> deleteImageAsync(String imageId, String dataStore, boolean setTombstone)
+      throws RpcException {
+    ResponseFuture<DeleteImageResponse, Host.AsyncClient.delete_image_call> future =
+        new ResponseFuture<>(ResponseValidator::checkDeleteImageResponse);
+    deleteImage(imageId, dataStore, setTombstone, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to start an image scan on a datastore.
    *
@@ -733,6 +909,25 @@ public class HostClient {
     }
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to start an image scan on a datastore. The response
+   * is validated before the returned future completes.
+   *
+   * @param dataStore Supplies the data store to scan.
+   * @param scanRate  Supplies the scan rate, or null for the agent default.
+   * @param timeout   Supplies the scan timeout, or null for the agent default.
+   * @return A future completed with the validated StartImageScanResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<StartImageScanResponse> startImageScanAsync(String dataStore, Long scanRate, Long timeout)
+      throws RpcException {
+    ResponseFuture<StartImageScanResponse, Host.AsyncClient.start_image_scan_call> future =
+        new ResponseFuture<>(ResponseValidator::checkStartImageScanResponse);
+    startImageScan(dataStore, scanRate, timeout, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to retrieve the list of inactive images on a datastore.
    *
@@ -757,6 +952,23 @@ public class HostClient {
     }
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to retrieve the list of inactive images on a
+   * datastore. The response is validated before the returned future completes.
+   *
+   * @param dataStore Supplies the data store that was scanned.
+   * @return A future completed with the validated GetInactiveImagesResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<GetInactiveImagesResponse> getInactiveImagesAsync(String dataStore)
+      throws RpcException {
+    ResponseFuture<GetInactiveImagesResponse, Host.AsyncClient.get_inactive_images_call> future =
+        new ResponseFuture<>(ResponseValidator::checkGetInactiveImagesResponse);
+    getInactiveImages(dataStore, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to start an image scan on a datastore.
    *
@@ -791,6 +1003,28 @@ public class HostClient {
     }
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to start an image sweep on a datastore. The
+   * response is validated before the returned future completes.
+   *
+   * @param dataStore Supplies the data store to sweep.
+   * @param images    Supplies the inactive images to delete.
+   * @param sweepRate Supplies the sweep rate, or null for the agent default.
+   * @param timeout   Supplies the sweep timeout, or null for the agent default.
+   * @return A future completed with the validated StartImageSweepResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<StartImageSweepResponse> startImageSweepAsync(
+      String dataStore, List<InactiveImageDescriptor> images,
+      Long sweepRate, Long timeout)
+      throws RpcException {
+    ResponseFuture<StartImageSweepResponse, Host.AsyncClient.start_image_sweep_call> future =
+        new ResponseFuture<>(ResponseValidator::checkStartImageSweepResponse);
+    startImageSweep(dataStore, images, sweepRate, timeout, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to retrieve the list of deleted images on a datastore.
    *
@@ -815,6 +1049,23 @@ public class HostClient {
     }
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to retrieve the list of deleted images on a
+   * datastore. The response is validated before the returned future completes.
+   *
+   * @param dataStore Supplies the data store that was swept.
+   * @return A future completed with the validated GetDeletedImagesResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<GetDeletedImagesResponse> getDeletedImagesAsync(String dataStore)
+      throws RpcException {
+    ResponseFuture<GetDeletedImagesResponse, Host.AsyncClient.get_deleted_images_call> future =
+        new ResponseFuture<>(ResponseValidator::checkGetDeletedImagesResponse);
+    getDeletedImages(dataStore, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to create an image from vm.
    * On completion, the specified handler is invoked.
@@ -873,6 +1124,27 @@ public class HostClient {
     return ResponseValidator.checkCreateImageResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to create an image from vm. The response is
+   * validated before the returned future completes.
+   *
+   * @param vmId         Supplies the ID of the source VM.
+   * @param imageId      Supplies the ID of an image to be created.
+   * @param datastore    Supplies the data store on which the image is created.
+   * @param tmpImagePath Supplies the temporary path of the image.
+   * @return A future completed with the validated CreateImageFromVmResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<CreateImageFromVmResponse> createImageFromVmAsync(
+      String vmId, String imageId, String datastore, String tmpImagePath)
+      throws InterruptedException, RpcException {
+    ResponseFuture<CreateImageFromVmResponse, Host.AsyncClient.create_image_from_vm_call> future =
+        new ResponseFuture<>(ResponseValidator::checkCreateImageResponse);
+    createImageFromVm(vmId, imageId, datastore, tmpImagePath, future);
+    return future;
+  }
+
   /**
    * This method performs a synchronous Thrift call to create a directory.
    *
@@ -891,6 +1163,24 @@ public class HostClient {
     return ResponseValidator.checkCreateDirectoryResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to create a directory. The response is validated
+   * before the returned future completes.
+   *
+   * @param directoryPath Supplies the path of the directory to be created.
+   * @param dataStore     Supplies the data store on which the directory exists.
+   * @return A future completed with the validated CreateDirectoryResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<CreateDirectoryResponse> createDirectoryAsync(String directoryPath, String dataStore)
+      throws RpcException {
+    ResponseFuture<CreateDirectoryResponse, Host.AsyncClient.create_directory_call> future =
+        new ResponseFuture<>(ResponseValidator::checkCreateDirectoryResponse);
+    createDirectory(directoryPath, dataStore, future);
+    return future;
+  }
+
   /**
    * This method performs a asynchronous Thrift call to create a directory. On
    * completion, the specified handler is invoked.
@@ -934,6 +1224,24 @@ public class HostClient {
     return ResponseValidator.checkDeleteDirectoryResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to delete a directory. The response is validated
+   * before the returned future completes.
+   *
+   * @param directoryPath Supplies the path of the directory to be deleted.
+   * @param dataStore     Supplies the data store on which the directory exists.
+   * @return A future completed with the validated DeleteDirectoryResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<DeleteDirectoryResponse> deleteDirectoryAsync(String directoryPath, String dataStore)
+      throws RpcException {
+    ResponseFuture<DeleteDirectoryResponse, Host.AsyncClient.delete_directory_call> future =
+        new ResponseFuture<>(ResponseValidator::checkDeleteDirectoryResponse);
+    deleteDirectory(directoryPath, dataStore, future);
+    return future;
+  }
+
   /**
    * This method performs a asynchronous Thrift call to delete a directory. On
    * completion, the specified handler is invoked.
@@ -1008,6 +1316,24 @@ public class HostClient {
     return ResponseValidator.checkDeleteVmResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to delete a VM. The response is validated before
+   * the returned future completes.
+   *
+   * @param vmId            Supplies the ID of a VM to be deleted.
+   * @param diskIdsToDetach Supplies the ID of one or more disks to be detached as part of the operation.
+   * @return A future completed with the validated DeleteVmResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<DeleteVmResponse> deleteVmAsync(String vmId, List<String> diskIdsToDetach)
+      throws RpcException {
+    ResponseFuture<DeleteVmResponse, Host.AsyncClient.delete_vm_call> future =
+        new ResponseFuture<>(ResponseValidator::checkDeleteVmResponse);
+    deleteVm(vmId, diskIdsToDetach, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to detach one or more
    * disks from a VM. On completion, the specified handler is invoked.
@@ -1058,6 +1384,24 @@ public class HostClient {
     return ResponseValidator.checkDetachDisksResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to detach one or more disks from a VM. The response
+   * is validated before the returned future completes.
+   *
+   * @param vmId    Supplies the ID of the VM from which the disks should be detached.
+   * @param diskIds Supplies the IDs of the disk or disks which should be detached.
+   * @return A future completed with the validated VmDisksOpResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<VmDisksOpResponse> detachDisksAsync(String vmId, List<String> diskIds)
+      throws RpcException {
+    ResponseFuture<VmDisksOpResponse, Host.AsyncClient.detach_disks_call> future =
+        new ResponseFuture<>(ResponseValidator::checkDetachDisksResponse);
+    detachDisks(vmId, diskIds, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to detach an ISO from a
    * VM. On completion, the specified handler is invoked.
@@ -1108,6 +1452,24 @@ public class HostClient {
     return ResponseValidator.checkDetachISOResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to detach an ISO from a VM. The response is
+   * validated before the returned future completes.
+   *
+   * @param vmId         Supplies the ID of the VM from which the ISO should be detached.
+   * @param isDeleteFile Supplies whether the ISO file should be deleted.
+   * @return A future completed with the validated DetachISOResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<DetachISOResponse> detachISOAsync(String vmId, boolean isDeleteFile)
+      throws RpcException {
+    ResponseFuture<DetachISOResponse, Host.AsyncClient.detach_iso_call> future =
+        new ResponseFuture<>(ResponseValidator::checkDetachISOResponse);
+    detachISO(vmId, isDeleteFile, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to locate a disk. On
    * completion, the specified handler is invoked.
@@ -1155,6 +1517,24 @@ public class HostClient {
     return ResponseValidator.checkFindDiskResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to find a disk. The response is validated before
+   * the returned future completes.
+   *
+   * @param diskId Supplies the ID of the disk.
+   * @return A future completed with the validated result.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<Boolean> findDiskAsync(String diskId)
+      throws RpcException {
+    ResponseFuture<FindResponse, Host.AsyncClient.find_call> future =
+        new ResponseFuture<>(response -> response);
+    findDisk(diskId, future);
+    return Futures.transform(future, (AsyncFunction<FindResponse, Boolean>) response ->
+        Futures.immediateFuture(ResponseValidator.checkFindDiskResponse(response)));
+  }
+
   /**
    * This method performs an asynchronous Thrift call to locate a VM. On
    * completion, the specified handler is invoked.
@@ -1201,6 +1581,24 @@ public class HostClient {
     return ResponseValidator.checkFindVmResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to find a VM. The response is validated before the
+   * returned future completes.
+   *
+   * @param vmId Supplies the ID of the VM.
+   * @return A future completed with the validated result.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<Boolean> findVmAsync(String vmId)
+      throws RpcException {
+    ResponseFuture<FindResponse, Host.AsyncClient.find_call> future =
+        new ResponseFuture<>(response -> response);
+    findVm(vmId, future);
+    return Futures.transform(future, (AsyncFunction<FindResponse, Boolean>) response ->
+        Futures.immediateFuture(ResponseValidator.checkFindVmResponse(response)));
+  }
+
   /**
    * This method performs an asynchronous Thrift call to get the configuration
    * state for a host. On completion, the specified handler is invoked.
@@ -1241,6 +1639,22 @@ public class HostClient {
     return ResponseValidator.checkGetConfigResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to get the host configuration. The response is
+   * validated before the returned future completes.
+   *
+   * @return A future completed with the validated GetConfigResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<GetConfigResponse> getHostConfigAsync()
+      throws RpcException {
+    ResponseFuture<GetConfigResponse, Host.AsyncClient.get_host_config_call> future =
+        new ResponseFuture<>(ResponseValidator::checkGetConfigResponse);
+    getHostConfig(future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to get the status
    * for a agent provisioned host. On completion, the specified handler
@@ -1281,6 +1695,22 @@ public class HostClient {
     return ResponseValidator.checkAgentStatusResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to get the agent status. The response is validated
+   * before the returned future completes.
+   *
+   * @return A future completed with the validated AgentStatusResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<AgentStatusResponse> getAgentStatusAsync()
+      throws RpcException {
+    ResponseFuture<AgentStatusResponse, Host.AsyncClient.get_agent_status_call> future =
+        new ResponseFuture<>(ResponseValidator::checkAgentStatusResponse);
+    getAgentStatus(future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to get the state of an
    * image. On completion, the specified handler is invoked.
@@ -1326,6 +1756,24 @@ public class HostClient {
     return ResponseValidator.checkImageInfoResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to get information about an image. The response is
+   * validated before the returned future completes.
+   *
+   * @param imageId     Supplies the ID of an image.
+   * @param dataStoreId Supplies the ID of the data store on which the image exists.
+   * @return A future completed with the validated ImageInfoResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<ImageInfoResponse> getImageInfoAsync(String imageId, String dataStoreId)
+      throws RpcException {
+    ResponseFuture<ImageInfoResponse, Host.AsyncClient.get_image_info_call> future =
+        new ResponseFuture<>(ResponseValidator::checkImageInfoResponse);
+    getImageInfo(imageId, dataStoreId, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to get the images on a
    * data store. On completion, the specified handler is invoked.
@@ -1369,6 +1817,23 @@ public class HostClient {
     return ResponseValidator.checkGetImagesResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to list the images on a data store. The response is
+   * validated before the returned future completes.
+   *
+   * @param dataStoreId Supplies the ID of a data store.
+   * @return A future completed with the validated GetImagesResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<GetImagesResponse> getImagesAsync(String dataStoreId)
+      throws RpcException {
+    ResponseFuture<GetImagesResponse, Host.AsyncClient.get_images_call> future =
+        new ResponseFuture<>(ResponseValidator::checkGetImagesResponse);
+    getImages(dataStoreId, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to get an NFC ticket for
    * an ESX host. On completion, the specified handler is invoked.
@@ -1415,6 +1880,23 @@ public class HostClient {
     return ResponseValidator.checkGetNfcServiceTicketResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to get an NFC service ticket. The response is
+   * validated before the returned future completes.
+   *
+   * @param dataStore Supplies the name of the data store the ticket is for.
+   * @return A future completed with the validated ServiceTicketResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<ServiceTicketResponse> getNfcServiceTicketAsync(String dataStore)
+      throws RpcException {
+    ResponseFuture<ServiceTicketResponse, Host.AsyncClient.get_service_ticket_call> future =
+        new ResponseFuture<>(ResponseValidator::checkGetNfcServiceTicketResponse);
+    getNfcServiceTicket(dataStore, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to get the networks for a
    * VM. On completion, the specified handler is invoked.
@@ -1475,6 +1957,23 @@ public class HostClient {
     return ResponseValidator.checkGetVmNetworkResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to get the networks of a VM. The response is
+   * validated before the returned future completes.
+   *
+   * @param vmId Supplies the ID of a VM.
+   * @return A future completed with the validated GetVmNetworkResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<GetVmNetworkResponse> getVmNetworksAsync(String vmId)
+      throws RpcException {
+    ResponseFuture<GetVmNetworkResponse, Host.AsyncClient.get_vm_networks_call> future =
+        new ResponseFuture<>(ResponseValidator::checkGetVmNetworkResponse);
+    getVmNetworks(vmId, future);
+    return future;
+  }
+
   @RpcMethod
   public MksTicketResponse getVmMksTicket(String vmId)
       throws InterruptedException, RpcException {
@@ -1485,6 +1984,23 @@ public class HostClient {
     return ResponseValidator.checkGetMksTicketResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to get an MKS ticket for a VM. The response is
+   * validated before the returned future completes.
+   *
+   * @param vmId Supplies the ID of a VM.
+   * @return A future completed with the validated MksTicketResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<MksTicketResponse> getVmMksTicketAsync(String vmId)
+      throws RpcException {
+    ResponseFuture<MksTicketResponse, Host.AsyncClient.get_mks_ticket_call> future =
+        new ResponseFuture<>(ResponseValidator::checkGetMksTicketResponse);
+    getVmMksTicket(vmId, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to place a resource on a
    * host. On completion, the specified handler is invoked.
@@ -1529,6 +2045,23 @@ public class HostClient {
     return ResponseValidator.checkPlaceResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to place a resource. The response is validated
+   * before the returned future completes.
+   *
+   * @param resource Supplies the resource to be placed.
+   * @return A future completed with the validated PlaceResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<PlaceResponse> placeAsync(Resource resource)
+      throws RpcException {
+    ResponseFuture<PlaceResponse, Host.AsyncClient.place_call> future =
+        new ResponseFuture<>(ResponseValidator::checkPlaceResponse);
+    place(resource, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to perform a power state
    * operation on a VM. On completion, the specified handler is invoked.
@@ -1575,6 +2108,24 @@ public class HostClient {
     return ResponseValidator.checkPowerVmOpResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to perform a power operation on a VM. The response
+   * is validated before the returned future completes.
+   *
+   * @param vmId Supplies the ID of a VM.
+   * @param op   Supplies the power operation.
+   * @return A future completed with the validated PowerVmOpResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<PowerVmOpResponse> powerVmOpAsync(String vmId, PowerVmOp op)
+      throws RpcException {
+    ResponseFuture<PowerVmOpResponse, Host.AsyncClient.power_vm_op_call> future =
+        new ResponseFuture<>(ResponseValidator::checkPowerVmOpResponse);
+    powerVmOp(vmId, op, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to provision an agent. On
    * completion, the specified handler is invoked.
@@ -1690,6 +2241,37 @@ public class HostClient {
     return ResponseValidator.checkProvisionResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to provision an agent. The response is validated
+   * before the returned future completes.
+   *
+   * @return A future completed with the validated ProvisionResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<ProvisionResponse> provisionAsync(String availabilityZone,
+      List<String> dataStoreList,
+      Set<String> imageDataStores,
+      boolean usedForVMs,
+      List<String> networkList,
+      String hostAddress,
+      int hostPort,
+      List<String> chairmanServerList,
+      double memoryOverCommit,
+      String loggingEndpoint,
+      String logLevel,
+      boolean managementOnly,
+      String hostId,
+      String ntpEndpoint)
+      throws RpcException {
+    ResponseFuture<ProvisionResponse, Host.AsyncClient.provision_call> future =
+        new ResponseFuture<>(ResponseValidator::checkProvisionResponse);
+    provision(availabilityZone, dataStoreList, imageDataStores, usedForVMs, networkList, hostAddress, hostPort,
+        chairmanServerList, memoryOverCommit, loggingEndpoint, logLevel, managementOnly, hostId,
+        ntpEndpoint, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to reserve space for a
    * resource on a host. On completion, the specified handler is invoked.
@@ -1744,6 +2326,24 @@ public class HostClient {
     return ResponseValidator.checkReserveResponse(syncHandler.getResponse());
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to reserve a resource. The response is validated
+   * before the returned future completes.
+   *
+   * @param resource   Supplies the resource to be reserved.
+   * @param generation Supplies the expected resource generation, or null.
+   * @return A future completed with the validated ReserveResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<ReserveResponse> reserveAsync(Resource resource, Integer generation)
+      throws RpcException {
+    ResponseFuture<ReserveResponse, Host.AsyncClient.reserve_call> future =
+        new ResponseFuture<>(ResponseValidator::checkReserveResponse);
+    reserve(resource, generation, future);
+    return future;
+  }
+
   /**
    * This method performs an asynchronous Thrift call to set an agent's mode.
    *
@@ -1765,6 +2365,23 @@ public class HostClient {
     }
   }
 
+  /**
+   * This method performs an asynchronous Thrift call to set an agent's mode. The response is validated
+   * before the returned future completes.
+   *
+   * @param hostMode Supplies the mode
+   * @return A future completed with the validated SetHostModeResponse object.
+   * @throws RpcException
+   */
+  @RpcMethod
+  public ListenableFuture<SetHostModeResponse> setHostModeAsync(HostMode hostMode)
+      throws RpcException {
+    ResponseFuture<SetHostModeResponse, Host.AsyncClient.set_host_mode_call> future =
+        new ResponseFuture<>(ResponseValidator::checkSetHostModeResponse);
+    setHostMode(hostMode, future);
+    return future;
+  }
+
   public void close() {
     clientProxy = null;
 
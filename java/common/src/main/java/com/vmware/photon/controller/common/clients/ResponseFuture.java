@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.common.clients;
+
+import com.vmware.photon.controller.common.clients.exceptions.CircuitOpenException;
+import com.vmware.photon.controller.common.clients.exceptions.RpcException;
+import com.vmware.photon.controller.common.thrift.CircuitBreakerOpenException;
+
+import com.google.common.util.concurrent.AbstractFuture;
+import org.apache.thrift.async.AsyncMethodCallback;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Future completed by a Thrift async call. The response is checked by a validator before the future
+ * is set, so the future fails with the same {@link RpcException} the synchronous call would throw.
+ * <p/>
+ * Listeners added with a same-thread executor run on the Thrift selector thread and must not block.
+ *
+ * @param <T> response type
+ * @param <C> call type
+ */
+public class ResponseFuture<T, C> extends AbstractFuture<T> implements AsyncMethodCallback<C> {
+
+  private final Validator<T> validator;
+
+  public ResponseFuture(Validator<T> validator) {
+    this.validator = validator;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void onComplete(C call) {
+    T response;
+    try {
+      Method getResultMethod = call.getClass().getMethod("getResult");
+      response = (T) getResultMethod.invoke(call);
+    } catch (InvocationTargetException e) {
+      setException(toRpcException(e.getCause()));
+      return;
+    } catch (Throwable t) {
+      setException(toRpcException(t));
+      return;
+    }
+
+    try {
+      set(validator.check(response));
+    } catch (Throwable t) {
+      setException(t);
+    }
+  }
+
+  @Override
+  public void onError(Exception e) {
+    setException(toRpcException(e));
+  }
+
+  private static RpcException toRpcException(Throwable t) {
+    if (t instanceof RpcException) {
+      return (RpcException) t;
+    }
+
+    if (t instanceof CircuitBreakerOpenException) {
+      return new CircuitOpenException(t);
+    }
+
+    return new RpcException(t, t.getMessage());
+  }
+
+  /**
+   * Checks a response, throwing if it reflects an operation failure.
+   *
+   * @param <T> response type
+   */
+  public interface Validator<T> {
+    T check(T response) throws RpcException;
+  }
+}
@@ -13,7 +13,9 @@
 
 package com.vmware.photon.controller.common.clients;
 
+import com.vmware.photon.controller.common.clients.exceptions.CircuitOpenException;
 import com.vmware.photon.controller.common.clients.exceptions.RpcException;
+import com.vmware.photon.controller.common.thrift.CircuitBreakerOpenException;
 
 /**
  * Wrapper for the common SyncHandler.
@@ -27,6 +29,8 @@ public class SyncHandler<T, C> extends com.vmware.photon.controller.common.thrif
   public T getResponse() throws RpcException {
     try {
       return (T) super.getResponse();
+    } catch (CircuitBreakerOpenException e) {
+      throw new CircuitOpenException(e);
     } catch (Throwable t) {
       throw new RpcException(t.getMessage());
     }
@@ -21,12 +21,18 @@ import org.slf4j.MDC;
 public class LoggingUtils {
   public static final String REQUEST_ID_KEY = "requestId";
   public static final String REQUEST_KEY = "request";
+  public static final String SPAN_ID_KEY = "spanId";
+  public static final String TRACE_SAMPLED_KEY = "traceSampled";
 
   public static String getRequestId() {
     return MDC.get(REQUEST_ID_KEY);
   }
 
   public static void setRequestId(String requestId) {
+    if (requestId == null || !requestId.equals(getRequestId())) {
+      // A different request starts a different trace.
+      clearTracingContext();
+    }
     MDC.put(REQUEST_KEY, formatRequestIdLogSection(requestId));
     MDC.put(REQUEST_ID_KEY, requestId);
   }
@@ -38,5 +44,11 @@ public class LoggingUtils {
   public static void clearRequestId() {
     MDC.remove(REQUEST_KEY);
     MDC.remove(REQUEST_ID_KEY);
+    clearTracingContext();
+  }
+
+  private static void clearTracingContext() {
+    MDC.remove(SPAN_ID_KEY);
+    MDC.remove(TRACE_SAMPLED_KEY);
   }
 }
@@ -47,7 +47,7 @@ public class RpcMetricInterceptor implements MethodInterceptor {
     Stopwatch stopwatch = Stopwatch.createStarted();
     String methodName = invocation.getMethod().getName();
     try {
-      logger.info("Starting call to {}", methodName);
+      logger.debug("Starting call to {}", methodName);
       return invocation.proceed();
     } catch (Throwable t) {
       exceptions.mark();
@@ -55,7 +55,7 @@ public class RpcMetricInterceptor implements MethodInterceptor {
       throw t;
     } finally {
       duration.update(stopwatch.elapsed(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
-      logger.info("Finished call to {}", methodName);
+      logger.debug("Finished call to {}", methodName);
     }
   }
 }
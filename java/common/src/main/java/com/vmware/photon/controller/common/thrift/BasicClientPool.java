@@ -31,9 +31,11 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
@@ -56,11 +58,15 @@ public class BasicClientPool<C extends TAsyncClient> implements ClientPool<C> {
   private final TAsyncClientFactory<C> clientFactory;
   private final TProtocolFactory protocolFactory;
   private final ThriftFactory thriftFactory;
+  private final CircuitBreakerRegistry circuitBreakerRegistry;
   private final ScheduledExecutorService scheduledExecutor;
   private final ClientPoolOptions options;
   private final InetSocketAddress[] availableServers;
   private final Map<C, TNonblockingTransport> clientTransportMap;
+  private final Map<C, InetSocketAddress> clientAddressMap;
+  private final Map<C, Long> acquiredTimes;
   private final Queue<Promise<C>> promises;
+  private final ClientPoolMetrics metrics;
   private boolean closed;
 
   @Inject
@@ -68,6 +74,7 @@ public class BasicClientPool<C extends TAsyncClient> implements ClientPool<C> {
                          TAsyncClientFactory<C> clientFactory,
                          TProtocolFactory protocolFactory,
                          ThriftFactory thriftFactory,
+                         CircuitBreakerRegistry circuitBreakerRegistry,
                          @ClientPoolTimer ScheduledExecutorService scheduledExecutor,
                          @Assisted Set<InetSocketAddress> servers,
                          @Assisted ClientPoolOptions options) {
@@ -75,11 +82,15 @@ public class BasicClientPool<C extends TAsyncClient> implements ClientPool<C> {
     this.clientFactory = clientFactory;
     this.protocolFactory = protocolFactory;
     this.thriftFactory = thriftFactory;
+    this.circuitBreakerRegistry = circuitBreakerRegistry;
     this.scheduledExecutor = scheduledExecutor;
     this.options = new ClientPoolOptions(options);
     this.clientTransportMap = new HashMap<>();
+    this.clientAddressMap = new HashMap<>();
+    this.acquiredTimes = new HashMap<>();
     this.availableServers = servers.toArray(new InetSocketAddress[servers.size()]);
     this.promises = new LinkedList<>();
+    this.metrics = new ClientPoolMetrics(options.getServiceName());
     this.closed = false;
   }
 
@@ -93,9 +104,11 @@ public class BasicClientPool<C extends TAsyncClient> implements ClientPool<C> {
       if (options.getTimeoutMs() > 0 && !future.isDone()) {
         setTimeout(promise);
       }
+      updateMetrics();
       return future;
     }
 
+    metrics.markAcquireFailure();
     return Futures.immediateFailedFuture(new ClientPoolException("Too many waiters"));
   }
 
@@ -121,7 +134,10 @@ public class BasicClientPool<C extends TAsyncClient> implements ClientPool<C> {
     }
 
     clientTransportMap.clear();
+    clientAddressMap.clear();
+    acquiredTimes.clear();
     closed = true;
+    metrics.close();
   }
 
   @Override
@@ -133,9 +149,16 @@ public class BasicClientPool<C extends TAsyncClient> implements ClientPool<C> {
     } else {
       TNonblockingTransport transport = clientTransportMap.remove(client);
       transport.close();
+      InetSocketAddress address = clientAddressMap.remove(client);
+      if (address != null) {
+        recordCallOutcome(address, healthy, acquiredTimes.remove(client));
+      }
     }
 
     processPromises();
+    if (!closed) {
+      updateMetrics();
+    }
   }
 
   @Override
@@ -164,22 +187,40 @@ public class BasicClientPool<C extends TAsyncClient> implements ClientPool<C> {
 
       logger.debug("process promise");
       if (!canCreateClient()) {
-        logger.info("{}, client pool {}, not creating new client, request is queued until a client is available: " +
+        logger.debug("{}, client pool {}, not creating new client, request is queued until a client is available: " +
                 "client(s) in use {}, request(s) waiting {}, server count {}",
             options.getServiceName(), System.identityHashCode(this), clientTransportMap.size(),
             promises.size(), availableServers.length);
         return;
       }
 
+      List<InetSocketAddress> servers = getPermittedServers();
+      if (servers.isEmpty()) {
+        // Every server has an open circuit breaker, fail fast instead of waiting for the acquire timeout.
+        logger.warn("{}, client pool {}, circuit breakers are open for all servers, failing request",
+            options.getServiceName(), System.identityHashCode(this));
+        promises.remove().setException(new CircuitBreakerOpenException(availableServers[0]));
+        metrics.markAcquireFailure();
+        continue;
+      }
+
       try {
-        C client = createNewClient();
+        C client = createNewClient(servers);
+        if (client == null) {
+          continue;
+        }
+
         logger.debug("{}, client pool {}, set promise with client {}",
             options.getServiceName(), System.identityHashCode(this), client);
-        promises.remove().set(client);
+        Promise<C> fulfilled = promises.remove();
+        if (fulfilled.set(client)) {
+          metrics.recordAcquire(fulfilled.getCreatedAtNanos());
+        }
         return;
       } catch (IOException ex) {
         logger.error("createNewClient has IOException", ex);
         promises.remove().setException(ex);
+        metrics.markAcquireFailure();
         break;
       }
     }
@@ -190,7 +231,9 @@ public class BasicClientPool<C extends TAsyncClient> implements ClientPool<C> {
       @Override
       public Void call() {
         synchronized (BasicClientPool.this) {
-          promise.setException(new ClientPoolException("Timeout acquiring client"));
+          if (promise.setException(new ClientPoolException("Timeout acquiring client"))) {
+            metrics.markAcquireFailure();
+          }
         }
         return VOID;
       }
@@ -202,16 +245,49 @@ public class BasicClientPool<C extends TAsyncClient> implements ClientPool<C> {
     return clientTransportMap.size() < options.getMaxClients() && availableServers.length > 0;
   }
 
-  private C createNewClient() throws IOException {
+  private C createNewClient(List<InetSocketAddress> servers) throws IOException {
     logger.debug("start createNewClient");
-    int randomIndex = random.nextInt(availableServers.length);
-    InetSocketAddress address = availableServers[randomIndex];
-    C client = ClientPoolUtils.createNewClient(address, this.protocolFactory,
-        this.options, this.thriftFactory, this.clientFactory, this.clientTransportMap);
+    int randomIndex = random.nextInt(servers.size());
+    InetSocketAddress address = servers.get(randomIndex);
+    if (!ClientPoolUtils.allowRequest(circuitBreakerRegistry, options, address)) {
+      return null;
+    }
+
+    C client;
+    try {
+      client = ClientPoolUtils.createNewClient(address, this.protocolFactory,
+          this.options, this.thriftFactory, this.clientFactory, this.clientTransportMap);
+    } catch (IOException ex) {
+      recordCallOutcome(address, false, null);
+      throw ex;
+    }
+
+    metrics.markClientCreated();
+    clientAddressMap.put(client, address);
+    acquiredTimes.put(client, System.nanoTime());
     logger.debug("createNewClient return client {}", client);
     return client;
   }
 
+  private List<InetSocketAddress> getPermittedServers() {
+    List<InetSocketAddress> servers = new ArrayList<>(availableServers.length);
+    for (InetSocketAddress server : availableServers) {
+      if (!ClientPoolUtils.isCallRejected(circuitBreakerRegistry, options, server)) {
+        servers.add(server);
+      }
+    }
+    return servers;
+  }
+
+  private void recordCallOutcome(InetSocketAddress address, boolean healthy, Long acquiredAtNanos) {
+    ClientPoolUtils.recordCallOutcome(circuitBreakerRegistry, options, address, healthy, acquiredAtNanos);
+    metrics.recordCall(address, healthy, acquiredAtNanos);
+  }
+
+  private void updateMetrics() {
+    metrics.update(clientTransportMap.size(), 0, promises.size());
+  }
+
   private long getPromiseTimeoutMs() {
     return options.getTimeoutMs() * Math.max(1, promises.size());
   }
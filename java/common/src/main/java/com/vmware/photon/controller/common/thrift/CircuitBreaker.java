@@ -0,0 +1,209 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.common.thrift;
+
+import com.google.common.base.Ticker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the outcome of recent calls to a single server and short-circuits calls to it
+ * once the failure rate gets too high.
+ * <p/>
+ * The breaker starts CLOSED and records every call outcome in a fixed size window. When the failure
+ * rate in the window reaches the configured threshold the breaker goes OPEN and rejects calls. After
+ * the open duration elapses a single trial call is let through (HALF_OPEN); its outcome either closes
+ * the breaker again or re-opens it.
+ * <p/>
+ * It is thread-safe.
+ */
+public class CircuitBreaker {
+
+  private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+  /**
+   * Circuit breaker state.
+   */
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final InetSocketAddress address;
+  private final CircuitBreakerOptions options;
+  private final Ticker ticker;
+  private final boolean[] window;
+  private int windowIndex;
+  private int recordedCalls;
+  private int failedCalls;
+  private State state;
+  private long openedAtNanos;  // also marks the start of the HALF_OPEN trial call
+  private boolean trialInFlight;
+
+  public CircuitBreaker(InetSocketAddress address, CircuitBreakerOptions options) {
+    this(address, options, Ticker.systemTicker());
+  }
+
+  CircuitBreaker(InetSocketAddress address, CircuitBreakerOptions options, Ticker ticker) {
+    this.address = address;
+    this.options = new CircuitBreakerOptions(options);
+    this.ticker = ticker;
+    this.window = new boolean[Math.max(1, options.getWindowSize())];
+    this.state = State.CLOSED;
+  }
+
+  public InetSocketAddress getAddress() {
+    return address;
+  }
+
+  /**
+   * Returns the current state, moving an expired OPEN breaker to HALF_OPEN.
+   *
+   * @return breaker state
+   */
+  public synchronized State getState() {
+    if (state == State.OPEN && openDurationElapsed()) {
+      transitionTo(State.HALF_OPEN);
+    } else if (state == State.HALF_OPEN && trialInFlight && openDurationElapsed()) {
+      // The trial call never reported back, let another one through.
+      trialInFlight = false;
+    }
+    return state;
+  }
+
+  /**
+   * Returns true iff a call would be rejected right now. Unlike {@link #allowRequest()} it does not
+   * claim the HALF_OPEN trial call, so it can be used to filter candidate servers.
+   *
+   * @return true if calls are currently short-circuited
+   */
+  public synchronized boolean isCallRejected() {
+    switch (getState()) {
+      case OPEN:
+        return true;
+      case HALF_OPEN:
+        return trialInFlight;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Checks whether a call is permitted. In HALF_OPEN state only one trial call is permitted
+   * until its outcome is recorded.
+   *
+   * @return true if the caller may proceed with the call
+   */
+  public synchronized boolean allowRequest() {
+    switch (getState()) {
+      case OPEN:
+        return false;
+      case HALF_OPEN:
+        if (trialInFlight) {
+          return false;
+        }
+        trialInFlight = true;
+        openedAtNanos = ticker.read();
+        return true;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Records a successful call.
+   *
+   * @param latencyMs call latency, compared against the slow call threshold
+   */
+  public synchronized void recordSuccess(long latencyMs) {
+    long slowCallThresholdMs = options.getSlowCallThresholdMs();
+    if (slowCallThresholdMs > 0 && latencyMs >= slowCallThresholdMs) {
+      logger.debug("Call to {} took {} ms, counting it as a failure", address, latencyMs);
+      record(true);
+    } else {
+      record(false);
+    }
+  }
+
+  /**
+   * Records a failed call.
+   */
+  public synchronized void recordFailure() {
+    record(true);
+  }
+
+  private void record(boolean failed) {
+    switch (getState()) {
+      case OPEN:
+        // Outcome of a call that was started before the breaker opened.
+        return;
+      case HALF_OPEN:
+        trialInFlight = false;
+        if (failed) {
+          transitionTo(State.OPEN);
+        } else {
+          transitionTo(State.CLOSED);
+        }
+        return;
+      default:
+        break;
+    }
+
+    if (recordedCalls == window.length) {
+      if (window[windowIndex]) {
+        failedCalls--;
+      }
+    } else {
+      recordedCalls++;
+    }
+
+    window[windowIndex] = failed;
+    if (failed) {
+      failedCalls++;
+    }
+    windowIndex = (windowIndex + 1) % window.length;
+
+    if (recordedCalls >= options.getMinimumCalls() &&
+        failedCalls >= options.getFailureRateThreshold() * recordedCalls) {
+      transitionTo(State.OPEN);
+    }
+  }
+
+  private boolean openDurationElapsed() {
+    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(ticker.read() - openedAtNanos);
+    return elapsedMs >= options.getOpenDurationMs();
+  }
+
+  private void transitionTo(State newState) {
+    logger.info("Circuit breaker for {} changing state from {} to {}, failed calls {}/{}",
+        address, state, newState, failedCalls, recordedCalls);
+    state = newState;
+    switch (newState) {
+      case OPEN:
+        openedAtNanos = ticker.read();
+        break;
+      case CLOSED:
+        windowIndex = 0;
+        recordedCalls = 0;
+        failedCalls = 0;
+        break;
+      default:
+        break;
+    }
+  }
+}
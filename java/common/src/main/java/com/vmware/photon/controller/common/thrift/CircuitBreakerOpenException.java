@@ -0,0 +1,33 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.common.thrift;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Gets thrown by {@link ClientPool} when every server it can use has an open {@link CircuitBreaker}.
+ */
+public class CircuitBreakerOpenException extends ClientPoolException {
+
+  private final InetSocketAddress address;
+
+  public CircuitBreakerOpenException(InetSocketAddress address) {
+    super(String.format("Circuit breaker is open for %s", address));
+    this.address = address;
+  }
+
+  public InetSocketAddress getAddress() {
+    return address;
+  }
+}
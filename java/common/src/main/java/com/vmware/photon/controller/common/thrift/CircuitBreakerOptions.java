@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.common.thrift;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker options (failure thresholds, open state duration).
+ */
+public class CircuitBreakerOptions {
+
+  private int windowSize = 20;
+  private int minimumCalls = 5;
+  private double failureRateThreshold = 0.5;
+  private long openDurationMs = TimeUnit.SECONDS.toMillis(30);
+  private long slowCallThresholdMs = 0;
+
+  public CircuitBreakerOptions() {
+  }
+
+  public CircuitBreakerOptions(CircuitBreakerOptions other) {
+    this.windowSize = other.windowSize;
+    this.minimumCalls = other.minimumCalls;
+    this.failureRateThreshold = other.failureRateThreshold;
+    this.openDurationMs = other.openDurationMs;
+    this.slowCallThresholdMs = other.slowCallThresholdMs;
+  }
+
+  /**
+   * Number of most recent calls used to compute the failure rate.
+   */
+  public int getWindowSize() {
+    return windowSize;
+  }
+
+  public CircuitBreakerOptions setWindowSize(int windowSize) {
+    this.windowSize = windowSize;
+    return this;
+  }
+
+  /**
+   * Number of calls that must be recorded before the breaker is allowed to open.
+   */
+  public int getMinimumCalls() {
+    return minimumCalls;
+  }
+
+  public CircuitBreakerOptions setMinimumCalls(int minimumCalls) {
+    this.minimumCalls = minimumCalls;
+    return this;
+  }
+
+  public double getFailureRateThreshold() {
+    return failureRateThreshold;
+  }
+
+  public CircuitBreakerOptions setFailureRateThreshold(double failureRateThreshold) {
+    this.failureRateThreshold = failureRateThreshold;
+    return this;
+  }
+
+  public long getOpenDurationMs() {
+    return openDurationMs;
+  }
+
+  public CircuitBreakerOptions setOpenDuration(long duration, TimeUnit timeUnit) {
+    this.openDurationMs = timeUnit.toMillis(duration);
+    return this;
+  }
+
+  /**
+   * Calls slower than this threshold count as failures. Zero disables latency tracking.
+   */
+  public long getSlowCallThresholdMs() {
+    return slowCallThresholdMs;
+  }
+
+  public CircuitBreakerOptions setSlowCallThreshold(long duration, TimeUnit timeUnit) {
+    this.slowCallThresholdMs = timeUnit.toMillis(duration);
+    return this;
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.common.thrift;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process wide registry of {@link CircuitBreaker}s, one per server address. Client pools record call
+ * outcomes here, and components that pick hosts (e.g. root scheduler) read it to skip servers
+ * that are currently failing.
+ */
+@Singleton
+public class CircuitBreakerRegistry {
+
+  private final ConcurrentMap<InetSocketAddress, CircuitBreaker> circuitBreakers;
+
+  @Inject
+  public CircuitBreakerRegistry() {
+    this.circuitBreakers = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns the circuit breaker for an address, creating it with the given options if it doesn't exist yet.
+   *
+   * @param address server address
+   * @param options options used if a new breaker gets created
+   * @return circuit breaker
+   */
+  public CircuitBreaker getCircuitBreaker(InetSocketAddress address, CircuitBreakerOptions options) {
+    CircuitBreaker circuitBreaker = circuitBreakers.get(address);
+    if (circuitBreaker == null) {
+      circuitBreakers.putIfAbsent(address, new CircuitBreaker(address, options));
+      circuitBreaker = circuitBreakers.get(address);
+    }
+    return circuitBreaker;
+  }
+
+  /**
+   * Returns the state of the breaker for an address, CLOSED if no call to it was ever tracked.
+   *
+   * @param address server address
+   * @return circuit breaker state
+   */
+  public CircuitBreaker.State getState(InetSocketAddress address) {
+    CircuitBreaker circuitBreaker = circuitBreakers.get(address);
+    return circuitBreaker == null ? CircuitBreaker.State.CLOSED : circuitBreaker.getState();
+  }
+
+  /**
+   * Returns true iff calls to the address are currently short-circuited.
+   *
+   * @param address server address
+   * @return true if the breaker for the address rejects calls
+   */
+  public boolean isCallRejected(InetSocketAddress address) {
+    CircuitBreaker circuitBreaker = circuitBreakers.get(address);
+    return circuitBreaker != null && circuitBreaker.isCallRejected();
+  }
+
+  /**
+   * Returns the addresses whose breakers are not CLOSED.
+   *
+   * @return set of addresses
+   */
+  public Set<InetSocketAddress> getUnhealthyAddresses() {
+    Set<InetSocketAddress> addresses = new HashSet<>();
+    for (Map.Entry<InetSocketAddress, CircuitBreaker> entry : circuitBreakers.entrySet()) {
+      if (entry.getValue().getState() != CircuitBreaker.State.CLOSED) {
+        addresses.add(entry.getKey());
+      }
+    }
+    return addresses;
+  }
+
+  /**
+   * Returns a snapshot of all the tracked breaker states.
+   *
+   * @return map from address to breaker state
+   */
+  public Map<InetSocketAddress, CircuitBreaker.State> getStates() {
+    ImmutableMap.Builder<InetSocketAddress, CircuitBreaker.State> builder = ImmutableMap.builder();
+    for (Map.Entry<InetSocketAddress, CircuitBreaker> entry : circuitBreakers.entrySet()) {
+      builder.put(entry.getKey(), entry.getValue().getState());
+    }
+    return builder.build();
+  }
+}
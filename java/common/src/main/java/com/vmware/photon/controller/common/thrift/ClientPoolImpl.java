@@ -33,6 +33,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -59,14 +60,17 @@ class ClientPoolImpl<C extends TAsyncClient> implements ClientPool<C>, ServerSet
   private final TAsyncClientFactory<C> clientFactory;
   private final TProtocolFactory protocolFactory;
   private final ThriftFactory thriftFactory;
+  private final CircuitBreakerRegistry circuitBreakerRegistry;
   private final ScheduledExecutorService scheduledExecutor;
   private final ServerSet serverSet;
   private final ClientPoolOptions options;
   private final ListMultimap<InetSocketAddress, C> availableClients;
   private final Map<C, InetSocketAddress> acquiredClients;
+  private final Map<C, Long> acquiredTimes;
   private final Set<InetSocketAddress> availableServers;
   private final Map<C, TNonblockingTransport> clientTransportMap;
   private final Queue<Promise<C>> promises;
+  private final ClientPoolMetrics metrics;
   private boolean closed;
 
   @Inject
@@ -74,6 +78,7 @@ class ClientPoolImpl<C extends TAsyncClient> implements ClientPool<C>, ServerSet
                         TAsyncClientFactory<C> clientFactory,
                         TProtocolFactory protocolFactory,
                         ThriftFactory thriftFactory,
+                        CircuitBreakerRegistry circuitBreakerRegistry,
                         @ClientPoolTimer ScheduledExecutorService scheduledExecutor,
                         @Assisted ServerSet serverSet,
                         @Assisted ClientPoolOptions options) {
@@ -81,14 +86,17 @@ class ClientPoolImpl<C extends TAsyncClient> implements ClientPool<C>, ServerSet
     this.clientFactory = clientFactory;
     this.protocolFactory = protocolFactory;
     this.thriftFactory = thriftFactory;
+    this.circuitBreakerRegistry = circuitBreakerRegistry;
     this.scheduledExecutor = scheduledExecutor;
     this.serverSet = serverSet;
     this.options = new ClientPoolOptions(options);
     this.availableClients = ArrayListMultimap.create();
     this.acquiredClients = new HashMap<>();
+    this.acquiredTimes = new HashMap<>();
     this.availableServers = new HashSet<>();
     this.clientTransportMap = new HashMap<>();
     this.promises = new LinkedList<>();
+    this.metrics = new ClientPoolMetrics(options.getServiceName());
     this.closed = false;
 
     // Must be last since it can start firing events immediately
@@ -104,9 +112,11 @@ class ClientPoolImpl<C extends TAsyncClient> implements ClientPool<C>, ServerSet
         availableClients.put(address, createNewClient(address));
       } catch (IOException ex) {
         logger.error("Error occurred when createNewClient for {}", address);
+        recordCallOutcome(address, false, null);
       }
     }
     processPromises();
+    updateMetrics();
   }
 
   public synchronized void onServerRemoved(InetSocketAddress address) {
@@ -116,6 +126,7 @@ class ClientPoolImpl<C extends TAsyncClient> implements ClientPool<C>, ServerSet
     for (C client : clients) {
       removeClient(client);
     }
+    updateMetrics();
   }
 
   @Override
@@ -125,14 +136,15 @@ class ClientPoolImpl<C extends TAsyncClient> implements ClientPool<C>, ServerSet
       Promise<C> promise = new Promise<>(future);
       promises.add(promise);
       processPromises();
-      logger.info("options.getTimeoutMs() is {}", options.getTimeoutMs());
       if (options.getTimeoutMs() > 0 && !future.isDone()) {
         setTimeout(promise);
       }
-      logger.info("{} Promise processed {}", options.getServiceName(), promise);
+      logger.debug("{} Promise processed {}", options.getServiceName(), promise);
+      updateMetrics();
       return future;
     }
 
+    metrics.markAcquireFailure();
     return Futures.immediateFailedFuture(new ClientPoolException("Too many waiters"));
   }
 
@@ -141,13 +153,16 @@ class ClientPoolImpl<C extends TAsyncClient> implements ClientPool<C>, ServerSet
       @Override
       public Void call() {
         synchronized (ClientPoolImpl.this) {
-          promise.setException(new ClientPoolException(String.format("Timeout acquiring client: %s", serverSet)));
+          if (promise.setException(
+              new ClientPoolException(String.format("Timeout acquiring client: %s", serverSet)))) {
+            metrics.markAcquireFailure();
+          }
         }
         return VOID;
       }
     }, getPromiseTimeoutMs(), TimeUnit.MILLISECONDS);
     promise.setTimeout(schedule);
-    logger.info("Timeout set for the promise {}", getPromiseTimeoutMs());
+    logger.debug("Timeout set for the promise {}", getPromiseTimeoutMs());
   }
 
   @Override
@@ -173,6 +188,7 @@ class ClientPoolImpl<C extends TAsyncClient> implements ClientPool<C>, ServerSet
 
     availableClients.clear();
     closed = true;
+    metrics.close();
   }
 
   @Override
@@ -182,22 +198,25 @@ class ClientPoolImpl<C extends TAsyncClient> implements ClientPool<C>, ServerSet
 
   @Override
   public synchronized void release(C client, boolean healthy) {
-    logger.info("{}, client pool {}, releasing: {} healthy: {}",
+    logger.debug("{}, client pool {}, releasing: {} healthy: {}",
         options.getServiceName(), System.identityHashCode(this), client, healthy);
     InetSocketAddress address = acquiredClients.remove(client);
     if (address == null) {
       throw new IllegalArgumentException("Client is not currently acquired by the pool: " + client);
     }
 
+    recordCallOutcome(address, healthy, acquiredTimes.remove(client));
+
     if (!closed && healthy && availableServers.contains(address)) {
       availableClients.put(address, client);
     } else {
-      logger.info("{}, client pool {}, closing transport for client: {}, healthy: {}",
+      logger.debug("{}, client pool {}, closing transport for client: {}, healthy: {}",
           options.getServiceName(), System.identityHashCode(this), client, healthy);
       removeClient(client);
     }
 
     processPromises();
+    updateMetrics();
   }
 
   @Override
@@ -226,13 +245,13 @@ class ClientPoolImpl<C extends TAsyncClient> implements ClientPool<C>, ServerSet
 
       logger.debug("process promise");
       if (availableClients.isEmpty()) {
-        logger.info("{}, no avail clients: acq {}, avail {}, promises {}",
+        logger.debug("{}, no avail clients: acq {}, avail {}, promises {}",
             options.getServiceName(), acquiredClients.size(),
             availableClients.size(), promises.size());
       }
 
       if (!canCreateClient()) {
-        logger.info("{}, client pool {}, not creating new client, request is queued until a client is available: " +
+        logger.debug("{}, client pool {}, not creating new client, request is queued until a client is available: " +
                 "client(s) in use {}, request(s) waiting {}, available client(s) {}",
             options.getServiceName(), System.identityHashCode(this), acquiredClients.size(),
             promises.size(), availableClients.size());
@@ -245,17 +264,31 @@ class ClientPoolImpl<C extends TAsyncClient> implements ClientPool<C>, ServerSet
         } catch (IOException ex) {
           logger.error("fulfillWithNewClient has IOException", ex);
           promises.remove().setException(ex);
+          metrics.markAcquireFailure();
           break;
         }
       }
 
       if (client != null) {
-        logger.info("{}, client pool {}, set promise with client {}",
+        logger.debug("{}, client pool {}, set promise with client {}",
             options.getServiceName(), System.identityHashCode(this), client);
-        promises.remove().set(client);
+        Promise<C> fulfilled = promises.remove();
+        if (fulfilled.set(client)) {
+          metrics.recordAcquire(fulfilled.getCreatedAtNanos());
+        }
         return;
       }
 
+      InetSocketAddress rejectedServer = getRejectedServer();
+      if (rejectedServer != null) {
+        // Every server has an open circuit breaker, fail fast instead of waiting for the acquire timeout.
+        logger.warn("{}, client pool {}, circuit breakers are open for all servers, failing request",
+            options.getServiceName(), System.identityHashCode(this));
+        promises.remove().setException(new CircuitBreakerOpenException(rejectedServer));
+        metrics.markAcquireFailure();
+        continue;
+      }
+
       break;
     }
   }
@@ -319,12 +352,15 @@ class ClientPoolImpl<C extends TAsyncClient> implements ClientPool<C>, ServerSet
     }
 
     C client = null;
-    while (!availableClients.isEmpty() && client == null) {
+    while (client == null) {
       // The random selection occurs on InetSocketAddress, not clients
-      Set<InetSocketAddress> keys = availableClients.keySet();
-      InetSocketAddress[] addresses = keys.toArray(new InetSocketAddress[keys.size()]);
-      int randomIndex = random.nextInt(addresses.length);
-      InetSocketAddress randomAddress = addresses[randomIndex];
+      List<InetSocketAddress> addresses = getPermittedServers(availableClients.keySet());
+      if (addresses.isEmpty()) {
+        break;
+      }
+
+      int randomIndex = random.nextInt(addresses.size());
+      InetSocketAddress randomAddress = addresses.get(randomIndex);
       client = reserveAvailableClient(randomAddress);
     }
 
@@ -333,32 +369,86 @@ class ClientPoolImpl<C extends TAsyncClient> implements ClientPool<C>, ServerSet
   }
 
   private C reserveAvailableClient(InetSocketAddress address) {
+    if (!ClientPoolUtils.allowRequest(circuitBreakerRegistry, options, address)) {
+      return null;
+    }
+
     C client = availableClients.get(address).remove(0);
     if (client.hasError()) {
       logger.warn("service {} available client {} has error",
           options.getServiceName(), client, client.getError());
       removeClient(client);
+      recordCallOutcome(address, false, null);
       return null;
     }
 
     acquiredClients.put(client, address);
+    acquiredTimes.put(client, System.nanoTime());
     return client;
   }
 
   private C fulfillWithNewClient() throws IOException {
     logger.debug("start fulfillWithNewClient");
-    InetSocketAddress[] servers = availableServers.toArray(new InetSocketAddress[availableServers.size()]);
-    int randomIndex = random.nextInt(servers.length);
-    InetSocketAddress address = servers[randomIndex];
-    C client = createNewClient(address);
+    List<InetSocketAddress> servers = getPermittedServers(availableServers);
+    if (servers.isEmpty()) {
+      logger.debug("fulfillWithNewClient found no server with a closed circuit breaker");
+      return null;
+    }
+
+    int randomIndex = random.nextInt(servers.size());
+    InetSocketAddress address = servers.get(randomIndex);
+    if (!ClientPoolUtils.allowRequest(circuitBreakerRegistry, options, address)) {
+      return null;
+    }
+
+    C client;
+    try {
+      client = createNewClient(address);
+    } catch (IOException ex) {
+      recordCallOutcome(address, false, null);
+      throw ex;
+    }
+
     acquiredClients.put(client, address);
+    acquiredTimes.put(client, System.nanoTime());
     logger.debug("fulfillWithNewClient return client {}", client);
     return client;
   }
 
   private C createNewClient(InetSocketAddress address) throws IOException {
-    return ClientPoolUtils.createNewClient(address, this.protocolFactory,
+    C client = ClientPoolUtils.createNewClient(address, this.protocolFactory,
         this.options, this.thriftFactory, this.clientFactory, this.clientTransportMap);
+    metrics.markClientCreated();
+    return client;
+  }
+
+  private List<InetSocketAddress> getPermittedServers(Set<InetSocketAddress> servers) {
+    List<InetSocketAddress> permittedServers = new ArrayList<>(servers.size());
+    for (InetSocketAddress server : servers) {
+      if (!ClientPoolUtils.isCallRejected(circuitBreakerRegistry, options, server)) {
+        permittedServers.add(server);
+      }
+    }
+    return permittedServers;
+  }
+
+  /**
+   * Returns one of the servers if all of them are rejecting calls, null otherwise.
+   */
+  private InetSocketAddress getRejectedServer() {
+    if (availableServers.isEmpty() || !getPermittedServers(availableServers).isEmpty()) {
+      return null;
+    }
+    return availableServers.iterator().next();
+  }
+
+  private void recordCallOutcome(InetSocketAddress address, boolean healthy, Long acquiredAtNanos) {
+    ClientPoolUtils.recordCallOutcome(circuitBreakerRegistry, options, address, healthy, acquiredAtNanos);
+    metrics.recordCall(address, healthy, acquiredAtNanos);
+  }
+
+  private void updateMetrics() {
+    metrics.update(acquiredClients.size(), availableClients.size(), promises.size());
   }
 
   private long getPromiseTimeoutMs() {
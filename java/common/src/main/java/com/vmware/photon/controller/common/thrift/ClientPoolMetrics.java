@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.common.thrift;
+
+import com.vmware.photon.controller.common.metrics.DefaultMetricRegistry;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import static com.codahale.metrics.MetricRegistry.name;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client pool metrics exported through {@link DefaultMetricRegistry}.
+ * <p/>
+ * Pool metrics are named thrift-client-pool.[service].[metric] and per host call metrics are named
+ * thrift-client-pool.[service].[host].[metric]. Several pools can serve the same service (e.g. one pool per agent),
+ * so occupancy is tracked with counters that every pool adjusts by the change in its own state.
+ * <p/>
+ * Instances are not thread safe, callers synchronize on the owning pool.
+ */
+class ClientPoolMetrics {
+
+  private static final String PREFIX = "thrift-client-pool";
+
+  private static final String UNKNOWN_SERVICE = "unknown";
+
+  private final MetricRegistry registry;
+  private final String serviceName;
+  private final Counter acquiredCounter;
+  private final Counter availableCounter;
+  private final Counter waitersCounter;
+  private final Timer acquireTimer;
+  private final Meter acquireFailures;
+  private final Meter clientsCreated;
+
+  private int acquired;
+  private int available;
+  private int waiters;
+
+  ClientPoolMetrics(String serviceName) {
+    this(DefaultMetricRegistry.REGISTRY, serviceName);
+  }
+
+  ClientPoolMetrics(MetricRegistry registry, String serviceName) {
+    this.registry = registry;
+    this.serviceName = sanitize(serviceName == null ? UNKNOWN_SERVICE : serviceName);
+    this.acquiredCounter = registry.counter(name(PREFIX, this.serviceName, "acquired-clients"));
+    this.availableCounter = registry.counter(name(PREFIX, this.serviceName, "available-clients"));
+    this.waitersCounter = registry.counter(name(PREFIX, this.serviceName, "waiters"));
+    this.acquireTimer = registry.timer(name(PREFIX, this.serviceName, "acquire"));
+    this.acquireFailures = registry.meter(name(PREFIX, this.serviceName, "acquire-failures"));
+    this.clientsCreated = registry.meter(name(PREFIX, this.serviceName, "clients-created"));
+  }
+
+  /**
+   * Publishes the current pool occupancy.
+   */
+  void update(int acquired, int available, int waiters) {
+    acquiredCounter.inc(acquired - this.acquired);
+    availableCounter.inc(available - this.available);
+    waitersCounter.inc(waiters - this.waiters);
+    this.acquired = acquired;
+    this.available = available;
+    this.waiters = waiters;
+  }
+
+  /**
+   * Withdraws this pool's contribution to the occupancy counters.
+   */
+  void close() {
+    update(0, 0, 0);
+  }
+
+  void recordAcquire(long createdAtNanos) {
+    acquireTimer.update(System.nanoTime() - createdAtNanos, TimeUnit.NANOSECONDS);
+  }
+
+  void markAcquireFailure() {
+    acquireFailures.mark();
+  }
+
+  void markClientCreated() {
+    clientsCreated.mark();
+  }
+
+  /**
+   * Records a call made with a client that was acquired at acquiredAtNanos, or a failure to connect to the host
+   * when acquiredAtNanos is null.
+   */
+  void recordCall(InetSocketAddress address, boolean healthy, Long acquiredAtNanos) {
+    String host = sanitize(address.getHostString() + "-" + address.getPort());
+    if (acquiredAtNanos != null) {
+      registry.timer(name(PREFIX, serviceName, host, "calls"))
+          .update(System.nanoTime() - acquiredAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    if (!healthy) {
+      registry.meter(name(PREFIX, serviceName, host, "errors")).mark();
+    }
+  }
+
+  /**
+   * Graphite treats dots as path separators, so they are replaced in name components.
+   */
+  private static String sanitize(String component) {
+    return component.replace('.', '_');
+  }
+}
@@ -24,6 +24,10 @@ public class ClientPoolOptions {
   private int maxWaiters = 1;
   private long timeoutMs = 0;
   private String serviceName;
+  private CircuitBreakerOptions circuitBreakerOptions;
+  private boolean tcpNoDelay = true;
+  private int sendBufferSize = 0;
+  private int receiveBufferSize = 0;
 
   public ClientPoolOptions() {
   }
@@ -33,6 +37,12 @@ public class ClientPoolOptions {
     this.maxWaiters = other.maxWaiters;
     this.timeoutMs = other.timeoutMs;
     this.serviceName = other.serviceName;
+    if (other.circuitBreakerOptions != null) {
+      this.circuitBreakerOptions = new CircuitBreakerOptions(other.circuitBreakerOptions);
+    }
+    this.tcpNoDelay = other.tcpNoDelay;
+    this.sendBufferSize = other.sendBufferSize;
+    this.receiveBufferSize = other.receiveBufferSize;
   }
 
   public int getMaxClients() {
@@ -70,4 +80,49 @@ public class ClientPoolOptions {
     this.serviceName = serviceName;
     return this;
   }
+
+  /**
+   * Returns the per-server circuit breaker options, null if circuit breaking is disabled for the pool.
+   */
+  public CircuitBreakerOptions getCircuitBreakerOptions() {
+    return circuitBreakerOptions;
+  }
+
+  public ClientPoolOptions setCircuitBreakerOptions(CircuitBreakerOptions circuitBreakerOptions) {
+    this.circuitBreakerOptions = circuitBreakerOptions;
+    return this;
+  }
+
+  public boolean getTcpNoDelay() {
+    return tcpNoDelay;
+  }
+
+  public ClientPoolOptions setTcpNoDelay(boolean tcpNoDelay) {
+    this.tcpNoDelay = tcpNoDelay;
+    return this;
+  }
+
+  /**
+   * Returns the socket send buffer size in bytes, 0 to use the system default.
+   */
+  public int getSendBufferSize() {
+    return sendBufferSize;
+  }
+
+  public ClientPoolOptions setSendBufferSize(int sendBufferSize) {
+    this.sendBufferSize = sendBufferSize;
+    return this;
+  }
+
+  /**
+   * Returns the socket receive buffer size in bytes, 0 to use the system default.
+   */
+  public int getReceiveBufferSize() {
+    return receiveBufferSize;
+  }
+
+  public ClientPoolOptions setReceiveBufferSize(int receiveBufferSize) {
+    this.receiveBufferSize = receiveBufferSize;
+    return this;
+  }
 }
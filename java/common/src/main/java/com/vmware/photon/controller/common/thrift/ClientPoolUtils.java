@@ -23,7 +23,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Utility functions for classes {@link ClientPoolImpl} and {@link BasicClientPool}.
@@ -37,7 +39,7 @@ public class ClientPoolUtils {
       ClientPoolOptions options, ThriftFactory thriftFactory,
       TAsyncClientFactory<C> clientFactory, Map<C, TNonblockingTransport> clientTransportMap)
       throws IOException {
-    TNonblockingSocket socket = new TNonblockingSocket(address.getHostString(), address.getPort());
+    TNonblockingSocket socket = createSocket(address, options);
     if (StringUtils.isNotBlank(options.getServiceName())) {
       protocolFactory = thriftFactory.create(options.getServiceName());
     }
@@ -47,4 +49,70 @@ public class ClientPoolUtils {
     logger.debug("created new client {} for {}", client, address);
     return client;
   }
+
+  /**
+   * Creates an unconnected socket for the address with the socket options of the pool. The socket connects once
+   * the first call is started on the selector thread.
+   */
+  public static TNonblockingSocket createSocket(InetSocketAddress address, ClientPoolOptions options)
+      throws IOException {
+    TNonblockingSocket socket = new TNonblockingSocket(address.getHostString(), address.getPort());
+    try {
+      Socket rawSocket = socket.getSocketChannel().socket();
+      rawSocket.setTcpNoDelay(options.getTcpNoDelay());
+      if (options.getSendBufferSize() > 0) {
+        rawSocket.setSendBufferSize(options.getSendBufferSize());
+      }
+      if (options.getReceiveBufferSize() > 0) {
+        rawSocket.setReceiveBufferSize(options.getReceiveBufferSize());
+      }
+    } catch (IOException e) {
+      socket.close();
+      throw e;
+    }
+    return socket;
+  }
+
+  /**
+   * Returns true iff the pool tracks circuit breakers and the breaker for the address is rejecting calls.
+   */
+  public static boolean isCallRejected(
+      CircuitBreakerRegistry circuitBreakerRegistry, ClientPoolOptions options, InetSocketAddress address) {
+    CircuitBreakerOptions circuitBreakerOptions = options.getCircuitBreakerOptions();
+    return circuitBreakerOptions != null &&
+        circuitBreakerRegistry.getCircuitBreaker(address, circuitBreakerOptions).isCallRejected();
+  }
+
+  /**
+   * Claims permission to call the address. Always succeeds if the pool doesn't track circuit breakers.
+   */
+  public static boolean allowRequest(
+      CircuitBreakerRegistry circuitBreakerRegistry, ClientPoolOptions options, InetSocketAddress address) {
+    CircuitBreakerOptions circuitBreakerOptions = options.getCircuitBreakerOptions();
+    return circuitBreakerOptions == null ||
+        circuitBreakerRegistry.getCircuitBreaker(address, circuitBreakerOptions).allowRequest();
+  }
+
+  /**
+   * Records the outcome of a call to the address in its circuit breaker.
+   *
+   * @param acquiredAtNanos {@link System#nanoTime()} when the client was acquired, null if unknown
+   */
+  public static void recordCallOutcome(
+      CircuitBreakerRegistry circuitBreakerRegistry, ClientPoolOptions options, InetSocketAddress address,
+      boolean healthy, Long acquiredAtNanos) {
+    CircuitBreakerOptions circuitBreakerOptions = options.getCircuitBreakerOptions();
+    if (circuitBreakerOptions == null) {
+      return;
+    }
+
+    CircuitBreaker circuitBreaker = circuitBreakerRegistry.getCircuitBreaker(address, circuitBreakerOptions);
+    if (!healthy) {
+      circuitBreaker.recordFailure();
+      return;
+    }
+
+    long latencyMs = acquiredAtNanos == null ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - acquiredAtNanos);
+    circuitBreaker.recordSuccess(latencyMs);
+  }
 }
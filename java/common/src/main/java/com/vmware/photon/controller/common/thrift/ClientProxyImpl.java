@@ -14,6 +14,8 @@
 package com.vmware.photon.controller.common.thrift;
 
 import com.vmware.photon.controller.common.logging.LoggingUtils;
+import com.vmware.photon.controller.common.tracing.Span;
+import com.vmware.photon.controller.common.tracing.Tracer;
 import com.vmware.photon.controller.tracing.gen.TracingInfo;
 
 import com.google.common.util.concurrent.FutureCallback;
@@ -111,6 +113,7 @@ public class ClientProxyImpl<C extends TAsyncClient> implements ClientProxy<C> {
       }
 
       final AsyncMethodCallback callback = getCallback(args);
+      final Span span = Tracer.startDetachedSpan(methodName);
       ListenableFuture<C> futureClient = clientPool.acquire();
 
       Futures.addCallback(futureClient, new FutureCallback<C>() {
@@ -119,9 +122,9 @@ public class ClientProxyImpl<C extends TAsyncClient> implements ClientProxy<C> {
           client.setTimeout(timeout);
           logger.debug("Timeout set for the client {}", timeout);
 
-          AsyncMethodCallback wrappedCallback = wrapCallback(client, callback);
+          AsyncMethodCallback wrappedCallback = wrapCallback(client, callback, span);
           args[args.length - 1] = wrappedCallback;
-          setupTracing(method, args);
+          setupTracing(method, args, span);
 
           try {
             method.invoke(client, args);
@@ -134,6 +137,7 @@ public class ClientProxyImpl<C extends TAsyncClient> implements ClientProxy<C> {
         @Override
         public void onFailure(Throwable t) {
           logger.error("Exception during acquiring client for method {}", methodName, t);
+          span.tag("error", t.toString()).finish();
           handleException(callback, t);
         }
       }, executor);
@@ -142,11 +146,12 @@ public class ClientProxyImpl<C extends TAsyncClient> implements ClientProxy<C> {
     };
   }
 
-  private TracingInfo getRequestTracingInfo() {
+  private TracingInfo getRequestTracingInfo(Span span) {
     TracingInfo tracingInfo = new TracingInfo();
     String requestId = LoggingUtils.getRequestId();
     if (requestId != null) {
       tracingInfo.setRequest_id(requestId);
+      Tracer.inject(tracingInfo, span);
     }
     return tracingInfo;
   }
@@ -156,8 +161,9 @@ public class ClientProxyImpl<C extends TAsyncClient> implements ClientProxy<C> {
    *
    * @param method Method being called
    * @param args   Method arguments
+   * @param span   Span of the call
    */
-  private void setupTracing(Method method, Object[] args) {
+  private void setupTracing(Method method, Object[] args, Span span) {
     Method tracingMethod = extractTracingMethod(args);
 
     if (tracingMethod == null) {
@@ -165,7 +171,7 @@ public class ClientProxyImpl<C extends TAsyncClient> implements ClientProxy<C> {
     }
 
     try {
-      tracingMethod.invoke(args[0], getRequestTracingInfo());
+      tracingMethod.invoke(args[0], getRequestTracingInfo(span));
     } catch (IllegalAccessException | InvocationTargetException e) {
       throw new RuntimeException(e);
     }
@@ -196,8 +202,8 @@ public class ClientProxyImpl<C extends TAsyncClient> implements ClientProxy<C> {
   }
 
   @SuppressWarnings("unchecked")
-  private AsyncMethodCallback wrapCallback(C client, AsyncMethodCallback callback) {
-    return new WrappedCallback<C, Object>(checkNotNull(callback), client, clientPool);
+  private AsyncMethodCallback wrapCallback(C client, AsyncMethodCallback callback, Span span) {
+    return new WrappedCallback<C, Object>(checkNotNull(callback), client, clientPool, span);
   }
 
   private AsyncMethodCallback getCallback(Object[] args) {
@@ -27,9 +27,15 @@ class Promise<C extends TAsyncClient> {
   private SettableFuture<C> future;
   private ScheduledFuture<Void> timeout;
   private boolean invoked;
+  private final long createdAtNanos;
 
   Promise(SettableFuture<C> future) {
     this.future = future;
+    this.createdAtNanos = System.nanoTime();
+  }
+
+  public long getCreatedAtNanos() {
+    return createdAtNanos;
   }
 
   public synchronized void setTimeout(ScheduledFuture<Void> timeout) {
@@ -27,19 +27,20 @@ import java.lang.reflect.InvocationTargetException;
 /**
  * Factory for all {@link TAsyncClient}.
  * <p/>
- * Necessary to simplify the Guice bindings.
+ * Necessary to simplify the Guice bindings. Clients are served by the selector threads of the shared
+ * {@link TAsyncClientManagerPool}.
  *
  * @param <T> async thrift client type
  */
 @Singleton
 public class TAsyncClientFactory<T extends TAsyncClient> {
-  private final TAsyncClientManager clientManager;
+  private final TAsyncClientManagerPool clientManagerPool;
   private final Constructor<T> constructor;
 
   @SuppressWarnings("unchecked")
   @Inject
-  TAsyncClientFactory(TypeLiteral<T> type, TAsyncClientManager clientManager) {
-    this.clientManager = clientManager;
+  TAsyncClientFactory(TypeLiteral<T> type, TAsyncClientManagerPool clientManagerPool) {
+    this.clientManagerPool = clientManagerPool;
     try {
       this.constructor = (Constructor<T>) type.getRawType().getConstructor(
           TProtocolFactory.class, TAsyncClientManager.class, TNonblockingTransport.class);
@@ -57,7 +58,7 @@ public class TAsyncClientFactory<T extends TAsyncClient> {
    */
   public T create(TProtocolFactory protocolFactory, TNonblockingTransport transport) {
     try {
-      return constructor.newInstance(protocolFactory, clientManager, transport);
+      return constructor.newInstance(protocolFactory, clientManagerPool.next(), transport);
     } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
       throw new RuntimeException(e);
     }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.common.thrift;
+
+import com.google.common.base.Preconditions;
+import org.apache.thrift.async.TAsyncClientManager;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed set of {@link TAsyncClientManager}s shared by all client pools in the process.
+ * <p/>
+ * Every manager owns one selector thread, so the number of selector threads stays constant no matter how many
+ * pools or servers the process talks to. Clients are spread over the managers round robin.
+ */
+public class TAsyncClientManagerPool {
+
+  private final TAsyncClientManager[] managers;
+  private final AtomicInteger next;
+
+  public TAsyncClientManagerPool(int size) throws IOException {
+    Preconditions.checkArgument(size > 0, "size must be positive: %s", size);
+    managers = new TAsyncClientManager[size];
+    for (int i = 0; i < size; i++) {
+      managers[i] = new TAsyncClientManager();
+    }
+    next = new AtomicInteger();
+  }
+
+  /**
+   * Returns the manager that should serve the next client.
+   */
+  public TAsyncClientManager next() {
+    return managers[Math.floorMod(next.getAndIncrement(), managers.length)];
+  }
+
+  public int size() {
+    return managers.length;
+  }
+
+  /**
+   * Stops all selector threads. Clients served by the pool can't be used afterwards.
+   */
+  public void stop() {
+    for (TAsyncClientManager manager : managers) {
+      manager.stop();
+    }
+  }
+}
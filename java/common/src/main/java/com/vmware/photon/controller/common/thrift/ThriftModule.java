@@ -17,11 +17,11 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
-import org.apache.thrift.async.TAsyncClientManager;
 import org.apache.thrift.protocol.TCompactProtocol;
 import org.apache.thrift.protocol.TProtocolFactory;
 import org.apache.thrift.transport.TFastFramedTransport;
 import org.apache.thrift.transport.TTransportFactory;
+import static com.google.common.base.Preconditions.checkArgument;
 
 import javax.inject.Named;
 
@@ -35,6 +35,23 @@ import java.util.concurrent.ScheduledExecutorService;
  * Guice module for Thrift.
  */
 public class ThriftModule extends AbstractModule {
+
+  /**
+   * Default number of selector threads shared by all async thrift clients in the process.
+   */
+  public static final int DEFAULT_CLIENT_SELECTOR_THREADS = 2;
+
+  private final int clientSelectorThreads;
+
+  public ThriftModule() {
+    this(DEFAULT_CLIENT_SELECTOR_THREADS);
+  }
+
+  public ThriftModule(int clientSelectorThreads) {
+    checkArgument(clientSelectorThreads > 0, "clientSelectorThreads must be positive");
+    this.clientSelectorThreads = clientSelectorThreads;
+  }
+
   @Override
   protected void configure() {
     install(new FactoryModuleBuilder()
@@ -58,8 +75,8 @@ public class ThriftModule extends AbstractModule {
 
   @Provides
   @Singleton
-  TAsyncClientManager getTAsyncClientManager() throws IOException {
-    return new TAsyncClientManager();
+  TAsyncClientManagerPool getTAsyncClientManagerPool() throws IOException {
+    return new TAsyncClientManagerPool(clientSelectorThreads);
   }
 
   @Provides
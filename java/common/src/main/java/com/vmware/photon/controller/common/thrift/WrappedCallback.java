@@ -13,6 +13,8 @@
 
 package com.vmware.photon.controller.common.thrift;
 
+import com.vmware.photon.controller.common.tracing.Span;
+
 import org.apache.thrift.TApplicationException;
 import org.apache.thrift.async.AsyncMethodCallback;
 import org.apache.thrift.async.TAsyncClient;
@@ -33,6 +35,7 @@ class WrappedCallback<C extends TAsyncClient, T> implements AsyncMethodCallback<
   private final AsyncMethodCallback<T> underlying;
   private final C client;
   private final ClientPool<C> clientPool;
+  private final Span span;
 
   private boolean clientReleased;
 
@@ -45,9 +48,23 @@ class WrappedCallback<C extends TAsyncClient, T> implements AsyncMethodCallback<
   public WrappedCallback(AsyncMethodCallback<T> underlying,
                          C client,
                          ClientPool<C> clientPool) {
+    this(underlying, client, clientPool, null);
+  }
+
+  /**
+   * @param underlying Original callback supplied by caller
+   * @param client     Client that called the method
+   * @param clientPool Client pool which the client came from
+   * @param span       Span of the call, finished when the call completes, can be null
+   */
+  public WrappedCallback(AsyncMethodCallback<T> underlying,
+                         C client,
+                         ClientPool<C> clientPool,
+                         Span span) {
     this.underlying = underlying;
     this.client = client;
     this.clientPool = clientPool;
+    this.span = span;
     this.clientReleased = false;
   }
 
@@ -56,6 +73,7 @@ class WrappedCallback<C extends TAsyncClient, T> implements AsyncMethodCallback<
     // The fact that  onComplete got called implies that client is healthy, so we mark it
     // as such before firing the underlying callback.
     releaseClient(true);
+    finishSpan(null);
 
     // If onComplete throws an exception, onError will be called by Thrift async client manager.
     // This has to be a last statement in onComplete, so we can make sure we returned client to the pool
@@ -72,6 +90,7 @@ class WrappedCallback<C extends TAsyncClient, T> implements AsyncMethodCallback<
     try {
       logger.error("Releasing client on error", exception);
       releaseClient(exception instanceof TApplicationException);
+      finishSpan(exception);
     } catch (Throwable t) {
       // We still want to call underlying callback onError even if the statements above fail.
       logger.error("Error while running error callback", t);
@@ -84,6 +103,17 @@ class WrappedCallback<C extends TAsyncClient, T> implements AsyncMethodCallback<
     }
   }
 
+  private void finishSpan(Exception exception) {
+    if (span == null) {
+      return;
+    }
+
+    if (exception != null) {
+      span.tag("error", exception.toString());
+    }
+    span.finish();
+  }
+
   private void releaseClient(boolean healthy) {
     if (!clientReleased) {
       clientPool.release(client, healthy);
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.common.tracing;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A timed operation within a trace. Spans are created by {@link Tracer} and handed to its {@link SpanRecorder} when
+ * finished. Spans of unsampled requests are no-ops.
+ */
+public class Span {
+
+  /**
+   * Span returned when the current request is not sampled.
+   */
+  static final Span NOOP = new Span(null, null, null, null, null, false);
+
+  private final String traceId;
+  private final String id;
+  private final String parentId;
+  private final String name;
+  private final String previousSpanId;
+  private final boolean active;
+  private final long startMicros;
+  private final long startNanos;
+  private Map<String, String> tags;
+  private long durationMicros = -1;
+
+  Span(String traceId, String id, String parentId, String name, String previousSpanId, boolean active) {
+    this.traceId = traceId;
+    this.id = id;
+    this.parentId = parentId;
+    this.name = name;
+    this.previousSpanId = previousSpanId;
+    this.active = active;
+    this.startMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    this.startNanos = System.nanoTime();
+  }
+
+  public boolean isSampled() {
+    return id != null;
+  }
+
+  public String getTraceId() {
+    return traceId;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getParentId() {
+    return parentId;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getStartMicros() {
+    return startMicros;
+  }
+
+  /**
+   * Returns the duration of a finished span, -1 if the span is still running.
+   */
+  public synchronized long getDurationMicros() {
+    return durationMicros;
+  }
+
+  public synchronized Map<String, String> getTags() {
+    return tags == null ? Collections.emptyMap() : Collections.unmodifiableMap(new HashMap<>(tags));
+  }
+
+  public synchronized Span tag(String key, String value) {
+    if (isSampled() && value != null) {
+      if (tags == null) {
+        tags = new HashMap<>();
+      }
+      tags.put(key, value);
+    }
+    return this;
+  }
+
+  /**
+   * Stops the span and records it. Only the first call has an effect. Spans started with
+   * {@link Tracer#startSpan(String)} must be finished on the thread that started them, as finishing restores the
+   * parent span of the thread.
+   */
+  public void finish() {
+    if (!isSampled()) {
+      return;
+    }
+
+    synchronized (this) {
+      if (durationMicros >= 0) {
+        return;
+      }
+      durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+
+    if (active) {
+      Tracer.restoreSpanId(previousSpanId);
+    }
+    Tracer.record(this);
+  }
+}
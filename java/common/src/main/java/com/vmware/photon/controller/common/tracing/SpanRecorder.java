@@ -0,0 +1,161 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.common.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Buffers finished spans in memory and periodically appends them to a local file.
+ * <p/>
+ * Every flush writes one line holding a JSON array of spans in the Zipkin v2 format, so the file can be loaded
+ * into Zipkin or any tool that understands it. When the buffer is full new spans are dropped rather than blocking
+ * the request that finished them.
+ */
+public class SpanRecorder {
+
+  private static final Logger logger = LoggerFactory.getLogger(SpanRecorder.class);
+
+  private static final Pattern HEX_ID = Pattern.compile("[0-9a-f]{16}|[0-9a-f]{32}");
+
+  private final File file;
+  private final String serviceName;
+  private final BlockingQueue<Span> spans;
+  private final ObjectMapper objectMapper;
+  private final AtomicLong dropped;
+  private ScheduledExecutorService flusher;
+
+  public SpanRecorder(File file, String serviceName, int capacity) {
+    this.file = file;
+    this.serviceName = serviceName;
+    this.spans = new ArrayBlockingQueue<>(capacity);
+    this.objectMapper = new ObjectMapper();
+    this.dropped = new AtomicLong();
+  }
+
+  /**
+   * Starts flushing the buffer every periodMs milliseconds on a daemon thread.
+   */
+  public synchronized void start(long periodMs) {
+    if (flusher != null) {
+      return;
+    }
+
+    flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "span-recorder");
+      thread.setDaemon(true);
+      return thread;
+    });
+    flusher.scheduleWithFixedDelay(this::flush, periodMs, periodMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops the periodic flush and writes out the spans left in the buffer.
+   */
+  public synchronized void stop() {
+    if (flusher != null) {
+      flusher.shutdown();
+      flusher = null;
+    }
+    flush();
+  }
+
+  public void record(Span span) {
+    if (!spans.offer(span)) {
+      dropped.incrementAndGet();
+    }
+  }
+
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  /**
+   * Writes all buffered spans to the file.
+   */
+  public void flush() {
+    List<Span> batch = new ArrayList<>();
+    spans.drainTo(batch);
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    List<Map<String, Object>> json = new ArrayList<>(batch.size());
+    for (Span span : batch) {
+      json.add(toZipkin(span));
+    }
+
+    synchronized (file) {
+      try (OutputStream out = new FileOutputStream(file, true)) {
+        out.write(objectMapper.writeValueAsBytes(json));
+        out.write("\n".getBytes(StandardCharsets.UTF_8));
+      } catch (IOException e) {
+        logger.warn("Failed to write {} spans to {}", batch.size(), file, e);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  Map<String, Object> toZipkin(Span span) {
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("traceId", toTraceId(span.getTraceId()));
+    if (span.getParentId() != null) {
+      json.put("parentId", span.getParentId());
+    }
+    json.put("id", span.getId());
+    json.put("name", span.getName());
+    json.put("timestamp", span.getStartMicros());
+    json.put("duration", Math.max(1, span.getDurationMicros()));
+
+    Map<String, String> endpoint = new LinkedHashMap<>();
+    endpoint.put("serviceName", serviceName);
+    json.put("localEndpoint", endpoint);
+
+    Map<String, String> tags = new LinkedHashMap<>(span.getTags());
+    tags.put("requestId", span.getTraceId());
+    json.put("tags", tags);
+    return json;
+  }
+
+  /**
+   * Zipkin trace ids are 16 or 32 hex characters. Request ids are usually UUIDs and map onto the 32 character form,
+   * other ids are hashed. The original request id is always kept as a tag.
+   */
+  private static String toTraceId(String requestId) {
+    String id = requestId.replace("-", "").toLowerCase();
+    if (HEX_ID.matcher(id).matches()) {
+      return id;
+    }
+    return String.format("%016x", (long) requestId.hashCode() * 0x9E3779B97F4A7C15L);
+  }
+}
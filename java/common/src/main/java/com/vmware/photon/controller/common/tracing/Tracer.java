@@ -0,0 +1,153 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.common.tracing;
+
+import com.vmware.photon.controller.common.logging.LoggingUtils;
+import com.vmware.photon.controller.tracing.gen.TracingInfo;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.MDC;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records timing spans for sampled requests.
+ * <p/>
+ * The request id is used as the trace id. The current span id and the sampling decision live in the MDC next to
+ * the request id, so they follow the request wherever the request id is already carried (e.g. through
+ * ClientProxyExecutor), and are passed to other services in {@link TracingInfo}.
+ * <p/>
+ * Tracing is off until {@link #configure(SpanRecorder, double)} is called. The sampling decision is made once, by
+ * the first service that sees the request; unsampled requests only pay for an MDC lookup per span.
+ */
+public class Tracer {
+
+  private static volatile SpanRecorder recorder;
+  private static volatile double sampleRate;
+
+  /**
+   * Enables tracing.
+   *
+   * @param recorder   recorder for finished spans
+   * @param sampleRate fraction of new requests that are traced, between 0 and 1
+   */
+  public static void configure(SpanRecorder recorder, double sampleRate) {
+    Tracer.sampleRate = sampleRate;
+    Tracer.recorder = recorder;
+  }
+
+  public static void disable() {
+    recorder = null;
+    sampleRate = 0;
+  }
+
+  /**
+   * Returns true iff the request of the current thread is traced, deciding it if no service has done so yet.
+   */
+  public static boolean isSampled() {
+    if (recorder == null || LoggingUtils.getRequestId() == null) {
+      return false;
+    }
+
+    String sampled = MDC.get(LoggingUtils.TRACE_SAMPLED_KEY);
+    if (sampled == null) {
+      boolean decision = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+      MDC.put(LoggingUtils.TRACE_SAMPLED_KEY, Boolean.toString(decision));
+      return decision;
+    }
+
+    return Boolean.parseBoolean(sampled);
+  }
+
+  /**
+   * Starts a span and makes it the current span of the thread until it is finished.
+   */
+  public static Span startSpan(String name) {
+    if (!isSampled()) {
+      return Span.NOOP;
+    }
+
+    String parentId = MDC.get(LoggingUtils.SPAN_ID_KEY);
+    Span span = new Span(LoggingUtils.getRequestId(), newSpanId(), parentId, name, parentId, true);
+    MDC.put(LoggingUtils.SPAN_ID_KEY, span.getId());
+    return span;
+  }
+
+  /**
+   * Starts a child of the current span without making it current. Used for asynchronous calls that finish on
+   * another thread.
+   */
+  public static Span startDetachedSpan(String name) {
+    if (!isSampled()) {
+      return Span.NOOP;
+    }
+
+    return new Span(LoggingUtils.getRequestId(), newSpanId(), MDC.get(LoggingUtils.SPAN_ID_KEY), name, null, false);
+  }
+
+  /**
+   * Continues the trace of an incoming request. Call after the request id has been set.
+   */
+  public static void join(TracingInfo tracingInfo) {
+    if (tracingInfo == null) {
+      return;
+    }
+
+    if (tracingInfo.isSetSampled()) {
+      MDC.put(LoggingUtils.TRACE_SAMPLED_KEY, Boolean.toString(tracingInfo.isSampled()));
+    }
+    if (tracingInfo.isSetSpan_id()) {
+      MDC.put(LoggingUtils.SPAN_ID_KEY, tracingInfo.getSpan_id());
+    }
+  }
+
+  /**
+   * Fills the tracing fields of an outgoing request, with span as the parent of the work done by the callee.
+   */
+  public static void inject(TracingInfo tracingInfo, Span span) {
+    if (tracingInfo == null) {
+      return;
+    }
+
+    String sampled = MDC.get(LoggingUtils.TRACE_SAMPLED_KEY);
+    if (sampled != null) {
+      tracingInfo.setSampled(Boolean.parseBoolean(sampled));
+    }
+
+    String spanId = span.isSampled() ? span.getId() : MDC.get(LoggingUtils.SPAN_ID_KEY);
+    if (spanId != null) {
+      tracingInfo.setSpan_id(spanId);
+    }
+  }
+
+  static void restoreSpanId(String spanId) {
+    if (spanId == null) {
+      MDC.remove(LoggingUtils.SPAN_ID_KEY);
+    } else {
+      MDC.put(LoggingUtils.SPAN_ID_KEY, spanId);
+    }
+  }
+
+  static void record(Span span) {
+    SpanRecorder current = recorder;
+    if (current != null) {
+      current.record(span);
+    }
+  }
+
+  @VisibleForTesting
+  static String newSpanId() {
+    return String.format("%016x", ThreadLocalRandom.current().nextLong());
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.common.tracing;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.validator.constraints.NotEmpty;
+import org.hibernate.validator.constraints.Range;
+
+import java.io.File;
+
+/**
+ * Request tracing config.
+ */
+public class TracingConfig {
+
+  @NotEmpty
+  @JsonProperty
+  private String file = "/var/log/photon/traces.json";
+
+  /**
+   * Fraction of requests that are traced.
+   */
+  @Range(min = 0, max = 1)
+  @JsonProperty("sample_rate")
+  private double sampleRate = 0.01;
+
+  @Range(min = 1)
+  @JsonProperty("buffer_size")
+  private int bufferSize = 10000;
+
+  @Range(min = 1)
+  @JsonProperty("flush_interval_ms")
+  private long flushIntervalMs = 5000;
+
+  public String getFile() {
+    return file;
+  }
+
+  public double getSampleRate() {
+    return sampleRate;
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  public long getFlushIntervalMs() {
+    return flushIntervalMs;
+  }
+
+  public void enable(String serviceName) {
+    SpanRecorder recorder = new SpanRecorder(new File(file), serviceName, bufferSize);
+    recorder.start(flushIntervalMs);
+    Tracer.configure(recorder, sampleRate);
+  }
+}
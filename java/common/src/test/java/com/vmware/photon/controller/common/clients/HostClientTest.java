@@ -130,6 +130,7 @@ import com.vmware.photon.controller.scheduler.gen.PlaceResultCode;
 import com.example.echo.Echoer;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.TypeLiteral;
@@ -169,6 +170,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -1216,6 +1218,62 @@ public class HostClientTest {
       };
     }
 
+    @Test
+    public void testAsyncSuccess() throws Exception {
+      CreateVmResponse createVmResponse = new CreateVmResponse();
+      createVmResponse.setResult(CreateVmResultCode.OK);
+      final Host.AsyncClient.create_vm_call createVmCall = mock(Host.AsyncClient.create_vm_call.class);
+      doReturn(createVmResponse).when(createVmCall).getResult();
+      doAnswer(getAnswer(createVmCall))
+          .when(clientProxy).create_vm(any(CreateVmRequest.class), any(AsyncMethodCallback.class));
+
+      hostClient.setClientProxy(clientProxy);
+      ListenableFuture<CreateVmResponse> future = hostClient.createVmAsync(reservation, networkConnectionSpec, null);
+      assertThat(future.isDone(), is(true));
+      assertThat(future.get(), is(createVmResponse));
+    }
+
+    @Test
+    public void testAsyncFailureTExceptionOnGetResult() throws Exception {
+      final Host.AsyncClient.create_vm_call createVmCall = mock(Host.AsyncClient.create_vm_call.class);
+      doThrow(new TException("Thrift exception")).when(createVmCall).getResult();
+      doAnswer(getAnswer(createVmCall))
+          .when(clientProxy).create_vm(any(CreateVmRequest.class), any(AsyncMethodCallback.class));
+
+      hostClient.setClientProxy(clientProxy);
+
+      try {
+        hostClient.createVmAsync(reservation, networkConnectionSpec, null).get();
+        fail("Future returned by createVmAsync should fail on getResult exception");
+      } catch (ExecutionException e) {
+        assertThat(e.getCause(), instanceOf(RpcException.class));
+        assertThat(e.getCause().getMessage(), is("Thrift exception"));
+      }
+    }
+
+    @Test(dataProvider = "CreateVmFailureResultCodes")
+    public void testAsyncFailureResult(CreateVmResultCode resultCode,
+                                       Class<RuntimeException> exceptionClass) throws Exception {
+      CreateVmResponse createVmResponse = new CreateVmResponse();
+      createVmResponse.setResult(resultCode);
+      createVmResponse.setError(resultCode.toString());
+
+      final Host.AsyncClient.create_vm_call createVmCall = mock(Host.AsyncClient.create_vm_call.class);
+      doReturn(createVmResponse).when(createVmCall).getResult();
+      doAnswer(getAnswer(createVmCall))
+          .when(clientProxy).create_vm(any(CreateVmRequest.class), any(AsyncMethodCallback.class));
+
+      hostClient.setClientProxy(clientProxy);
+
+      try {
+        hostClient.createVmAsync(reservation, networkConnectionSpec, null).get();
+        fail("Future returned by createVmAsync should fail on failure result: " + resultCode.toString());
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause().getClass() == exceptionClass);
+        assertThat(e.getCause().getMessage(), is(resultCode.toString()));
+      }
+    }
+
     @Test(enabled = false)
     public void testFailureUnknownResult() {
     }
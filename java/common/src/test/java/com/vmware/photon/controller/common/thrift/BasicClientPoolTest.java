@@ -157,7 +157,8 @@ public class BasicClientPoolTest extends PowerMockTestCase {
 
     ClientPoolOptions options = new ClientPoolOptions().setMaxClients(poolMaxClients).setMaxWaiters(poolMaxWaiter);
 
-    pool = new BasicClientPool<>(new SecureRandom(), factory, protocolFactory, thriftFactory, executor,
+    pool = new BasicClientPool<>(new SecureRandom(), factory, protocolFactory, thriftFactory,
+        new CircuitBreakerRegistry(), executor,
         servers, options);
 
     for (int i = 0; i < poolMaxClients; i++) {
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.common.thrift;
+
+import com.google.common.base.Ticker;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests {@link CircuitBreaker}.
+ */
+public class CircuitBreakerTest {
+
+  private FakeTicker ticker;
+  private CircuitBreaker circuitBreaker;
+
+  @BeforeMethod
+  public void setUp() {
+    ticker = new FakeTicker();
+    CircuitBreakerOptions options = new CircuitBreakerOptions()
+        .setWindowSize(4)
+        .setMinimumCalls(4)
+        .setFailureRateThreshold(0.5)
+        .setOpenDuration(10, TimeUnit.SECONDS)
+        .setSlowCallThreshold(1, TimeUnit.SECONDS);
+    circuitBreaker = new CircuitBreaker(InetSocketAddress.createUnresolved("127.0.0.1", 8835), options, ticker);
+  }
+
+  @Test
+  public void testStaysClosedBelowThreshold() {
+    circuitBreaker.recordFailure();
+    circuitBreaker.recordSuccess(0);
+    circuitBreaker.recordSuccess(0);
+    circuitBreaker.recordSuccess(0);
+    assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+
+    // Oldest failure drops out of the window.
+    circuitBreaker.recordSuccess(0);
+    circuitBreaker.recordFailure();
+
+    assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+    assertThat(circuitBreaker.allowRequest(), is(true));
+  }
+
+  @Test
+  public void testOpensAtThreshold() {
+    circuitBreaker.recordFailure();
+    circuitBreaker.recordFailure();
+    circuitBreaker.recordSuccess(0);
+    assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+
+    circuitBreaker.recordSuccess(0);
+    assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+    assertThat(circuitBreaker.isCallRejected(), is(true));
+    assertThat(circuitBreaker.allowRequest(), is(false));
+  }
+
+  @Test
+  public void testSlowCallsCountAsFailures() {
+    circuitBreaker.recordSuccess(1000);
+    circuitBreaker.recordSuccess(2000);
+    circuitBreaker.recordSuccess(0);
+    circuitBreaker.recordSuccess(0);
+
+    assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+  }
+
+  @Test
+  public void testHalfOpenTrialSuccessCloses() {
+    open();
+    ticker.advance(10, TimeUnit.SECONDS);
+
+    assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.HALF_OPEN));
+    assertThat(circuitBreaker.allowRequest(), is(true));
+    assertThat(circuitBreaker.isCallRejected(), is(true));
+    assertThat(circuitBreaker.allowRequest(), is(false));
+
+    circuitBreaker.recordSuccess(0);
+    assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+    assertThat(circuitBreaker.allowRequest(), is(true));
+  }
+
+  @Test
+  public void testHalfOpenTrialFailureReopens() {
+    open();
+    ticker.advance(10, TimeUnit.SECONDS);
+    assertThat(circuitBreaker.allowRequest(), is(true));
+
+    circuitBreaker.recordFailure();
+    assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+
+    ticker.advance(5, TimeUnit.SECONDS);
+    assertThat(circuitBreaker.allowRequest(), is(false));
+  }
+
+  @Test
+  public void testLostTrialIsReplaced() {
+    open();
+    ticker.advance(10, TimeUnit.SECONDS);
+    assertThat(circuitBreaker.allowRequest(), is(true));
+
+    ticker.advance(10, TimeUnit.SECONDS);
+    assertThat(circuitBreaker.allowRequest(), is(true));
+  }
+
+  private void open() {
+    for (int i = 0; i < 4; i++) {
+      circuitBreaker.recordFailure();
+    }
+    assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+  }
+
+  private static class FakeTicker extends Ticker {
+    private long nanos;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(long duration, TimeUnit timeUnit) {
+      nanos += timeUnit.toNanos(duration);
+    }
+  }
+}
@@ -185,6 +185,34 @@ public class ClientPoolImplTest extends PowerMockTestCase {
     }
   }
 
+  /**
+   * Acquire fails fast when every server has an open circuit breaker.
+   */
+  @Test
+  public void testAcquireFailsFastWithOpenCircuitBreaker() throws Throwable {
+    InetSocketAddress address = InetSocketAddress.createUnresolved("/127.0.0.1", 80);
+    TestServerSet serverSet = new TestServerSet();
+    serverSet.addServer(address);
+    when(factory.create(any(TProtocolFactory.class), any(TNonblockingSocket.class)))
+        .thenReturn(createClient("client-0"));
+
+    CircuitBreakerOptions circuitBreakerOptions = new CircuitBreakerOptions().setMinimumCalls(1);
+    CircuitBreakerRegistry circuitBreakerRegistry = new CircuitBreakerRegistry();
+    circuitBreakerRegistry.getCircuitBreaker(address, circuitBreakerOptions).recordFailure();
+
+    ClientPoolOptions options = new ClientPoolOptions().setMaxClients(1).setMaxWaiters(1)
+        .setTimeout(10, TimeUnit.SECONDS).setCircuitBreakerOptions(circuitBreakerOptions);
+    pool = new ClientPoolImpl<>(new SecureRandom(), factory, protocolFactory, thriftFactory,
+        circuitBreakerRegistry, executor, serverSet, options);
+
+    try {
+      Futures.get(pool.acquire(), 100, TimeUnit.MILLISECONDS, ClientPoolException.class);
+      fail("acquire client should have thrown an exception");
+    } catch (ClientPoolException ex) {
+      assertThat(ex.getCause() instanceof CircuitBreakerOpenException, is(true));
+    }
+  }
+
   private Set<InetSocketAddress> setupPool(
       int poolMaxClients,
       int poolMaxWaiter,
@@ -209,7 +237,8 @@ public class ClientPoolImplTest extends PowerMockTestCase {
 
     ClientPoolOptions options = new ClientPoolOptions().setMaxClients(poolMaxClients).setMaxWaiters(poolMaxWaiter);
 
-    pool = new ClientPoolImpl<>(new SecureRandom(), factory, protocolFactory, thriftFactory, executor,
+    pool = new ClientPoolImpl<>(new SecureRandom(), factory, protocolFactory, thriftFactory,
+        new CircuitBreakerRegistry(), executor,
         serverSet, options);
 
     for (int i = 0; i < poolMaxClients; i++) {
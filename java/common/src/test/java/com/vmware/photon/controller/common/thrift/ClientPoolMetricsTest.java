@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.common.thrift;
+
+import com.codahale.metrics.MetricRegistry;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Tests {@link ClientPoolMetrics}.
+ */
+public class ClientPoolMetricsTest {
+
+  private MetricRegistry registry;
+
+  @BeforeMethod
+  public void setUp() {
+    registry = new MetricRegistry();
+  }
+
+  @Test
+  public void testOccupancyIsAggregatedAcrossPools() {
+    ClientPoolMetrics first = new ClientPoolMetrics(registry, "Host");
+    ClientPoolMetrics second = new ClientPoolMetrics(registry, "Host");
+
+    first.update(2, 1, 3);
+    second.update(1, 4, 0);
+    assertThat(registry.counter("thrift-client-pool.Host.acquired-clients").getCount(), is(3L));
+    assertThat(registry.counter("thrift-client-pool.Host.available-clients").getCount(), is(5L));
+    assertThat(registry.counter("thrift-client-pool.Host.waiters").getCount(), is(3L));
+
+    first.update(1, 2, 0);
+    assertThat(registry.counter("thrift-client-pool.Host.acquired-clients").getCount(), is(2L));
+    assertThat(registry.counter("thrift-client-pool.Host.available-clients").getCount(), is(6L));
+    assertThat(registry.counter("thrift-client-pool.Host.waiters").getCount(), is(0L));
+
+    second.close();
+    assertThat(registry.counter("thrift-client-pool.Host.acquired-clients").getCount(), is(1L));
+    assertThat(registry.counter("thrift-client-pool.Host.available-clients").getCount(), is(2L));
+  }
+
+  @Test
+  public void testCallsAreRecordedPerHost() {
+    ClientPoolMetrics metrics = new ClientPoolMetrics(registry, "Host");
+    InetSocketAddress address = InetSocketAddress.createUnresolved("10.0.0.1", 8835);
+
+    metrics.recordCall(address, true, System.nanoTime());
+    metrics.recordCall(address, false, System.nanoTime());
+    metrics.recordCall(address, false, null);
+
+    assertThat(registry.timer("thrift-client-pool.Host.10_0_0_1-8835.calls").getCount(), is(2L));
+    assertThat(registry.meter("thrift-client-pool.Host.10_0_0_1-8835.errors").getCount(), is(2L));
+  }
+
+  @Test
+  public void testAcquireMetrics() {
+    ClientPoolMetrics metrics = new ClientPoolMetrics(registry, null);
+
+    metrics.recordAcquire(System.nanoTime());
+    metrics.markAcquireFailure();
+    metrics.markClientCreated();
+
+    assertThat(registry.timer("thrift-client-pool.unknown.acquire").getCount(), is(1L));
+    assertThat(registry.meter("thrift-client-pool.unknown.acquire-failures").getCount(), is(1L));
+    assertThat(registry.meter("thrift-client-pool.unknown.clients-created").getCount(), is(1L));
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.common.thrift;
+
+import org.apache.thrift.async.TAsyncClientManager;
+import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tests {@link TAsyncClientManagerPool}.
+ */
+public class TAsyncClientManagerPoolTest {
+
+  @Test
+  public void testRoundRobin() throws Exception {
+    TAsyncClientManagerPool pool = new TAsyncClientManagerPool(2);
+    try {
+      TAsyncClientManager first = pool.next();
+      TAsyncClientManager second = pool.next();
+      assertThat(first, not(sameInstance(second)));
+      assertThat(pool.next(), sameInstance(first));
+      assertThat(pool.next(), sameInstance(second));
+
+      Set<TAsyncClientManager> managers = new HashSet<>();
+      for (int i = 0; i < 10; i++) {
+        managers.add(pool.next());
+      }
+      assertThat(managers.size(), is(pool.size()));
+    } finally {
+      pool.stop();
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testInvalidSize() throws Exception {
+    new TAsyncClientManagerPool(0);
+  }
+}
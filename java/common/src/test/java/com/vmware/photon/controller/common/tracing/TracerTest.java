@@ -0,0 +1,154 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.photon.controller.common.tracing;
+
+import com.vmware.photon.controller.common.logging.LoggingUtils;
+import com.vmware.photon.controller.tracing.gen.TracingInfo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.MDC;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tests {@link Tracer}.
+ */
+public class TracerTest {
+
+  private File file;
+  private SpanRecorder recorder;
+  private String requestId;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    file = File.createTempFile("traces", ".json");
+    recorder = new SpanRecorder(file, "test", 100);
+    requestId = UUID.randomUUID().toString();
+    LoggingUtils.setRequestId(requestId);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    Tracer.disable();
+    MDC.clear();
+    file.delete();
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    Span span = Tracer.startSpan("disabled");
+    assertThat(span.isSampled(), is(false));
+    assertThat(MDC.get(LoggingUtils.SPAN_ID_KEY), nullValue());
+    span.finish();
+  }
+
+  @Test
+  public void testUnsampledRequest() {
+    Tracer.configure(recorder, 0);
+    Span span = Tracer.startSpan("unsampled");
+    assertThat(span.isSampled(), is(false));
+    assertThat(MDC.get(LoggingUtils.TRACE_SAMPLED_KEY), is("false"));
+    span.finish();
+
+    recorder.flush();
+    assertThat(file.length(), is(0L));
+  }
+
+  @Test
+  public void testNestedSpans() throws Exception {
+    Tracer.configure(recorder, 1);
+    Span parent = Tracer.startSpan("parent");
+    assertThat(MDC.get(LoggingUtils.SPAN_ID_KEY), is(parent.getId()));
+
+    Span child = Tracer.startSpan("child");
+    assertThat(child.getParentId(), is(parent.getId()));
+    assertThat(child.getTraceId(), is(requestId));
+    child.finish();
+    assertThat(MDC.get(LoggingUtils.SPAN_ID_KEY), is(parent.getId()));
+
+    Span detached = Tracer.startDetachedSpan("detached");
+    assertThat(detached.getParentId(), is(parent.getId()));
+    assertThat(MDC.get(LoggingUtils.SPAN_ID_KEY), is(parent.getId()));
+    detached.finish();
+
+    parent.tag("key", "value").finish();
+    assertThat(MDC.get(LoggingUtils.SPAN_ID_KEY), nullValue());
+
+    recorder.flush();
+    List<String> lines = Files.readAllLines(file.toPath());
+    assertThat(lines, hasSize(1));
+    List<Map<String, Object>> spans = new ObjectMapper().readValue(lines.get(0), List.class);
+    assertThat(spans, hasSize(3));
+    Map<String, Object> json = spans.get(2);
+    assertThat(json.get("name"), is("parent"));
+    assertThat(json.get("traceId"), is(requestId.replace("-", "")));
+    assertThat(json.get("parentId"), nullValue());
+    assertThat(((Map<String, Object>) json.get("tags")).get("key"), is("value"));
+    assertThat(((Map<String, Object>) json.get("localEndpoint")).get("serviceName"), is("test"));
+  }
+
+  @Test
+  public void testPropagation() {
+    Tracer.configure(recorder, 1);
+    Span span = Tracer.startDetachedSpan("call");
+    TracingInfo tracingInfo = new TracingInfo();
+    tracingInfo.setRequest_id(requestId);
+    Tracer.inject(tracingInfo, span);
+    assertThat(tracingInfo.getSpan_id(), is(span.getId()));
+    assertThat(tracingInfo.isSampled(), is(true));
+
+    // Callee side
+    MDC.clear();
+    LoggingUtils.setRequestId(tracingInfo.getRequest_id());
+    Tracer.join(tracingInfo);
+    Span remote = Tracer.startSpan("remote");
+    assertThat(remote.getParentId(), is(span.getId()));
+    assertThat(remote.getTraceId(), is(requestId));
+  }
+
+  @Test
+  public void testNewRequestClearsTracingContext() {
+    Tracer.configure(recorder, 1);
+    Span span = Tracer.startSpan("request");
+    assertThat(MDC.get(LoggingUtils.SPAN_ID_KEY), notNullValue());
+
+    LoggingUtils.setRequestId(requestId);
+    assertThat(MDC.get(LoggingUtils.SPAN_ID_KEY), is(span.getId()));
+
+    LoggingUtils.setRequestId(UUID.randomUUID().toString());
+    assertThat(MDC.get(LoggingUtils.SPAN_ID_KEY), nullValue());
+    assertThat(MDC.get(LoggingUtils.TRACE_SAMPLED_KEY), nullValue());
+  }
+
+  @Test
+  public void testFullBufferDropsSpans() {
+    recorder = new SpanRecorder(file, "test", 1);
+    Tracer.configure(recorder, 1);
+    Tracer.startSpan("first").finish();
+    Tracer.startSpan("second").finish();
+    assertThat(recorder.getDroppedCount(), is(1L));
+  }
+}
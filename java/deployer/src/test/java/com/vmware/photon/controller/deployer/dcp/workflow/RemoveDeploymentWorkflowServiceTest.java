@@ -25,6 +25,7 @@ import com.vmware.photon.controller.api.VmDiskOperation;
 import com.vmware.photon.controller.api.VmOperation;
 import com.vmware.photon.controller.api.base.FlavoredCompact;
 import com.vmware.photon.controller.client.ApiClient;
+import com.vmware.photon.controller.client.RestClient;
 import com.vmware.photon.controller.client.resource.DisksApi;
 import com.vmware.photon.controller.client.resource.FlavorApi;
 import com.vmware.photon.controller.client.resource.ImagesApi;
@@ -66,10 +67,19 @@ import com.vmware.xenon.common.Utils;
 import com.vmware.xenon.services.common.NodeGroupBroadcastResponse;
 import com.vmware.xenon.services.common.QueryTask;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.commons.io.FileUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.StatusLine;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.protocol.HttpContext;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.testng.annotations.AfterClass;
@@ -84,20 +94,27 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import javax.annotation.Nullable;
 
 import java.io.File;
 import java.lang.reflect.Field;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executors;
 
@@ -491,6 +508,9 @@ public class RemoveDeploymentWorkflowServiceTest {
     private HostClientFactory hostClientFactory;
     private ListeningExecutorService listeningExecutorService;
     private ApiClientFactory apiClientFactory;
+    private ProjectApi projectApi;
+    private CloseableHttpAsyncClient vmApiHttpClient;
+    private VmApi vmApi;
 
     private RemoveDeploymentWorkflowService.State startState;
     private TestEnvironment testEnvironment;
@@ -608,6 +628,37 @@ public class RemoveDeploymentWorkflowServiceTest {
       verifyFlavorServiceStates();
     }
 
+    /**
+     * The VMs of a project are listed in pages, so all the pages are walked and every VM is deleted before the
+     * project is.
+     */
+    @Test
+    public void testEndToEndSuccessWithManyVms() throws Throwable {
+      int vmCount = 25;
+      MockHelper.mockCreateScriptFile(deployerContext, DeleteAgentTaskService.SCRIPT_NAME, true);
+      MockHelper.mockHostClient(hostClientFactory, true);
+      mockApiClient(true, vmCount, 10);
+      startTestEnvironment(1);
+
+      createHostServices(
+          Collections.singleton(UsageTag.MGMT.name()),
+          NUMBER_OF_MGMT_ONLY_HOST);
+
+      RemoveDeploymentWorkflowService.State finalState =
+          testEnvironment.callServiceAndWaitForState(
+              RemoveDeploymentWorkflowFactoryService.SELF_LINK,
+              startState,
+              RemoveDeploymentWorkflowService.State.class,
+              (state) -> TaskUtils.finalTaskStages.contains(state.taskState.stage));
+
+      assertThat(finalState.taskState.stage, is(TaskState.TaskStage.FINISHED));
+      verify(vmApiHttpClient, times(3)).execute(
+          any(HttpUriRequest.class), any(HttpContext.class), any(org.apache.http.concurrent.FutureCallback.class));
+      verify(vmApi, times(vmCount)).deleteAsync(anyString(), any(FutureCallback.class));
+      verify(vmApi).deleteAsync(eq("vm" + vmCount), any(FutureCallback.class));
+      verify(projectApi).deleteAsync(eq("project1"), any(FutureCallback.class));
+    }
+
     @Test(dataProvider = "HostCounts")
     public void testEndToEndFailFromRemoveAPIFE(Integer hostCount) throws Throwable {
       MockHelper.mockCreateScriptFile(deployerContext, DeleteAgentTaskService.SCRIPT_NAME, true);
@@ -724,11 +775,17 @@ public class RemoveDeploymentWorkflowServiceTest {
     }
 
     private void mockApiClient(boolean isSuccess) throws Throwable {
+      mockApiClient(isSuccess, 2, 10);
+    }
+
+    /**
+     * The VMs of the project are served in pages of vmPageSize by the HTTP client under a real {@link ProjectApi}.
+     */
+    private void mockApiClient(boolean isSuccess, int vmCount, int vmPageSize) throws Throwable {
 
       ApiClient apiClient = mock(ApiClient.class);
-      ProjectApi projectApi = mock(ProjectApi.class);
       TasksApi tasksApi = mock(TasksApi.class);
-      VmApi vmApi = mock(VmApi.class);
+      vmApi = mock(VmApi.class);
       DisksApi diskApi = mock(DisksApi.class);
       FlavorApi flavorApi = mock(FlavorApi.class);
       ImagesApi imagesApi = mock(ImagesApi.class);
@@ -749,15 +806,16 @@ public class RemoveDeploymentWorkflowServiceTest {
       disk1.setName("disk1");
       final ResourceList<PersistentDisk> diskResourceList = new ResourceList<>(Arrays.asList(disk1));
 
-      FlavoredCompact vm1 = new FlavoredCompact();
-      vm1.setId("vm1");
-      vm1.setName("vm1");
-      vm1.setKind("vm");
-      FlavoredCompact vm2 = new FlavoredCompact();
-      vm2.setId("vm2");
-      vm2.setName("vm2");
-      vm2.setKind("vm");
-      final ResourceList<FlavoredCompact> vmResourceList = new ResourceList<>(Arrays.asList(vm1, vm2));
+      List<FlavoredCompact> vms = new ArrayList<>();
+      for (int i = 1; i <= vmCount; i++) {
+        FlavoredCompact vm = new FlavoredCompact();
+        vm.setId("vm" + i);
+        vm.setName("vm" + i);
+        vm.setKind("vm");
+        vms.add(vm);
+      }
+      vmApiHttpClient = mockPagedHttpClient("/projects/project1/vms", vms, vmPageSize);
+      projectApi = spy(new ProjectApi(new RestClient("http://127.0.0.1", vmApiHttpClient)));
 
       Image image1 = new Image();
       image1.setId("image1");
@@ -800,16 +858,6 @@ public class RemoveDeploymentWorkflowServiceTest {
           }
         }).when(tenantsApi).getProjectsAsync(any(String.class), any(FutureCallback.class));
 
-        // List all vms
-        doAnswer(new Answer() {
-          @Override
-          public Object answer(InvocationOnMock invocation) throws Throwable {
-            ((FutureCallback<ResourceList<FlavoredCompact>>) invocation.getArguments()[1]).onSuccess
-                (vmResourceList);
-            return null;
-          }
-        }).when(projectApi).getVmsInProjectAsync(any(String.class), any(FutureCallback.class));
-
         // List all disks
         doAnswer(new Answer() {
           @Override
@@ -956,6 +1004,40 @@ public class RemoveDeploymentWorkflowServiceTest {
       doReturn(apiClient).when(apiClientFactory).create();
     }
 
+    private <T> CloseableHttpAsyncClient mockPagedHttpClient(final String path, List<T> items, int pageSize)
+        throws Throwable {
+      final Map<String, String> pages = new HashMap<>();
+      for (int i = 0; i * pageSize < items.size() || i == 0; i++) {
+        String nextPageLink = (i + 1) * pageSize < items.size() ? path + "?pageLink=page" + (i + 1) : null;
+        ResourceList<T> page = new ResourceList<>(
+            items.subList(i * pageSize, Math.min((i + 1) * pageSize, items.size())), nextPageLink, null);
+        pages.put(i == 0 ? path : path + "?pageLink=page" + i, new ObjectMapper().writeValueAsString(page));
+      }
+
+      CloseableHttpAsyncClient httpClient = mock(CloseableHttpAsyncClient.class);
+      doAnswer(new Answer() {
+        @Override
+        public Object answer(InvocationOnMock invocation) throws Throwable {
+          URI uri = ((HttpUriRequest) invocation.getArguments()[0]).getURI();
+          String page = pages.get(uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery()));
+
+          HttpResponse httpResponse = mock(HttpResponse.class);
+          StatusLine statusLine = mock(StatusLine.class);
+          doReturn(statusLine).when(httpResponse).getStatusLine();
+          doReturn(page == null ? HttpStatus.SC_NOT_FOUND : HttpStatus.SC_OK).when(statusLine).getStatusCode();
+          doReturn(new StringEntity(page == null ? "" : page, ContentType.APPLICATION_JSON))
+              .when(httpResponse).getEntity();
+
+          ((org.apache.http.concurrent.FutureCallback<HttpResponse>) invocation.getArguments()[2])
+              .completed(httpResponse);
+          return null;
+        }
+      }).when(httpClient).execute(
+          any(HttpUriRequest.class), any(HttpContext.class), any(org.apache.http.concurrent.FutureCallback.class));
+
+      return httpClient;
+    }
+
     private void startTestEnvironment(Integer hostCount) throws Throwable {
       testEnvironment = new TestEnvironment.Builder()
           .deployerContext(deployerContext)
@@ -14,6 +14,7 @@
 package com.vmware.photon.controller.housekeeper;
 
 import com.vmware.photon.controller.common.logging.LoggingConfiguration;
+import com.vmware.photon.controller.common.tracing.TracingConfig;
 import com.vmware.photon.controller.common.zookeeper.ZookeeperConfig;
 import com.vmware.photon.controller.housekeeper.dcp.DcpConfig;
 
@@ -63,6 +64,9 @@ public class Config {
   @NotNull
   private ZookeeperConfig zookeeper = new ZookeeperConfig();
 
+  @Valid
+  private TracingConfig tracing;
+
   public Config() {
     try {
       bind = InetAddress.getLocalHost().getHostAddress();
@@ -92,6 +96,13 @@ public class Config {
     return zookeeper;
   }
 
+  /**
+   * Returns the request tracing config, null if tracing is disabled.
+   */
+  public TracingConfig getTracing() {
+    return tracing;
+  }
+
   public DcpConfig getDcp() {
     return dcp;
   }
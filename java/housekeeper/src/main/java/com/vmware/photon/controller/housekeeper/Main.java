@@ -18,6 +18,7 @@ import com.vmware.photon.controller.common.config.ConfigBuilder;
 import com.vmware.photon.controller.common.logging.LoggingFactory;
 import com.vmware.photon.controller.common.thrift.ThriftModule;
 import com.vmware.photon.controller.common.thrift.ThriftServiceModule;
+import com.vmware.photon.controller.common.tracing.TracingConfig;
 import com.vmware.photon.controller.common.zookeeper.ZookeeperModule;
 import com.vmware.photon.controller.host.gen.Host;
 import com.vmware.photon.controller.housekeeper.dcp.HousekeeperDcpServiceHost;
@@ -52,6 +53,11 @@ public class Main {
 
     new LoggingFactory(config.getLogging(), "housekeeper").configure();
 
+    TracingConfig tracing = config.getTracing();
+    if (tracing != null) {
+      tracing.enable("housekeeper");
+    }
+
     Injector injector = Guice.createInjector(
         new HousekeeperModule(config),
         new ZookeeperModule(config.getZookeeper()),
@@ -649,9 +649,15 @@ public class ImageDatastoreSweeperService extends StatefulService {
   private List<InactiveImageDescriptor> filterInactiveImages(final State current,
                                                              final List<InactiveImageDescriptor> inactiveImages,
                                                              final Map<String, ImageService.State> referenceImages) {
+    Map<String, ImageService.State> sharingImages = findSharingImages(referenceImages);
     List<InactiveImageDescriptor> imagesToDelete = new LinkedList<>();
     for (InactiveImageDescriptor image : inactiveImages) {
       ImageService.State referenceImage = referenceImages.get(image.getImage_id());
+      if ((null == referenceImage || referenceImage.state == ImageState.PENDING_DELETE) &&
+          sharingImages.containsKey(image.getImage_id())) {
+        // the files are still used by images with the same content, so they are treated like the files of those
+        referenceImage = sharingImages.get(image.getImage_id());
+      }
       ServiceUtils.logInfo(this, Utils.toJson(referenceImage));
       if (null != referenceImage &&
           null != referenceImage.state &&
@@ -685,6 +691,27 @@ public class ImageDatastoreSweeperService extends StatefulService {
     return imagesToDelete;
   }
 
+  /**
+   * Finds the images that use the files of another image, because they have the same content, and have not been
+   * deleted.
+   *
+   * @param referenceImages
+   * @return images by the id of the image whose files they use
+   */
+  private Map<String, ImageService.State> findSharingImages(final Map<String, ImageService.State> referenceImages) {
+    Map<String, ImageService.State> sharingImages = new HashMap<>();
+    for (Map.Entry<String, ImageService.State> referenceImage : referenceImages.entrySet()) {
+      ImageService.State image = referenceImage.getValue();
+      if (null != image.contentImageId &&
+          !image.contentImageId.equals(referenceImage.getKey()) &&
+          image.state != ImageState.PENDING_DELETE) {
+        sharingImages.put(image.contentImageId, image);
+      }
+    }
+
+    return sharingImages;
+  }
+
   /**
    * Moves the service into the FAILED state.
    *
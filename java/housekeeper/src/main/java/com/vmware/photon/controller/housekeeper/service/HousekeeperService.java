@@ -17,6 +17,7 @@ import com.vmware.photon.controller.common.dcp.ServiceHostUtils;
 import com.vmware.photon.controller.common.logging.LoggingUtils;
 import com.vmware.photon.controller.common.manifest.BuildInfo;
 import com.vmware.photon.controller.common.thrift.ServerSet;
+import com.vmware.photon.controller.common.tracing.Tracer;
 import com.vmware.photon.controller.common.zookeeper.ServiceNodeEventHandler;
 import com.vmware.photon.controller.housekeeper.HousekeeperServerSet;
 import com.vmware.photon.controller.housekeeper.dcp.DcpConfig;
@@ -163,5 +164,6 @@ public class HousekeeperService implements Housekeeper.Iface, ServiceNodeEventHa
     }
 
     LoggingUtils.setRequestId(requestId);
+    Tracer.join(tracingInfo);
   }
 }
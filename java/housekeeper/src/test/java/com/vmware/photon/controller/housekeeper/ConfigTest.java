@@ -25,6 +25,7 @@ import org.testng.annotations.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -72,6 +73,12 @@ public class ConfigTest {
     assertThat(config.getLogging(), instanceOf(LoggingConfiguration.class));
   }
 
+  @Test
+  public void testTracingConfig() {
+    assertThat(config.getTracing().getFile(), is("/tmp/traces.json"));
+    assertThat(config.getTracing().getSampleRate(), is(0.5));
+  }
+
   /**
    * Tests that a minimal config file can be loaded.
    */
@@ -91,5 +98,10 @@ public class ConfigTest {
     public void testDefaultRegistrationAddress() throws UnknownHostException {
       assertThat(config.getRegistrationAddress(), is(InetAddress.getLocalHost().getHostAddress()));
     }
+
+    @Test
+    public void testTracingDisabled() {
+      assertThat(config.getTracing(), nullValue());
+    }
   }
 }
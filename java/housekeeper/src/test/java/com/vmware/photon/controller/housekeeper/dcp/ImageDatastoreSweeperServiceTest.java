@@ -962,6 +962,9 @@ public class ImageDatastoreSweeperServiceTest {
       // create reference images
       List<ImageService.State> refImages =
           buildReferenceImages(host, refImageParams[0], refImageParams[1]);
+      if (refImageParams.length > 2) {
+        buildSharingImages(host, refImages, refImageParams[1], refImageParams[2]);
+      }
 
       // adjust request
       request.referenceImagesCount = refImages.size();
@@ -1032,6 +1035,8 @@ public class ImageDatastoreSweeperServiceTest {
           // 5 (2 tombstoned), 3 unused (2:eager, 1:on-demand) (0 newer than watermark)
           {1, 6.0, new int[]{5, 2}, new int[]{3, 0, 0, 0}, true, 2},
           {3, 6.0, new int[]{5, 2}, new int[]{3, 0, 0, 0}, true, 2},
+          // 5 (2 tombstoned, 1 of them with its content still used), 3 unused (0 newer than watermark)
+          {1, 6.0, new int[]{5, 2, 1}, new int[]{3, 0, 0, 0}, true, 1},
           // 5 (2 tombstoned), 3 unused (2:eager, 1:on-demand) (2 newer then watermark)
           {1, 6.0, new int[]{5, 2}, new int[]{3, 2, 0, 0}, true, 2},
           // 5 (2 tombstoned), 3 unused (2:eager, 1:on-demand) (2 newer then watermark),
@@ -1055,6 +1060,10 @@ public class ImageDatastoreSweeperServiceTest {
           {1, 6.0, new int[]{5, 2}, new int[]{4, 0, 0, 0}, false, 3},
           {3, 6.0, new int[]{5, 2}, new int[]{4, 0, 0, 0}, false, 3},
 
+          // 5 on image datastore (2 tombstoned, the eager one with its content still used), 4 unused
+          // (2:eager, 2:on-demand) (0 newer than watermark), 0 extra
+          {1, 6.0, new int[]{5, 2, 1}, new int[]{4, 0, 0, 0}, false, 2},
+
           // 5 on image datastore (0 tombstoned), 4 unused (2:eager, 2:on-demand) (0 newer than watermark), 0 extra
           {1, 6.0, new int[]{5, 0}, new int[]{4, 0, 0, 0}, false, 2},
 
@@ -1228,6 +1237,34 @@ public class ImageDatastoreSweeperServiceTest {
       return images;
     }
 
+    /**
+     * Creates ready images that use the files of the last tombstoned reference images, because they have the same
+     * content.
+     */
+    private void buildSharingImages(ServiceHost host, List<ImageService.State> referenceImages, int tombstoned,
+                                    int count) throws Throwable {
+      for (int i = tombstoned - count; i < tombstoned; i++) {
+        ImageService.State state = new ImageService.State();
+        state.name = "sharing-image-" + i;
+        state.replicationType = referenceImages.get(i).replicationType;
+        state.state = ImageState.READY;
+        state.contentImageId = ServiceUtils.getIDFromDocumentSelfLink(referenceImages.get(i).documentSelfLink);
+        state.totalImageDatastore = 1;
+        state.totalDatastore = 1;
+        state.replicatedDatastore = 1;
+
+        Operation op = cloudStoreHelper
+            .createPost(ImageServiceFactory.SELF_LINK)
+            .setBody(state)
+            .setCompletion((operation, throwable) -> {
+              if (null != throwable) {
+                Assert.fail("Failed to create a sharing image.");
+              }
+            });
+        ServiceHostUtils.sendRequestAndWait(host, op, "test-host");
+      }
+    }
+
     private List<InactiveImageDescriptor> buildInactiveImages(
         List<ImageService.State> referenceImages, long timestamp, int count, int countNew, int extra, int extraNew) {
       List<InactiveImageDescriptor> images = new ArrayList<>();
@@ -27,6 +27,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 
@@ -44,8 +45,8 @@ public class Authd {
   // TODO(jandersen): Quick and dirty hack. Needs cleanup.
   public static Socket connect(String host, int port, String sslThumbprint,
                                String service, String session, int timeoutMs) throws IOException {
-    // Open socket to the remote host
-    Socket socket = new Socket();
+    // Open socket to the remote host. It is backed by a channel, so NfcClient can write to the channel directly.
+    Socket socket = SocketChannel.open().socket();
     socket.setSoTimeout(timeoutMs);
     socket.setTcpNoDelay(true);
     socket.connect(new InetSocketAddress(host, port));
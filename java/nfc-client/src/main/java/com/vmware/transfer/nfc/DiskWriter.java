@@ -30,6 +30,7 @@ public class DiskWriter implements AutoCloseable {
   private static final Logger logger = LoggerFactory.getLogger(DiskWriter.class);
 
   private final NfcClient nfcClient;
+  private final ByteBuffer fileDataMsg;
   private ByteBuffer fileData;
   private long zeroSectors = 0;
   private long nextLba = 0;
@@ -39,7 +40,10 @@ public class DiskWriter implements AutoCloseable {
   public DiskWriter(NfcClient nfcClient, long capacity) {
     this.nfcClient = nfcClient;
     this.capacity = capacity;
-    fileData = ByteBuffer.allocate(NfcClient.MAX_PAYLOAD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    fileDataMsg = nfcClient.newNfcMsg(NfcClient.NFC_FILE_DATA);
+    // Direct, so the socket channel sends it without copying
+    fileData = ByteBuffer.allocateDirect(nfcClient.getTransferSize() - NfcClient.NFC_MESSAGE_SIZE)
+        .order(ByteOrder.LITTLE_ENDIAN);
     resetFileData();
   }
 
@@ -60,20 +64,41 @@ public class DiskWriter implements AutoCloseable {
   }
 
   /**
-   * Write a data grain. Will be buffered until we have a full message of grains.
+   * Write a single data sector. Will be buffered until we have a full message of grains.
    */
   public void writeGrain(long lba, byte[] data, int offset) throws IOException {
-    assert data.length - offset >= NfcClient.SECTOR_SIZE;
+    writeGrain(lba, data, offset, NfcClient.SECTOR_SIZE);
+  }
+
+  /**
+   * Write a data grain of whole sectors starting at the given lba. Adjacent non-zero sectors are sent as a single
+   * data run and zero sectors are only counted, so they can be sent as a zero run later. Will be buffered until we
+   * have a full message of grains.
+   */
+  public void writeGrain(long lba, byte[] data, int offset, int length) throws IOException {
+    assert length % NfcClient.SECTOR_SIZE == 0;
+    assert data.length - offset >= length;
     if (lba < nextLba) {
       throw new RuntimeException("Sectors are out of order");
     }
 
+    int sectors = length / NfcClient.SECTOR_SIZE;
     zeroSectors += lba - nextLba;
-    nextLba = lba + 1;
-    if (isZero(data, offset, NfcClient.SECTOR_SIZE)) {
-      zeroSectors++;
-    } else {
-      outputDataSector(data, offset);
+    nextLba = lba + sectors;
+    int sector = 0;
+    while (sector < sectors) {
+      int runStart = sector;
+      if (isZero(data, offset + sector * NfcClient.SECTOR_SIZE, NfcClient.SECTOR_SIZE)) {
+        do {
+          sector++;
+        } while (sector < sectors && isZero(data, offset + sector * NfcClient.SECTOR_SIZE, NfcClient.SECTOR_SIZE));
+        zeroSectors += sector - runStart;
+      } else {
+        do {
+          sector++;
+        } while (sector < sectors && !isZero(data, offset + sector * NfcClient.SECTOR_SIZE, NfcClient.SECTOR_SIZE));
+        outputDataSectors(data, offset + runStart * NfcClient.SECTOR_SIZE, sector - runStart);
+      }
     }
   }
 
@@ -111,11 +136,24 @@ public class DiskWriter implements AutoCloseable {
     }
   }
 
-  private void outputDataSector(byte[] data, int offset) throws IOException {
+  private void outputDataSectors(byte[] data, int offset, int sectors) throws IOException {
     outputBufferedZeroSectors();
-    writeNfcFileDskRLEHdr(1, false);
-    fileData.put(data, offset, NfcClient.SECTOR_SIZE);
-    flushIfAtLimit();
+    while (sectors > 0) {
+      // A run has to fit in the current message, after its RLE header and the disk header of a fresh message
+      int room = fileData.remaining() - 2 * 4 - (isDirty ? 0 : 2 * 4);
+      int runSectors = Math.min(Math.min(sectors, NfcClient.RLE_MAX_COUNT), room / NfcClient.SECTOR_SIZE);
+      if (runSectors == 0) {
+        flush();
+        continue;
+      }
+
+      int runLength = runSectors * NfcClient.SECTOR_SIZE;
+      writeNfcFileDskRLEHdr(runSectors, false);
+      fileData.put(data, offset, runLength);
+      offset += runLength;
+      sectors -= runSectors;
+      flushIfAtLimit();
+    }
   }
 
   private void flushIfAtLimit() throws IOException {
@@ -140,7 +178,16 @@ public class DiskWriter implements AutoCloseable {
   }
 
   private boolean isZero(byte[] data, int offset, int length) {
-    for (int i = offset; i < offset + length; ++i) {
+    int end = offset + length;
+    int i = offset;
+    // Test a 64-bit word per branch, sectors are always a multiple of 8 bytes
+    for (; i + 8 <= end; i += 8) {
+      if ((data[i] | data[i + 1] | data[i + 2] | data[i + 3]
+          | data[i + 4] | data[i + 5] | data[i + 6] | data[i + 7]) != 0) {
+        return false;
+      }
+    }
+    for (; i < end; ++i) {
       if (data[i] != 0) {
         return false;
       }
@@ -171,12 +218,10 @@ public class DiskWriter implements AutoCloseable {
   }
 
   private void writeFileData() throws IOException {
-    ByteBuffer msg = this.nfcClient.newNfcMsg(NfcClient.NFC_FILE_DATA);
-    this.nfcClient.sendNfcMsg(msg);
     // Patch in size of file data
     fileData.putInt(4, fileData.position() - 2 * 4);
     fileData.flip();
-    this.nfcClient.writeFully(fileData);
+    this.nfcClient.sendNfcMsg(fileDataMsg, fileData);
   }
 
   public void finalizeWrite() throws IOException {
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.transfer.nfc;
+
+import com.vmware.transfer.streamVmdk.StreamVmdkReader;
+import com.vmware.transfer.streamVmdk.VmdkFormatException;
+
+import com.google.common.base.Throwables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GrainPrefetcher reads and inflates the grains of a stream-optimized disk on
+ * a worker thread, so the next grains are ready while the current one is sent.
+ * <p/>
+ * Grains are handed over in disk order. At most {@code grainsInFlight} grain
+ * buffers exist, and a buffer is only reused after the caller releases it.
+ */
+class GrainPrefetcher implements AutoCloseable {
+  static final int DEFAULT_GRAINS_IN_FLIGHT = 8;
+  private static final Logger logger = LoggerFactory.getLogger(GrainPrefetcher.class);
+  private static final long CLOSE_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+  private static final Grain END_OF_DISK = new Grain(0);
+
+  private final StreamVmdkReader disk;
+  private final BlockingQueue<Grain> freeGrains;
+  private final BlockingQueue<Grain> readGrains = new LinkedBlockingQueue<>();
+  private final Thread worker;
+  private volatile Throwable error;
+  private volatile boolean closed = false;
+
+  GrainPrefetcher(StreamVmdkReader disk, int grainsInFlight, String name) {
+    this.disk = disk;
+    freeGrains = new ArrayBlockingQueue<>(grainsInFlight);
+    for (int i = 0; i < grainsInFlight; i++) {
+      freeGrains.add(new Grain(disk.getGrainSize() * SparseUtil.DISKLIB_SECTOR_SIZE));
+    }
+    worker = new Thread(this::readGrains, "GrainPrefetcher-" + name);
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  /**
+   * Wait for the next data grain.
+   *
+   * @return Next data grain, or null at the end of the disk
+   */
+  Grain next() throws IOException, VmdkFormatException {
+    Grain grain;
+    try {
+      grain = readGrains.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading disk grains", e);
+    }
+    if (grain != END_OF_DISK) {
+      return grain;
+    }
+
+    // Leave the end marker for later calls
+    readGrains.add(END_OF_DISK);
+    if (error != null) {
+      Throwables.propagateIfInstanceOf(error, IOException.class);
+      Throwables.propagateIfInstanceOf(error, VmdkFormatException.class);
+      throw Throwables.propagate(error);
+    }
+    return null;
+  }
+
+  /**
+   * Hand a grain returned by {@link #next()} back, once its data has been sent.
+   */
+  void release(Grain grain) {
+    freeGrains.add(grain);
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    worker.interrupt();
+    try {
+      worker.join(CLOSE_TIMEOUT_MS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (worker.isAlive()) {
+      logger.warn("{} is still reading the disk after {} ms", worker.getName(), CLOSE_TIMEOUT_MS);
+    }
+  }
+
+  private void readGrains() {
+    try {
+      while (!closed) {
+        Grain grain = freeGrains.take();
+        grain.size = disk.getNextGrain(grain.data);
+        if (grain.size < 0) {
+          break;
+        }
+        if (grain.size == 0) {
+          // Progress marker, there is no data to send
+          freeGrains.add(grain);
+          continue;
+        }
+        grain.lba = disk.getCurrentLba();
+        readGrains.add(grain);
+      }
+    } catch (InterruptedException e) {
+      logger.debug("{} interrupted", worker.getName());
+    } catch (Throwable t) {
+      error = t;
+    } finally {
+      readGrains.add(END_OF_DISK);
+    }
+  }
+
+  /**
+   * Inflated data grain and its position on the disk.
+   */
+  static class Grain {
+    final byte[] data;
+    int size;
+    long lba;
+
+    Grain(int capacity) {
+      data = new byte[capacity];
+    }
+  }
+}
@@ -22,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.Socket;
@@ -29,7 +30,9 @@ import java.net.SocketException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SocketChannel;
 import java.nio.channels.WritableByteChannel;
 
 /**
@@ -39,6 +42,8 @@ import java.nio.channels.WritableByteChannel;
 public class NfcClient implements AutoCloseable {
   // NFC FILE_DATA max size (including 256 byte header)
   public static final int MAX_XFER_SIZE = 256 * 1024;
+  // Smallest configurable FILE_DATA size, the disk DB has to fit in a single message
+  public static final int MIN_XFER_SIZE = 64 * 1024;
 
   // Constants below are lifted from nfclib on vmkernel-main
   static final int NFC_MESSAGE_SIZE = 264;
@@ -110,21 +115,58 @@ public class NfcClient implements AutoCloseable {
   private Socket socket;
   private ReadableByteChannel input;
   private WritableByteChannel output;
+  private int transferSize = MAX_XFER_SIZE;
 
   @VisibleForTesting
   protected NfcClient() {
   }
 
+  @VisibleForTesting
+  NfcClient(Socket socket) throws IOException {
+    this.socket = socket;
+    openChannels(socket.getSoTimeout());
+  }
+
   public NfcClient(HostServiceTicket ticket, int timeoutMs) throws IOException {
+    this(ticket, timeoutMs, MAX_XFER_SIZE);
+  }
+
+  /**
+   * @param transferSize Size of the FILE_DATA messages sent by this client, including the message header
+   */
+  public NfcClient(HostServiceTicket ticket, int timeoutMs, int transferSize) throws IOException {
     checkArgument(ticket != null, "Null ticket passed to NfcClient().");
+    checkArgument(transferSize >= MIN_XFER_SIZE && transferSize <= MAX_XFER_SIZE,
+        "NFC transfer size must be between %s and %s bytes.", MIN_XFER_SIZE, MAX_XFER_SIZE);
     logger.debug("Connecting to {} on {}:{}", ticket.getService(), ticket.getHost(),
         ticket.getPort());
+    this.transferSize = transferSize;
     socket = Authd.connect(ticket, timeoutMs);
-    input = Channels.newChannel(socket.getInputStream());
-    output = Channels.newChannel(socket.getOutputStream());
+    openChannels(timeoutMs);
     // TODO(jandersen): Use SSL if session ~= s/ssl/ ("vpxa-nfcssl", for example)
   }
 
+  private void openChannels(int timeoutMs) throws IOException {
+    SocketChannel channel = socket.getChannel();
+    if (channel == null) {
+      input = Channels.newChannel(socket.getInputStream());
+      output = Channels.newChannel(socket.getOutputStream());
+      return;
+    }
+
+    // Writes go straight to the socket channel, so direct buffers are not copied and frames are gathered into one
+    // write. Blocking channel reads ignore SO_TIMEOUT, so the socket stream is still used to read with a timeout.
+    output = channel;
+    input = timeoutMs > 0 ? Channels.newChannel(socket.getInputStream()) : channel;
+  }
+
+  /**
+   * Size of the FILE_DATA messages sent by this client, including the message header.
+   */
+  public int getTransferSize() {
+    return transferSize;
+  }
+
 
   /**
    * Open a PUT_FILE session to upload a raw file. The difference of this method to putFile is close the OutputStream
@@ -150,8 +192,7 @@ public class NfcClient implements AutoCloseable {
     msg.putInt(dsPathBytes.remaining());
     msg.putLong(fileSize); // file size
     msg.putLong(fileSize); // space required
-    sendNfcMsg(msg);
-    writeFully(dsPathBytes);
+    sendNfcMsg(msg, dsPathBytes);
     return new NfcFileOutputStream(this, autoClose);
   }
 
@@ -172,8 +213,7 @@ public class NfcClient implements AutoCloseable {
     msg.putInt(dsPathBytes.remaining());
     msg.putLong(capacity * SECTOR_SIZE); // capacity
     msg.putLong(capacity * SECTOR_SIZE); // space required
-    sendNfcMsg(msg);
-    writeFully(dsPathBytes);
+    sendNfcMsg(msg, dsPathBytes);
     return new DiskWriter(this, capacity);
   }
 
@@ -182,6 +222,9 @@ public class NfcClient implements AutoCloseable {
    * the datastore, it will be overwritten. The only disk type than can be correctly
    * uploaded in this mode is streamOptimized.
    * <p/>
+   * Grains are inflated on a worker thread, at most a few grains ahead of the
+   * grain that is being sent.
+   * <p/>
    * adapted from: https://opengrok.eng.vmware.com/source/xref/vdc-2015.perforce-shark.1700
    * /vdc-2015/src/transfer-svc/ts-main/src/main/java/com/vmware/transfer/impl/NfcEndpointImpl.java
    *
@@ -196,30 +239,30 @@ public class NfcClient implements AutoCloseable {
     StreamVmdkReader disk = getStreamVmdkReader(inputStream);
 
     DiskWriter writer = null;
+    GrainPrefetcher grains = null;
     try {
       writer = putDisk(filePath, disk.getAdapterType(), disk.getCapacityInSectors());
       writer.writeDdb(disk.getDdb());
-      byte[] grain = new byte[disk.getGrainSize() * SparseUtil.DISKLIB_SECTOR_SIZE];
-      int grainSize = disk.getNextGrain(grain);
+      // Inflate the next grains on a worker thread while the current grain is sent
+      grains = new GrainPrefetcher(disk, GrainPrefetcher.DEFAULT_GRAINS_IN_FLIGHT, filePath);
+      GrainPrefetcher.Grain grain = grains.next();
       int grainCount = 0;
-      while (grainSize >= 0) {
+      while (grain != null) {
         grainCount++;
         if (0 == (grainCount % 1000)) {
           logger.debug("NfcClient putStreamOptimizedDisk for file {} preparing to write grain count/size {}/{}",
               filePath,
               grainCount,
-              grainSize);
+              grain.size);
         }
-        if (grainSize > 0) {
-          long lba = disk.getCurrentLba();
-          for (int offset = 0; offset < grainSize; offset += SparseUtil.DISKLIB_SECTOR_SIZE) {
-            writer.writeGrain(lba++, grain, offset);
-          }
-        }
-        grainSize = disk.getNextGrain(grain);
+        // Partial grains are sent as whole sectors
+        int sectors = (grain.size + SparseUtil.DISKLIB_SECTOR_SIZE - 1) / SparseUtil.DISKLIB_SECTOR_SIZE;
+        writer.writeGrain(grain.lba, grain.data, 0, sectors * SparseUtil.DISKLIB_SECTOR_SIZE);
+        grains.release(grain);
+        grain = grains.next();
       }
-      logger.debug("NfcClient putStreamOptimizedDisk for file {} write complete on grain count/size {}/{}", filePath,
-          grainCount, grainSize);
+      logger.debug("NfcClient putStreamOptimizedDisk for file {} write complete on grain count {}", filePath,
+          grainCount);
       writer.finalizeWrite();
       close();
       return disk.getCapacityInSectors() * SparseUtil.DISKLIB_SECTOR_SIZE;
@@ -227,10 +270,18 @@ public class NfcClient implements AutoCloseable {
       logger.error("Remote host closed connection while uploading to datastore (could be of out of space): {}", e);
       throw e;
     } finally {
-      if (writer != null) {
-        writer.close();
+      // Close the input before stopping the worker, a worker blocked reading it does not notice the interrupt
+      try {
+        disk.close();
+      } finally {
+        if (grains != null) {
+          grains.close();
+        }
+        if (writer != null) {
+          writer.close();
+        }
+        abort();
       }
-      abort();
     }
   }
 
@@ -243,8 +294,7 @@ public class NfcClient implements AutoCloseable {
     msg.putInt(NFC_RAW);
     msg.putInt(dsPathBytes.remaining());
     msg.putInt(0); // conversion flags
-    sendNfcMsg(msg);
-    writeFully(dsPathBytes);
+    sendNfcMsg(msg, dsPathBytes);
     NfcFileInputStream result = new NfcFileInputStream(this);
     result.init(); // read and parse NFC_FILE_PUT response message
     return result;
@@ -259,8 +309,7 @@ public class NfcClient implements AutoCloseable {
     msg.putInt(NFC_DISK);
     msg.putInt(dsPathBytes.remaining());
     msg.putInt(0); // conversion flags
-    sendNfcMsg(msg);
-    writeFully(dsPathBytes);
+    sendNfcMsg(msg, dsPathBytes);
     DiskReader result = new DiskReader(this);
     result.init(); // read and parse NFC_FILE_PUT response message
     return result;
@@ -272,8 +321,7 @@ public class NfcClient implements AutoCloseable {
     msg.putInt(dsPathBytes.remaining());
     msg.putInt(NFC_FILE_CREATEDIRHIER);
     msg.putShort((short) 1);
-    sendNfcMsg(msg);
-    writeFully(dsPathBytes);
+    sendNfcMsg(msg, dsPathBytes);
     ByteBuffer reply = readNfcResponse();
     validateReplyCode(reply, NFC_FILEOP_STATUS);
     int errsize = reply.getInt();
@@ -288,8 +336,7 @@ public class NfcClient implements AutoCloseable {
     msg.putInt(dsPathBytes.remaining());
     msg.putInt(NFC_FILE_CREATEDIRHIER);
     msg.putShort((short) 1);
-    sendNfcMsg(msg);
-    writeFully(dsPathBytes);
+    sendNfcMsg(msg, dsPathBytes);
     ByteBuffer reply = readNfcResponse();
     validateReplyCode(reply, NFC_FILEOP_STATUS);
     int errsize = reply.getInt();
@@ -328,6 +375,17 @@ public class NfcClient implements AutoCloseable {
     }
   }
 
+  /**
+   * Read at least one byte from channel, as much as fits in the data buffer.
+   */
+  int read(ByteBuffer data) throws IOException {
+    int bytesRead = input.read(data);
+    if (bytesRead < 0) {
+      throw new EOFException("NFC connection closed by remote host");
+    }
+    return bytesRead;
+  }
+
   /**
    * Write entire data buffer to channel.
    */
@@ -337,6 +395,27 @@ public class NfcClient implements AutoCloseable {
     }
   }
 
+  /**
+   * Write all data buffers to channel, with gathering writes if the channel supports them.
+   */
+  void writeFully(ByteBuffer[] data) throws IOException {
+    if (!(output instanceof GatheringByteChannel)) {
+      for (ByteBuffer buffer : data) {
+        writeFully(buffer);
+      }
+      return;
+    }
+
+    long remaining = 0;
+    for (ByteBuffer buffer : data) {
+      remaining += buffer.remaining();
+    }
+    GatheringByteChannel channel = (GatheringByteChannel) output;
+    while (remaining > 0) {
+      remaining -= channel.write(data);
+    }
+  }
+
   ByteBuffer newNfcMsg(int msgType) {
     ByteBuffer msg = ByteBuffer.allocate(NFC_MESSAGE_SIZE);
     msg.order(ByteOrder.LITTLE_ENDIAN);
@@ -351,6 +430,18 @@ public class NfcClient implements AutoCloseable {
     writeFully(msg);
   }
 
+  /**
+   * Send message followed by its payload in a single write.
+   */
+  void sendNfcMsg(ByteBuffer msg, ByteBuffer... payload) throws IOException {
+    assert msg.capacity() == NFC_MESSAGE_SIZE;
+    msg.rewind();
+    ByteBuffer[] frame = new ByteBuffer[payload.length + 1];
+    frame[0] = msg;
+    System.arraycopy(payload, 0, frame, 1, payload.length);
+    writeFully(frame);
+  }
+
   void readNfcResponse(ByteBuffer reply) throws IOException {
     assert reply.capacity() == NFC_MESSAGE_SIZE;
     assert reply.order() == ByteOrder.LITTLE_ENDIAN;
@@ -430,8 +521,7 @@ public class NfcClient implements AutoCloseable {
     msg.putInt(dsPathBytes.remaining());
     msg.putInt(0x0A); // openFlags (=OPEN_PARENT | OPEN_LOCK)
     msg.put((byte) 0); // rawFile? (=FALSE)
-    sendNfcMsg(msg);
-    writeFully(dsPathBytes);
+    sendNfcMsg(msg, dsPathBytes);
 
     ByteBuffer reply = readNfcResponse();
     validateReplyCode(reply, NFC_FSSRVR_DISKGEO);
@@ -446,8 +536,7 @@ public class NfcClient implements AutoCloseable {
     msg.putInt(1); // write
     msg.putLong(lba);
     msg.putInt(length);
-    sendNfcMsg(msg);
-    writeFully(ByteBuffer.wrap(data, 0, length));
+    sendNfcMsg(msg, ByteBuffer.wrap(data, 0, length));
 
     ByteBuffer reply = readNfcResponse();
     validateReplyCode(reply, NFC_FSSRVR_IO);
@@ -32,7 +32,8 @@ public class NfcFileInputStream extends InputStream {
   private final boolean autoClose;
   private ByteBuffer msgBuffer;
   private ByteBuffer hdrBuffer;
-  private ByteBuffer frameBuffer;
+  // Bytes of the current FILE_DATA frame that have not been read yet, -1 at the end of the file
+  private int frameRemaining;
   private long fileSize;
 
   public NfcFileInputStream(NfcClient nfcClient) {
@@ -42,7 +43,6 @@ public class NfcFileInputStream extends InputStream {
   public NfcFileInputStream(NfcClient nfcClient, boolean autoClose) {
     this.nfcClient = nfcClient;
     this.hdrBuffer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
-    this.frameBuffer = ByteBuffer.allocate(NfcClient.MAX_XFER_SIZE);
     this.autoClose = autoClose;
   }
 
@@ -85,18 +85,23 @@ public class NfcFileInputStream extends InputStream {
     return read(data, 0, data.length);
   }
 
+  /**
+   * Read file data straight from the connection into the caller's buffer, without going through a frame buffer.
+   */
   @Override
   public int read(byte[] b, int off, int len) throws IOException {
-    if (frameBuffer != null && !frameBuffer.hasRemaining()) {
+    if (frameRemaining == 0) {
       readIncoming();
     }
-    if (frameBuffer == null) {
+    if (frameRemaining < 0) {
       return -1; // EOF
     }
-    assert frameBuffer.hasRemaining();
-    int bytesToRead = Math.min(len, frameBuffer.remaining());
-    frameBuffer.get(b, off, bytesToRead);
-    return bytesToRead;
+    if (len == 0) {
+      return 0;
+    }
+    int bytesRead = nfcClient.read(ByteBuffer.wrap(b, off, Math.min(len, frameRemaining)));
+    frameRemaining -= bytesRead;
+    return bytesRead;
   }
 
   @Override
@@ -121,12 +126,9 @@ public class NfcFileInputStream extends InputStream {
     int frameBytes = hdrBuffer.getInt();
     if (frameBytes == 0) {
       // EOF
-      frameBuffer = null;
+      frameRemaining = -1;
       return;
     }
-    frameBuffer.clear();
-    frameBuffer.limit(frameBytes);
-    nfcClient.readFully(frameBuffer);
-    frameBuffer.flip();
+    frameRemaining = frameBytes;
   }
 }
@@ -27,6 +27,7 @@ public class NfcFileOutputStream extends OutputStream {
   private final NfcClient nfcClient;
   private final ByteBuffer nfcMessage;
   private final ByteBuffer fileDataHdr;
+  private final int frameSize;
 
   // when autoClose set to true, after finish streaming the file, close NfcClient.
   private final boolean autoClose;
@@ -39,6 +40,7 @@ public class NfcFileOutputStream extends OutputStream {
     this.nfcClient = nfcClient;
     nfcMessage = nfcClient.newNfcMsg(NfcClient.NFC_FILE_DATA);
     fileDataHdr = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+    frameSize = nfcClient.getTransferSize();
     this.autoClose = autoClose;
   }
 
@@ -59,7 +61,7 @@ public class NfcFileOutputStream extends OutputStream {
   public void write(byte[] data, int offset, int length) throws IOException {
     assert data.length >= offset + length;
     while (length > 0) {
-      int toWrite = Math.min(length, NfcClient.MAX_XFER_SIZE);
+      int toWrite = Math.min(length, frameSize);
       writeInt(data, offset, toWrite);
       offset += toWrite;
       length -= toWrite;
@@ -68,15 +70,13 @@ public class NfcFileOutputStream extends OutputStream {
 
   private void writeInt(byte[] data, int offset, int length) throws IOException {
     assert data.length >= offset + length;
-    assert length <= NfcClient.MAX_XFER_SIZE;
+    assert length <= frameSize;
     fileDataHdr.clear();
     fileDataHdr.putInt(NfcClient.FILE_DATA_HDR_MAGIC);
     fileDataHdr.putInt(length);
     fileDataHdr.flip();
     ByteBuffer dataBuffer = ByteBuffer.wrap(data, offset, length);
-    nfcClient.sendNfcMsg(nfcMessage);
-    nfcClient.writeFully(fileDataHdr);
-    nfcClient.writeFully(dataBuffer);
+    nfcClient.sendNfcMsg(nfcMessage, fileDataHdr, dataBuffer);
   }
 
   @Override
@@ -31,6 +31,10 @@ import java.util.zip.Inflater;
 /**
  * StreamVmdkReader reads stream-optimized VMDKs. Used for converting disks
  * during upload to ESX via NFC.
+ * <p/>
+ * The inflater and the grain buffers are reused for every grain of the stream.
+ * The native memory of the inflater is released when the end of the stream is
+ * reached or the reader is closed.
  */
 public class StreamVmdkReader {
   // TODO(jandersen): NIO
@@ -40,6 +44,12 @@ public class StreamVmdkReader {
   private long currentLba;
   private String adapterType;
   private Map<String, String> ddb;
+  private final ByteBuffer grainHeader = ByteBuffer.allocate(SparseUtil.STREAMED_GRAIN_HEADER_SIZE)
+      .order(ByteOrder.LITTLE_ENDIAN);
+  private final ByteBuffer grainMarker = ByteBuffer.allocate(SparseUtil.DISKLIB_SECTOR_SIZE
+      - SparseUtil.STREAMED_GRAIN_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+  private byte[] compressedGrain = new byte[0];
+  private Inflater inflater;
 
   public StreamVmdkReader(InputStream input) throws VmdkFormatException, IOException {
     this.input = new DataInputStream(input);
@@ -157,28 +167,17 @@ public class StreamVmdkReader {
   }
 
   public int getNextGrain(byte[] grain) throws VmdkFormatException, IOException {
-    byte[] headerBytes = new byte[12];
-    readFully(headerBytes);
-    ByteBuffer header = ByteBuffer.wrap(headerBytes);
-    header.order(ByteOrder.LITTLE_ENDIAN);
-    long sector = header.getLong();
-    int cmpSize = header.getInt();
-
-    // Sanity check
-    if (cmpSize > grain.length * 3) {
-      throw new VmdkFormatException("Disk format error: Invalid grain size");
-    }
+    readFully(grainHeader.array());
+    long sector = grainHeader.getLong(0);
+    int cmpSize = grainHeader.getInt(8);
 
     while (cmpSize == 0) {
       // Metadata grain
-      byte[] metadataBytes = new byte[512 - 12];
-      readFully(metadataBytes);
-      ByteBuffer metadata = ByteBuffer.wrap(metadataBytes);
-      metadata.order(ByteOrder.LITTLE_ENDIAN);
-      int type = metadata.getInt();
-      long value = metadata.getLong();
+      readFully(grainMarker.array());
+      int type = grainMarker.getInt(0);
+      long value = grainMarker.getLong(4);
       if (type == SparseUtil.GRAIN_MARKER_EOS) {
-        input.close();
+        close();
         return -1; // End of stream
       }
       if (type == SparseUtil.GRAIN_MARKER_PROGRESS) {
@@ -191,24 +190,30 @@ public class StreamVmdkReader {
       while (toSkip > 0) {
         toSkip -= input.skip(toSkip);
       }
-      readFully(headerBytes);
-      header = ByteBuffer.wrap(headerBytes);
-      header.order(ByteOrder.LITTLE_ENDIAN);
-      sector = header.getLong();
-      cmpSize = header.getInt();
-    }
-    assert cmpSize > 0;
-    byte[] cmpBytes = new byte[cmpSize];
-    readFully(cmpBytes);
-    Inflater inf = new Inflater();
-    inf.setInput(cmpBytes);
+      readFully(grainHeader.array());
+      sector = grainHeader.getLong(0);
+      cmpSize = grainHeader.getInt(8);
+    }
+
+    // Sanity check
+    if (cmpSize < 0 || cmpSize > grain.length * 3) {
+      throw new VmdkFormatException("Disk format error: Invalid grain size");
+    }
+    if (compressedGrain.length < cmpSize) {
+      compressedGrain = new byte[grain.length * 3];
+    }
+    readFully(compressedGrain, cmpSize);
+    if (inflater == null) {
+      inflater = new Inflater();
+    }
+    inflater.reset();
+    inflater.setInput(compressedGrain, 0, cmpSize);
     int grainSize = -1;
     try {
-      grainSize = inf.inflate(grain);
+      grainSize = inflater.inflate(grain);
     } catch (DataFormatException e) {
       throw new VmdkFormatException("Zlib error: " + e.getMessage(), e);
     }
-    inf.end();
 
     long totalGrainSize = 12 + cmpSize;
     long paddingSize = ((totalGrainSize + 512 - 1) / 512) * 512 - totalGrainSize;
@@ -220,8 +225,12 @@ public class StreamVmdkReader {
   }
 
   private void readFully(byte[] buffer) throws IOException, VmdkFormatException {
+    readFully(buffer, buffer.length);
+  }
+
+  private void readFully(byte[] buffer, int length) throws IOException, VmdkFormatException {
     try {
-      input.readFully(buffer);
+      input.readFully(buffer, 0, length);
     } catch (EOFException e) {
       throw new VmdkFormatException("Unexpected end of file", e);
     }
@@ -232,6 +241,13 @@ public class StreamVmdkReader {
   }
 
   public void close() throws IOException {
-    input.close();
+    try {
+      input.close();
+    } finally {
+      if (inflater != null) {
+        inflater.end();
+        inflater = null;
+      }
+    }
   }
 }
@@ -32,6 +32,9 @@ import java.util.zip.Deflater;
 
 /**
  * StreamVmdkWriter writes stream-optimized VMDKs.
+ * <p/>
+ * The deflater and the compression buffer are reused for every grain. The
+ * native memory of the deflater is released when the writer is closed.
  */
 public class StreamVmdkWriter {
   private static final Logger logger = LoggerFactory.getLogger(StreamVmdkWriter.class);
@@ -53,6 +56,9 @@ public class StreamVmdkWriter {
   private ByteBuffer currentGrainTable;
   private ByteBuffer grainDirectory;
   private ByteBuffer grainHeader;
+  private final Deflater deflater;
+  private final byte[] compressedGrain;
+  private final byte[] padding;
 
   public StreamVmdkWriter(final OutputStream output, long capacitySectors) {
     this.output = new DataOutputStream(output);
@@ -70,6 +76,9 @@ public class StreamVmdkWriter {
     gtSizeSectors = SparseUtil.bytesToSectors(gtSize);
     grainHeader = ByteBuffer.allocate(SparseUtil.DISKLIB_SECTOR_SIZE);
     grainHeader.order(ByteOrder.LITTLE_ENDIAN);
+    deflater = new Deflater();
+    compressedGrain = new byte[maxCompressedSize(SparseUtil.DEFAULT_GRAIN_SIZE_BYTES)];
+    padding = new byte[SparseUtil.DEFAULT_GRAIN_SIZE_BYTES];
     unflushedDataGrains = false;
     updateLastWriteTime(0);
   }
@@ -98,23 +107,15 @@ public class StreamVmdkWriter {
 
     addToGrainTable(sector);
 
-        /*
-         * Maximum .1% + 12 bytes expansion according to zlib manual. It seems
-         * silly to do expensive multiplication and division for this, so we
-         * approximate it conservatively as 2**-9 == .195% + 13.
-         */
-    int maxSize = grain.length + (grain.length >> 9) + 13;
-    byte[] compressed = new byte[maxSize];
-
-    Deflater deflater = new Deflater();
+    deflater.reset();
     deflater.setInput(grain);
     deflater.finish();
-    int cmpSize = deflater.deflate(compressed, 0, maxSize, Deflater.SYNC_FLUSH);
+    int cmpSize = deflater.deflate(compressedGrain, 0, compressedGrain.length, Deflater.SYNC_FLUSH);
     grainHeader.clear();
     grainHeader.putLong(sector);
     grainHeader.putInt(cmpSize);
     write(grainHeader.array(), 0, SparseUtil.STREAMED_GRAIN_HEADER_SIZE);
-    write(compressed, 0, cmpSize);
+    write(compressedGrain, 0, cmpSize);
     padTo(SparseUtil.DISKLIB_SECTOR_SIZE);
     nextSector += SparseUtil.DEFAULT_GRAIN_SIZE;
 
@@ -173,11 +174,20 @@ public class StreamVmdkWriter {
   }
 
   public void close() throws IOException {
-    output.close();
+    try {
+      output.close();
+    } finally {
+      deflater.end();
+    }
   }
 
-  private void write(byte[] data) throws IOException {
-    write(data, 0, data.length);
+  private static int maxCompressedSize(int length) {
+    /*
+     * Maximum .1% + 12 bytes expansion according to zlib manual. It seems
+     * silly to do expensive multiplication and division for this, so we
+     * approximate it conservatively as 2**-9 == .195% + 13.
+     */
+    return length + (length >> 9) + 13;
   }
 
   private void write(byte[] data, int offset, int length) throws IOException {
@@ -188,7 +198,8 @@ public class StreamVmdkWriter {
   private void padTo(int alignment) throws IOException {
     long desiredSize = SparseUtil.align(currentOffset, alignment);
     if (desiredSize > currentOffset) {
-      write(new byte[(int) (desiredSize - currentOffset)]);
+      assert desiredSize - currentOffset <= padding.length;
+      write(padding, 0, (int) (desiredSize - currentOffset));
     }
     assert currentOffset % alignment == 0;
   }
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.transfer.nfc;
+
+import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests {@link DiskWriter}.
+ */
+public class DiskWriterTest {
+
+  private static final int GRAIN_SECTORS = 128;
+  private static final int GRAIN_SIZE = GRAIN_SECTORS * NfcClient.SECTOR_SIZE;
+
+  @Test
+  public void testFullGrainIsSentAsSingleRun() throws Exception {
+    byte[] disk = new byte[2 * GRAIN_SIZE];
+    new Random(1).nextBytes(disk);
+    Arrays.fill(disk, GRAIN_SIZE, disk.length, (byte) 0);
+
+    FakeNfcReceiver receiver = writeByGrain(disk);
+
+    assertThat(receiver.getDisk(), is(disk));
+    assertThat(receiver.dataRuns, is(1));
+    assertThat(receiver.zeroRuns, is(1));
+  }
+
+  @Test
+  public void testSparseDiskDecodesLikeSectorWrites() throws Exception {
+    Random random = new Random(42);
+    byte[] disk = new byte[64 * GRAIN_SIZE];
+    for (int sector = 0; sector < disk.length / NfcClient.SECTOR_SIZE; sector++) {
+      // Runs of data and zero sectors of random length, with some bytes at the end of a sector only
+      int offset = sector * NfcClient.SECTOR_SIZE;
+      switch (random.nextInt(4)) {
+        case 0:
+          byte[] sectorData = new byte[NfcClient.SECTOR_SIZE];
+          random.nextBytes(sectorData);
+          System.arraycopy(sectorData, 0, disk, offset, sectorData.length);
+          break;
+        case 1:
+          disk[offset + NfcClient.SECTOR_SIZE - 1] = 1;
+          break;
+        default:
+          break;
+      }
+    }
+
+    FakeNfcReceiver grainReceiver = writeByGrain(disk);
+    FakeNfcReceiver sectorReceiver = writeBySector(disk);
+
+    assertThat(grainReceiver.getDisk(), is(disk));
+    assertThat(sectorReceiver.getDisk(), is(disk));
+    assertThat(grainReceiver.dataRuns, lessThan(sectorReceiver.dataRuns));
+  }
+
+  @Test
+  public void testSkippedGrainsAreSentAsZeros() throws Exception {
+    byte[] disk = new byte[16 * GRAIN_SIZE];
+    Random random = new Random(7);
+    FakeNfcReceiver receiver = new FakeNfcReceiver(disk.length / NfcClient.SECTOR_SIZE);
+    try (DiskWriter writer = new DiskWriter(receiver, disk.length / NfcClient.SECTOR_SIZE)) {
+      for (int grain = 1; grain < 16; grain += 3) {
+        byte[] grainData = new byte[GRAIN_SIZE];
+        random.nextBytes(grainData);
+        System.arraycopy(grainData, 0, disk, grain * GRAIN_SIZE, GRAIN_SIZE);
+        writer.writeGrain(grain * GRAIN_SECTORS, grainData, 0, GRAIN_SIZE);
+      }
+      writer.finalizeWrite();
+    }
+
+    assertThat(receiver.getDisk(), is(disk));
+    assertThat(receiver.dataRuns, is(5));
+  }
+
+  @Test
+  public void testRunsAreSplitAcrossMessages() throws Exception {
+    byte[] disk = new byte[4 * NfcClient.MAX_XFER_SIZE];
+    new Random(3).nextBytes(disk);
+
+    FakeNfcReceiver receiver = new FakeNfcReceiver(disk.length / NfcClient.SECTOR_SIZE);
+    try (DiskWriter writer = new DiskWriter(receiver, disk.length / NfcClient.SECTOR_SIZE)) {
+      writer.writeGrain(0, disk, 0, disk.length);
+      writer.finalizeWrite();
+    }
+
+    assertThat(receiver.getDisk(), is(disk));
+    assertThat(receiver.messages, greaterThan(4));
+    assertThat(receiver.dataRuns, is(receiver.messages));
+    assertThat(receiver.maxMessageSize, lessThanOrEqualTo(NfcClient.MAX_PAYLOAD_SIZE));
+  }
+
+  private static FakeNfcReceiver writeByGrain(byte[] disk) throws IOException {
+    FakeNfcReceiver receiver = new FakeNfcReceiver(disk.length / NfcClient.SECTOR_SIZE);
+    try (DiskWriter writer = new DiskWriter(receiver, disk.length / NfcClient.SECTOR_SIZE)) {
+      for (int offset = 0; offset < disk.length; offset += GRAIN_SIZE) {
+        writer.writeGrain(offset / NfcClient.SECTOR_SIZE, disk, offset, GRAIN_SIZE);
+      }
+      writer.finalizeWrite();
+    }
+    return receiver;
+  }
+
+  private static FakeNfcReceiver writeBySector(byte[] disk) throws IOException {
+    FakeNfcReceiver receiver = new FakeNfcReceiver(disk.length / NfcClient.SECTOR_SIZE);
+    try (DiskWriter writer = new DiskWriter(receiver, disk.length / NfcClient.SECTOR_SIZE)) {
+      for (int offset = 0; offset < disk.length; offset += NfcClient.SECTOR_SIZE) {
+        writer.writeGrain(offset / NfcClient.SECTOR_SIZE, disk, offset);
+      }
+      writer.finalizeWrite();
+    }
+    return receiver;
+  }
+
+  /**
+   * NFC client that decodes the FILE_DATA messages of a PUT_FILE session back into the disk contents instead of
+   * sending them to a host.
+   */
+  private static class FakeNfcReceiver extends NfcClient {
+    private final byte[] disk;
+    private long lba = 0;
+    private boolean complete = false;
+    private int messages = 0;
+    private int dataRuns = 0;
+    private int zeroRuns = 0;
+    private int maxMessageSize = 0;
+
+    FakeNfcReceiver(long capacityInSectors) {
+      disk = new byte[(int) capacityInSectors * SECTOR_SIZE];
+    }
+
+    byte[] getDisk() {
+      assertThat(complete, is(true));
+      assertThat(lba, is((long) disk.length / SECTOR_SIZE));
+      return disk;
+    }
+
+    @Override
+    void sendNfcMsg(ByteBuffer msg, ByteBuffer... payload) {
+      assertThat(msg.getInt(0), is(NFC_FILE_DATA));
+      assertThat(payload.length, is(1));
+      assertThat(complete, is(false));
+      ByteBuffer message = payload[0].slice().order(ByteOrder.LITTLE_ENDIAN);
+      payload[0].position(payload[0].limit());
+      maxMessageSize = Math.max(maxMessageSize, message.remaining());
+
+      assertThat(message.getInt(), is(FILE_DATA_HDR_MAGIC));
+      int size = message.getInt();
+      assertThat(message.remaining(), is(size));
+      if (size == 0) {
+        complete = true;
+        return;
+      }
+
+      messages++;
+      assertThat(message.getInt(), is(FILE_DSK_HDR_MAGIC));
+      assertThat(message.getInt(), is(0));
+      while (message.hasRemaining()) {
+        assertThat(message.getInt(), is(FILE_DSK_RLE_HDR_MAGIC));
+        int count = message.getInt();
+        if ((count & RLE_NON_ZERO_FLAG) != 0) {
+          count &= ~RLE_NON_ZERO_FLAG;
+          message.get(disk, (int) lba * SECTOR_SIZE, count * SECTOR_SIZE);
+          dataRuns++;
+        } else {
+          zeroRuns++;
+        }
+        assertThat(count, greaterThan(0));
+        lba += count;
+      }
+    }
+
+    @Override
+    ByteBuffer readNfcResponse() {
+      ByteBuffer reply = newNfcMsg(NFC_PUTFILE_DONE);
+      reply.flip();
+      return reply;
+    }
+  }
+}
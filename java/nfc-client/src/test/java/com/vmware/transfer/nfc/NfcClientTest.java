@@ -14,32 +14,59 @@
 package com.vmware.transfer.nfc;
 
 import com.vmware.transfer.streamVmdk.StreamVmdkReader;
+import com.vmware.transfer.streamVmdk.StreamVmdkWriter;
 
 import org.mockito.InOrder;
 import org.powermock.modules.testng.PowerMockTestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.testng.annotations.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyInt;
-import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.fail;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Tests {@link com.vmware.transfer.nfc.NfcClient}.
  */
 public class NfcClientTest extends PowerMockTestCase {
 
+  private static final Logger logger = LoggerFactory.getLogger(NfcClientTest.class);
+
   @Test
   public void testPutStreamOptimizedDisk() throws Exception {
     NfcClient nfcClient = spy(new NfcClient());
@@ -63,10 +90,243 @@ public class NfcClientTest extends PowerMockTestCase {
 
     InOrder inOrder = inOrder(writer, nfcClient);
     inOrder.verify(writer).writeDdb(ddb);
-    inOrder.verify(writer, times(128)).writeGrain(anyLong(), any(byte[].class), anyInt());
+    inOrder.verify(writer).writeGrain(eq(0L), any(byte[].class), eq(0), eq(65536));
     inOrder.verify(writer).finalizeWrite();
     inOrder.verify(nfcClient).close();
     inOrder.verify(writer).close();
     inOrder.verify(nfcClient).abort();
   }
+
+  /**
+   * A failed upload closes the disk before stopping the worker that inflates its grains, since a worker blocked
+   * reading the input does not notice being interrupted.
+   */
+  @Test
+  public void testPutStreamOptimizedDiskFailureClosesDiskFirst() throws Exception {
+    NfcClient nfcClient = spy(new NfcClient());
+    StreamVmdkReader disk = mock(StreamVmdkReader.class);
+    DiskWriter writer = mock(DiskWriter.class);
+
+    InputStream inputStream = new ByteArrayInputStream("test content".getBytes());
+    doReturn(disk).when(nfcClient).getStreamVmdkReader(inputStream);
+    when(disk.getAdapterType()).thenReturn("buslogic");
+    when(disk.getCapacityInSectors()).thenReturn(65536L);
+    when(disk.getDdb()).thenReturn(new LinkedHashMap<>());
+    doReturn(writer).when(nfcClient).putDisk("image destination path", "buslogic", 65536L);
+
+    // The second grain is only read once the disk is closed, like a blocked read of the input
+    CountDownLatch diskClosed = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      diskClosed.countDown();
+      return null;
+    }).when(disk).close();
+    when(disk.getNextGrain(any(byte[].class))).thenReturn(65536).thenAnswer(invocation -> {
+      while (true) {
+        try {
+          diskClosed.await();
+          throw new IOException("Stream closed");
+        } catch (InterruptedException e) {
+          // Ignore the interrupt
+        }
+      }
+    });
+    doThrow(new IOException("Broken pipe")).when(writer)
+        .writeGrain(eq(0L), any(byte[].class), eq(0), eq(65536));
+
+    long start = System.nanoTime();
+    try {
+      nfcClient.putStreamOptimizedDisk("image destination path", inputStream);
+      fail("Upload should have failed");
+    } catch (IOException e) {
+      assertThat(e.getMessage(), is("Broken pipe"));
+    }
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(5000L));
+
+    InOrder inOrder = inOrder(disk, writer, nfcClient);
+    inOrder.verify(disk).close();
+    inOrder.verify(writer).close();
+    inOrder.verify(nfcClient).abort();
+  }
+
+  /**
+   * Uploads a synthetic 256 MB stream-optimized disk to a local socket that decodes the NFC messages. Every data
+   * sector starts with its own LBA, so the sink can tell that grains arrive in disk order.
+   */
+  @Test
+  public void testPutStreamOptimizedDiskThroughput() throws Exception {
+    int grains = 4096;
+    long capacity = (long) grains * SparseUtil.DEFAULT_GRAIN_SIZE;
+    ByteArrayOutputStream vmdk = new ByteArrayOutputStream();
+    StreamVmdkWriter vmdkWriter = new StreamVmdkWriter(vmdk, capacity);
+    vmdkWriter.writeHeader(1, new LinkedHashMap<>());
+    byte[] grain = new byte[SparseUtil.DEFAULT_GRAIN_SIZE_BYTES];
+    ByteBuffer grainBuffer = ByteBuffer.wrap(grain).order(ByteOrder.LITTLE_ENDIAN);
+    long dataSectors = 0;
+    for (int i = 0; i < grains; i++) {
+      long lba = (long) i * SparseUtil.DEFAULT_GRAIN_SIZE;
+      // Every fourth grain is empty
+      if (i % 4 == 3) {
+        vmdkWriter.writeProgressGrain(lba);
+        continue;
+      }
+      for (int sector = 0; sector < SparseUtil.DEFAULT_GRAIN_SIZE; sector++) {
+        grainBuffer.putLong(sector * SparseUtil.DISKLIB_SECTOR_SIZE, lba + sector);
+      }
+      vmdkWriter.writeDataGrain(lba, grain);
+      dataSectors += lba == 0 ? SparseUtil.DEFAULT_GRAIN_SIZE - 1 : SparseUtil.DEFAULT_GRAIN_SIZE;
+    }
+    vmdkWriter.writeTrailer();
+    vmdkWriter.close();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      Future<long[]> sink = executor.submit(() -> receiveDisk(serverSocket));
+      NfcClient nfcClient = new NfcClient(SocketChannel.open(
+          new InetSocketAddress(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort())).socket());
+
+      long start = System.nanoTime();
+      long bytes = nfcClient.putStreamOptimizedDisk("[datastore] image/disk.vmdk",
+          new ByteArrayInputStream(vmdk.toByteArray()));
+      long elapsedNanos = System.nanoTime() - start;
+
+      long[] received = sink.get(1, TimeUnit.MINUTES);
+      assertThat(bytes, is(capacity * SparseUtil.DISKLIB_SECTOR_SIZE));
+      assertThat(received[0], is(capacity));
+      assertThat(received[1], is(dataSectors));
+      logger.info("Uploaded {} MB disk in {} ms, {} MB/s", bytes >> 20, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+          (bytes >> 20) * TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testGetFile() throws Exception {
+    byte[] file = new byte[1000000];
+    new Random(5).nextBytes(file);
+    int frameSize = 100000;
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      Future<?> server = executor.submit(() -> sendFile(serverSocket, file, frameSize));
+      NfcClient nfcClient = new NfcClient(SocketChannel.open(
+          new InetSocketAddress(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort())).socket());
+
+      NfcFileInputStream inputStream = nfcClient.getFile("[datastore] image/file");
+      assertThat(inputStream.getFileSize(), is((long) file.length));
+      ByteArrayOutputStream received = new ByteArrayOutputStream();
+      // Reads that are not aligned with the frames
+      byte[] buffer = new byte[65537];
+      int bytesRead;
+      while ((bytesRead = inputStream.read(buffer)) >= 0) {
+        received.write(buffer, 0, bytesRead);
+      }
+      nfcClient.abort();
+      server.get(1, TimeUnit.MINUTES);
+
+      assertThat(Arrays.equals(received.toByteArray(), file), is(true));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Fake NFC server for a single GET_FILE session of a raw file.
+   */
+  private static Void sendFile(ServerSocket serverSocket, byte[] file, int frameSize) throws IOException {
+    try (Socket socket = serverSocket.accept()) {
+      DataInputStream input = new DataInputStream(socket.getInputStream());
+      DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+      ByteBuffer msg = ByteBuffer.allocate(NfcClient.NFC_MESSAGE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+      input.readFully(msg.array());
+      assertThat(msg.getInt(0), is(NfcClient.NFC_FILE_GET));
+      input.readFully(new byte[msg.getInt(8)]);
+
+      ByteBuffer reply = ByteBuffer.allocate(NfcClient.NFC_MESSAGE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+      reply.putInt(NfcClient.NFC_FILE_PUT).putInt(NfcClient.NFC_RAW).putInt(0).putInt(0);
+      reply.putLong(file.length).putLong(file.length);
+      output.write(reply.array());
+
+      ByteBuffer fileDataHdr = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+      for (int offset = 0; offset < file.length; offset += frameSize) {
+        int length = Math.min(frameSize, file.length - offset);
+        output.write(replyMsg(NfcClient.NFC_FILE_DATA));
+        fileDataHdr.clear();
+        fileDataHdr.putInt(NfcClient.FILE_DATA_HDR_MAGIC).putInt(length);
+        output.write(fileDataHdr.array());
+        output.write(file, offset, length);
+      }
+      // An empty frame ends the file
+      output.write(replyMsg(NfcClient.NFC_FILE_DATA));
+      fileDataHdr.clear();
+      fileDataHdr.putInt(NfcClient.FILE_DATA_HDR_MAGIC).putInt(0);
+      output.write(fileDataHdr.array());
+      output.flush();
+      // Wait for the client to close the connection
+      assertThat(input.read(), is(-1));
+      return null;
+    }
+  }
+
+  /**
+   * Fake NFC server for a single PUT_FILE session of a disk.
+   *
+   * @return Number of sectors received and number of data sectors among them
+   */
+  private static long[] receiveDisk(ServerSocket serverSocket) throws IOException {
+    try (Socket socket = serverSocket.accept()) {
+      DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      OutputStream output = socket.getOutputStream();
+      ByteBuffer msg = ByteBuffer.allocate(NfcClient.NFC_MESSAGE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+      ByteBuffer data = ByteBuffer.allocate(NfcClient.MAX_PAYLOAD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+      input.readFully(msg.array());
+      assertThat(msg.getInt(0), is(NfcClient.NFC_FILE_PUT));
+      input.readFully(new byte[msg.getInt(12)]);
+
+      long lba = 0;
+      long dataSectors = 0;
+      while (true) {
+        input.readFully(msg.array());
+        assertThat(msg.getInt(0), is(NfcClient.NFC_FILE_DATA));
+        input.readFully(data.array(), 0, 8);
+        assertThat(data.getInt(0), is(NfcClient.FILE_DATA_HDR_MAGIC));
+        int size = data.getInt(4);
+        if (size == 0) {
+          break;
+        }
+        input.readFully(data.array(), 0, size);
+        assertThat(data.getInt(0), is(NfcClient.FILE_DSK_HDR_MAGIC));
+        assertThat(data.getInt(4), is(0));
+        int position = 8;
+        while (position < size) {
+          assertThat(data.getInt(position), is(NfcClient.FILE_DSK_RLE_HDR_MAGIC));
+          int count = data.getInt(position + 4);
+          position += 8;
+          if ((count & NfcClient.RLE_NON_ZERO_FLAG) != 0) {
+            count &= ~NfcClient.RLE_NON_ZERO_FLAG;
+            for (int sector = 0; sector < count; sector++) {
+              assertThat(data.getLong(position), is(lba + sector));
+              position += NfcClient.SECTOR_SIZE;
+            }
+            dataSectors += count;
+          }
+          lba += count;
+        }
+      }
+
+      // Reply to the end of the file and to the end of the session
+      output.write(replyMsg(NfcClient.NFC_PUTFILE_DONE));
+      input.readFully(msg.array());
+      assertThat(msg.getInt(0), is(NfcClient.NFC_SESSION_COMPLETE));
+      output.write(replyMsg(NfcClient.NFC_SESSION_COMPLETE));
+      output.flush();
+      return new long[]{lba, dataSectors};
+    }
+  }
+
+  private static byte[] replyMsg(int msgType) {
+    return ByteBuffer.allocate(NfcClient.NFC_MESSAGE_SIZE).order(ByteOrder.LITTLE_ENDIAN).putInt(msgType).array();
+  }
 }
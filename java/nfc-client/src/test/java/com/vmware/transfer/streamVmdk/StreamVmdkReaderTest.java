@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.transfer.streamVmdk;
+
+import com.vmware.transfer.nfc.SparseUtil;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collections;
+
+/**
+ * Tests {@link StreamVmdkReader}.
+ */
+public class StreamVmdkReaderTest {
+
+  @DataProvider(name = "InvalidGrainSizes")
+  public Object[][] invalidGrainSizes() {
+    return new Object[][]{
+        {SparseUtil.DEFAULT_GRAIN_SIZE_BYTES * 3 + 1},
+        {-1}
+    };
+  }
+
+  @Test(dataProvider = "InvalidGrainSizes", expectedExceptions = VmdkFormatException.class)
+  public void testInvalidGrainSize(int cmpSize) throws Exception {
+    StreamVmdkReader reader = new StreamVmdkReader(new ByteArrayInputStream(createDisk(cmpSize, false)));
+    reader.getNextGrain(new byte[SparseUtil.DEFAULT_GRAIN_SIZE_BYTES]);
+  }
+
+  @Test(dataProvider = "InvalidGrainSizes", expectedExceptions = VmdkFormatException.class)
+  public void testInvalidGrainSizeAfterMetadataGrain(int cmpSize) throws Exception {
+    StreamVmdkReader reader = new StreamVmdkReader(new ByteArrayInputStream(createDisk(cmpSize, true)));
+    reader.getNextGrain(new byte[SparseUtil.DEFAULT_GRAIN_SIZE_BYTES]);
+  }
+
+  /**
+   * Creates a disk whose first data grain claims the given compressed size, optionally preceded by an empty grain
+   * table marker.
+   */
+  private static byte[] createDisk(int cmpSize, boolean metadataGrain) throws Exception {
+    ByteArrayOutputStream disk = new ByteArrayOutputStream();
+    StreamVmdkWriter writer = new StreamVmdkWriter(disk, SparseUtil.DEFAULT_GRAIN_SIZE);
+    writer.writeHeader(1, Collections.emptyMap());
+
+    ByteBuffer grainHeader = ByteBuffer.allocate(SparseUtil.DISKLIB_SECTOR_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    if (metadataGrain) {
+      grainHeader.putLong(0);
+      grainHeader.putInt(0);
+      grainHeader.putInt(SparseUtil.GRAIN_MARKER_GRAIN_TABLE);
+      disk.write(grainHeader.array());
+      grainHeader.clear();
+    }
+    grainHeader.putLong(0);
+    grainHeader.putInt(cmpSize);
+    disk.write(grainHeader.array());
+    return disk.toByteArray();
+  }
+}
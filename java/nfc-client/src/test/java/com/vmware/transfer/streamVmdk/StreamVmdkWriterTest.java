@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015 VMware, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, without warranties or
+ * conditions of any kind, EITHER EXPRESS OR IMPLIED.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.vmware.transfer.streamVmdk;
+
+import com.vmware.transfer.nfc.SparseUtil;
+
+import com.sun.management.ThreadMXBean;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests {@link StreamVmdkWriter} by reading its output back with {@link StreamVmdkReader}.
+ */
+public class StreamVmdkWriterTest {
+
+  private File file;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    file = File.createTempFile("stream-optimized", ".vmdk");
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    file.delete();
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    int grains = 2048;
+    StreamVmdkWriter writer = new StreamVmdkWriter(new FileOutputStream(file),
+        (long) grains * SparseUtil.DEFAULT_GRAIN_SIZE);
+    writer.writeHeader(1, Collections.emptyMap());
+    byte[] grain = new byte[SparseUtil.DEFAULT_GRAIN_SIZE_BYTES];
+    for (int i = 0; i < grains; i++) {
+      // Every third grain is empty and only reported as progress
+      if (i % 3 == 2) {
+        writer.writeProgressGrain((long) i * SparseUtil.DEFAULT_GRAIN_SIZE);
+      } else {
+        fillGrain(grain, i);
+        writer.writeDataGrain((long) i * SparseUtil.DEFAULT_GRAIN_SIZE, grain);
+      }
+    }
+    writer.writeTrailer();
+    writer.close();
+
+    StreamVmdkReader reader = new StreamVmdkReader(new FileInputStream(file));
+    assertThat(reader.getCapacityInSectors(), is((long) grains * SparseUtil.DEFAULT_GRAIN_SIZE));
+    assertThat(reader.getGrainSize(), is(SparseUtil.DEFAULT_GRAIN_SIZE));
+
+    byte[] expected = new byte[SparseUtil.DEFAULT_GRAIN_SIZE_BYTES];
+    int dataGrains = 0;
+    int grainSize;
+    while ((grainSize = reader.getNextGrain(grain)) >= 0) {
+      if (grainSize == 0) {
+        continue;
+      }
+      int index = (int) (reader.getCurrentLba() / SparseUtil.DEFAULT_GRAIN_SIZE);
+      fillGrain(expected, index);
+      assertThat(grainSize, is(SparseUtil.DEFAULT_GRAIN_SIZE_BYTES));
+      assertThat(Arrays.equals(grain, expected), is(true));
+      dataGrains++;
+    }
+    reader.close();
+
+    assertThat(dataGrains, is(grains - grains / 3));
+  }
+
+  /**
+   * Writes and reads back a 512 MB disk. The codecs and buffers are reused for every grain, so apart from the grain
+   * tables nothing is allocated per grain, and the only zlib streams are the one deflater and the one inflater that
+   * are ended when the streams are closed.
+   */
+  @Test
+  public void testLargeDiskDoesNotAllocatePerGrain() throws Exception {
+    if (!(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean)) {
+      throw new SkipException("Thread allocation counters are not available");
+    }
+    ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    if (!threadBean.isThreadAllocatedMemorySupported() || !threadBean.isThreadAllocatedMemoryEnabled()) {
+      throw new SkipException("Thread allocation counters are not available");
+    }
+    long threadId = Thread.currentThread().getId();
+    int grains = 8192;
+    long maxAllocatedBytes = grains * 64L;
+
+    StreamVmdkWriter writer = new StreamVmdkWriter(new FileOutputStream(file),
+        (long) grains * SparseUtil.DEFAULT_GRAIN_SIZE);
+    writer.writeHeader(1, Collections.emptyMap());
+    byte[] grain = new byte[SparseUtil.DEFAULT_GRAIN_SIZE_BYTES];
+    long allocatedBytes = threadBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < grains; i++) {
+      fillGrain(grain, i);
+      writer.writeDataGrain((long) i * SparseUtil.DEFAULT_GRAIN_SIZE, grain);
+    }
+    allocatedBytes = threadBean.getThreadAllocatedBytes(threadId) - allocatedBytes;
+    writer.writeTrailer();
+    writer.close();
+    assertThat(allocatedBytes, lessThan(maxAllocatedBytes));
+
+    // The first grain sets up the inflater and the compressed grain buffer
+    StreamVmdkReader reader = new StreamVmdkReader(new FileInputStream(file));
+    assertThat(reader.getNextGrain(grain), is(SparseUtil.DEFAULT_GRAIN_SIZE_BYTES));
+    int dataGrains = 1;
+    allocatedBytes = threadBean.getThreadAllocatedBytes(threadId);
+    while (reader.getNextGrain(grain) > 0) {
+      dataGrains++;
+    }
+    allocatedBytes = threadBean.getThreadAllocatedBytes(threadId) - allocatedBytes;
+    reader.close();
+
+    assertThat(dataGrains, is(grains));
+    assertThat(allocatedBytes, lessThan(maxAllocatedBytes));
+  }
+
+  private static void fillGrain(byte[] grain, int index) {
+    Arrays.fill(grain, (byte) index);
+    for (int i = 0; i < 4; i++) {
+      grain[i] = (byte) (index >>> (i * 8));
+      grain[grain.length - 4 + i] = (byte) (index >>> (i * 8));
+    }
+  }
+}
@@ -14,6 +14,8 @@
 package com.vmware.photon.controller.rootscheduler;
 
 import com.vmware.photon.controller.common.logging.LoggingConfiguration;
+import com.vmware.photon.controller.common.thrift.ThriftModule;
+import com.vmware.photon.controller.common.tracing.TracingConfig;
 import com.vmware.photon.controller.common.zookeeper.ZookeeperConfig;
 import com.vmware.photon.controller.scheduler.gen.PlaceParams;
 
@@ -72,6 +74,11 @@ public class Config {
   @JsonProperty("find_timeout_ms")
   private long findTimeoutMs = 60000;
 
+  // Selector threads shared by the thrift clients, including the place requests sent to hosts.
+  @Min(1)
+  @JsonProperty("client_selector_threads")
+  private int clientSelectorThreads = ThriftModule.DEFAULT_CLIENT_SELECTOR_THREADS;
+
   @Valid
   @NotNull
   private LoggingConfiguration logging = new LoggingConfiguration();
@@ -80,6 +87,9 @@ public class Config {
   @NotNull
   private ZookeeperConfig zookeeper = new ZookeeperConfig();
 
+  @Valid
+  private TracingConfig tracing;
+
   @Valid
   @NotNull
   private SchedulerConfig root = new SchedulerConfig();
@@ -121,6 +131,10 @@ public class Config {
     return storagePath;
   }
 
+  public int getClientSelectorThreads() {
+    return clientSelectorThreads;
+  }
+
   public LoggingConfiguration getLogging() {
     return logging;
   }
@@ -129,6 +143,13 @@ public class Config {
     return zookeeper;
   }
 
+  /**
+   * Returns the request tracing config, null if tracing is disabled.
+   */
+  public TracingConfig getTracing() {
+    return tracing;
+  }
+
   public SchedulerConfig getRoot() {
     return root;
   }
@@ -19,6 +19,7 @@ import com.vmware.photon.controller.common.config.ConfigBuilder;
 import com.vmware.photon.controller.common.logging.LoggingFactory;
 import com.vmware.photon.controller.common.thrift.ThriftModule;
 import com.vmware.photon.controller.common.thrift.ThriftServiceModule;
+import com.vmware.photon.controller.common.tracing.TracingConfig;
 import com.vmware.photon.controller.common.zookeeper.ZookeeperModule;
 import com.vmware.photon.controller.host.gen.Host;
 import com.vmware.photon.controller.scheduler.gen.Scheduler;
@@ -53,10 +54,15 @@ public class Main {
 
     new LoggingFactory(config.getLogging(), "rootscheduler").configure();
 
+    TracingConfig tracing = config.getTracing();
+    if (tracing != null) {
+      tracing.enable("root-scheduler");
+    }
+
     Injector injector = Guice.createInjector(
         new RootSchedulerModule(config),
         new ZookeeperModule(config.getZookeeper()),
-        new ThriftModule(),
+        new ThriftModule(config.getClientSelectorThreads()),
         new ThriftServiceModule<>(new TypeLiteral<Scheduler.AsyncClient>() {}),
         new ThriftServiceModule<>(new TypeLiteral<Chairman.AsyncClient>() {}),
         new ThriftServiceModule<>(new TypeLiteral<Host.AsyncClient>() {}));
@@ -15,8 +15,15 @@ package com.vmware.photon.controller.rootscheduler.service;
 
 import com.vmware.photon.controller.common.dcp.DcpRestClient;
 import com.vmware.photon.controller.common.logging.LoggingUtils;
+import com.vmware.photon.controller.common.thrift.CircuitBreaker;
+import com.vmware.photon.controller.common.thrift.CircuitBreakerOptions;
+import com.vmware.photon.controller.common.thrift.CircuitBreakerRegistry;
+import com.vmware.photon.controller.common.thrift.ClientPoolOptions;
+import com.vmware.photon.controller.common.thrift.ClientPoolUtils;
 import com.vmware.photon.controller.common.thrift.TAsyncClientFactory;
 import com.vmware.photon.controller.common.thrift.ThriftFactory;
+import com.vmware.photon.controller.common.tracing.Span;
+import com.vmware.photon.controller.common.tracing.Tracer;
 import com.vmware.photon.controller.common.zookeeper.ServiceNodeEventHandler;
 import com.vmware.photon.controller.common.zookeeper.gen.ServerAddress;
 import com.vmware.photon.controller.resource.gen.Disk;
@@ -52,6 +59,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -68,7 +76,8 @@ import java.util.concurrent.TimeUnit;
  * The main responsibility of this class it to pick hosts for VM/disk placements. The
  * placement algorithm is roughly based on Sparrow scheduler (1), and it works as follows:
  *
- * 1. Randomly choose n hosts (n = 4 by default) that satisfy all the resource constraints.
+ * 1. Randomly choose n hosts (n = 4 by default) that satisfy all the resource constraints,
+ *    skipping hosts whose circuit breaker is open because of recent failures.
  * 2. Send place requests to the chosen hosts and wait for responses with a timeout.
  * 3. After receiving all the responses or reaching the timeout, return the host with
  *    the highest placement score. See {@link ScoreCalculator} for the placement score
@@ -78,11 +87,14 @@ import java.util.concurrent.TimeUnit;
  */
 public class SchedulerService implements RootScheduler.Iface, ServiceNodeEventHandler {
   private static final Logger logger = LoggerFactory.getLogger(SchedulerService.class);
+  private static final CircuitBreakerOptions CIRCUIT_BREAKER_OPTIONS = new CircuitBreakerOptions();
+  private static final ClientPoolOptions HOST_CLIENT_OPTIONS = new ClientPoolOptions();
   private final Config config;
   private ConstraintChecker checker;
   private final ScoreCalculator scoreCalculator;
   private final TAsyncClientFactory<Scheduler.AsyncClient> clientFactory;
   private final TProtocolFactory protocolFactory;
+  private final CircuitBreakerRegistry circuitBreakerRegistry;
 
   @Inject
   public SchedulerService(Config config,
@@ -90,12 +102,14 @@ public class SchedulerService implements RootScheduler.Iface, ServiceNodeEventHa
                           DcpRestClient dcpRestClient,
                           ScoreCalculator scoreCalculator,
                           TAsyncClientFactory<Scheduler.AsyncClient> clientFactory,
-                          ThriftFactory thriftFactory) {
+                          ThriftFactory thriftFactory,
+                          CircuitBreakerRegistry circuitBreakerRegistry) {
     this.config = config;
     this.checker = checker;
     this.clientFactory = clientFactory;
     this.protocolFactory = thriftFactory.create("Scheduler");
     this.scoreCalculator = scoreCalculator;
+    this.circuitBreakerRegistry = circuitBreakerRegistry;
 
     if (this.checker instanceof InMemoryConstraintChecker) {
       final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
@@ -166,6 +180,18 @@ public class SchedulerService implements RootScheduler.Iface, ServiceNodeEventHa
   @Override
   public PlaceResponse place(PlaceRequest request) throws TException {
     initRequestId(request);
+    Tracer.join(request.getTracing_info());
+    Span span = Tracer.startSpan("place");
+    try {
+      PlaceResponse response = doPlace(request);
+      span.tag("result", String.valueOf(response.getResult()));
+      return response;
+    } finally {
+      span.finish();
+    }
+  }
+
+  private PlaceResponse doPlace(PlaceRequest request) throws TException {
     logger.info("Place request: {}", request);
     Stopwatch watch = Stopwatch.createStarted();
 
@@ -187,15 +213,29 @@ public class SchedulerService implements RootScheduler.Iface, ServiceNodeEventHa
     final CountDownLatch done = new CountDownLatch(candidates.size());
     for (Map.Entry<String, ServerAddress> entry : candidates.entrySet()) {
       ServerAddress address = entry.getValue();
+      InetSocketAddress socketAddress = new InetSocketAddress(address.getHost(), address.getPort());
+      CircuitBreaker circuitBreaker = circuitBreakerRegistry.getCircuitBreaker(socketAddress, CIRCUIT_BREAKER_OPTIONS);
+      if (!circuitBreaker.allowRequest()) {
+        logger.warn("Skipping {}, circuit breaker is {}", entry, circuitBreaker.getState());
+        done.countDown();
+        continue;
+      }
+
+      Stopwatch callWatch = Stopwatch.createStarted();
       TNonblockingSocket socket;
       try {
-        socket = new TNonblockingSocket(address.getHost(), address.getPort());
+        socket = ClientPoolUtils.createSocket(socketAddress, HOST_CLIENT_OPTIONS);
       } catch (IOException ex) {
         logger.warn("Failed to create socket for {}", address, ex);
+        circuitBreaker.recordFailure();
         done.countDown();
         continue;
       }
       Scheduler.AsyncClient client = clientFactory.create(protocolFactory, socket);
+      Span hostSpan = Tracer.startDetachedSpan("host_place").tag("host", entry.getKey());
+      if (request.isSetTracing_info()) {
+        Tracer.inject(request.getTracing_info(), hostSpan);
+      }
       client.host_place(request, new AsyncMethodCallback<Scheduler.AsyncClient.host_place_call>() {
         @Override
         public void onComplete(Scheduler.AsyncClient.host_place_call call) {
@@ -208,6 +248,8 @@ public class SchedulerService implements RootScheduler.Iface, ServiceNodeEventHa
             return;
           }
           logger.info("Received a place response from {}: {}", entry, response);
+          hostSpan.tag("result", String.valueOf(response.getResult())).finish();
+          circuitBreaker.recordSuccess(callWatch.elapsed(TimeUnit.MILLISECONDS));
           returnCodes.add(response.getResult());
           if (response.getResult() == PlaceResultCode.OK) {
             okResponses.add(response);
@@ -220,6 +262,8 @@ public class SchedulerService implements RootScheduler.Iface, ServiceNodeEventHa
         public void onError(Exception ex) {
           initRequestId(request);
           logger.warn("Failed to get a placement response from {}: {}", entry, ex);
+          hostSpan.tag("error", ex.toString()).finish();
+          circuitBreaker.recordFailure();
           done.countDown();
           socket.close();
         }
@@ -34,6 +34,7 @@ public class ConfigTest {
         ConfigTest.class.getResource("/config.yml").getPath());
 
     assertThat(config.getPort(), is(15000));
+    assertThat(config.getClientSelectorThreads(), is(4));
     SchedulerConfig root = config.getRoot();
     assertThat(root.getPlaceTimeoutMs(), is(10000L));
     assertThat(root.getFindTimeoutMs(), is(60000L));
@@ -49,6 +50,9 @@ public class ConfigTest {
     assertThat(zkConfig.getQuorum(), is("localhost:2181"));
     ZookeeperConfig.RetryConfig retryConfig = zkConfig.getRetries();
     assertThat(retryConfig.getMaxRetries(), is(3));
+
+    assertThat(config.getTracing().getFile(), is("/tmp/traces.json"));
+    assertThat(config.getTracing().getSampleRate(), is(0.5));
   }
 
   @Test
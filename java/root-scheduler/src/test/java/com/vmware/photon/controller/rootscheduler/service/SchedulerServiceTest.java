@@ -14,6 +14,8 @@
 package com.vmware.photon.controller.rootscheduler.service;
 
 import com.vmware.photon.controller.common.dcp.DcpRestClient;
+import com.vmware.photon.controller.common.thrift.CircuitBreakerOptions;
+import com.vmware.photon.controller.common.thrift.CircuitBreakerRegistry;
 import com.vmware.photon.controller.common.thrift.TAsyncClientFactory;
 import com.vmware.photon.controller.common.thrift.ThriftFactory;
 import com.vmware.photon.controller.common.zookeeper.gen.ServerAddress;
@@ -49,6 +51,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
+import java.net.InetSocketAddress;
 import java.util.HashSet;
 import java.util.Random;
 import java.util.Set;
@@ -102,7 +105,8 @@ public class SchedulerServiceTest {
       doReturn(ImmutableMap.of()).when(checker)
           .getCandidates(anyListOf(ResourceConstraint.class), anyInt());
       return new Object[][]{
-        {new SchedulerService(config, checker, dcpRestClient, scoreCalculator, clientFactory, thriftFactory)},
+        {new SchedulerService(config, checker, dcpRestClient, scoreCalculator, clientFactory, thriftFactory,
+            new CircuitBreakerRegistry())},
     };
   }
 
@@ -132,7 +136,8 @@ public class SchedulerServiceTest {
     doReturn(matches).when(checker)
         .getCandidates(anyListOf(ResourceConstraint.class), anyInt());
     return new Object[][]{
-        {new SchedulerService(config, checker, dcpRestClient, scoreCalculator, clientFactory, thriftFactory)},
+        {new SchedulerService(config, checker, dcpRestClient, scoreCalculator, clientFactory, thriftFactory,
+            new CircuitBreakerRegistry())},
     };
   }
 
@@ -209,4 +214,40 @@ public class SchedulerServiceTest {
     assertThat(response, is(scoreCalculator.pickBestResponse(responses)));
     verify(client, times(4)).host_place(any(), any());
   }
+
+  /**
+   * Test that hosts with an open circuit breaker are not sent place requests.
+   */
+  @Test
+  public void testSkipsOpenCircuitBreaker() throws Exception {
+    ImmutableMap<String, ServerAddress> matches = ImmutableMap.of(
+        "h1", new ServerAddress("h1", 1234),
+        "h2", new ServerAddress("h2", 1234));
+    doReturn(matches).when(checker)
+        .getCandidates(anyListOf(ResourceConstraint.class), anyInt());
+
+    CircuitBreakerRegistry circuitBreakerRegistry = new CircuitBreakerRegistry();
+    circuitBreakerRegistry.getCircuitBreaker(new InetSocketAddress("h1", 1234),
+        new CircuitBreakerOptions().setMinimumCalls(1)).recordFailure();
+    RootScheduler.Iface scheduler = new SchedulerService(config, checker, dcpRestClient, scoreCalculator,
+        clientFactory, thriftFactory, circuitBreakerRegistry);
+
+    Set<PlaceResponse> responses = new HashSet<>();
+    doAnswer((InvocationOnMock invocation) -> {
+      Object[] arguments = invocation.getArguments();
+      AsyncMethodCallback<Scheduler.AsyncClient.host_place_call> call =
+          (AsyncMethodCallback<Scheduler.AsyncClient.host_place_call>) arguments[1];
+      PlaceResponse response = new PlaceResponse(PlaceResultCode.OK);
+      response.setScore(new Score(random.nextInt(), random.nextInt()));
+      responses.add(response);
+      Scheduler.AsyncClient.host_place_call placeResponse = mock(Scheduler.AsyncClient.host_place_call.class);
+      doReturn(response).when(placeResponse).getResult();
+      call.onComplete(placeResponse);
+      return null;
+    }).when(client).host_place(any(), any());
+
+    PlaceResponse response = scheduler.place(new PlaceRequest());
+    assertThat(response, is(scoreCalculator.pickBestResponse(responses)));
+    verify(client, times(1)).host_place(any(), any());
+  }
 }
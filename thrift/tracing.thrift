@@ -16,4 +16,8 @@ namespace py gen.tracing
 
 struct TracingInfo {
   1: optional string request_id
+  // Id of the caller's span, the parent of spans recorded by the callee
+  2: optional string span_id
+  // Whether the request is traced, decided by the first service that handles it
+  3: optional bool sampled
 }